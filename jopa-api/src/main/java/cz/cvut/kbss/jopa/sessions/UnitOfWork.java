@@ -133,6 +133,22 @@ public interface UnitOfWork extends Session {
      */
     <T> T readObject(Class<T> cls, Object identifier, Descriptor descriptor);
 
+    /**
+     * Retrieves objects with the specified identifiers.
+     * <p>
+     * This is a bulk version of {@link #readObject(Class, Object, Descriptor)}. Objects which are not already managed by
+     * this Unit of Work may be loaded from the storage together.
+     *
+     * @param cls         The type of the returned objects
+     * @param identifiers Instance identifiers
+     * @param descriptor  Entity descriptor, used for all the objects
+     * @return List of retrieved objects corresponding to the specified identifiers (in the same order). It contains
+     * {@code null} for identifiers for which no matching object exists in the repository
+     * @throws NullPointerException    If {@code cls}, {@code identifiers} or {@code descriptor} is {@code null}
+     * @throws OWLPersistenceException If an error occurs during object loading
+     */
+    <T> List<T> readObjects(Class<T> cls, List<?> identifiers, Descriptor descriptor);
+
     /**
      * Retrieves a reference to an object with the specified identifier.
      * <p>
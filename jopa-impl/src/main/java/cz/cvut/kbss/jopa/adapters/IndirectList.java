@@ -23,11 +23,24 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
     private final List<E> internalList;
 
+    /**
+     * List this list is a view of, {@code null} if this is not a sublist.
+     */
+    private final IndirectList<E> parent;
+
+    /**
+     * Number of leading elements which have not been modified since the list was last written into the storage.
+     * <p>
+     * Negative if the list has been modified other than by appending elements.
+     */
+    private int storedSize;
+
     /**
      * No-arg constructor to allow clone building.
      */
     IndirectList() {
         this.internalList = new ArrayList<>();
+        this.parent = null;
     }
 
     /**
@@ -42,17 +55,70 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     public IndirectList(Object owner, Field f, UnitOfWorkImpl uow, List<E> referencedList) {
         super(owner, f, uow);
         this.internalList = Objects.requireNonNull(referencedList);
+        this.parent = null;
+        this.storedSize = referencedList.size();
+    }
+
+    private IndirectList(IndirectList<E> parent, List<E> subList) {
+        super(parent.owner, parent.field, parent.persistenceContext);
+        this.internalList = subList;
+        this.parent = parent;
+        this.storedSize = -1;
+    }
+
+    /**
+     * Gets the number of leading elements of this list which have not been modified since the list was last written
+     * into the storage.
+     * <p>
+     * A non-negative value means that the list has only been appended to since then.
+     *
+     * @return Number of unmodified leading elements, {@code -1} if the list has been modified in another way
+     * @see #markStored()
+     */
+    public int getStoredSize() {
+        return storedSize;
+    }
+
+    /**
+     * Marks the current content of this list as written into the storage.
+     */
+    public void markStored() {
+        this.storedSize = internalList.size();
+    }
+
+    private void appended() {
+        if (parent != null) {
+            // Appending to a sublist inserts elements into the parent list
+            parent.modified();
+        }
+    }
+
+    private void modified() {
+        this.storedSize = -1;
+        if (parent != null) {
+            parent.modified();
+        }
+    }
+
+    private void added(int index) {
+        if (index == internalList.size()) {
+            appended();
+        } else {
+            modified();
+        }
     }
 
     @Override
     public boolean add(E arg0) {
         internalList.add(arg0);
+        appended();
         persistChange();    // There is always a change
         return true;
     }
 
     @Override
     public void add(int arg0, E arg1) {
+        added(arg0);
         internalList.add(arg0, arg1);
         persistChange();
     }
@@ -61,6 +127,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     public boolean addAll(Collection<? extends E> c) {
         boolean res = internalList.addAll(c);
         if (res) {
+            appended();
             persistChange();
         }
         return res;
@@ -68,8 +135,14 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
     @Override
     public boolean addAll(int index, Collection<? extends E> c) {
+        final boolean append = index == internalList.size();
         boolean res = internalList.addAll(index, c);
         if (res) {
+            if (append) {
+                appended();
+            } else {
+                modified();
+            }
             persistChange();
         }
         return res;
@@ -78,6 +151,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     @Override
     public void clear() {
         internalList.clear();
+        modified();
         persistChange();
     }
 
@@ -130,6 +204,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     public boolean remove(Object arg0) {
         boolean res = internalList.remove(arg0);
         if (res) {
+            modified();
             persistChange();
         }
         return res;
@@ -138,6 +213,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     @Override
     public E remove(int arg0) {
         E elem = internalList.remove(arg0);
+        modified();
         persistChange();
         return elem;
     }
@@ -146,6 +222,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     public boolean removeAll(Collection<?> arg0) {
         boolean res = internalList.removeAll(arg0);
         if (res) {
+            modified();
             persistChange();
         }
         return res;
@@ -155,6 +232,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     public boolean retainAll(Collection<?> arg0) {
         boolean res = internalList.retainAll(arg0);
         if (res) {
+            modified();
             persistChange();
         }
         return res;
@@ -163,6 +241,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
     @Override
     public E set(int arg0, E arg1) {
         E elem = internalList.set(arg0, arg1);
+        modified();
         persistChange();
         return elem;
     }
@@ -174,7 +253,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
 
     @Override
     public List<E> subList(int fromIndex, int toIndex) {
-        return new IndirectList<>(owner, field, persistenceContext, internalList.subList(fromIndex, toIndex));
+        return new IndirectList<>(this, internalList.subList(fromIndex, toIndex));
     }
 
     @Override
@@ -234,6 +313,7 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
         @Override
         public void remove() {
             it.remove();
+            IndirectList.this.modified();
             IndirectList.this.persistChange();
         }
     }
@@ -279,17 +359,20 @@ public class IndirectList<E> extends IndirectCollection<List<E>> implements List
         @Override
         public void remove() {
             lit.remove();
+            IndirectList.this.modified();
             IndirectList.this.persistChange();
         }
 
         @Override
         public void set(E e) {
             lit.set(e);
+            IndirectList.this.modified();
             IndirectList.this.persistChange();
         }
 
         @Override
         public void add(E e) {
+            IndirectList.this.added(lit.nextIndex());
             lit.add(e);
             IndirectList.this.persistChange();
         }
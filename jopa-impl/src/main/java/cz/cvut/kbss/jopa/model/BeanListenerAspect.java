@@ -14,17 +14,11 @@
  */
 package cz.cvut.kbss.jopa.model;
 
-import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
-import cz.cvut.kbss.jopa.model.metamodel.EntityType;
-import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
-import cz.cvut.kbss.jopa.sessions.validator.AttributeModificationValidator;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.*;
 import org.aspectj.lang.reflect.FieldSignature;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import java.io.Serializable;
 import java.lang.reflect.Field;
@@ -32,8 +26,6 @@ import java.lang.reflect.Field;
 @Aspect
 public class BeanListenerAspect {
 
-    private static final Logger LOG = LoggerFactory.getLogger(BeanListenerAspect.class);
-
     public interface Manageable {
         void setPersistenceContext(UnitOfWorkImpl uow);
 
@@ -111,27 +103,11 @@ public class BeanListenerAspect {
             return;
         }
 
-        try {
-            final Field field = ((FieldSignature) thisJoinPoint.getSignature()).getField();
-            if (EntityPropertiesUtils.isFieldTransient(field)) {
-                return;
-            }
-            final FieldSpecification<?, ?> fieldSpec = getFieldSpecification(entity,
-                                                                             thisJoinPoint.getSignature().getName(),
-                                                                             persistenceContext);
-            AttributeModificationValidator.verifyCanModify(fieldSpec);
-            persistenceContext.attributeChanged(entity, field);
-        } catch (SecurityException e) {
-            LOG.error(e.getMessage(), e);
-            throw new OWLPersistenceException(e.getMessage());
+        final Field field = ((FieldSignature) thisJoinPoint.getSignature()).getField();
+        if (EntityPropertiesUtils.isFieldTransient(field)) {
+            return;
         }
-    }
-
-    private static FieldSpecification<?, ?> getFieldSpecification(Object entity, String fieldName,
-                                                           UnitOfWorkImpl persistenceContext) {
-        final EntityType<?> et = persistenceContext.getMetamodel().entity(entity.getClass());
-        assert et != null;
-        return et.getFieldSpecification(fieldName);
+        FieldAccessHooks.fieldWritten(entity, field, persistenceContext);
     }
 
     @Before("getter()")
@@ -142,13 +118,13 @@ public class BeanListenerAspect {
             return;
         }
         final UnitOfWorkImpl persistenceContext = ((Manageable) entity).getPersistenceContext();
-        if (persistenceContext == null || !persistenceContext.contains(entity)) {
+        if (persistenceContext == null) {
             return;
         }
         final Field field = ((FieldSignature) thisJoinPoint.getSignature()).getField();
         if (EntityPropertiesUtils.isFieldTransient(field)) {
             return;
         }
-        persistenceContext.loadEntityField(entity, field);
+        FieldAccessHooks.fieldRead(entity, field, persistenceContext);
     }
 }
@@ -233,7 +233,7 @@ public class EntityManagerImpl implements AbstractEntityManager, Wrapper {
         } else {
             attVal = mergeInternal(attVal, descriptor);
         }
-        EntityPropertiesUtils.setFieldValue(at.getJavaField(), merged, attVal);
+        EntityPropertiesUtils.setAttributeValue(at, merged, attVal);
     }
 
     @Override
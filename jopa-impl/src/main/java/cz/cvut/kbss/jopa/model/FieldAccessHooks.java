@@ -0,0 +1,169 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model;
+
+import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.model.metamodel.EntityType;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.model.metamodel.PropertyFieldIndex;
+import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.sessions.validator.AttributeModificationValidator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Field;
+
+/**
+ * Field access hooks called directly by entity classes enhanced at build time.
+ * <p>
+ * The {@code enhance-entities} goal of the JOPA Maven plugin rewrites reads and writes of persistent fields in entity
+ * classes to call {@link #beforeGet(Object, int)} and {@link #afterSet(Object, int)}. This is an alternative to
+ * weaving {@link BeanListenerAspect} into the entity classes - the enhancer resolves which fields are persistent (and
+ * not transient) at build time and passes the {@link PropertyFieldIndex} slot of the field as a constant. The hooks
+ * return right away for instances which are not managed by a persistence context and otherwise resolve the field by
+ * its slot, so no join point is created and no field lookup by name is done on field access. The fields are resolved
+ * from the metamodel once per entity class, and whether the entity is managed is checked only when a field which has
+ * not been loaded yet is read.
+ * <p>
+ * Entity classes should be either enhanced or woven, not both.
+ */
+public final class FieldAccessHooks {
+
+    private static final Logger LOG = LoggerFactory.getLogger(FieldAccessHooks.class);
+
+    /**
+     * Field indexes of entity classes, resolved on the first access to a field of the class.
+     */
+    private static final ClassValue<FieldIndexHolder> FIELD_INDEXES = new ClassValue<FieldIndexHolder>() {
+        @Override
+        protected FieldIndexHolder computeValue(Class<?> type) {
+            return new FieldIndexHolder(type);
+        }
+    };
+
+    private FieldAccessHooks() {
+        throw new AssertionError();
+    }
+
+    /**
+     * Called before a persistent field of the specified entity is read.
+     * <p>
+     * Loads the field value if the entity is managed and the field has not been loaded yet.
+     *
+     * @param entity Entity whose field is being read
+     * @param slot   Slot of the field in the {@link PropertyFieldIndex} of the entity type
+     */
+    public static void beforeGet(Object entity, int slot) {
+        if (!(entity instanceof BeanListenerAspect.Manageable)) {
+            return;
+        }
+        final UnitOfWorkImpl persistenceContext = ((BeanListenerAspect.Manageable) entity).getPersistenceContext();
+        if (persistenceContext == null) {
+            return;
+        }
+        persistenceContext.loadEntityFieldIfManaged(entity, getField(entity, slot, persistenceContext));
+    }
+
+    /**
+     * Called after a persistent field of the specified entity has been written.
+     * <p>
+     * Records the change if the entity is managed by a persistence context with an active transaction.
+     *
+     * @param entity Entity whose field has been written
+     * @param slot   Slot of the field in the {@link PropertyFieldIndex} of the entity type
+     */
+    public static void afterSet(Object entity, int slot) {
+        if (!(entity instanceof BeanListenerAspect.Manageable)) {
+            return;
+        }
+        final UnitOfWorkImpl persistenceContext = ((BeanListenerAspect.Manageable) entity).getPersistenceContext();
+        if (persistenceContext == null || !persistenceContext.isInTransaction()) {
+            return;
+        }
+        final FieldSpecification<?, ?> fieldSpec = getField(entity, slot, persistenceContext);
+        AttributeModificationValidator.verifyCanModify(fieldSpec);
+        persistenceContext.attributeChanged(entity, fieldSpec.getJavaField());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> FieldSpecification<? super T, ?> getField(T entity, int slot,
+                                                                 UnitOfWorkImpl persistenceContext) {
+        final MetamodelImpl metamodel = persistenceContext.getMetamodel();
+        final PropertyFieldIndex<?> index = FIELD_INDEXES.get(entity.getClass()).get(metamodel);
+        if (slot < 0 || slot >= index.size()) {
+            throw new OWLPersistenceException("No field with slot " + slot + " found in " +
+                    metamodel.entity(entity.getClass()) +
+                    ". The entity class was probably enhanced against a different version of the class hierarchy.");
+        }
+        return (FieldSpecification<? super T, ?>) index.getField(slot);
+    }
+
+    static void fieldRead(Object entity, Field field, UnitOfWorkImpl persistenceContext) {
+        if (!persistenceContext.contains(entity)) {
+            return;
+        }
+        persistenceContext.loadEntityField(entity, field);
+    }
+
+    static void fieldWritten(Object entity, Field field, UnitOfWorkImpl persistenceContext) {
+        try {
+            final EntityType<?> et = persistenceContext.getMetamodel().entity(entity.getClass());
+            assert et != null;
+            final FieldSpecification<?, ?> fieldSpec = et.getFieldSpecification(field.getName());
+            AttributeModificationValidator.verifyCanModify(fieldSpec);
+            persistenceContext.attributeChanged(entity, field);
+        } catch (SecurityException e) {
+            LOG.error(e.getMessage(), e);
+            throw new OWLPersistenceException(e.getMessage());
+        }
+    }
+
+    /**
+     * Holds the {@link PropertyFieldIndex} of the entity type corresponding to an entity class.
+     * <p>
+     * The index is bound to the metamodel it was resolved from, so that it is rebuilt when the class is used with a
+     * different persistence unit.
+     */
+    private static final class FieldIndexHolder {
+
+        private final Class<?> type;
+
+        private volatile Resolved resolved;
+
+        private FieldIndexHolder(Class<?> type) {
+            this.type = type;
+        }
+
+        private PropertyFieldIndex<?> get(MetamodelImpl metamodel) {
+            Resolved current = resolved;
+            if (current == null || current.metamodel != metamodel) {
+                current = new Resolved(metamodel, PropertyFieldIndex.of(metamodel.entity(type)));
+                this.resolved = current;
+            }
+            return current.index;
+        }
+    }
+
+    private static final class Resolved {
+
+        private final MetamodelImpl metamodel;
+        private final PropertyFieldIndex<?> index;
+
+        private Resolved(MetamodelImpl metamodel, PropertyFieldIndex<?> index) {
+            this.metamodel = metamodel;
+            this.index = index;
+        }
+    }
+}
@@ -57,15 +57,99 @@ public final class JOPAPersistenceProperties extends PersistenceProperties {
     public static final String CACHE_SWEEP_RATE = "cz.cvut.jopa.cache.sweepRate";
 
     /**
-     * Type of the second level cache. Currently supported are {@literal ttl} and {@literal lru}.
+     * Type of the second level cache. Currently supported are {@literal ttl}, {@literal lru}, {@literal striped_lru}
+     * and {@literal weighted_lru}.
+     * <p>
+     * {@literal striped_lru} is an LRU cache split into independently locked segments, which scales better under
+     * concurrent access at the cost of the eviction order being only approximately LRU.
+     * <p>
+     * {@literal weighted_lru} is an LRU cache limited by the estimated memory retained by the cached entities instead
+     * of their number, see {@link #CACHE_MAX_WEIGHT}.
      */
     public static final String CACHE_TYPE = "cz.cvut.jopa.cache.type";
 
     /**
      * Capacity of the LRU second level cache.
+     * <p>
+     * Applies also to the {@literal striped_lru} cache.
      */
     public static final String LRU_CACHE_CAPACITY = "cz.cvut.jopa.cache.lru.capacity";
 
+    /**
+     * Maximum weight of the {@literal weighted_lru} second level cache, in bytes.
+     * <p>
+     * Weight of the cached entities is estimated based on their attribute values.
+     */
+    public static final String CACHE_MAX_WEIGHT = "cz.cvut.jopa.cache.weighted.maxWeight";
+
+    /**
+     * Number of entity query results loaded from the repository together.
+     * <p>
+     * When set to a value greater than one, identifiers of entities returned by a typed query are collected into
+     * batches of the specified size and each batch is loaded using a single storage request. Otherwise, query results
+     * are loaded one by one (default).
+     */
+    public static final String QUERY_BATCH_FETCH_SIZE = "cz.cvut.jopa.query.batchFetchSize";
+
+    /**
+     * Maximum number of parsed queries cached in the persistence unit.
+     * <p>
+     * Parsing of SOQL and SPARQL query strings is cached, so repeated creation of the same query (including named
+     * queries) only binds parameters to the cached result. The least recently used queries are discarded when the
+     * capacity is exceeded. Setting this to {@literal 0} disables the cache. Defaults to {@literal 512}.
+     */
+    public static final String QUERY_PLAN_CACHE_SIZE = "cz.cvut.jopa.query.planCacheSize";
+
+    /**
+     * Number of newly persisted entities written into the repository together.
+     * <p>
+     * When set to a value greater than one, axioms of persisted entities are buffered and written into the storage in
+     * batches of the specified size. References between entities buffered in the same batch are resolved in memory.
+     * Existence checks (e.g., when persisting an entity with an assigned identifier) take the buffered entities into
+     * account without flushing the buffer. The buffer is flushed also before any other read from the storage, before
+     * query execution and on commit. Otherwise, entities are written into the storage immediately when persisted
+     * (default).
+     */
+    public static final String PERSIST_BATCH_SIZE = "cz.cvut.jopa.persist.batchSize";
+
+    /**
+     * Whether attribute updates should write only the difference between the previous and the new attribute value.
+     * <p>
+     * When enabled, changing a data or annotation property attribute within a transaction removes only the values that
+     * are no longer present and adds the new ones, instead of removing all values of the property from the storage
+     * and re-inserting the current ones. The previous values are taken from the state loaded into the persistence
+     * context, so values which were not loaded (e.g., string literals in a different language than the one used by
+     * the attribute) are not touched by the update. Other attributes are always updated using the regular approach.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    public static final String DELTA_UPDATES = "cz.cvut.jopa.update.delta";
+
+    /**
+     * Whether attribute changes should be written into the storage only when the persistence context is flushed.
+     * <p>
+     * By default, every attribute change made within a transaction is immediately written into the storage. When this
+     * setting is enabled, changes are only recorded and all the changed attributes of an entity are written using a
+     * single update on flush, i.e., before query execution, before loading data from the storage and on commit. An
+     * attribute changed several times is thus written only once. Changes of an instance are also written when it is
+     * detached or when the persistence context is cleared, so that changes made to the detached instance are ignored.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    public static final String DEFERRED_UPDATES = "cz.cvut.jopa.update.deferred";
+
+    /**
+     * Time-to-live of query attribute values of entities retrieved from the second level cache. In seconds.
+     * <p>
+     * Values of {@link cz.cvut.kbss.jopa.model.annotations.Sparql} query attributes are by default re-evaluated every
+     * time an entity (or an entity referencing it) is retrieved from the second level cache. When set to a positive
+     * value, query attribute values evaluated less than the specified number of seconds ago are reused. Values of an
+     * entity are re-evaluated also after a transaction modifying the entity is committed.
+     * <p>
+     * Defaults to {@literal 0}, i.e., query attributes are always re-evaluated.
+     */
+    public static final String QUERY_ATTRIBUTE_CACHE_TTL = "cz.cvut.jopa.cache.queryAttributes.ttl";
+
     /**
      * Disable integrity constraints validation on entity/field load.
      */
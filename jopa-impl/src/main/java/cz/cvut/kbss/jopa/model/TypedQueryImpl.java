@@ -45,6 +45,8 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
 
     private Descriptor descriptor;
 
+    private int batchFetchSize = 1;
+
     public TypedQueryImpl(final QueryHolder query, final Class<X> resultType,
                           final ConnectionWrapper connection, MetamodelProvider metamodelProvider) {
         super(query, connection);
@@ -57,6 +59,18 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
         this.uow = uow;
     }
 
+    /**
+     * Sets the number of entity results loaded from the repository together.
+     * <p>
+     * Values lower than two mean that entity results are loaded one by one.
+     *
+     * @param batchFetchSize Batch size
+     * @see JOPAPersistenceProperties#QUERY_BATCH_FETCH_SIZE
+     */
+    public void setBatchFetchSize(int batchFetchSize) {
+        this.batchFetchSize = batchFetchSize;
+    }
+
     @Override
     public List<X> getResultList() {
         ensureOpen();
@@ -74,6 +88,9 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
     private List<X> getResultListImpl() throws OntoDriverException {
         final boolean isEntityType = metamodelProvider.isEntityType(resultType);
         final Descriptor instDescriptor = descriptor != null ? descriptor : new EntityDescriptor();
+        if (isEntityType && batchFetchSize > 1) {
+            return getEntityResultListInBatches(instDescriptor);
+        }
         final List<X> res = new ArrayList<>();
         executeQuery(rs -> {
             if (isEntityType) {
@@ -85,19 +102,44 @@ public class TypedQueryImpl<X> extends AbstractQuery implements TypedQuery<X> {
         return res;
     }
 
-    private Optional<X> loadEntityInstance(ResultRow resultRow, Descriptor instanceDescriptor) {
+    private List<X> getEntityResultListInBatches(Descriptor instanceDescriptor) throws OntoDriverException {
+        final List<URI> identifiers = new ArrayList<>();
+        executeQuery(rs -> identifiers.add(getEntityIdentifier(rs)));
+        final List<X> res = new ArrayList<>(identifiers.size());
+        for (int i = 0; i < identifiers.size(); i += batchFetchSize) {
+            final List<URI> batch = identifiers.subList(i, Math.min(i + batchFetchSize, identifiers.size()));
+            loadEntityInstances(batch, instanceDescriptor, res);
+        }
+        return res;
+    }
+
+    private void loadEntityInstances(List<URI> identifiers, Descriptor instanceDescriptor, List<X> target) {
+        verifyUnitOfWorkAvailable();
+        uow.readObjects(resultType, identifiers, instanceDescriptor).stream().filter(Objects::nonNull)
+           .forEach(target::add);
+    }
+
+    private void verifyUnitOfWorkAvailable() {
         if (uow == null) {
             throw new IllegalStateException("Cannot load entity instance without Unit of Work.");
         }
+    }
+
+    private URI getEntityIdentifier(ResultRow resultRow) {
         try {
             assert resultRow.isBound(0);
-            final URI uri = URI.create(resultRow.getString(0));
-            return Optional.ofNullable(uow.readObject(resultType, uri, instanceDescriptor));
+            return URI.create(resultRow.getString(0));
         } catch (OntoDriverException e) {
             throw new OWLPersistenceException("Unable to load query result as entity of type " + resultType, e);
         }
     }
 
+    private Optional<X> loadEntityInstance(ResultRow resultRow, Descriptor instanceDescriptor) {
+        verifyUnitOfWorkAvailable();
+        final URI uri = getEntityIdentifier(resultRow);
+        return Optional.ofNullable(uow.readObject(resultType, uri, instanceDescriptor));
+    }
+
     private Optional<X> loadResultValue(ResultRow resultRow) {
         try {
             return Optional.of(resultRow.getObject(0, resultType));
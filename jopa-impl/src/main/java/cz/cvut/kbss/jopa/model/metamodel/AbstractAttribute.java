@@ -19,13 +19,16 @@ import cz.cvut.kbss.jopa.model.annotations.CascadeType;
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
 import cz.cvut.kbss.jopa.model.annotations.ParticipationConstraint;
 import cz.cvut.kbss.jopa.oom.converter.ConverterWrapper;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
+import cz.cvut.kbss.jopa.utils.FieldAccessorHolder;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 
-public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
+public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y>, FieldAccessorHolder {
 
     private final Field field;
+    private final FieldAccessor fieldAccessor;
 
     private final ManagedType<X> declaringType;
 
@@ -57,6 +60,7 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
 
     AbstractAttribute(AbstractAttributeBuilder<X, Y> builder) {
         this.field = builder.field;
+        this.fieldAccessor = builder.field != null ? FieldAccessor.of(builder.field) : null;
         this.declaringType = builder.declaringType;
         this.attributeType = builder.attributeType;
         this.iri = builder.iri;
@@ -113,6 +117,11 @@ public abstract class AbstractAttribute<X, Y> implements Attribute<X, Y> {
         return field;
     }
 
+    @Override
+    public FieldAccessor getFieldAccessor() {
+        return fieldAccessor;
+    }
+
     @Override
     public FetchType getFetchType() {
         return fetchType;
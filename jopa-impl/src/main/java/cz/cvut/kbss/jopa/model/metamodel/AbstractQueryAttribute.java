@@ -17,6 +17,8 @@ package cz.cvut.kbss.jopa.model.metamodel;
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
 import cz.cvut.kbss.jopa.model.annotations.ParticipationConstraint;
 import cz.cvut.kbss.jopa.oom.converter.ConverterWrapper;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
+import cz.cvut.kbss.jopa.utils.FieldAccessorHolder;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Member;
@@ -27,7 +29,7 @@ import java.lang.reflect.Member;
  * @param <X> The represented type that contains the attribute
  * @param <Y> The type of the represented attribute
  */
-public abstract class AbstractQueryAttribute<X, Y> implements QueryAttribute<X, Y> {
+public abstract class AbstractQueryAttribute<X, Y> implements QueryAttribute<X, Y>, FieldAccessorHolder {
 
     /**
      * Name of the variable which may be used in the query and would be replaced by the identifier of the entity owning
@@ -40,6 +42,7 @@ public abstract class AbstractQueryAttribute<X, Y> implements QueryAttribute<X,
     private final boolean enableReferencingAttributes;
 
     private final Field field;
+    private final FieldAccessor fieldAccessor;
 
     private final ManagedType<X> declaringType;
 
@@ -55,6 +58,7 @@ public abstract class AbstractQueryAttribute<X, Y> implements QueryAttribute<X,
         this.query = query;
         this.enableReferencingAttributes = enableReferencingAttributes;
         this.field = field;
+        this.fieldAccessor = field != null ? FieldAccessor.of(field) : null;
         this.declaringType = declaringType;
         this.fetchType = fetchType;
         this.constraints = constraints;
@@ -91,6 +95,11 @@ public abstract class AbstractQueryAttribute<X, Y> implements QueryAttribute<X,
         return field;
     }
 
+    @Override
+    public FieldAccessor getFieldAccessor() {
+        return fieldAccessor;
+    }
+
     @Override
     public FetchType getFetchType() {
         return fetchType;
@@ -25,6 +25,8 @@ public class EntityTypeImpl<X> extends AbstractIdentifiableType<X> implements En
 
     private InheritanceType inheritanceType;
 
+    private PropertyFieldIndex<X> fieldIndex;
+
     public EntityTypeImpl(String name, Class<X> javaType, final IRI iri) {
         super(javaType);
         this.name = name;
@@ -81,6 +83,25 @@ public class EntityTypeImpl<X> extends AbstractIdentifiableType<X> implements En
         this.inheritanceType = inheritanceType;
     }
 
+    /**
+     * Gets index of fields of this entity type by the properties they are mapped to.
+     * <p>
+     * The index is built when the metamodel is initialized.
+     *
+     * @return Field index
+     */
+    public PropertyFieldIndex<X> getFieldIndex() {
+        if (fieldIndex == null) {
+            // Entity type not initialized by the metamodel builder
+            this.fieldIndex = PropertyFieldIndex.build(this);
+        }
+        return fieldIndex;
+    }
+
+    void initFieldIndex() {
+        this.fieldIndex = PropertyFieldIndex.build(this);
+    }
+
     @Override
     public String toString() {
         return "EntityType{" + name + "<" + iri + ">}";
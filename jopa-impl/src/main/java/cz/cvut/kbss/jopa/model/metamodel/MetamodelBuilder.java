@@ -60,6 +60,7 @@ public class MetamodelBuilder {
         classFinder.getAttributeConverters().forEach(converterResolver::registerConverter);
         classFinder.getEntities().forEach(this::processOWLClass);
         classFinder.getResultSetMappings().forEach(mappingProcessor::buildMapper);
+        initFieldIndexes();
     }
 
     /**
@@ -72,6 +73,15 @@ public class MetamodelBuilder {
     public void buildMetamodel(Set<Class<?>> entityClasses) {
         assert entityClasses != null;
         entityClasses.forEach(this::processOWLClass);
+        initFieldIndexes();
+    }
+
+    /**
+     * Field indexes can be built only after the whole type hierarchy is processed, as they include inherited fields.
+     */
+    private void initFieldIndexes() {
+        typeMap.values().stream().filter(t -> t.getPersistenceType() == Type.PersistenceType.ENTITY)
+               .forEach(t -> ((EntityTypeImpl<?>) t).initFieldIndex());
     }
 
     private <X> void processOWLClass(final Class<X> cls) {
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model.metamodel;
+
+import cz.cvut.kbss.jopa.vocabulary.RDF;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Immutable lookup table of fields of an entity type by the identifier of the property they are mapped to.
+ * <p>
+ * Every persistent field (attributes, types, properties and query attributes) is assigned a slot, so that per-field
+ * state of an instance can be kept in a plain array or bit set indexed by the slot. Properties which are not mapped by
+ * any attribute resolve to the slot of the {@link cz.cvut.kbss.jopa.model.annotations.Properties} field, if the entity
+ * type has one.
+ * <p>
+ * Slots are assigned deterministically: fields declared in supertypes come first, fields declared in the same class
+ * are ordered by name. A field therefore has the same slot in all entity types inheriting it, and the slot can be
+ * computed from the class files alone, which is what the build-time entity enhancer does.
+ *
+ * @param <X> Entity type
+ */
+public final class PropertyFieldIndex<X> {
+
+    /**
+     * Slot of properties without a mapped field.
+     */
+    public static final int NO_SLOT = -1;
+
+    private static final URI RDF_TYPE = URI.create(RDF.TYPE);
+
+    private final Map<URI, Integer> slots;
+    private final Map<Field, Integer> fieldSlots;
+    private final FieldSpecification<? super X, ?>[] fields;
+    private final int propertiesSlot;
+
+    private PropertyFieldIndex(List<FieldSpecification<? super X, ?>> ordered) {
+        @SuppressWarnings("unchecked") final FieldSpecification<? super X, ?>[] fieldArray =
+                new FieldSpecification[ordered.size()];
+        this.fields = ordered.toArray(fieldArray);
+        final Map<URI, Integer> slotMap = new HashMap<>(fields.length);
+        final Map<Field, Integer> fieldSlotMap = new HashMap<>(fields.length);
+        int types = NO_SLOT;
+        int properties = NO_SLOT;
+        for (int i = 0; i < fields.length; i++) {
+            final FieldSpecification<? super X, ?> fs = fields[i];
+            fieldSlotMap.put(fs.getJavaField(), i);
+            if (fs instanceof Attribute) {
+                slotMap.put(((Attribute<? super X, ?>) fs).getIRI().toURI(), i);
+            } else if (fs instanceof TypesSpecification) {
+                types = i;
+            } else if (fs instanceof PropertiesSpecification) {
+                properties = i;
+            }
+        }
+        if (types != NO_SLOT) {
+            slotMap.put(RDF_TYPE, types);
+        }
+        this.propertiesSlot = properties;
+        this.slots = Collections.unmodifiableMap(slotMap);
+        this.fieldSlots = Collections.unmodifiableMap(fieldSlotMap);
+    }
+
+    /**
+     * Gets slot of the field to which values of the specified property are mapped.
+     *
+     * @param property Property identifier
+     * @return Field slot or {@link #NO_SLOT} if there is no such field
+     */
+    public int slotOf(URI property) {
+        final Integer slot = slots.get(property);
+        return slot != null ? slot : propertiesSlot;
+    }
+
+    /**
+     * Gets slot of the specified field.
+     *
+     * @param field Field
+     * @return Field slot or {@link #NO_SLOT} if the field is not a persistent field of the entity type
+     */
+    public int slotOf(Field field) {
+        final Integer slot = fieldSlots.get(field);
+        return slot != null ? slot : NO_SLOT;
+    }
+
+    /**
+     * Gets field with the specified slot.
+     *
+     * @param slot Field slot, as returned by {@link #slotOf(URI)}
+     * @return Field specification
+     */
+    public FieldSpecification<? super X, ?> getField(int slot) {
+        return fields[slot];
+    }
+
+    /**
+     * Gets the number of slots in this index.
+     *
+     * @return Number of slots
+     */
+    public int size() {
+        return fields.length;
+    }
+
+    /**
+     * Builds an index of fields of the specified entity type.
+     *
+     * @param et  Entity type
+     * @param <X> Entity type
+     * @return New index
+     */
+    public static <X> PropertyFieldIndex<X> build(EntityType<X> et) {
+        final List<FieldSpecification<? super X, ?>> fields = new ArrayList<>(et.getAttributes());
+        fields.addAll(et.getQueryAttributes());
+        if (et.getTypes() != null) {
+            fields.add(et.getTypes());
+        }
+        if (et.getProperties() != null) {
+            fields.add(et.getProperties());
+        }
+        fields.sort(Comparator.comparingInt((FieldSpecification<? super X, ?> fs) -> hierarchyDepth(
+                fs.getJavaField().getDeclaringClass())).thenComparing(fs -> fs.getJavaField().getName()));
+        return new PropertyFieldIndex<>(fields);
+    }
+
+    private static int hierarchyDepth(Class<?> cls) {
+        int depth = 0;
+        for (Class<?> c = cls.getSuperclass(); c != null; c = c.getSuperclass()) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Gets field index of the specified entity type.
+     * <p>
+     * Uses the index built during metamodel initialization if it is available.
+     *
+     * @param et  Entity type
+     * @param <X> Entity type
+     * @return Field index
+     */
+    public static <X> PropertyFieldIndex<X> of(EntityType<X> et) {
+        final PropertyFieldIndex<X> index =
+                et instanceof EntityTypeImpl ? ((EntityTypeImpl<X>) et).getFieldIndex() : null;
+        return index != null ? index : build(et);
+    }
+}
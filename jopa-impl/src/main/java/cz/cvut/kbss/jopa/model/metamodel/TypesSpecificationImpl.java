@@ -15,14 +15,17 @@
 package cz.cvut.kbss.jopa.model.metamodel;
 
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
+import cz.cvut.kbss.jopa.utils.FieldAccessorHolder;
 
 import java.lang.reflect.Field;
 import java.util.Set;
 
-public class TypesSpecificationImpl<X, Y> implements TypesSpecification<X, Y> {
+public class TypesSpecificationImpl<X, Y> implements TypesSpecification<X, Y>, FieldAccessorHolder {
     private final ManagedType<X> declaringType;
     private final FetchType fetchType;
     private final Field javaField;
+    private final FieldAccessor fieldAccessor;
     private final Class<Y> elementType;
     private final boolean inferred;
 
@@ -32,6 +35,7 @@ public class TypesSpecificationImpl<X, Y> implements TypesSpecification<X, Y> {
         this.declaringType = declaringType;
         this.fetchType = fetchType;
         this.javaField = javaField;
+        this.fieldAccessor = javaField != null ? FieldAccessor.of(javaField) : null;
         this.elementType = elementType;
         this.inferred = inferred;
     }
@@ -51,6 +55,11 @@ public class TypesSpecificationImpl<X, Y> implements TypesSpecification<X, Y> {
         return javaField;
     }
 
+    @Override
+    public FieldAccessor getFieldAccessor() {
+        return fieldAccessor;
+    }
+
     @Override
     public Class<Set> getJavaType() {
         return Set.class;
@@ -32,6 +32,41 @@ class AxiomDescriptorFactory {
         final AxiomDescriptor descriptor = new AxiomDescriptor(NamedResource.create(loadingParams.getIdentifier()));
         loadingParams.getDescriptor().getContexts().forEach(descriptor::addSubjectContext);
         descriptor.addAssertion(Assertion.createClassAssertion(false));
+        addForEntityType(loadingParams, et, descriptor);
+        return descriptor;
+    }
+
+    /**
+     * Creates a descriptor for loading an instance of the specified entity type or any of its subtypes.
+     * <p>
+     * The descriptor contains class assertion and assertions of attributes of all the entity types in the hierarchy,
+     * so that the actual entity type can be resolved and the instance reconstructed from the result of a single storage
+     * request.
+     *
+     * @param loadingParams Loading parameters
+     * @param rootEt        Root of the entity type hierarchy
+     * @return Descriptor of axioms of all the entity types in the hierarchy
+     */
+    AxiomDescriptor createForPolymorphicEntityLoading(LoadingParameters<?> loadingParams,
+                                                      AbstractIdentifiableType<?> rootEt) {
+        final AxiomDescriptor descriptor = new AxiomDescriptor(NamedResource.create(loadingParams.getIdentifier()));
+        loadingParams.getDescriptor().getContexts().forEach(descriptor::addSubjectContext);
+        descriptor.addAssertion(Assertion.createClassAssertion(false));
+        addForHierarchy(loadingParams, rootEt, descriptor);
+        return descriptor;
+    }
+
+    private void addForHierarchy(LoadingParameters<?> loadingParams, AbstractIdentifiableType<?> type,
+                                 AxiomDescriptor descriptor) {
+        if (type.getPersistenceType() == Type.PersistenceType.ENTITY) {
+            addForEntityType(loadingParams, (EntityType<?>) type, descriptor);
+        }
+        for (AbstractIdentifiableType<?> subtype : type.getSubtypes()) {
+            addForHierarchy(loadingParams, subtype, descriptor);
+        }
+    }
+
+    private void addForEntityType(LoadingParameters<?> loadingParams, EntityType<?> et, AxiomDescriptor descriptor) {
         addForTypes(loadingParams, et, descriptor);
         addForProperties(loadingParams, et, descriptor);
         for (Attribute<?, ?> att : et.getAttributes()) {
@@ -41,7 +76,6 @@ class AxiomDescriptorFactory {
             final Assertion a = createAssertion(att, loadingParams.getDescriptor().getAttributeDescriptor(att));
             addAssertionToDescriptor(loadingParams.getDescriptor(), att, descriptor, a);
         }
-        return descriptor;
     }
 
     private void addForTypes(LoadingParameters<?> loadingParams, EntityType<?> et, AxiomDescriptor descriptor) {
@@ -118,26 +118,86 @@ class AxiomValueGatherer {
         appendProperties(propertiesToRemove, properties, context);
     }
 
+    /**
+     * Adds all the values gathered by the specified gatherer.
+     *
+     * @param other Gatherer of values of the same subject
+     */
+    void addAll(AxiomValueGatherer other) {
+        assert getSubjectIdentifier().equals(other.getSubjectIdentifier());
+        final AxiomValueDescriptor otherDescriptor = other.axiomDescriptor;
+        for (Assertion a : otherDescriptor.getAssertions()) {
+            addValues(a, otherDescriptor.getAssertionValues(a), otherDescriptor.getAssertionContext(a));
+        }
+        simpleListDescriptors.addAll(other.simpleListDescriptors);
+        referencedListDescriptors.addAll(other.referencedListDescriptors);
+        if (other.typesToAdd != null) {
+            addTypes(other.typesToAdd, other.typesContext);
+        }
+        if (other.typesToRemove != null) {
+            removeTypes(other.typesToRemove, other.typesContext);
+        }
+        if (other.propertiesToAdd != null) {
+            addProperties(other.propertiesToAdd, other.propertiesContext);
+        }
+        if (other.propertiesToRemove != null) {
+            removeProperties(other.propertiesToRemove, other.propertiesContext);
+        }
+    }
+
+    /**
+     * Checks whether the gathered values classify the subject as an instance of the specified class.
+     *
+     * @param type     Class identifier
+     * @param contexts Contexts in which the class assertion is looked for. Empty collection matches any context
+     * @return {@code true} if the class assertion is among the gathered values, {@code false} otherwise
+     */
+    boolean hasType(URI type, Collection<URI> contexts) {
+        final Assertion classAssertion = Assertion.createClassAssertion(false);
+        if (isInContexts(axiomDescriptor.getAssertionContext(classAssertion), contexts) &&
+                axiomDescriptor.getAssertionValues(classAssertion).stream().anyMatch(v -> type.equals(v.getValue()))) {
+            return true;
+        }
+        return typesToAdd != null && isInContexts(typesContext, contexts) && typesToAdd.contains(type);
+    }
+
+    private static boolean isInContexts(URI context, Collection<URI> contexts) {
+        return contexts.isEmpty() || contexts.contains(context);
+    }
+
+    AxiomValueDescriptor getAxiomDescriptor() {
+        return axiomDescriptor;
+    }
+
     void persist(Connection connection) {
         try {
             connection.persist(axiomDescriptor);
-            if (typesToAdd != null) {
-                connection.types().addTypes(axiomDescriptor.getSubject(), typesContext, typesToAdd);
-            }
-            if (propertiesToAdd != null) {
-                connection.properties().addProperties(axiomDescriptor.getSubject(), propertiesContext, propertiesToAdd);
-            }
-            for (SimpleListValueDescriptor d : simpleListDescriptors) {
-                connection.lists().persistSimpleList(d);
-            }
-            for (ReferencedListValueDescriptor d : referencedListDescriptors) {
-                connection.lists().persistReferencedList(d);
-            }
+            persistTypesPropertiesAndLists(connection);
         } catch (OntoDriverException e) {
             throw new StorageAccessException(e);
         }
     }
 
+    /**
+     * Persists the gathered types, properties and lists, i.e., everything except the axiom descriptor values.
+     * <p>
+     * This allows the axiom descriptors of multiple subjects to be persisted in bulk.
+     */
+    void persistTypesPropertiesAndLists(Connection connection) throws OntoDriverException {
+        if (typesToAdd != null) {
+            connection.types().addTypes(axiomDescriptor.getSubject(), typesContext, typesToAdd);
+        }
+        if (propertiesToAdd != null) {
+            connection.properties().addProperties(axiomDescriptor.getSubject(), propertiesContext, propertiesToAdd);
+        }
+        for (SimpleListValueDescriptor d : simpleListDescriptors) {
+            connection.lists().persistSimpleList(d);
+        }
+        for (ReferencedListValueDescriptor d : referencedListDescriptors) {
+            connection.lists().persistReferencedList(d);
+        }
+    }
+
     void update(Connection connection) {
         try {
             connection.update(axiomDescriptor);
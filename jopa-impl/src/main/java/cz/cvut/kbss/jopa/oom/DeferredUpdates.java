@@ -0,0 +1,129 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.oom;
+
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Collects attribute changes whose writing into the storage is deferred until flush.
+ * <p>
+ * Changes are tracked per entity instance, so that all the changed attributes of an entity can be written using one
+ * update. Repeated changes of the same attribute are recorded only once, the value is read from the entity when the
+ * update is written.
+ */
+class DeferredUpdates {
+
+    private final Map<Object, EntityUpdate<?>> updates = new IdentityHashMap<>();
+    // Keeps the updates in the order in which the entities were first changed
+    private final List<EntityUpdate<?>> order = new ArrayList<>();
+
+    /**
+     * Records a change of the specified attribute.
+     *
+     * @param entity     Changed entity
+     * @param identifier Entity identifier
+     * @param fieldSpec  Changed attribute
+     * @param descriptor Entity descriptor
+     */
+    <T> void add(T entity, URI identifier, FieldSpecification<? super T, ?> fieldSpec, Descriptor descriptor) {
+        @SuppressWarnings("unchecked") EntityUpdate<T> update = (EntityUpdate<T>) updates.get(entity);
+        if (update == null) {
+            update = new EntityUpdate<>(entity, identifier, descriptor);
+            updates.put(entity, update);
+            order.add(update);
+        }
+        update.fieldSpecs.add(fieldSpec);
+    }
+
+    /**
+     * Discards changes recorded for instances of the specified class with the specified identifier.
+     *
+     * @param identifier Entity identifier
+     * @param cls        Entity class
+     */
+    void remove(URI identifier, Class<?> cls) {
+        final Iterator<EntityUpdate<?>> it = order.iterator();
+        while (it.hasNext()) {
+            final EntityUpdate<?> update = it.next();
+            if (update.identifier.equals(identifier) && cls.isInstance(update.entity)) {
+                it.remove();
+                updates.remove(update.entity);
+            }
+        }
+    }
+
+    /**
+     * Removes changes recorded for the specified entity instance.
+     *
+     * @param entity Changed entity
+     * @return Recorded entity update, {@code null} if there are no changes recorded for the instance
+     */
+    EntityUpdate<?> remove(Object entity) {
+        final EntityUpdate<?> update = updates.remove(entity);
+        if (update != null) {
+            order.remove(update);
+        }
+        return update;
+    }
+
+    boolean isEmpty() {
+        return order.isEmpty();
+    }
+
+    /**
+     * Gets all the recorded changes and clears this registry.
+     *
+     * @return Recorded entity updates, in the order in which the entities were first changed
+     */
+    List<EntityUpdate<?>> drain() {
+        final List<EntityUpdate<?>> result = new ArrayList<>(order);
+        clear();
+        return result;
+    }
+
+    void clear() {
+        updates.clear();
+        order.clear();
+    }
+
+    static final class EntityUpdate<T> {
+        private final T entity;
+        private final URI identifier;
+        private final Descriptor descriptor;
+        private final Set<FieldSpecification<? super T, ?>> fieldSpecs = new LinkedHashSet<>();
+
+        private EntityUpdate(T entity, URI identifier, Descriptor descriptor) {
+            this.entity = entity;
+            this.identifier = identifier;
+            this.descriptor = descriptor;
+        }
+
+        T getEntity() {
+            return entity;
+        }
+
+        Descriptor getDescriptor() {
+            return descriptor;
+        }
+
+        Set<FieldSpecification<? super T, ?>> getFieldSpecs() {
+            return fieldSpecs;
+        }
+    }
+}
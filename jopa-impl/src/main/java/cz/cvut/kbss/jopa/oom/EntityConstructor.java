@@ -24,15 +24,12 @@ import cz.cvut.kbss.jopa.query.sparql.SparqlQueryFactory;
 import cz.cvut.kbss.jopa.sessions.validator.IntegrityConstraintsValidator;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
 import cz.cvut.kbss.jopa.utils.ReflectionUtils;
-import cz.cvut.kbss.jopa.vocabulary.RDF;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.net.URI;
 import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Set;
 
 import static cz.cvut.kbss.jopa.model.metamodel.AbstractQueryAttribute.THIS_PARAMETER;
@@ -74,6 +71,23 @@ class EntityConstructor {
         return instance;
     }
 
+    /**
+     * Gets an instance with the specified identifier which has already been reconstructed during the current loading
+     * operation.
+     * <p>
+     * This is used when loading multiple entities at once, as some of them may have already been loaded as references
+     * of other entities.
+     *
+     * @param identifier Entity identifier
+     * @param et         Entity type
+     * @param <T>        Entity type
+     * @return Matching instance or {@code null}, if no such instance has been reconstructed
+     */
+    <T> T getReconstructedInstance(URI identifier, EntityType<T> et) {
+        final Object existing = mapper.getRegisteredInstance(identifier);
+        return et.getJavaType().isInstance(existing) ? et.getJavaType().cast(existing) : null;
+    }
+
     private static boolean axiomsContainEntityClassAssertion(Collection<Axiom<?>> axioms, EntityType<?> et) {
         return axioms.stream().anyMatch(ax -> MappingUtils.isEntityClassAssertion(ax, et));
     }
@@ -94,59 +108,34 @@ class EntityConstructor {
 
     private <T> void populateAttributes(final T instance, EntityType<T> et, Descriptor entityDescriptor,
                                         Collection<Axiom<?>> axioms) {
-        final Map<URI, FieldSpecification<? super T, ?>> attributes = indexEntityAttributes(et);
-        final Map<FieldSpecification<? super T, ?>, FieldStrategy<? extends FieldSpecification<? super T, ?>, T>>
-                fieldLoaders = new HashMap<>(et.getAttributes().size());
+        final PropertyFieldIndex<T> fieldIndex = PropertyFieldIndex.of(et);
+        // Field loaders are kept in slots assigned to the fields by the index
+        @SuppressWarnings("unchecked") final FieldStrategy<? extends FieldSpecification<? super T, ?>, T>[]
+                fieldLoaders = new FieldStrategy[fieldIndex.size()];
         for (Axiom<?> ax : axioms) {
             if (MappingUtils.isEntityClassAssertion(ax, et)) {
                 continue;
             }
-            final FieldStrategy<? extends FieldSpecification<? super T, ?>, T> fs = getFieldLoader(
-                    ax, attributes, fieldLoaders, et, entityDescriptor);
-            if (fs == null) {
+            final int slot = fieldIndex.slotOf(ax.getAssertion().getIdentifier());
+            if (slot == PropertyFieldIndex.NO_SLOT) {
                 if (!MappingUtils.isClassAssertion(ax)) {
                     LOG.warn("No attribute found for property {}. Axiom {} will be skipped.", ax.getAssertion(), ax);
                 }
                 continue;
             }
-            fs.addValueFromAxiom(ax);
+            if (fieldLoaders[slot] == null) {
+                fieldLoaders[slot] =
+                        FieldStrategy.createFieldStrategy(et, fieldIndex.getField(slot), entityDescriptor, mapper);
+            }
+            fieldLoaders[slot].addValueFromAxiom(ax);
         }
         // We need to build the field values separately because some may be
         // plural and we have to wait until all values are prepared
-        for (FieldStrategy<? extends FieldSpecification<?, ?>, ?> fs : fieldLoaders.values()) {
-            fs.buildInstanceFieldValue(instance);
-        }
-    }
-
-    private static <T> Map<URI, FieldSpecification<? super T, ?>> indexEntityAttributes(EntityType<T> et) {
-        final Map<URI, FieldSpecification<? super T, ?>> atts = new HashMap<>(et.getAttributes().size());
-        for (Attribute<? super T, ?> at : et.getAttributes()) {
-            atts.put(at.getIRI().toURI(), at);
-        }
-        if (et.getTypes() != null) {
-            atts.put(URI.create(RDF.TYPE), et.getTypes());
-        }
-        return atts;
-    }
-
-    private <T> FieldStrategy<? extends FieldSpecification<? super T, ?>, T> getFieldLoader(
-            Axiom<?> ax,
-            Map<URI, FieldSpecification<? super T, ?>> attributes,
-            Map<FieldSpecification<? super T, ?>, FieldStrategy<? extends FieldSpecification<? super T, ?>, T>> loaders,
-            EntityType<T> et, Descriptor desc) {
-        final URI attId = ax.getAssertion().getIdentifier();
-        FieldSpecification<? super T, ?> att = attributes.get(attId);
-        if (att == null) {
-            if (et.getProperties() != null) {
-                att = et.getProperties();
-            } else {
-                return null;
+        for (FieldStrategy<? extends FieldSpecification<?, ?>, ?> fs : fieldLoaders) {
+            if (fs != null) {
+                fs.buildInstanceFieldValue(instance);
             }
         }
-        if (!loaders.containsKey(att)) {
-            loaders.put(att, FieldStrategy.createFieldStrategy(et, att, desc, mapper));
-        }
-        return loaders.get(att);
     }
 
     /**
@@ -23,6 +23,7 @@ import cz.cvut.kbss.jopa.model.metamodel.PluralAttribute;
 import cz.cvut.kbss.jopa.oom.exceptions.EntityReconstructionException;
 import cz.cvut.kbss.jopa.sessions.CacheManager;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
+import cz.cvut.kbss.jopa.sessions.cache.QueryAttributeCache;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
 import cz.cvut.kbss.ontodriver.Connection;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
@@ -31,10 +32,7 @@ import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.IdentityHashMap;
-import java.util.Map;
-import java.util.Objects;
+import java.util.*;
 
 /**
  * Root of the entity loading strategies.
@@ -45,19 +43,22 @@ abstract class EntityInstanceLoader {
     final MetamodelImpl metamodel;
 
     final CacheManager cache;
-    private final AxiomDescriptorFactory descriptorFactory;
+    private final QueryAttributeCache queryAttributeCache;
+    final AxiomDescriptorFactory descriptorFactory;
     final EntityConstructor entityBuilder;
 
     EntityInstanceLoader(EntityInstanceLoaderBuilder builder) {
         assert builder.storageConnection != null;
         assert builder.metamodel != null;
         assert builder.cache != null;
+        assert builder.queryAttributeCache != null;
         assert builder.descriptorFactory != null;
         assert builder.entityBuilder != null;
 
         this.storageConnection = builder.storageConnection;
         this.metamodel = builder.metamodel;
         this.cache = builder.cache;
+        this.queryAttributeCache = builder.queryAttributeCache;
         this.descriptorFactory = builder.descriptorFactory;
         this.entityBuilder = builder.entityBuilder;
     }
@@ -70,6 +71,21 @@ abstract class EntityInstanceLoader {
      */
     abstract <T> T loadEntity(LoadingParameters<T> loadingParameters);
 
+    /**
+     * Loads entities based on the specified loading parameters.
+     * <p>
+     * This default implementation loads the entities one by one.
+     *
+     * @param loadingParameters Loading parameters of the instances
+     * @param <T>               Entity type
+     * @return List of loaded instances corresponding to the loading parameters (possibly containing {@code null}s)
+     */
+    <T> List<T> loadEntities(List<LoadingParameters<T>> loadingParameters) {
+        final List<T> result = new ArrayList<>(loadingParameters.size());
+        loadingParameters.forEach(params -> result.add(loadEntity(params)));
+        return result;
+    }
+
     /**
      * Loads entity reference.
      * <p>
@@ -100,6 +116,59 @@ abstract class EntityInstanceLoader {
         }
     }
 
+    /**
+     * Loads instances of the specified entity type using a single storage request.
+     * <p>
+     * Cached instances are taken from the cache, axioms of the remaining ones are retrieved from the storage together.
+     *
+     * @param loadingParameters Loading parameters of the instances
+     * @param et                Entity type of the instances
+     * @param <T>               Entity type
+     * @return List of loaded instances corresponding to the loading parameters (possibly containing {@code null}s)
+     */
+    <T> List<T> loadInstances(List<LoadingParameters<T>> loadingParameters, EntityType<T> et) {
+        final List<T> result = new ArrayList<>(Collections.nCopies(loadingParameters.size(), null));
+        final List<AxiomDescriptor> toLoad = new ArrayList<>(loadingParameters.size());
+        final List<Integer> toLoadIndexes = new ArrayList<>(loadingParameters.size());
+        for (int i = 0; i < loadingParameters.size(); i++) {
+            final LoadingParameters<T> params = loadingParameters.get(i);
+            if (isCached(params, et)) {
+                result.set(i, loadCached(et, params.getIdentifier(), params.getDescriptor()));
+            } else {
+                toLoad.add(descriptorFactory.createForEntityLoading(params, et));
+                toLoadIndexes.add(i);
+            }
+        }
+        if (toLoad.isEmpty()) {
+            return result;
+        }
+        try {
+            final Map<NamedResource, Collection<Axiom<?>>> axioms = storageConnection.findAll(toLoad);
+            for (int i = 0; i < toLoad.size(); i++) {
+                final int index = toLoadIndexes.get(i);
+                final LoadingParameters<T> params = loadingParameters.get(index);
+                final Collection<Axiom<?>> instanceAxioms =
+                        axioms.getOrDefault(toLoad.get(i).getSubject(), Collections.emptyList());
+                result.set(index, reconstructInstance(params, et, instanceAxioms));
+            }
+            return result;
+        } catch (OntoDriverException e) {
+            throw new StorageAccessException(e);
+        } catch (cz.cvut.kbss.jopa.exception.InstantiationException e) {
+            throw new EntityReconstructionException(e);
+        }
+    }
+
+    private <T> T reconstructInstance(LoadingParameters<T> params, EntityType<T> et, Collection<Axiom<?>> axioms) {
+        if (axioms.isEmpty()) {
+            return null;
+        }
+        // The instance may have been already loaded as a reference of another instance from the batch
+        final T existing = entityBuilder.getReconstructedInstance(params.getIdentifier(), et);
+        return existing != null ? existing :
+               entityBuilder.reconstructEntity(params.getIdentifier(), et, params.getDescriptor(), axioms);
+    }
+
     <T> boolean isCached(LoadingParameters<T> loadingParameters, EntityType<? extends T> et) {
         return !loadingParameters.shouldBypassCache() &&
                 cache.contains(et.getJavaType(), loadingParameters.getIdentifier(), loadingParameters.getDescriptor());
@@ -113,6 +182,9 @@ abstract class EntityInstanceLoader {
 
     /**
      * Recursively reloads query attribute values.
+     * <p>
+     * Values of instances whose query attributes are still fresh according to the {@link QueryAttributeCache} are not
+     * reloaded, but their references are traversed nevertheless.
      *
      * @param instance Instance whose query attributes should be reloaded
      * @param et       Entity type of the instance
@@ -123,7 +195,12 @@ abstract class EntityInstanceLoader {
             return;
         }
         visited.put(instance, null);
-        entityBuilder.populateQueryAttributes(instance, (EntityType<Object>) et);
+        if (queryAttributeCache.shouldRefresh(instance)) {
+            entityBuilder.populateQueryAttributes(instance, (EntityType<Object>) et);
+            if (!et.getQueryAttributes().isEmpty()) {
+                queryAttributeCache.refreshed(instance);
+            }
+        }
         et.getAttributes().stream().filter(Attribute::isAssociation).forEach(att -> {
             final Class<?> cls = att.isCollection() ? ((PluralAttribute) att).getElementType()
                     .getJavaType() : att.getJavaType();
@@ -160,6 +237,7 @@ abstract class EntityInstanceLoader {
         private Connection storageConnection;
         private MetamodelImpl metamodel;
         private CacheManager cache;
+        private QueryAttributeCache queryAttributeCache;
 
         private AxiomDescriptorFactory descriptorFactory;
         private EntityConstructor entityBuilder;
@@ -189,6 +267,11 @@ abstract class EntityInstanceLoader {
             return this;
         }
 
+        EntityInstanceLoaderBuilder queryAttributeCache(QueryAttributeCache queryAttributeCache) {
+            this.queryAttributeCache = queryAttributeCache;
+            return this;
+        }
+
         abstract EntityInstanceLoader build();
     }
 }
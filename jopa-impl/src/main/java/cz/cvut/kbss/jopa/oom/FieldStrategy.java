@@ -175,7 +175,7 @@ abstract class FieldStrategy<T extends FieldSpecification<? super X, ?>, X> {
      * Note that this method assumes the value and the field are of compatible types, no check is done here.
      */
     void setValueOnInstance(Object instance, Object value) {
-        EntityPropertiesUtils.setFieldValue(attribute.getJavaField(), instance, value);
+        EntityPropertiesUtils.setAttributeValue(attribute, instance, value);
     }
 
     /**
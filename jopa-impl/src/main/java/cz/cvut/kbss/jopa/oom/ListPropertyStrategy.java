@@ -12,6 +12,7 @@
  */
 package cz.cvut.kbss.jopa.oom;
 
+import cz.cvut.kbss.jopa.adapters.IndirectList;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.ListAttributeImpl;
@@ -68,6 +69,26 @@ abstract class ListPropertyStrategy<L extends ListDescriptor, V extends ListValu
                 .addValue(NamedResource.create(EntityPropertiesUtils.getIdentifier(item, valueType))));
     }
 
+    /**
+     * Passes the number of list elements already stored in the repository to the value descriptor.
+     * <p>
+     * If the list has only been appended to since it was last written, this allows the driver to add just the new
+     * elements instead of merging the whole list.
+     */
+    static void resolveStoredPrefixSize(ListValueDescriptor listDescriptor, List<?> list) {
+        if (!(list instanceof IndirectList)) {
+            return;
+        }
+        final IndirectList<?> indirectList = (IndirectList<?>) list;
+        final int storedSize = indirectList.getStoredSize();
+        if (storedSize > 0 && storedSize < list.size()) {
+            // Null elements are not part of the value descriptor
+            listDescriptor.setStoredPrefixSize(
+                    (int) indirectList.unwrap().subList(0, storedSize).stream().filter(Objects::nonNull).count());
+        }
+        indirectList.markStored();
+    }
+
     <K> List<K> resolveUnpersistedItems(List<K> list) {
         if (list == null || IdentifierTransformer.isValidIdentifierType(
                 attribute.getBindableJavaType()) || attribute.getBindableJavaType().isEnum()) {
@@ -21,6 +21,7 @@ import cz.cvut.kbss.jopa.sessions.LoadingParameters;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Set;
 
 public interface ObjectOntologyMapper {
@@ -43,6 +44,20 @@ public interface ObjectOntologyMapper {
      */
     <T> T loadEntity(LoadingParameters<T> loadingParameters);
 
+    /**
+     * Loads and reconstructs entities with the specified identifiers from the ontology.
+     * <p>
+     * The underlying storage may be accessed only once for all the entities.
+     *
+     * @param cls         Type of the entities
+     * @param identifiers Identifiers of the entities to load
+     * @param descriptor  Descriptor, can specify contexts
+     * @param <T>         Entity type
+     * @return List of reconstructed entities corresponding to the specified identifiers. It contains {@code null} for
+     * identifiers for which no matching entity exists
+     */
+    <T> List<T> loadEntities(Class<T> cls, List<URI> identifiers, Descriptor descriptor);
+
     /**
      * Loads a reference to an entity corresponding to the specified parameters.
      * <p>
@@ -89,6 +104,36 @@ public interface ObjectOntologyMapper {
      */
     void checkForUnpersistedChanges();
 
+    /**
+     * Writes changes buffered by the mapper into the storage.
+     * <p>
+     * Has no effect if there are no buffered changes.
+     */
+    void flush();
+
+    /**
+     * Writes attribute changes of the specified entity whose writing has been deferred into the storage.
+     * <p>
+     * Has no effect if there are no deferred changes of the entity.
+     *
+     * @param entity Entity whose changes should be written
+     */
+    void flushUpdates(Object entity);
+
+    /**
+     * Discards changes buffered by the mapper without writing them into the storage.
+     * <p>
+     * Used on transaction rollback.
+     */
+    void discardPendingChanges();
+
+    /**
+     * Notifies the mapper that the current transaction has finished, i.e., it was either committed or rolled back.
+     * <p>
+     * Any transaction-scoped state of the mapper is discarded.
+     */
+    void transactionFinished();
+
     /**
      * Sets value of property represented by the specified field to the field's value.
      *
@@ -13,6 +13,8 @@
 package cz.cvut.kbss.jopa.oom;
 
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.LoadState;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.metamodel.*;
 import cz.cvut.kbss.jopa.oom.exceptions.EntityDeconstructionException;
@@ -49,6 +51,15 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
     private Map<URI, Object> instanceRegistry;
     private final PendingReferenceRegistry pendingReferences;
 
+    private final int persistBatchSize;
+    private final PersistBatch persistBatch;
+
+    private final boolean deltaUpdates;
+    private final WrittenValueRegistry writtenValues;
+
+    private final boolean deferUpdates;
+    private final DeferredUpdates deferredUpdates;
+
     private final EntityInstanceLoader defaultInstanceLoader;
     private final EntityInstanceLoader twoStepInstanceLoader;
 
@@ -61,15 +72,41 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         this.pendingReferences = new PendingReferenceRegistry();
         this.entityBuilder = new EntityConstructor(this);
         this.entityBreaker = new EntityDeconstructor(this);
+        this.persistBatchSize = resolvePersistBatchSize(uow.getConfiguration());
+        this.persistBatch = new PersistBatch();
+        this.deltaUpdates = uow.getConfiguration().is(JOPAPersistenceProperties.DELTA_UPDATES);
+        this.writtenValues = new WrittenValueRegistry();
+        this.deferUpdates = uow.getConfiguration().is(JOPAPersistenceProperties.DEFERRED_UPDATES);
+        this.deferredUpdates = new DeferredUpdates();
 
         this.defaultInstanceLoader = DefaultInstanceLoader.builder().connection(storageConnection)
                                                           .metamodel(uow.getMetamodel())
                                                           .descriptorFactory(descriptorFactory)
-                                                          .entityBuilder(entityBuilder).cache(cache).build();
+                                                          .entityBuilder(entityBuilder).cache(cache)
+                                                          .queryAttributeCache(uow.getQueryAttributeCache()).build();
         this.twoStepInstanceLoader = TwoStepInstanceLoader.builder().connection(storageConnection)
                                                           .metamodel(uow.getMetamodel())
                                                           .descriptorFactory(descriptorFactory)
-                                                          .entityBuilder(entityBuilder).cache(cache).build();
+                                                          .entityBuilder(entityBuilder).cache(cache)
+                                                          .queryAttributeCache(uow.getQueryAttributeCache()).build();
+    }
+
+    private static int resolvePersistBatchSize(Configuration configuration) {
+        final String setting = configuration.get(JOPAPersistenceProperties.PERSIST_BATCH_SIZE);
+        if (setting == null) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(setting);
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse persist batch size setting {}. Entities will be persisted one by one.",
+                      setting);
+            return 1;
+        }
+    }
+
+    private boolean isPersistBatchingEnabled() {
+        return persistBatchSize > 1;
     }
 
     @Override
@@ -79,9 +116,14 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         assert descriptor != null;
 
         final EntityType<T> et = getEntityType(cls);
+        final NamedResource subject = NamedResource.create(identifier);
+        // Buffered entities are not in the storage yet, but they are going to be, so there is no need to flush them
+        if (persistBatch.containsInstance(subject, et.getIRI().toURI(), descriptor.getContexts())) {
+            return true;
+        }
         final NamedResource classUri = NamedResource.create(et.getIRI().toURI());
-        final Axiom<NamedResource> ax = new AxiomImpl<>(NamedResource.create(identifier),
-                                                        Assertion.createClassAssertion(false), new Value<>(classUri));
+        final Axiom<NamedResource> ax = new AxiomImpl<>(subject, Assertion.createClassAssertion(false),
+                                                        new Value<>(classUri));
         try {
             return storageConnection.contains(ax, descriptor.getContexts());
         } catch (OntoDriverException e) {
@@ -99,6 +141,7 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
 
     private <T> T loadEntityInternal(LoadingParameters<T> loadingParameters) {
         final EntityTypeImpl<T> et = getEntityType(loadingParameters.getEntityType());
+        flush();
         final T result;
         if (et.hasSubtypes()) {
             result = twoStepInstanceLoader.loadEntity(loadingParameters);
@@ -111,11 +154,37 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         return result;
     }
 
+    @Override
+    public <T> List<T> loadEntities(Class<T> cls, List<URI> identifiers, Descriptor descriptor) {
+        assert cls != null;
+        assert identifiers != null;
+        assert descriptor != null;
+
+        this.instanceRegistry = new HashMap<>();
+        final EntityTypeImpl<T> et = getEntityType(cls);
+        final List<LoadingParameters<T>> params = new ArrayList<>(identifiers.size());
+        identifiers.forEach(id -> params.add(new LoadingParameters<>(cls, id, descriptor)));
+        flush();
+        final List<T> result;
+        if (et.hasSubtypes()) {
+            result = twoStepInstanceLoader.loadEntities(params);
+        } else {
+            result = defaultInstanceLoader.loadEntities(params);
+        }
+        for (int i = 0; i < result.size(); i++) {
+            if (result.get(i) != null) {
+                cache.add(identifiers.get(i), result.get(i), descriptor);
+            }
+        }
+        return result;
+    }
+
     @Override
     public <T> T loadReference(LoadingParameters<T> loadingParameters) {
         assert loadingParameters != null;
 
         final EntityTypeImpl<T> et = getEntityType(loadingParameters.getEntityType());
+        flush();
         if (et.hasSubtypes()) {
             return twoStepInstanceLoader.loadReference(loadingParameters);
         } else {
@@ -147,6 +216,7 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
 
         final AxiomDescriptor axiomDescriptor =
                 descriptorFactory.createForFieldLoading(primaryKey, fieldSpec, descriptor, et);
+        flush();
         try {
             final Collection<Axiom<?>> axioms = storageConnection.find(axiomDescriptor);
             entityBuilder.setFieldValue(entity, fieldSpec, axioms, et, descriptor);
@@ -165,12 +235,20 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         @SuppressWarnings("unchecked") final EntityType<T> et = (EntityType<T>) getEntityType(entity.getClass());
         try {
             if (identifier == null) {
-                identifier = generateIdentifier(et);
+                identifier = generateUnbufferedIdentifier(et);
                 assert identifier != null;
                 EntityPropertiesUtils.setIdentifier(identifier, entity, et);
             }
             entityBreaker.setReferenceSavingResolver(new ReferenceSavingResolver(this));
             final AxiomValueGatherer axiomBuilder = entityBreaker.mapEntityToAxioms(identifier, entity, et, descriptor);
+            if (isPersistBatchingEnabled()) {
+                persistBatch.add(axiomBuilder);
+                persistPendingReferences(entity, axiomBuilder.getSubjectIdentifier());
+                if (persistBatch.size() >= persistBatchSize) {
+                    flush();
+                }
+                return;
+            }
             axiomBuilder.persist(storageConnection);
             persistPendingReferences(entity, axiomBuilder.getSubjectIdentifier());
         } catch (IllegalArgumentException e) {
@@ -178,6 +256,20 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         }
     }
 
+    /**
+     * Generates an identifier which is not used by any entity buffered for persist.
+     * <p>
+     * The storage is not aware of the buffered entities, so it could generate an identifier already assigned to one of
+     * them.
+     */
+    private URI generateUnbufferedIdentifier(EntityType<?> et) {
+        URI identifier;
+        do {
+            identifier = generateIdentifier(et);
+        } while (identifier != null && persistBatch.contains(NamedResource.create(identifier)));
+        return identifier;
+    }
+
     @Override
     public URI generateIdentifier(EntityType<?> et) {
         try {
@@ -191,10 +283,20 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         try {
             final Set<PendingAssertion> pas = pendingReferences.removeAndGetPendingAssertionsWith(instance);
             for (PendingAssertion pa : pas) {
+                final AxiomValueGatherer bufferedOwner = persistBatch.get(pa.getOwner());
+                if (bufferedOwner != null) {
+                    // Owner has not been written yet, so just add the value to its axioms
+                    bufferedOwner.addValue(pa.getAssertion(), new Value<>(identifier), pa.getContext());
+                    continue;
+                }
                 final AxiomValueDescriptor desc = new AxiomValueDescriptor(pa.getOwner());
                 desc.addAssertionValue(pa.getAssertion(), new Value<>(identifier));
                 desc.setAssertionContext(pa.getAssertion(), pa.getContext());
-                storageConnection.persist(desc);
+                if (isPersistBatchingEnabled()) {
+                    persistBatch.addAssertions(desc);
+                } else {
+                    storageConnection.persist(desc);
+                }
             }
             final Set<PendingReferenceRegistry.PendingListReference> pLists =
                     pendingReferences.removeAndGetPendingListReferencesWith(instance);
@@ -202,7 +304,9 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
             for (PendingReferenceRegistry.PendingListReference list : pLists) {
                 final ListValueDescriptor desc = list.getDescriptor();
                 ListPropertyStrategy.addItemsToDescriptor(desc, list.getValues(), et);
-                if (desc instanceof SimpleListValueDescriptor) {
+                if (isPersistBatchingEnabled()) {
+                    persistBatch.addListUpdate(desc);
+                } else if (desc instanceof SimpleListValueDescriptor) {
                     // TODO This can be an update or a persist
                     storageConnection.lists().updateSimpleList((SimpleListValueDescriptor) desc);
                 } else {
@@ -248,6 +352,10 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         instanceRegistry.put(identifier, instance);
     }
 
+    Object getRegisteredInstance(URI identifier) {
+        return instanceRegistry.get(identifier);
+    }
+
     @Override
     public void checkForUnpersistedChanges() {
         if (pendingReferences.hasPendingResources()) {
@@ -257,6 +365,39 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         }
     }
 
+    @Override
+    public void flush() {
+        persistBatch.flush(storageConnection);
+        if (!deferredUpdates.isEmpty()) {
+            // Drain first, writing the updates may trigger flush again (e.g., when checking references)
+            deferredUpdates.drain().forEach(this::writeDeferredUpdate);
+        }
+    }
+
+    @Override
+    public void flushUpdates(Object entity) {
+        final DeferredUpdates.EntityUpdate<?> update = deferredUpdates.remove(entity);
+        if (update != null) {
+            persistBatch.flush(storageConnection);
+            writeDeferredUpdate(update);
+        }
+    }
+
+    private <T> void writeDeferredUpdate(DeferredUpdates.EntityUpdate<T> update) {
+        writeFieldValues(update.getEntity(), update.getFieldSpecs(), update.getDescriptor());
+    }
+
+    @Override
+    public void discardPendingChanges() {
+        persistBatch.clear();
+        deferredUpdates.clear();
+    }
+
+    @Override
+    public void transactionFinished() {
+        writtenValues.clear();
+    }
+
     void registerPendingAssertion(NamedResource owner, Assertion assertion, Object object, URI context) {
         pendingReferences.addPendingAssertion(owner, assertion, object, context);
     }
@@ -270,9 +411,13 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
         final EntityType<T> et = getEntityType(cls);
         final AxiomDescriptor axiomDescriptor = descriptorFactory.createForEntityLoading(
                 new LoadingParameters<>(cls, identifier, descriptor, true), et);
+        // Changes of the removed entity need not be written
+        deferredUpdates.remove(identifier, cls);
+        flush();
         try {
             storageConnection.remove(axiomDescriptor);
             pendingReferences.removePendingReferences(axiomDescriptor.getSubject());
+            writtenValues.remove(axiomDescriptor.getSubject());
         } catch (OntoDriverException e) {
             throw new StorageAccessException("Exception caught when removing entity.", e);
         }
@@ -281,15 +426,132 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
     @Override
     public <T> void updateFieldValue(T entity, FieldSpecification<? super T, ?> fieldSpec,
                                      Descriptor entityDescriptor) {
+        if (deferUpdates) {
+            @SuppressWarnings("unchecked") final EntityType<T> et = (EntityType<T>) getEntityType(entity.getClass());
+            deferredUpdates.add(entity, EntityPropertiesUtils.getIdentifier(entity, et), fieldSpec, entityDescriptor);
+            return;
+        }
+        flush();
+        writeFieldValues(entity, Collections.singleton(fieldSpec), entityDescriptor);
+    }
+
+    /**
+     * Writes values of the specified attributes of the entity into the storage.
+     * <p>
+     * Attributes supporting delta updates are written using a single {@link Connection#applyChanges} call, values of
+     * the remaining attributes are gathered and written using a single regular update.
+     */
+    private <T> void writeFieldValues(T entity, Collection<FieldSpecification<? super T, ?>> fieldSpecs,
+                                      Descriptor entityDescriptor) {
         @SuppressWarnings("unchecked") final EntityType<T> et = (EntityType<T>) getEntityType(entity.getClass());
         final URI pkUri = EntityPropertiesUtils.getIdentifier(entity, et);
 
         entityBreaker.setReferenceSavingResolver(new ReferenceSavingResolver(this));
-        // It is OK to do it like this, because if necessary, the mapping will re-register a pending assertion
-        removePendingAssertions(fieldSpec, pkUri);
-        final AxiomValueGatherer axiomBuilder =
-                entityBreaker.mapFieldToAxioms(pkUri, entity, fieldSpec, et, entityDescriptor);
-        axiomBuilder.update(storageConnection);
+        AxiomValueGatherer toUpdate = null;
+        AxiomValueDescriptor removed = null;
+        AxiomValueDescriptor added = null;
+        for (FieldSpecification<? super T, ?> fieldSpec : fieldSpecs) {
+            // It is OK to do it like this, because if necessary, the mapping will re-register a pending assertion
+            removePendingAssertions(fieldSpec, pkUri);
+            final AxiomValueGatherer axiomBuilder =
+                    entityBreaker.mapFieldToAxioms(pkUri, entity, fieldSpec, et, entityDescriptor);
+            final boolean delta = supportsDeltaUpdate(fieldSpec);
+            final AxiomValueDescriptor previous =
+                    delta ? resolvePreviousValues(entity, fieldSpec, et, entityDescriptor,
+                                                  axiomBuilder.getAxiomDescriptor()) : null;
+            if (previous != null) {
+                final AxiomValueDescriptor current = axiomBuilder.getAxiomDescriptor();
+                if (removed == null) {
+                    removed = emptyDescriptor(current);
+                    added = emptyDescriptor(current);
+                }
+                addValueDifference(removed, previous, current);
+                addValueDifference(added, current, previous);
+            } else if (toUpdate == null) {
+                toUpdate = axiomBuilder;
+            } else {
+                toUpdate.addAll(axiomBuilder);
+            }
+            if (delta) {
+                writtenValues.register(axiomBuilder.getAxiomDescriptor());
+            }
+        }
+        if (toUpdate != null) {
+            toUpdate.update(storageConnection);
+        }
+        if (removed != null && (!removed.getAssertions().isEmpty() || !added.getAssertions().isEmpty())) {
+            try {
+                storageConnection.applyChanges(removed, added);
+            } catch (OntoDriverException e) {
+                throw new StorageAccessException(e);
+            }
+        }
+    }
+
+    private boolean supportsDeltaUpdate(FieldSpecification<?, ?> fieldSpec) {
+        if (!deltaUpdates || !(fieldSpec instanceof Attribute)) {
+            return false;
+        }
+        final Attribute<?, ?> att = (Attribute<?, ?>) fieldSpec;
+        // Values of data and annotation attributes can be mapped without accessing the storage
+        return !att.isInferred() && (att.getPersistentAttributeType() == Attribute.PersistentAttributeType.DATA ||
+                att.getPersistentAttributeType() == Attribute.PersistentAttributeType.ANNOTATION);
+    }
+
+    /**
+     * Resolves the previously known values of a delta-updated attribute.
+     * <p>
+     * These are either the values written earlier in this transaction or those of the entity original. If neither is
+     * available, {@code null} is returned and a regular update has to be performed.
+     */
+    private <T> AxiomValueDescriptor resolvePreviousValues(T entity, FieldSpecification<? super T, ?> fieldSpec,
+                                                           EntityType<T> et, Descriptor entityDescriptor,
+                                                           AxiomValueDescriptor current) {
+        if (current.getAssertions().size() != 1) {
+            return null;
+        }
+        final AxiomValueDescriptor written =
+                writtenValues.get(current.getSubject(), current.getAssertions().iterator().next());
+        if (written != null) {
+            return written;
+        }
+        final T original = getOriginalInstance(entity);
+        if (original == null || uow.isObjectNew(entity) ||
+                uow.isLoaded(entity, fieldSpec.getName()) != LoadState.LOADED) {
+            return null;
+        }
+        return entityBreaker.mapFieldToAxioms(current.getSubject().getIdentifier(), original, fieldSpec, et,
+                                              entityDescriptor).getAxiomDescriptor();
+    }
+
+    private static AxiomValueDescriptor emptyDescriptor(AxiomValueDescriptor template) {
+        final AxiomValueDescriptor result = new AxiomValueDescriptor(template.getSubject());
+        result.setSubjectContext(template.getSubjectContext());
+        return result;
+    }
+
+    /**
+     * Adds values from {@code minuend} which are not in {@code subtrahend} to the target descriptor.
+     * <p>
+     * Values of an assertion stored in different contexts are considered different.
+     */
+    private static void addValueDifference(AxiomValueDescriptor target, AxiomValueDescriptor minuend,
+                                           AxiomValueDescriptor subtrahend) {
+        for (Assertion a : minuend.getAssertions()) {
+            final URI context = minuend.getAssertionContext(a);
+            final Set<Value<?>> values = new LinkedHashSet<>(minuend.getAssertionValues(a));
+            values.remove(Value.nullValue());
+            if (subtrahend.getAssertions().contains(a) && Objects.equals(context, subtrahend.getAssertionContext(a))) {
+                subtrahend.getAssertionValues(a).forEach(values::remove);
+            }
+            if (values.isEmpty()) {
+                continue;
+            }
+            values.forEach(v -> target.addAssertionValue(a, v));
+            if (!Objects.equals(target.getSubjectContext(), context)) {
+                target.setAssertionContext(a, context);
+            }
+        }
     }
 
     private <T> void removePendingAssertions(FieldSpecification<? super T, ?> fs, URI identifier) {
@@ -303,6 +565,7 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
 
     @Override
     public Collection<Axiom<NamedResource>> loadSimpleList(SimpleListDescriptor listDescriptor) {
+        flush();
         try {
             return storageConnection.lists().loadSimpleList(listDescriptor);
         } catch (OntoDriverException e) {
@@ -312,6 +575,7 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
 
     @Override
     public Collection<Axiom<NamedResource>> loadReferencedList(ReferencedListDescriptor listDescriptor) {
+        flush();
         try {
             return storageConnection.lists().loadReferencedList(listDescriptor);
         } catch (OntoDriverException e) {
@@ -333,6 +597,7 @@ public class ObjectOntologyMapperImpl implements ObjectOntologyMapper, EntityMap
 
     @Override
     public boolean isInferred(Axiom<?> axiom, URI context) {
+        flush();
         try {
             return storageConnection.isInferred(axiom, context != null ? Collections.singleton(context) :
                                                        Collections.emptySet());
@@ -0,0 +1,143 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.oom;
+
+import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.ontodriver.Connection;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
+import cz.cvut.kbss.ontodriver.descriptor.ListValueDescriptor;
+import cz.cvut.kbss.ontodriver.descriptor.ReferencedListValueDescriptor;
+import cz.cvut.kbss.ontodriver.descriptor.SimpleListValueDescriptor;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
+
+import java.net.URI;
+import java.util.*;
+
+/**
+ * Buffers axioms of newly persisted entities so that they can be written into the storage together.
+ * <p>
+ * The buffer keeps the order in which the entities and additional assertions were added, and flushing writes them in
+ * the same order, so the resulting storage content is the same as if they were persisted one by one.
+ */
+class PersistBatch {
+
+    private final Map<NamedResource, AxiomValueGatherer> entities = new LinkedHashMap<>();
+    private final List<AxiomValueDescriptor> assertions = new ArrayList<>();
+    private final List<ListValueDescriptor> listUpdates = new ArrayList<>();
+
+    /**
+     * Adds axioms of a newly persisted entity to the batch.
+     *
+     * @param gatherer Gathered entity axioms
+     */
+    void add(AxiomValueGatherer gatherer) {
+        entities.put(gatherer.getSubjectIdentifier(), gatherer);
+    }
+
+    /**
+     * Adds assertion values whose subject is not buffered in this batch.
+     *
+     * @param descriptor Assertion values to persist
+     */
+    void addAssertions(AxiomValueDescriptor descriptor) {
+        assertions.add(descriptor);
+    }
+
+    /**
+     * Adds a list update, which is executed after all the buffered entities are written.
+     *
+     * @param descriptor List value descriptor
+     */
+    void addListUpdate(ListValueDescriptor descriptor) {
+        listUpdates.add(descriptor);
+    }
+
+    /**
+     * Gets axioms gathered for the specified subject, if it is buffered in this batch.
+     *
+     * @param subject Entity identifier
+     * @return Matching axiom gatherer, {@code null} if the subject is not buffered
+     */
+    AxiomValueGatherer get(NamedResource subject) {
+        return entities.get(subject);
+    }
+
+    boolean contains(NamedResource subject) {
+        return entities.containsKey(subject);
+    }
+
+    /**
+     * Checks whether an instance of the specified class with the specified identifier is buffered in this batch.
+     *
+     * @param subject  Entity identifier
+     * @param type     Class identifier
+     * @param contexts Contexts in which the instance is looked for. Empty collection matches any context
+     * @return {@code true} if a matching instance is buffered, {@code false} otherwise
+     */
+    boolean containsInstance(NamedResource subject, URI type, Collection<URI> contexts) {
+        final AxiomValueGatherer gatherer = entities.get(subject);
+        return gatherer != null && gatherer.hasType(type, contexts);
+    }
+
+    /**
+     * Gets the number of buffered entities.
+     */
+    int size() {
+        return entities.size();
+    }
+
+    boolean isEmpty() {
+        return entities.isEmpty() && assertions.isEmpty() && listUpdates.isEmpty();
+    }
+
+    void clear() {
+        entities.clear();
+        assertions.clear();
+        listUpdates.clear();
+    }
+
+    /**
+     * Writes the buffered axioms into the storage and clears the batch.
+     * <p>
+     * Assertion values of all the buffered entities are persisted using a single bulk request, types, properties and
+     * lists follow.
+     *
+     * @param connection Storage connection
+     */
+    void flush(Connection connection) {
+        if (isEmpty()) {
+            return;
+        }
+        try {
+            final List<AxiomValueDescriptor> descriptors = new ArrayList<>(entities.size() + assertions.size());
+            entities.values().forEach(g -> descriptors.add(g.getAxiomDescriptor()));
+            descriptors.addAll(assertions);
+            connection.persistAll(descriptors);
+            for (AxiomValueGatherer g : entities.values()) {
+                g.persistTypesPropertiesAndLists(connection);
+            }
+            for (ListValueDescriptor desc : listUpdates) {
+                if (desc instanceof SimpleListValueDescriptor) {
+                    connection.lists().updateSimpleList((SimpleListValueDescriptor) desc);
+                } else {
+                    connection.lists().updateReferencedList((ReferencedListValueDescriptor) desc);
+                }
+            }
+        } catch (OntoDriverException e) {
+            throw new StorageAccessException(e);
+        } finally {
+            clear();
+        }
+    }
+}
@@ -71,6 +71,7 @@ class ReferencedListPropertyStrategy<X> extends
             return;
         }
         addListElementsToListValueDescriptor(listDescriptor, list);
+        resolveStoredPrefixSize(listDescriptor, list);
         valueBuilder.addReferencedListValues(listDescriptor);
     }
 
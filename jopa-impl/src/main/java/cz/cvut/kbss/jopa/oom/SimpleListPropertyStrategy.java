@@ -64,6 +64,7 @@ class SimpleListPropertyStrategy<X> extends
             return;
         }
         addListElementsToListValueDescriptor(listDescriptor, list);
+        resolveStoredPrefixSize(listDescriptor, list);
         valueBuilder.addSimpleListValues(listDescriptor);
     }
 
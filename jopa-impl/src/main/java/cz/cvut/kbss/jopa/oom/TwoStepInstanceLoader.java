@@ -16,17 +16,23 @@ package cz.cvut.kbss.jopa.oom;
 
 import cz.cvut.kbss.jopa.exception.InstantiationException;
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.model.metamodel.AbstractIdentifiableType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
+import cz.cvut.kbss.jopa.model.metamodel.Type;
 import cz.cvut.kbss.jopa.oom.exceptions.EntityReconstructionException;
 import cz.cvut.kbss.jopa.oom.metamodel.PolymorphicEntityTypeResolver;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
+import java.util.Collection;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 class TwoStepInstanceLoader extends EntityInstanceLoader {
 
@@ -34,10 +40,28 @@ class TwoStepInstanceLoader extends EntityInstanceLoader {
         super(builder);
     }
 
+    /**
+     * Loads an instance of the most specific entity type matching the individual's types.
+     * <p>
+     * Unless an instance from the entity type hierarchy may be cached, axioms of all the entity types in the hierarchy
+     * are loaded using a single storage request, the actual entity type is resolved from the class assertions among
+     * them and the instance is reconstructed from the axioms relevant to the resolved entity type.
+     *
+     * @param loadingParameters Instance loading parameters
+     * @return The loaded instance (possibly {@code null})
+     */
     @Override
     <T> T loadEntity(LoadingParameters<T> loadingParameters) {
         final EntityTypeImpl<T> rootEt = metamodel.entity(loadingParameters.getEntityType());
         try {
+            if (!isHierarchyCached(loadingParameters, rootEt)) {
+                final AxiomDescriptor descriptor =
+                        descriptorFactory.createForPolymorphicEntityLoading(loadingParameters, rootEt);
+                // Inferred types would be mixed with the asserted ones, which are used for entity type resolution
+                if (!descriptor.containsAssertion(Assertion.createClassAssertion(true))) {
+                    return loadInSingleRequest(loadingParameters, rootEt, descriptor);
+                }
+            }
             final EntityType<? extends T> et = resolveEntityType(loadingParameters, rootEt);
             if (et == null) {
                 return null;
@@ -48,6 +72,60 @@ class TwoStepInstanceLoader extends EntityInstanceLoader {
         }
     }
 
+    private <T> boolean isHierarchyCached(LoadingParameters<T> loadingParameters,
+                                          AbstractIdentifiableType<? extends T> type) {
+        if (type.getPersistenceType() == Type.PersistenceType.ENTITY &&
+                isCached(loadingParameters, (EntityType<? extends T>) type)) {
+            return true;
+        }
+        for (AbstractIdentifiableType<? extends T> subtype : type.getSubtypes()) {
+            if (isHierarchyCached(loadingParameters, subtype)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private <T> T loadInSingleRequest(LoadingParameters<T> loadingParameters, EntityTypeImpl<T> rootEt,
+                                      AxiomDescriptor descriptor) throws OntoDriverException {
+        final Collection<Axiom<?>> axioms = storageConnection.find(descriptor);
+        if (axioms.isEmpty()) {
+            return null;
+        }
+        final NamedResource individual = NamedResource.create(loadingParameters.getIdentifier());
+        final Set<URI> types = axioms.stream().filter(MappingUtils::isClassAssertion)
+                                     .map(ax -> URI.create(ax.getValue().stringValue())).collect(Collectors.toSet());
+        final EntityType<? extends T> et =
+                new PolymorphicEntityTypeResolver<>(individual, rootEt, types).determineActualEntityType();
+        if (et == null) {
+            return null;
+        }
+        try {
+            return entityBuilder.reconstructEntity(loadingParameters.getIdentifier(), et,
+                                                   loadingParameters.getDescriptor(),
+                                                   selectAxioms(axioms, loadingParameters, et));
+        } catch (InstantiationException e) {
+            throw new EntityReconstructionException(e);
+        }
+    }
+
+    /**
+     * Selects axioms which would be loaded for the specified entity type, so that values of attributes of other
+     * entity types in the hierarchy are not mapped to the instance.
+     */
+    private Collection<Axiom<?>> selectAxioms(Collection<Axiom<?>> axioms, LoadingParameters<?> loadingParameters,
+                                              EntityType<?> et) {
+        final AxiomDescriptor etDescriptor = descriptorFactory.createForEntityLoading(loadingParameters, et);
+        // Unspecified property assertion (@Properties) loads all the axioms of the subject anyway
+        if (etDescriptor.getAssertions().stream().anyMatch(a -> a.getType() == Assertion.AssertionType.PROPERTY)) {
+            return axioms;
+        }
+        final Set<URI> properties = etDescriptor.getAssertions().stream().map(Assertion::getIdentifier)
+                                                .collect(Collectors.toSet());
+        return axioms.stream().filter(ax -> properties.contains(ax.getAssertion().getIdentifier()))
+                     .collect(Collectors.toList());
+    }
+
     @Override
     <T> T loadReference(LoadingParameters<T> loadingParameters) {
         final EntityTypeImpl<T> rootEt = metamodel.entity(loadingParameters.getEntityType());
@@ -0,0 +1,65 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.oom;
+
+import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
+import cz.cvut.kbss.ontodriver.model.Assertion;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Tracks attribute values written into the storage during the current transaction.
+ * <p>
+ * Delta updates use these values as the baseline for computing what to remove and add, because the originals held by
+ * the persistence context are not updated until commit.
+ */
+class WrittenValueRegistry {
+
+    private final Map<NamedResource, Map<Assertion, AxiomValueDescriptor>> values = new HashMap<>();
+
+    /**
+     * Records values of all assertions in the specified descriptor as written.
+     *
+     * @param descriptor Written values
+     */
+    void register(AxiomValueDescriptor descriptor) {
+        assert descriptor != null;
+        final Map<Assertion, AxiomValueDescriptor> subjectValues =
+                values.computeIfAbsent(descriptor.getSubject(), k -> new HashMap<>());
+        descriptor.getAssertions().forEach(a -> subjectValues.put(a, descriptor));
+    }
+
+    /**
+     * Gets the most recently written values of the specified assertion.
+     *
+     * @param subject   Assertion subject
+     * @param assertion Assertion
+     * @return Descriptor containing the written values, {@code null} if no values of the assertion have been written
+     */
+    AxiomValueDescriptor get(NamedResource subject, Assertion assertion) {
+        final Map<Assertion, AxiomValueDescriptor> subjectValues = values.get(subject);
+        return subjectValues != null ? subjectValues.get(assertion) : null;
+    }
+
+    void remove(NamedResource subject) {
+        values.remove(subject);
+    }
+
+    void clear() {
+        values.clear();
+    }
+}
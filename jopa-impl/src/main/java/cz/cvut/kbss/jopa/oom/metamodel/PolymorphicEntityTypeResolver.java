@@ -38,8 +38,17 @@ public class PolymorphicEntityTypeResolver<T> {
 
     public PolymorphicEntityTypeResolver(NamedResource individual, EntityTypeImpl<T> root,
                                          Collection<Axiom<URI>> typeAxioms) {
+        this(individual, root, typeAxioms.stream().map(a -> a.getValue().getValue()).collect(Collectors.toSet()));
+    }
+
+    /**
+     * @param individual Individual whose entity type is resolved
+     * @param root       Root of the entity type hierarchy
+     * @param types      Identifiers of the individual's types
+     */
+    public PolymorphicEntityTypeResolver(NamedResource individual, EntityTypeImpl<T> root, Set<URI> types) {
         this.individual = individual;
-        this.types = typeAxioms.stream().map(a -> a.getValue().getValue()).collect(Collectors.toSet());
+        this.types = types;
         this.root = root;
     }
 
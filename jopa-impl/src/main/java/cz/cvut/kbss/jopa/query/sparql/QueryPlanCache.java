@@ -0,0 +1,168 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query.sparql;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.query.QueryParser;
+import cz.cvut.kbss.jopa.utils.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Persistence unit-wide cache of parsed queries.
+ * <p>
+ * Query strings are mapped to immutable {@link QueryTemplate}s, so that repeated creation of the same query does not
+ * require parsing (and, in case of SOQL, translation to SPARQL) of the query string. The cache is bounded, the least
+ * recently used templates are discarded when its capacity is exceeded.
+ *
+ * @see JOPAPersistenceProperties#QUERY_PLAN_CACHE_SIZE
+ */
+public class QueryPlanCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryPlanCache.class);
+
+    /**
+     * Default maximum number of cached query templates.
+     */
+    public static final int DEFAULT_CAPACITY = 512;
+
+    private final int capacity;
+
+    private final Map<Key, QueryTemplate> templates;
+
+    public QueryPlanCache(Configuration configuration) {
+        this.capacity = resolveCapacity(configuration);
+        this.templates = new LinkedHashMap<Key, QueryTemplate>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, QueryTemplate> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    private static int resolveCapacity(Configuration configuration) {
+        final String setting = configuration.get(JOPAPersistenceProperties.QUERY_PLAN_CACHE_SIZE);
+        if (setting == null) {
+            return DEFAULT_CAPACITY;
+        }
+        try {
+            final int capacity = Integer.parseInt(setting);
+            if (capacity < 0) {
+                LOG.warn("Invalid query plan cache size {}. Using default value {}.", capacity, DEFAULT_CAPACITY);
+                return DEFAULT_CAPACITY;
+            }
+            return capacity;
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse query plan cache size setting {}. Using default value {}.", setting,
+                      DEFAULT_CAPACITY);
+            return DEFAULT_CAPACITY;
+        }
+    }
+
+    /**
+     * Gets the maximum number of templates held by this cache.
+     *
+     * @return Cache capacity, {@code 0} means caching is disabled
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Gets template of the specified query.
+     * <p>
+     * If the template is not cached yet, the query is parsed using the specified parser and the result is cached.
+     * Templates are cached separately for each parser type, so that, e.g., a SOQL query never gets a template of a
+     * SPARQL query with the same query string.
+     *
+     * @param query  Query string
+     * @param parser Parser used to parse the query when its template is not cached
+     * @return Query template
+     */
+    public QueryTemplate getTemplate(String query, QueryParser parser) {
+        Objects.requireNonNull(query);
+        if (capacity == 0) {
+            return parse(query, parser);
+        }
+        final Key key = new Key(parser.getClass(), query);
+        synchronized (templates) {
+            final QueryTemplate template = templates.get(key);
+            if (template != null) {
+                return template;
+            }
+        }
+        // Parse outside of the lock, concurrent parsing of the same query results in equivalent templates
+        final QueryTemplate template = parse(query, parser);
+        synchronized (templates) {
+            templates.putIfAbsent(key, template);
+        }
+        return template;
+    }
+
+    private static QueryTemplate parse(String query, QueryParser parser) {
+        return QueryTemplate.from((SparqlQueryHolder) parser.parseQuery(query));
+    }
+
+    /**
+     * Gets the number of currently cached templates.
+     *
+     * @return Number of cached templates
+     */
+    public int size() {
+        synchronized (templates) {
+            return templates.size();
+        }
+    }
+
+    /**
+     * Removes all templates from the cache.
+     */
+    public void clear() {
+        synchronized (templates) {
+            templates.clear();
+        }
+    }
+
+    private static final class Key {
+        private final Class<?> parserType;
+        private final String query;
+
+        private Key(Class<?> parserType, String query) {
+            this.parserType = parserType;
+            this.query = query;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            final Key key = (Key) o;
+            return parserType.equals(key.parserType) && query.equals(key.query);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(parserType, query);
+        }
+    }
+}
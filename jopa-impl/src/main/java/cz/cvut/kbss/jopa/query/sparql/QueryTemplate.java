@@ -0,0 +1,95 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query.sparql;
+
+import cz.cvut.kbss.jopa.query.QueryParameter;
+import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
+
+import java.util.*;
+
+/**
+ * Immutable result of query parsing.
+ * <p>
+ * The template holds the query split into parts delimited by parameter occurrences and identifiers of the parameters.
+ * It does not hold any parameter values, so it can be shared by multiple query instances (even across persistence
+ * contexts), each of them binding its own parameter values.
+ */
+public final class QueryTemplate {
+
+    // Original query string
+    private final String query;
+
+    private final List<String> queryParts;
+    // Parameter identifiers in order matching the query parts, they can appear multiple times in the list
+    private final List<Object> parameterIdentifiers;
+    private final Set<Object> projectedParameters;
+
+    private QueryTemplate(String query, List<String> queryParts, List<Object> parameterIdentifiers,
+                          Set<Object> projectedParameters) {
+        this.query = query;
+        this.queryParts = queryParts;
+        this.parameterIdentifiers = parameterIdentifiers;
+        this.projectedParameters = projectedParameters;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    /**
+     * Creates a new query holder based on this template.
+     * <p>
+     * The holder has its own parameter instances, so setting parameter values does not influence other holders created
+     * from this template.
+     *
+     * @param valueFactory Factory of parameter values for the new query
+     * @return New query holder
+     */
+    public SparqlQueryHolder instantiate(ParameterValueFactory valueFactory) {
+        final Map<Object, QueryParameter<?>> unique = new HashMap<>(parameterIdentifiers.size());
+        final List<QueryParameter<?>> parameters = new ArrayList<>(parameterIdentifiers.size());
+        for (Object identifier : parameterIdentifiers) {
+            parameters.add(unique.computeIfAbsent(identifier, id -> createParameter(id, valueFactory)));
+        }
+        return new SparqlQueryHolder(query, queryParts, parameters);
+    }
+
+    private QueryParameter<?> createParameter(Object identifier, ParameterValueFactory valueFactory) {
+        final QueryParameter<?> qp = identifier instanceof Integer ?
+                new QueryParameter<>((Integer) identifier, valueFactory) :
+                new QueryParameter<>(identifier.toString(), valueFactory);
+        qp.setProjected(projectedParameters.contains(identifier));
+        return qp;
+    }
+
+    /**
+     * Creates a template from the specified parsed query.
+     *
+     * @param holder Parsed query
+     * @return New query template
+     */
+    public static QueryTemplate from(SparqlQueryHolder holder) {
+        final List<Object> identifiers = new ArrayList<>(holder.getQueryParameters().size());
+        final Set<Object> projected = new HashSet<>();
+        for (QueryParameter<?> qp : holder.getQueryParameters()) {
+            identifiers.add(qp.getIdentifier());
+            if (qp.isProjected()) {
+                projected.add(qp.getIdentifier());
+            }
+        }
+        return new QueryTemplate(holder.getQuery(), Collections.unmodifiableList(new ArrayList<>(holder.getQueryParts())),
+                Collections.unmodifiableList(identifiers), Collections.unmodifiableSet(projected));
+    }
+}
@@ -14,9 +14,11 @@
  */
 package cz.cvut.kbss.jopa.query.sparql;
 
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.QueryImpl;
 import cz.cvut.kbss.jopa.model.ResultSetMappingQuery;
 import cz.cvut.kbss.jopa.model.TypedQueryImpl;
+import cz.cvut.kbss.jopa.query.QueryHolder;
 import cz.cvut.kbss.jopa.query.QueryParser;
 import cz.cvut.kbss.jopa.query.mapper.SparqlResultMapper;
 import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
@@ -24,32 +26,58 @@ import cz.cvut.kbss.jopa.query.soql.SoqlQueryParser;
 import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.sessions.QueryFactory;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.jopa.utils.ErrorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Objects;
 
 public class SparqlQueryFactory implements QueryFactory {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SparqlQueryFactory.class);
+
     private final UnitOfWorkImpl uow;
     private final ConnectionWrapper connection;
 
+    private final ParameterValueFactory parameterValueFactory;
     private final QueryParser queryParser;
     private final SoqlQueryParser soqlQueryParser;
+    private final QueryPlanCache queryPlanCache;
+
+    private final int batchFetchSize;
 
     public SparqlQueryFactory(UnitOfWorkImpl uow, ConnectionWrapper connection) {
         assert uow != null;
         assert connection != null;
         this.uow = uow;
         this.connection = connection;
-        this.queryParser = new SparqlQueryParser(new ParameterValueFactory(uow));
+        this.parameterValueFactory = new ParameterValueFactory(uow);
+        this.queryParser = new SparqlQueryParser(parameterValueFactory);
         this.soqlQueryParser = new SoqlQueryParser(queryParser, uow.getMetamodel());
+        this.queryPlanCache = uow.getQueryPlanCache();
+        this.batchFetchSize = resolveBatchFetchSize(uow.getConfiguration());
+    }
+
+    private static int resolveBatchFetchSize(Configuration configuration) {
+        final String setting = configuration.get(JOPAPersistenceProperties.QUERY_BATCH_FETCH_SIZE);
+        if (setting == null) {
+            return 1;
+        }
+        try {
+            return Integer.parseInt(setting);
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse query batch fetch size setting {}. Query results will be loaded one by one.",
+                      setting);
+            return 1;
+        }
     }
 
     @Override
     public QueryImpl createNativeQuery(String sparql) {
         Objects.requireNonNull(sparql);
 
-        final QueryImpl q = new QueryImpl(queryParser.parseQuery(sparql), connection);
+        final QueryImpl q = new QueryImpl(parseQuery(sparql, queryParser), connection);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
     }
@@ -64,8 +92,9 @@ public class SparqlQueryFactory implements QueryFactory {
     private <T> TypedQueryImpl<T> createQueryImpl(String query, Class<T> resultClass, QueryParser parser) {
         Objects.requireNonNull(resultClass, ErrorUtils.getNPXMessageSupplier("resultClass"));
 
-        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(parser.parseQuery(query), resultClass, connection, uow);
+        final TypedQueryImpl<T> tq = new TypedQueryImpl<>(parseQuery(query, parser), resultClass, connection, uow);
         tq.setUnitOfWork(uow);
+        tq.setBatchFetchSize(batchFetchSize);
         tq.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return tq;
     }
@@ -76,17 +105,21 @@ public class SparqlQueryFactory implements QueryFactory {
         Objects.requireNonNull(resultSetMapping, ErrorUtils.getNPXMessageSupplier("resultSetMapping"));
 
         final SparqlResultMapper mapper = uow.getResultSetMappingManager().getMapper(resultSetMapping);
-        final ResultSetMappingQuery q = new ResultSetMappingQuery(queryParser.parseQuery(sparql), connection, mapper,
+        final ResultSetMappingQuery q = new ResultSetMappingQuery(parseQuery(sparql, queryParser), connection, mapper,
                 uow);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
     }
 
+    private QueryHolder parseQuery(String query, QueryParser parser) {
+        return queryPlanCache.getTemplate(query, parser).instantiate(parameterValueFactory);
+    }
+
     @Override
     public QueryImpl createQuery(String query) {
         Objects.requireNonNull(query);
 
-        final QueryImpl q = new QueryImpl(soqlQueryParser.parseQuery(query), connection);
+        final QueryImpl q = new QueryImpl(parseQuery(query, soqlQueryParser), connection);
         q.useBackupOntology(uow.useBackupOntologyForQueryProcessing());
         return q;
     }
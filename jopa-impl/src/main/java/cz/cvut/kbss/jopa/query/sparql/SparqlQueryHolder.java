@@ -53,6 +53,14 @@ public class SparqlQueryHolder implements QueryHolder {
         return query;
     }
 
+    List<String> getQueryParts() {
+        return queryParts;
+    }
+
+    List<QueryParameter<?>> getQueryParameters() {
+        return parameters;
+    }
+
     @Override
     public Set<Parameter<?>> getParameters() {
         return Collections.unmodifiableSet(parameterSet.keySet());
@@ -17,6 +17,8 @@ package cz.cvut.kbss.jopa.sessions;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
+import cz.cvut.kbss.jopa.query.sparql.QueryPlanCache;
+import cz.cvut.kbss.jopa.sessions.cache.QueryAttributeCache;
 import cz.cvut.kbss.jopa.utils.Configuration;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -88,4 +90,18 @@ public abstract class AbstractSession implements Session, MetamodelProvider, Con
      * @return {@link ResultSetMappingManager}
      */
     public abstract ResultSetMappingManager getResultSetMappingManager();
+
+    /**
+     * Gets the cache of parsed queries shared by the whole persistence unit.
+     *
+     * @return {@link QueryPlanCache}
+     */
+    public abstract QueryPlanCache getQueryPlanCache();
+
+    /**
+     * Gets the tracker of query attribute values of cached instances shared by the whole persistence unit.
+     *
+     * @return {@link QueryAttributeCache}
+     */
+    public abstract QueryAttributeCache getQueryAttributeCache();
 }
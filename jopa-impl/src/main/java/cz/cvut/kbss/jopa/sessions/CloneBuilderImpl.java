@@ -20,6 +20,7 @@ import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.model.metamodel.Identifier;
 import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+import cz.cvut.kbss.jopa.utils.FieldAccessor;
 import cz.cvut.kbss.jopa.utils.IdentifierTransformer;
 import cz.cvut.kbss.ontodriver.model.LangString;
 import org.slf4j.Logger;
@@ -119,7 +120,8 @@ public class CloneBuilderImpl implements CloneBuilder {
                 continue;   // Already cloned
             }
             final Field f = fs.getJavaField();
-            final Object origVal = EntityPropertiesUtils.getFieldValue(f, original);
+            final FieldAccessor accessor = FieldAccessor.of(fs);
+            final Object origVal = accessor.get(original);
             if (origVal == null) {
                 continue;
             }
@@ -153,14 +155,14 @@ public class CloneBuilderImpl implements CloneBuilder {
                     }
                 }
             }
-            EntityPropertiesUtils.setFieldValue(f, clone, clonedValue);
+            accessor.set(clone, clonedValue);
         }
     }
 
     private static void cloneIdentifier(Object original, Object clone, EntityType<?> et) {
         final Identifier<?, ?> identifier = et.getIdentifier();
-        final Object idValue = EntityPropertiesUtils.getFieldValue(identifier.getJavaField(), original);
-        EntityPropertiesUtils.setFieldValue(identifier.getJavaField(), clone, idValue);
+        final Object idValue = EntityPropertiesUtils.getAttributeValue(identifier, original);
+        EntityPropertiesUtils.setAttributeValue(identifier, clone, idValue);
     }
 
     private Descriptor getFieldDescriptor(Field field, Class<?> entityClass, Descriptor entityDescriptor) {
@@ -202,14 +204,15 @@ public class CloneBuilderImpl implements CloneBuilder {
         try {
             for (ChangeRecord change : changeSet.getChanges()) {
                 Field f = change.getAttribute().getJavaField();
+                final FieldAccessor accessor = FieldAccessor.of(change.getAttribute());
                 if (isImmutable(f.getType())) {
-                    EntityPropertiesUtils.setFieldValue(f, original, change.getNewValue());
+                    accessor.set(original, change.getNewValue());
                     continue;
                 }
-                Object origVal = EntityPropertiesUtils.getFieldValue(f, original);
+                Object origVal = accessor.get(original);
                 Object newVal = change.getNewValue();
                 if (newVal == null) {
-                    EntityPropertiesUtils.setFieldValue(f, original, null);
+                    accessor.set(original, null);
                     continue;
                 }
                 getInstanceBuilder(newVal).mergeChanges(f, original, origVal, newVal);
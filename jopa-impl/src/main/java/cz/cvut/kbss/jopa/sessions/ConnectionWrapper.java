@@ -56,6 +56,10 @@ public class ConnectionWrapper implements Wrapper {
         return mapper.loadEntity(loadingParameters);
     }
 
+    public <T> List<T> findAll(Class<T> cls, List<URI> identifiers, Descriptor descriptor) {
+        return mapper.loadEntities(cls, identifiers, descriptor);
+    }
+
     public <T> T getReference(LoadingParameters<T> loadingParameters) {
         return mapper.loadReference(loadingParameters);
     }
@@ -83,20 +87,42 @@ public class ConnectionWrapper implements Wrapper {
         return mapper.getAttributeAxioms(entity, fieldSpec, entityDescriptor);
     }
 
+    /**
+     * Writes changes buffered by the object-ontology mapper into the storage.
+     */
+    public void flush() {
+        mapper.flush();
+    }
+
+    /**
+     * Writes buffered attribute changes of the specified entity into the storage.
+     *
+     * @param entity Entity whose changes should be written
+     */
+    public void flushUpdates(Object entity) {
+        mapper.flushUpdates(entity);
+    }
+
     public void commit() {
         try {
+            mapper.flush();
             mapper.checkForUnpersistedChanges();
             connection.commit();
         } catch (OntoDriverException e) {
             throw new OWLPersistenceException(e);
+        } finally {
+            mapper.transactionFinished();
         }
     }
 
     public void rollback() {
         try {
+            mapper.discardPendingChanges();
             connection.rollback();
         } catch (OntoDriverException e) {
             throw new OWLPersistenceException(e);
+        } finally {
+            mapper.transactionFinished();
         }
     }
 
@@ -110,6 +136,7 @@ public class ConnectionWrapper implements Wrapper {
 
     public boolean isConsistent(URI context) {
         try {
+            mapper.flush();
             return connection.isConsistent(context);
         } catch (OntoDriverException e) {
             throw new OWLPersistenceException(e);
@@ -118,6 +145,7 @@ public class ConnectionWrapper implements Wrapper {
 
     public boolean isInferred(Axiom<?> axiom, Set<URI> contexts) {
         try {
+            mapper.flush();
             return connection.isInferred(axiom, contexts);
         } catch (OntoDriverException e) {
             throw new OWLPersistenceException(e);
@@ -134,6 +162,8 @@ public class ConnectionWrapper implements Wrapper {
 
     public Statement createStatement() {
         try {
+            // Statements may read data written by the buffered changes
+            mapper.flush();
             return connection.createStatement();
         } catch (OntoDriverException e) {
             throw new OWLPersistenceException(e);
@@ -143,6 +173,7 @@ public class ConnectionWrapper implements Wrapper {
     @Override
     public <T> T unwrap(Class<T> cls) {
         try {
+            mapper.flush();
             return connection.unwrap(cls);
         } catch (OntoDriverException e) {
             throw new OWLPersistenceException(e);
@@ -21,7 +21,9 @@ import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
+import cz.cvut.kbss.jopa.query.sparql.QueryPlanCache;
 import cz.cvut.kbss.jopa.sessions.cache.CacheFactory;
+import cz.cvut.kbss.jopa.sessions.cache.QueryAttributeCache;
 import cz.cvut.kbss.jopa.transactions.EntityTransaction;
 import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.jopa.utils.Wrapper;
@@ -43,6 +45,9 @@ public class ServerSession extends AbstractSession implements Wrapper {
 
     private final MetamodelImpl metamodel;
 
+    private final QueryPlanCache queryPlanCache;
+    private final QueryAttributeCache queryAttributeCache;
+
     private CacheManager liveObjectCache;
     private StorageAccessor storageAccessor;
 
@@ -51,12 +56,16 @@ public class ServerSession extends AbstractSession implements Wrapper {
     ServerSession() {
         super(new Configuration(Collections.emptyMap()));
         this.metamodel = null;
+        this.queryPlanCache = new QueryPlanCache(getConfiguration());
+        this.queryAttributeCache = new QueryAttributeCache(getConfiguration());
     }
 
     public ServerSession(OntologyStorageProperties storageProperties, Configuration configuration,
                          MetamodelImpl metamodel) {
         super(configuration);
         this.metamodel = metamodel;
+        this.queryPlanCache = new QueryPlanCache(configuration);
+        this.queryAttributeCache = new QueryAttributeCache(configuration);
         initialize(storageProperties, configuration, metamodel);
     }
 
@@ -73,7 +82,7 @@ public class ServerSession extends AbstractSession implements Wrapper {
         assert configuration != null;
         assert metamodel != null;
         this.runningTransactions = new ConcurrentHashMap<>();
-        this.liveObjectCache = CacheFactory.createCache(configuration.getProperties());
+        this.liveObjectCache = CacheFactory.createCache(configuration.getProperties(), metamodel);
         liveObjectCache.setInferredClasses(metamodel.getInferredClasses());
         this.storageAccessor = new DefaultStorageAccessor(storageProperties, configuration.getProperties());
     }
@@ -117,6 +126,8 @@ public class ServerSession extends AbstractSession implements Wrapper {
             }
         }
         liveObjectCache.close();
+        queryPlanCache.clear();
+        queryAttributeCache.clear();
     }
 
     @Override
@@ -144,6 +155,16 @@ public class ServerSession extends AbstractSession implements Wrapper {
         return metamodel.getResultSetMappingManager();
     }
 
+    @Override
+    public QueryPlanCache getQueryPlanCache() {
+        return queryPlanCache;
+    }
+
+    @Override
+    public QueryAttributeCache getQueryAttributeCache() {
+        return queryAttributeCache;
+    }
+
     @Override
     public <T> T unwrap(Class<T> cls) {
         Objects.requireNonNull(cls);
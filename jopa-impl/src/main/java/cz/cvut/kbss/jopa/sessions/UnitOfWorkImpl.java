@@ -29,8 +29,10 @@ import cz.cvut.kbss.jopa.model.metamodel.EntityTypeImpl;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
 import cz.cvut.kbss.jopa.query.NamedQueryManager;
 import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
+import cz.cvut.kbss.jopa.query.sparql.QueryPlanCache;
 import cz.cvut.kbss.jopa.query.criteria.CriteriaBuilderImpl;
 import cz.cvut.kbss.jopa.query.sparql.SparqlQueryFactory;
+import cz.cvut.kbss.jopa.sessions.cache.QueryAttributeCache;
 import cz.cvut.kbss.jopa.sessions.change.ChangeManagerImpl;
 import cz.cvut.kbss.jopa.sessions.change.ChangeRecordImpl;
 import cz.cvut.kbss.jopa.sessions.change.ChangeSetFactory;
@@ -46,7 +48,6 @@ import org.aspectj.lang.Aspects;
 import java.lang.reflect.Field;
 import java.net.URI;
 import java.util.*;
-import java.util.Map.Entry;
 import java.util.function.Consumer;
 
 import static cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException.individualAlreadyManaged;
@@ -59,6 +60,8 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
     // Read-only!!! It is just the keyset of cloneToOriginals
     private final Set<Object> cloneMapping;
     private final Map<Object, Object> cloneToOriginals;
+    // Reverse index of cloneToOriginals, kept in sync by putClone and removeClone
+    private final Map<Object, Object> originalToClone;
     private final Map<Object, Object> keysToClones = new HashMap<>();
     private final Map<Object, Object> deletedObjects;
     private final Map<Object, Object> newObjectsCloneToOriginal;
@@ -99,6 +102,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         this.parent = Objects.requireNonNull(parent);
         this.cloneToOriginals = createMap();
         this.cloneMapping = cloneToOriginals.keySet();
+        this.originalToClone = createMap();
         this.deletedObjects = createMap();
         this.newObjectsCloneToOriginal = createMap();
         this.instanceDescriptors = new IdentityHashMap<>();
@@ -154,12 +158,49 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         if (result == null) {
             return null;
         }
-        final Object clone = registerExistingObject(result, descriptor,
+        return registerLoadedObject(cls, result, descriptor);
+    }
+
+    private <T> T registerLoadedObject(Class<T> cls, T original, Descriptor descriptor) {
+        final Object clone = registerExistingObject(original, descriptor,
                                                     Collections.singletonList(new PostLoadInvoker(getMetamodel())));
         checkForIndirectObjects(clone);
         return cls.cast(clone);
     }
 
+    @Override
+    public <T> List<T> readObjects(Class<T> cls, List<?> identifiers, Descriptor descriptor) {
+        Objects.requireNonNull(cls);
+        Objects.requireNonNull(identifiers);
+        Objects.requireNonNull(descriptor);
+
+        final Set<URI> toLoad = new LinkedHashSet<>(identifiers.size());
+        for (Object identifier : identifiers) {
+            if (readManagedObject(cls, identifier, descriptor) == null) {
+                toLoad.add(getValueAsURI(identifier));
+            }
+        }
+        final Map<URI, T> loaded = new HashMap<>(toLoad.size());
+        if (!toLoad.isEmpty()) {
+            final List<URI> toLoadList = new ArrayList<>(toLoad);
+            final List<T> originals = storage.findAll(cls, toLoadList, descriptor);
+            for (int i = 0; i < toLoadList.size(); i++) {
+                loaded.put(toLoadList.get(i), originals.get(i));
+            }
+        }
+        final List<T> result = new ArrayList<>(identifiers.size());
+        for (Object identifier : identifiers) {
+            // Check managed objects again, the instance may have been registered as a reference of a previous one
+            T instance = readManagedObject(cls, identifier, descriptor);
+            if (instance == null) {
+                final T original = loaded.get(getValueAsURI(identifier));
+                instance = original != null ? registerLoadedObject(cls, original, descriptor) : null;
+            }
+            result.add(instance);
+        }
+        return result;
+    }
+
     private <T> T readManagedObject(Class<T> cls, Object identifier, Descriptor descriptor) {
         // First try to find the object among new uncommitted objects
         Object result = newObjectsKeyToClone.get(identifier);
@@ -200,9 +241,9 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         registerEntityWithPersistenceContext(result);
         registerEntityWithOntologyContext(result, descriptor);
         if (getLiveObjectCache().contains(cls, identifier, descriptor)) {
-            cloneToOriginals.put(result, getLiveObjectCache().get(cls, identifier, descriptor));
+            putClone(result, getLiveObjectCache().get(cls, identifier, descriptor));
         } else {
-            cloneToOriginals.put(result, null);
+            putClone(result, null);
         }
         keysToClones.put(identifier, result);
         return result;
@@ -250,8 +291,15 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
 
     @Override
     public void clear() {
+        // Deferred changes were made while the instances were managed, so they have to be written before detaching
+        storage.flush();
+        clearPersistenceContext();
+    }
+
+    private void clearPersistenceContext() {
         detachAllManagedInstances();
         cloneToOriginals.clear();
+        originalToClone.clear();
         keysToClones.clear();
         deletedObjects.clear();
         newObjectsCloneToOriginal.clear();
@@ -301,7 +349,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
             throw new IllegalStateException("Cannot rollback inactive Unit of Work!");
         }
         storage.rollback();
-        clear();
+        clearPersistenceContext();
     }
 
     /**
@@ -318,7 +366,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      */
     private void postCommit() {
         final boolean changes = hasChanges();
-        clear();
+        clearPersistenceContext();
         this.inCommit = false;
         if (changes) {
             if (shouldClearCacheAfterCommit) {
@@ -437,7 +485,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      * @return True if the original is managed in this UnitOfWork.
      */
     boolean containsOriginal(Object entity) {
-        return entity != null && cloneToOriginals.containsValue(entity);
+        return entity != null && originalToClone.containsKey(entity);
     }
 
     /**
@@ -447,13 +495,33 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      * @return The clone or null, if there is none
      */
     public Object getCloneForOriginal(Object original) {
-        for (Entry<Object, Object> entry : cloneToOriginals.entrySet()) {
-            // We use IdentityMap, so we can use ==
-            if (entry.getValue() == original) {
-                return entry.getKey();
-            }
+        return original != null ? originalToClone.get(original) : null;
+    }
+
+    /**
+     * Registers the specified clone-original pair, replacing any original previously registered for the clone.
+     */
+    private void putClone(Object clone, Object original) {
+        final Object previous = cloneToOriginals.put(clone, original);
+        if (previous != null && previous != original && originalToClone.get(previous) == clone) {
+            originalToClone.remove(previous);
+        }
+        if (original != null) {
+            originalToClone.put(original, clone);
         }
-        return null;
+    }
+
+    /**
+     * Removes the specified clone and its original from the clone-original mapping.
+     *
+     * @return The original of the removed clone, possibly {@code null}
+     */
+    private Object removeClone(Object clone) {
+        final Object original = cloneToOriginals.remove(clone);
+        if (original != null && originalToClone.get(original) == clone) {
+            originalToClone.remove(original);
+        }
+        return original;
     }
 
     public boolean hasChanges() {
@@ -526,7 +594,21 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         setHasChanges();
         setIndirectObjectIfPresent(entity, f);
         et.getLifecycleListenerManager().invokePostUpdateCallbacks(entity);
-        instanceDescriptors.get(entity).setLoaded(fieldSpec, LoadState.LOADED);
+        final InstanceDescriptor<Object> instanceDescriptor = instanceDescriptors.get(entity);
+        instanceDescriptor.setLoaded(fieldSpec, LoadState.LOADED);
+        instanceDescriptor.setDirty(fieldSpec);
+    }
+
+    private boolean isDirty(Object entity) {
+        final InstanceDescriptor<?> instanceDescriptor = instanceDescriptors.get(entity);
+        return instanceDescriptor == null || instanceDescriptor.isDirty();
+    }
+
+    private <T> void setDirty(T entity, FieldSpecification<? super T, ?> fieldSpec) {
+        final InstanceDescriptor<T> instanceDescriptor = instanceDescriptors.get(entity);
+        if (instanceDescriptor != null) {
+            instanceDescriptor.setDirty(fieldSpec);
+        }
     }
 
     private void createAndRegisterChangeRecord(Object clone, FieldSpecification<?, ?> fieldSpec,
@@ -535,9 +617,8 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         if (orig == null) {
             return;
         }
-        final ChangeRecord record = new ChangeRecordImpl(fieldSpec,
-                                                         EntityPropertiesUtils.getFieldValue(fieldSpec.getJavaField(),
-                                                                                             clone));
+        final ChangeRecord record =
+                new ChangeRecordImpl(fieldSpec, EntityPropertiesUtils.getAttributeValue(fieldSpec, clone));
         preventCachingIfReferenceIsNotLoaded(record);
         registerChangeRecord(clone, orig, descriptor, record);
     }
@@ -568,9 +649,15 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         evictPossiblyUpdatedReferencesFromCache();
     }
 
+    /**
+     * Evicts instances which have no original (they were retrieved using {@link #getReference(Class, Object,
+     * Descriptor)}) and were changed in this transaction.
+     * <p>
+     * Changes of such instances are not recorded in the change set, so the cache cannot be updated with them.
+     */
     private void evictPossiblyUpdatedReferencesFromCache() {
         cloneToOriginals.forEach((clone, orig) -> {
-            if (orig == null && !deletedObjects.containsKey(clone)) {
+            if (orig == null && !deletedObjects.containsKey(clone) && isDirty(clone)) {
                 removeObjectFromCache(clone, getDescriptor(clone).getSingleContext().orElse(null));
             }
         });
@@ -622,6 +709,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
                     AttributeModificationValidator.verifyCanModify(record.getAttribute());
                     preventCachingIfReferenceIsNotLoaded(record);
                     storage.merge(clone, (FieldSpecification<? super T, ?>) record.getAttribute(), descriptor);
+                    setDirty(clone, (FieldSpecification<? super T, ?>) record.getAttribute());
                 }
                 et.getLifecycleListenerManager().invokePostUpdateCallbacks(clone);
                 uowChangeSet.addObjectChangeSet(copyChangeSet(chSet, getOriginal(clone), clone, descriptor));
@@ -679,6 +767,16 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         return parent.getResultSetMappingManager();
     }
 
+    @Override
+    public QueryPlanCache getQueryPlanCache() {
+        return parent.getQueryPlanCache();
+    }
+
+    @Override
+    public QueryAttributeCache getQueryAttributeCache() {
+        return parent.getQueryAttributeCache();
+    }
+
     @Override
     public Object registerExistingObject(Object entity, Descriptor descriptor) {
         return registerExistingObject(entity, descriptor, Collections.emptyList());
@@ -689,7 +787,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         if (entity == null) {
             return null;
         }
-        if (cloneToOriginals.containsValue(entity)) {
+        if (containsOriginal(entity)) {
             return getCloneForOriginal(entity);
         }
         final CloneConfiguration cloneConfig = new CloneConfiguration(descriptor);
@@ -702,7 +800,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
     }
 
     private void registerClone(Object clone, Object original, Descriptor descriptor) {
-        cloneToOriginals.put(clone, original);
+        putClone(clone, original);
         final Object identifier = EntityPropertiesUtils.getIdentifier(clone, getMetamodel());
         keysToClones.put(identifier, clone);
         final InstanceDescriptor<?> instanceDesc = identifier != null ? InstanceDescriptorFactory.create(clone, (EntityType<Object>) entityType(clone.getClass())) : InstanceDescriptorFactory.createAllLoaded(clone, (EntityType<Object>) entityType(clone.getClass()));
@@ -717,7 +815,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
      */
     @Override
     public void release() {
-        clear();
+        clearPersistenceContext();
         storage.close();
         this.isActive = false;
         LOG.debug("UnitOfWork released.");
@@ -747,7 +845,7 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
             final ObjectChangeSet chSet = ChangeSetFactory.createObjectChangeSet(source, object, descriptor);
             changeManager.calculateChanges(chSet);
             new RefreshInstanceMerger(indirectWrapperHelper).mergeChanges(chSet);
-            revertTransactionalChanges(object, descriptor, chSet);
+            revertTransactionalChanges(object, descriptor, chSet, instanceDescriptors.get(object));
             registerClone(object, original, descriptor);
             et.getLifecycleListenerManager().invokePostLoadCallbacks(object);
         } finally {
@@ -755,8 +853,18 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         }
     }
 
-    private <T> void revertTransactionalChanges(T object, Descriptor descriptor, ObjectChangeSet chSet) {
+    /**
+     * Writes the refreshed values of attributes changed in the current transaction into the storage.
+     * <p>
+     * Attributes which were not changed in this transaction (they may differ only due to changes committed by other
+     * transactions) are not written.
+     */
+    private <T> void revertTransactionalChanges(T object, Descriptor descriptor, ObjectChangeSet chSet,
+                                                InstanceDescriptor<?> instanceDescriptor) {
         for (ChangeRecord change : chSet.getChanges()) {
+            if (instanceDescriptor != null && !instanceDescriptor.isDirty(change.getAttribute())) {
+                continue;
+            }
             storage.merge(object, (FieldSpecification<? super T, ?>) change.getAttribute(),
                     descriptor.getAttributeDescriptor(change.getAttribute()));
         }
@@ -857,7 +965,9 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         if (object == null) {
             return;
         }
-        final Object original = cloneToOriginals.remove(object);
+        // Deferred changes were made while the instance was managed, later changes must not be written
+        storage.flushUpdates(object);
+        final Object original = removeClone(object);
         keysToClones.remove(EntityPropertiesUtils.getIdentifier(object, getMetamodel()));
 
         deletedObjects.remove(object);
@@ -950,6 +1060,31 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         instanceDescriptors.get(entity).setLoaded(fieldSpec, LoadState.LOADED);
     }
 
+    /**
+     * Loads value of the specified field of the specified entity, provided the entity is managed by this persistence
+     * context and the field has not been loaded yet.
+     * <p>
+     * Unlike {@link #loadEntityField(Object, Field)}, this method does not look the field up by name and checks
+     * whether the entity is managed only when the field is not loaded, so reading an already loaded field is
+     * cheap.
+     *
+     * @param entity    Entity whose field is being read
+     * @param fieldSpec Specification of the field to load
+     * @param <T>       Entity type
+     */
+    public <T> void loadEntityFieldIfManaged(T entity, FieldSpecification<? super T, ?> fieldSpec) {
+        Objects.requireNonNull(entity);
+        Objects.requireNonNull(fieldSpec);
+        final InstanceDescriptor<?> instanceDescriptor = instanceDescriptors.get(entity);
+        if (instanceDescriptor != null && instanceDescriptor.isLoaded(fieldSpec) == LoadState.LOADED) {
+            return;
+        }
+        if (!isObjectManaged(entity)) {
+            return;
+        }
+        loadEntityField(entity, fieldSpec.getJavaField());
+    }
+
     private <T> Descriptor getFieldDescriptor(T entity, Field field, Descriptor entityDescriptor) {
         final EntityType<?> et = entityType(entity.getClass());
         final FieldSpecification<?, ?> fieldSpec = et.getFieldSpecification(field.getName());
@@ -1091,16 +1226,18 @@ public class UnitOfWorkImpl extends AbstractSession implements UnitOfWork, Confi
         assert entity != null;
         final EntityType<?> et = entityType(entity.getClass());
         for (FieldSpecification<?, ?> fs : et.getFieldSpecifications()) {
-            final Object value = EntityPropertiesUtils.getFieldValue(fs.getJavaField(), entity);
+            final Object value = EntityPropertiesUtils.getAttributeValue(fs, entity);
             if (value instanceof IndirectCollection) {
                 IndirectCollection<?> indCol = (IndirectCollection<?>) value;
-                EntityPropertiesUtils.setFieldValue(fs.getJavaField(), entity, indCol.unwrap());
+                EntityPropertiesUtils.setAttributeValue(fs, entity, indCol.unwrap());
             }
         }
     }
 
     void putObjectIntoCache(Object identifier, Object entity, Descriptor descriptor) {
         cacheManager.add(identifier, entity, descriptor);
+        // The cached instance has new state, its query attribute values have to be re-evaluated on the next cache hit
+        getQueryAttributeCache().invalidate(entity);
     }
 
     private Object getIdentifier(Object entity) {
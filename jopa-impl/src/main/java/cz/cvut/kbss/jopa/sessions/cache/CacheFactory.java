@@ -15,6 +15,7 @@
 package cz.cvut.kbss.jopa.sessions.cache;
 
 import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
 import cz.cvut.kbss.jopa.sessions.CacheManager;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,6 +32,8 @@ public abstract class CacheFactory {
 
     private static final String LRU_CACHE = "lru";
     private static final String TTL_CACHE = "ttl";
+    private static final String STRIPED_LRU_CACHE = "striped_lru";
+    private static final String WEIGHTED_LRU_CACHE = "weighted_lru";
 
     private CacheFactory() {
         throw new AssertionError();
@@ -40,19 +43,21 @@ public abstract class CacheFactory {
      * Creates new cache based on the specified properties.
      *
      * @param properties Configuration of cache
+     * @param metamodel  Metamodel of the persistence unit, used by caches which need to inspect cached entities
      * @return Cache implementation
      */
-    public static CacheManager createCache(Map<String, String> properties) {
+    public static CacheManager createCache(Map<String, String> properties, Metamodel metamodel) {
         Objects.requireNonNull(properties);
+        Objects.requireNonNull(metamodel);
         final String enabledStr = properties.get(JOPAPersistenceProperties.CACHE_ENABLED);
         if (enabledStr != null && !Boolean.parseBoolean(enabledStr)) {
             LOG.debug("Second level cache is disabled.");
             return new DisabledCacheManager();
         }
-        return createEnabledCache(properties);
+        return createEnabledCache(properties, metamodel);
     }
 
-    private static CacheManager createEnabledCache(Map<String, String> properties) {
+    private static CacheManager createEnabledCache(Map<String, String> properties, Metamodel metamodel) {
         final String cacheType = properties.getOrDefault(JOPAPersistenceProperties.CACHE_TYPE, LRU_CACHE).toLowerCase();
         switch (cacheType) {
             case LRU_CACHE:
@@ -61,6 +66,12 @@ public abstract class CacheFactory {
             case TTL_CACHE:
                 LOG.debug("Using TTL cache.");
                 return new TtlCacheManager(properties);
+            case STRIPED_LRU_CACHE:
+                LOG.debug("Using striped LRU cache.");
+                return new StripedLruCacheManager(properties);
+            case WEIGHTED_LRU_CACHE:
+                LOG.debug("Using weighted LRU cache.");
+                return new WeightedLruCacheManager(properties, metamodel);
             default:
                 throw new IllegalArgumentException("Invalid second level cache type " + cacheType);
         }
@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
+import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
+
+import java.net.URI;
+import java.net.URL;
+import java.time.temporal.Temporal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Estimates the amount of heap retained by a cached entity.
+ * <p>
+ * The estimate is based on the entity's metamodel attributes (including types and properties) and their current
+ * values. It assumes a 64-bit JVM and is deliberately approximate - its purpose is to keep the cache size in bounds, not
+ * to measure memory precisely.
+ * <p>
+ * References to other entities are counted only as references, because the referenced instances are cached (and
+ * weighed) separately.
+ */
+class EntityWeigher {
+
+    static final int REFERENCE_SIZE = 8;
+    static final int OBJECT_OVERHEAD = 16;
+    /**
+     * Overhead of a cache entry, i.e., the cache's internal maps and nodes holding the entity.
+     */
+    static final int CACHE_ENTRY_OVERHEAD = 160;
+
+    private static final int STRING_OVERHEAD = 40;
+    private static final int URI_OVERHEAD = 80;
+    private static final int BOXED_VALUE_SIZE = 24;
+    private static final int TEMPORAL_SIZE = 32;
+    private static final int CONTAINER_OVERHEAD = 48;
+    private static final int CONTAINER_ENTRY_OVERHEAD = 32;
+
+    private final Metamodel metamodel;
+
+    private final Map<Class<?>, Collection<FieldSpecification<?, ?>>> fieldSpecs = new ConcurrentHashMap<>();
+
+    EntityWeigher(Metamodel metamodel) {
+        this.metamodel = Objects.requireNonNull(metamodel);
+    }
+
+    /**
+     * Estimates the size of the specified entity in bytes.
+     *
+     * @param entity Entity to weigh
+     * @return Estimated retained size, including the cache entry overhead
+     */
+    long weigh(Object entity) {
+        assert entity != null;
+
+        long weight = CACHE_ENTRY_OVERHEAD + OBJECT_OVERHEAD;
+        for (FieldSpecification<?, ?> fs : fieldSpecs.computeIfAbsent(entity.getClass(), this::resolveFields)) {
+            if (fs.getJavaField().getType().isPrimitive()) {
+                weight += REFERENCE_SIZE;
+                continue;
+            }
+            weight += REFERENCE_SIZE + weighValue(EntityPropertiesUtils.getAttributeValue(fs, entity));
+        }
+        return weight;
+    }
+
+    private Collection<FieldSpecification<?, ?>> resolveFields(Class<?> cls) {
+        try {
+            return new ArrayList<>(metamodel.entity(cls).getFieldSpecifications());
+        } catch (IllegalArgumentException e) {
+            // Not an entity class, weigh only the object itself
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Estimates the size of an attribute value, excluding the reference to it.
+     * <p>
+     * Values of unknown types (typically other entities) are not traversed.
+     */
+    static long weighValue(Object value) {
+        if (value == null || value instanceof Enum) {
+            return 0;
+        }
+        if (value instanceof String) {
+            return weighString((String) value);
+        }
+        if (value instanceof URI || value instanceof URL) {
+            // URI holds the string representation as well as its parsed components
+            return URI_OVERHEAD + 2 * weighString(value.toString());
+        }
+        if (value instanceof MultilingualString) {
+            return OBJECT_OVERHEAD + weighValue(((MultilingualString) value).getValue());
+        }
+        if (value instanceof Collection) {
+            final Collection<?> col = (Collection<?>) value;
+            long weight = CONTAINER_OVERHEAD;
+            for (Object item : col) {
+                weight += CONTAINER_ENTRY_OVERHEAD + weighValue(item);
+            }
+            return weight;
+        }
+        if (value instanceof Map) {
+            long weight = CONTAINER_OVERHEAD;
+            for (Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet()) {
+                weight += CONTAINER_ENTRY_OVERHEAD + weighValue(e.getKey()) + weighValue(e.getValue());
+            }
+            return weight;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return BOXED_VALUE_SIZE;
+        }
+        if (value instanceof Temporal || value instanceof Date) {
+            return TEMPORAL_SIZE;
+        }
+        return 0;
+    }
+
+    private static long weighString(String str) {
+        return STRING_OVERHEAD + 2L * str.length();
+    }
+}
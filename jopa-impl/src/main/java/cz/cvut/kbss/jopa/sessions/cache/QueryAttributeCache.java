@@ -0,0 +1,190 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.utils.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks freshness of query attribute values of instances stored in the second level cache.
+ * <p>
+ * Query attribute ({@link cz.cvut.kbss.jopa.model.annotations.Sparql}) values of an instance retrieved from the second
+ * level cache are normally re-evaluated on every cache hit. When a time-to-live is configured, values populated less
+ * than the time-to-live ago are considered fresh and the queries are not executed again. Putting an instance into the
+ * cache (e.g., on commit of a transaction which changed it) invalidates its values.
+ * <p>
+ * Instances are tracked by identity and the tracker does not prevent them from being garbage collected.
+ *
+ * @see JOPAPersistenceProperties#QUERY_ATTRIBUTE_CACHE_TTL
+ */
+public class QueryAttributeCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(QueryAttributeCache.class);
+
+    /**
+     * Default time-to-live of query attribute values. Zero means the values are re-evaluated on every cache hit.
+     */
+    public static final long DEFAULT_TTL = 0L;
+
+    private final long ttlMillis;
+
+    private final LongSupplier clock;
+
+    private final Map<InstanceReference, Long> populated = new HashMap<>();
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    public QueryAttributeCache(Configuration configuration) {
+        this(configuration, System::currentTimeMillis);
+    }
+
+    QueryAttributeCache(Configuration configuration, LongSupplier clock) {
+        this.ttlMillis = TimeUnit.SECONDS.toMillis(resolveTtl(configuration));
+        this.clock = clock;
+    }
+
+    private static long resolveTtl(Configuration configuration) {
+        final String setting = configuration.get(JOPAPersistenceProperties.QUERY_ATTRIBUTE_CACHE_TTL);
+        if (setting == null) {
+            return DEFAULT_TTL;
+        }
+        try {
+            final long ttl = Long.parseLong(setting);
+            if (ttl < 0) {
+                LOG.warn("Invalid query attribute cache TTL value {}. Using default value {}.", ttl, DEFAULT_TTL);
+                return DEFAULT_TTL;
+            }
+            return ttl;
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse query attribute cache TTL setting {}. Using default value {}.", setting,
+                      DEFAULT_TTL);
+            return DEFAULT_TTL;
+        }
+    }
+
+    /**
+     * Gets the configured time-to-live of query attribute values.
+     *
+     * @return Time-to-live in seconds
+     */
+    public long getTtl() {
+        return TimeUnit.MILLISECONDS.toSeconds(ttlMillis);
+    }
+
+    /**
+     * Checks whether query attribute values of the specified instance have to be re-evaluated.
+     *
+     * @param instance Cached instance
+     * @return {@code true} if the values are not known to be fresh, {@code false} otherwise
+     */
+    public boolean shouldRefresh(Object instance) {
+        if (ttlMillis == 0) {
+            return true;
+        }
+        synchronized (populated) {
+            expungeCollected();
+            final Long timestamp = populated.get(new InstanceReference(instance));
+            return timestamp == null || clock.getAsLong() - timestamp >= ttlMillis;
+        }
+    }
+
+    /**
+     * Records that query attribute values of the specified instance have just been evaluated.
+     *
+     * @param instance Cached instance
+     */
+    public void refreshed(Object instance) {
+        if (ttlMillis == 0) {
+            return;
+        }
+        synchronized (populated) {
+            expungeCollected();
+            populated.put(new InstanceReference(instance, queue), clock.getAsLong());
+        }
+    }
+
+    /**
+     * Invalidates query attribute values of the specified instance, so that they are re-evaluated on the next cache
+     * hit.
+     *
+     * @param instance Cached instance
+     */
+    public void invalidate(Object instance) {
+        if (ttlMillis == 0) {
+            return;
+        }
+        synchronized (populated) {
+            populated.remove(new InstanceReference(instance));
+        }
+    }
+
+    public void clear() {
+        synchronized (populated) {
+            populated.clear();
+            expungeCollected();
+        }
+    }
+
+    private void expungeCollected() {
+        Reference<?> ref;
+        while ((ref = queue.poll()) != null) {
+            populated.remove(ref);
+        }
+    }
+
+    /**
+     * Weak reference to an instance with identity-based equality.
+     */
+    private static final class InstanceReference extends WeakReference<Object> {
+
+        private final int hash;
+
+        private InstanceReference(Object instance) {
+            super(instance);
+            this.hash = System.identityHashCode(instance);
+        }
+
+        private InstanceReference(Object instance, ReferenceQueue<Object> queue) {
+            super(instance, queue);
+            this.hash = System.identityHashCode(instance);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof InstanceReference)) {
+                return false;
+            }
+            final Object referent = get();
+            return referent != null && referent == ((InstanceReference) o).get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import cz.cvut.kbss.jopa.utils.ErrorUtils;
+
+import java.net.URI;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Fixed-size second level cache with approximate LRU eviction policy designed for concurrent access.
+ * <p>
+ * The cache is split into segments (stripes), each with its own lock and its own LRU eviction order. Entries are
+ * assigned to segments based on their identifier, so concurrent accesses to different entities rarely contend for the
+ * same lock. Since a lookup in an LRU cache updates the access order, {@link LruCacheManager} has to effectively
+ * serialize all operations, which this implementation avoids.
+ * <p>
+ * Each segment holds at most its share of the total capacity and evicts its least recently used entry when full. The
+ * eviction order is thus LRU only within a segment and approximately LRU for the cache as a whole.
+ * <p>
+ * Eviction by context or by class is applied to all the segments.
+ */
+public class StripedLruCacheManager implements CacheManager {
+
+    /**
+     * Maximum number of segments the cache is split into.
+     */
+    static final int MAX_SEGMENT_COUNT = 64;
+
+    /**
+     * Minimum number of entries a segment should be able to hold. The number of segments is reduced for small
+     * capacities so that the eviction order remains reasonably close to LRU.
+     */
+    static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final int capacity;
+
+    private final Segment[] segments;
+
+    private Set<Class<?>> inferredClasses;
+
+    StripedLruCacheManager() {
+        this(Collections.emptyMap());
+    }
+
+    StripedLruCacheManager(Map<String, String> properties) {
+        Objects.requireNonNull(properties);
+        this.capacity = properties.containsKey(JOPAPersistenceProperties.LRU_CACHE_CAPACITY) ?
+                LruCacheManager.resolveCapacitySetting(properties) : LruCacheManager.DEFAULT_CAPACITY;
+        final int segmentCount = resolveSegmentCount(capacity, Runtime.getRuntime().availableProcessors());
+        // LruCache evicts once its size reaches capacity, so at least two are necessary to hold an entry
+        final int segmentCapacity = Math.max(2, capacity / segmentCount);
+        this.segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+    }
+
+    /**
+     * Resolves the number of segments, which is a power of two so that segment selection can use bit masking.
+     */
+    static int resolveSegmentCount(int capacity, int processors) {
+        final int target = Math.min(MAX_SEGMENT_COUNT, processors * 4);
+        int count = 1;
+        while (count < target && capacity / (count * 2) >= MIN_SEGMENT_CAPACITY) {
+            count <<= 1;
+        }
+        return count;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int getSegmentCount() {
+        return segments.length;
+    }
+
+    private Segment segmentFor(Object identifier) {
+        final int h = identifier.hashCode();
+        // Spread higher bits downwards, as HashMap does
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    @Override
+    public void add(Object primaryKey, Object entity, Descriptor descriptor) {
+        Objects.requireNonNull(primaryKey, ErrorUtils.getNPXMessageSupplier("primaryKey"));
+        Objects.requireNonNull(entity, ErrorUtils.getNPXMessageSupplier("entity"));
+        Objects.requireNonNull(descriptor, ErrorUtils.getNPXMessageSupplier("descriptor"));
+
+        final Segment segment = segmentFor(primaryKey);
+        segment.lock();
+        try {
+            segment.entityCache.put(primaryKey, entity, descriptor);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    @Override
+    public <T> T get(Class<T> cls, Object primaryKey, Descriptor descriptor) {
+        if (cls == null || primaryKey == null || descriptor == null) {
+            return null;
+        }
+        final Segment segment = segmentFor(primaryKey);
+        segment.lock();
+        try {
+            return segment.entityCache.get(cls, primaryKey, descriptor);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Class<?> cls, Object identifier, Descriptor descriptor) {
+        if (cls == null || identifier == null || descriptor == null) {
+            return false;
+        }
+        final Segment segment = segmentFor(identifier);
+        segment.lock();
+        try {
+            return segment.entityCache.contains(cls, identifier, descriptor);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    @Override
+    public void evict(Class<?> cls, Object identifier, URI context) {
+        Objects.requireNonNull(cls, ErrorUtils.getNPXMessageSupplier("cls"));
+        Objects.requireNonNull(identifier, ErrorUtils.getNPXMessageSupplier("primaryKey"));
+
+        final Segment segment = segmentFor(identifier);
+        segment.lock();
+        try {
+            segment.entityCache.evict(cls, identifier, context);
+        } finally {
+            segment.unlock();
+        }
+    }
+
+    @Override
+    public void evict(Class<?> cls) {
+        Objects.requireNonNull(cls);
+        forEachSegment(cache -> cache.evict(cls));
+    }
+
+    @Override
+    public void evict(URI context) {
+        forEachSegment(cache -> cache.evict(context));
+    }
+
+    @Override
+    public void evictAll() {
+        for (Segment segment : segments) {
+            segment.lock();
+            try {
+                segment.entityCache = new LruCacheManager.LruEntityCache(segment.capacity);
+            } finally {
+                segment.unlock();
+            }
+        }
+    }
+
+    private void forEachSegment(Consumer<LruCacheManager.LruEntityCache> action) {
+        for (Segment segment : segments) {
+            segment.lock();
+            try {
+                action.accept(segment.entityCache);
+            } finally {
+                segment.unlock();
+            }
+        }
+    }
+
+    @Override
+    public void evictInferredObjects() {
+        getInferredClasses().forEach(this::evict);
+    }
+
+    private Set<Class<?>> getInferredClasses() {
+        if (inferredClasses == null) {
+            return Collections.emptySet();
+        }
+        return inferredClasses;
+    }
+
+    @Override
+    public void setInferredClasses(Set<Class<?>> inferredClasses) {
+        this.inferredClasses = inferredClasses;
+    }
+
+    @Override
+    public void close() {
+        evictAll();
+    }
+
+    /**
+     * A single cache segment, guarded by its own lock.
+     */
+    static final class Segment extends ReentrantLock {
+
+        private final int capacity;
+
+        private LruCacheManager.LruEntityCache entityCache;
+
+        private Segment(int capacity) {
+            this.capacity = capacity;
+            this.entityCache = new LruCacheManager.LruEntityCache(capacity);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
+import cz.cvut.kbss.jopa.sessions.CacheManager;
+import cz.cvut.kbss.jopa.utils.ErrorUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Second level cache bounded by the estimated amount of memory retained by the cached entities.
+ * <p>
+ * Weight of each entity is estimated from its metamodel attributes and their values (see {@link EntityWeigher}). When
+ * the total weight exceeds the configured maximum (in bytes), the least recently used entries are evicted until the
+ * cache fits into the budget again. Entities heavier than the whole budget are not cached at all.
+ * <p>
+ * The current weight and the number of evictions can be obtained by casting the cache retrieved from {@link
+ * cz.cvut.kbss.jopa.model.EntityManagerFactory#getCache()} to this class.
+ */
+public class WeightedLruCacheManager implements CacheManager {
+
+    private static final Logger LOG = LoggerFactory.getLogger(WeightedLruCacheManager.class);
+
+    /**
+     * Default maximum cache weight, in bytes.
+     */
+    public static final long DEFAULT_MAX_WEIGHT = 64L * 1024 * 1024;
+
+    private final long maxWeight;
+
+    private final EntityWeigher weigher;
+
+    // Lookups update the access order, so reads have to be exclusive as well
+    private final Lock lock = new ReentrantLock();
+
+    private WeightedEntityCache entityCache;
+
+    private long evictionCount;
+
+    private Set<Class<?>> inferredClasses;
+
+    WeightedLruCacheManager(Map<String, String> properties, Metamodel metamodel) {
+        Objects.requireNonNull(properties);
+        Objects.requireNonNull(metamodel);
+        this.maxWeight = properties.containsKey(JOPAPersistenceProperties.CACHE_MAX_WEIGHT) ?
+                resolveMaxWeightSetting(properties) : DEFAULT_MAX_WEIGHT;
+        this.weigher = new EntityWeigher(metamodel);
+        this.entityCache = new WeightedEntityCache();
+    }
+
+    private static long resolveMaxWeightSetting(Map<String, String> properties) {
+        long maxWeightSetting = DEFAULT_MAX_WEIGHT;
+        try {
+            maxWeightSetting = Long.parseLong(properties.get(JOPAPersistenceProperties.CACHE_MAX_WEIGHT));
+            if (maxWeightSetting <= 0) {
+                LOG.warn("Invalid cache maximum weight value {}. Using default value.", maxWeightSetting);
+                maxWeightSetting = DEFAULT_MAX_WEIGHT;
+            }
+        } catch (NumberFormatException e) {
+            LOG.error("Unable to parse cache maximum weight setting. Using default value {}.", DEFAULT_MAX_WEIGHT);
+        }
+        return maxWeightSetting;
+    }
+
+    /**
+     * Gets the maximum weight of the cache.
+     *
+     * @return Maximum weight, in bytes
+     */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /**
+     * Gets the current estimated weight of the cache content.
+     *
+     * @return Current weight, in bytes
+     */
+    public long getWeight() {
+        lock.lock();
+        try {
+            return entityCache.weight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Gets the number of entries evicted from the cache because it exceeded its maximum weight.
+     * <p>
+     * Explicit evictions are not counted.
+     *
+     * @return Number of evicted entries since the cache was created
+     */
+    public long getEvictionCount() {
+        lock.lock();
+        try {
+            return evictionCount;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void add(Object primaryKey, Object entity, Descriptor descriptor) {
+        Objects.requireNonNull(primaryKey, ErrorUtils.getNPXMessageSupplier("primaryKey"));
+        Objects.requireNonNull(entity, ErrorUtils.getNPXMessageSupplier("entity"));
+        Objects.requireNonNull(descriptor, ErrorUtils.getNPXMessageSupplier("descriptor"));
+
+        // Weigh outside the lock, it requires traversing the entity attributes
+        final long weight = weigher.weigh(entity);
+        lock.lock();
+        try {
+            entityCache.put(primaryKey, entity, descriptor, weight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public <T> T get(Class<T> cls, Object primaryKey, Descriptor descriptor) {
+        if (cls == null || primaryKey == null || descriptor == null) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return entityCache.get(cls, primaryKey, descriptor);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean contains(Class<?> cls, Object identifier, Descriptor descriptor) {
+        if (cls == null || identifier == null || descriptor == null) {
+            return false;
+        }
+        lock.lock();
+        try {
+            return entityCache.contains(cls, identifier, descriptor);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evict(Class<?> cls, Object identifier, URI context) {
+        Objects.requireNonNull(cls, ErrorUtils.getNPXMessageSupplier("cls"));
+        Objects.requireNonNull(identifier, ErrorUtils.getNPXMessageSupplier("primaryKey"));
+
+        lock.lock();
+        try {
+            entityCache.evict(cls, identifier, context);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evict(Class<?> cls) {
+        Objects.requireNonNull(cls);
+
+        lock.lock();
+        try {
+            entityCache.evict(cls);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evict(URI context) {
+        lock.lock();
+        try {
+            entityCache.evict(context);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evictAll() {
+        lock.lock();
+        try {
+            this.entityCache = new WeightedEntityCache();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void evictInferredObjects() {
+        lock.lock();
+        try {
+            getInferredClasses().forEach(entityCache::evict);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Set<Class<?>> getInferredClasses() {
+        if (inferredClasses == null) {
+            return Collections.emptySet();
+        }
+        return inferredClasses;
+    }
+
+    @Override
+    public void setInferredClasses(Set<Class<?>> inferredClasses) {
+        this.inferredClasses = inferredClasses;
+    }
+
+    @Override
+    public void close() {
+        evictAll();
+    }
+
+    final class WeightedEntityCache extends EntityCache {
+
+        // Access-ordered, the eldest entry is the least recently used one
+        private final LinkedHashMap<LruCache.CacheNode, Long> weights = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long weight;
+
+        void put(Object identifier, Object entity, Descriptor descriptor, long entityWeight) {
+            if (!isCacheable(descriptor)) {
+                return;
+            }
+            final URI ctx = descriptor.getSingleContext().orElse(defaultContext);
+            if (entityWeight > maxWeight) {
+                LOG.trace("Entity {} is too large to be cached.", entity);
+                // Make sure a stale version of the entity does not remain in the cache
+                evict(entity.getClass(), identifier, ctx);
+                return;
+            }
+            super.put(identifier, entity, descriptor);
+            final Long previous = weights.put(new LruCache.CacheNode(ctx, entity.getClass(), identifier), entityWeight);
+            weight += entityWeight - (previous != null ? previous : 0L);
+            evictToFit();
+        }
+
+        private void evictToFit() {
+            final Iterator<Map.Entry<LruCache.CacheNode, Long>> it = weights.entrySet().iterator();
+            // The most recently added entry is last and fits into the budget, so it is never evicted here
+            while (weight > maxWeight && it.hasNext()) {
+                final Map.Entry<LruCache.CacheNode, Long> e = it.next();
+                it.remove();
+                weight -= e.getValue();
+                final LruCache.CacheNode node = e.getKey();
+                super.evict(node.getCls(), node.getIdentifier(), node.getContext());
+                evictionCount++;
+            }
+        }
+
+        @Override
+        <T> T get(Class<T> cls, Object identifier, Descriptor descriptor) {
+            return getInternal(cls, identifier, descriptor,
+                    ctx -> weights.get(new LruCache.CacheNode(ctx, cls, identifier)));
+        }
+
+        private void removeWeight(URI context, Class<?> cls, Object identifier) {
+            final Long removed = weights.remove(new LruCache.CacheNode(context, cls, identifier));
+            if (removed != null) {
+                weight -= removed;
+            }
+        }
+
+        @Override
+        void evict(Class<?> cls, Object identifier, URI context) {
+            final URI ctx = context != null ? context : defaultContext;
+            super.evict(cls, identifier, ctx);
+            removeWeight(ctx, cls, identifier);
+        }
+
+        @Override
+        void evict(URI context) {
+            final URI ctx = context != null ? context : defaultContext;
+            final Map<Object, Map<Class<?>, Object>> ctxContent = repoCache.remove(ctx);
+            if (ctxContent == null) {
+                return;
+            }
+            ctxContent.forEach((identifier, instances) -> instances.forEach((cls, instance) -> {
+                descriptors.remove(instance);
+                removeWeight(ctx, cls, identifier);
+            }));
+        }
+
+        @Override
+        void evict(Class<?> cls) {
+            final Iterator<Map.Entry<URI, Map<Object, Map<Class<?>, Object>>>> repoIt = repoCache.entrySet().iterator();
+            while (repoIt.hasNext()) {
+                final Map.Entry<URI, Map<Object, Map<Class<?>, Object>>> e = repoIt.next();
+                final Iterator<Map.Entry<Object, Map<Class<?>, Object>>> it = e.getValue().entrySet().iterator();
+                while (it.hasNext()) {
+                    final Map.Entry<Object, Map<Class<?>, Object>> idEntry = it.next();
+                    final Object instance = idEntry.getValue().remove(cls);
+                    if (instance != null) {
+                        descriptors.remove(instance);
+                        removeWeight(e.getKey(), cls, idEntry.getKey());
+                    }
+                    if (idEntry.getValue().isEmpty()) {
+                        it.remove();
+                    }
+                }
+                if (e.getValue().isEmpty()) {
+                    repoIt.remove();
+                }
+            }
+        }
+    }
+}
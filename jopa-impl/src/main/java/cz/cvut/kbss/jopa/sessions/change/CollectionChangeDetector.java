@@ -76,36 +76,53 @@ class CollectionChangeDetector implements ChangeDetector {
     /**
      * When checking for set changes, we have to make sure different element order does not mean a change.
      * <p>
-     * Therefore, we first order the elements in a predictable way and then compare the elements.
+     * Therefore, elements of both sets are mapped to keys and the key sets are compared. Entities are represented by
+     * their identifiers (consistently with {@link ManagedTypeChangeDetector}), other elements by themselves.
      */
     private boolean setChanged(Collection<?> clone, Collection<?> original) {
         assert !clone.isEmpty();
         assert !original.isEmpty();
 
-        final Class<?> elementType = clone.iterator().next().getClass();
-        final List<?> cloneList = new ArrayList<>(clone);
-        final Comparator<Object> comparator = getSetComparator(elementType);
-        cloneList.sort(comparator);
-        final List<?> originalList = new ArrayList<>(original);
-        originalList.sort(comparator);
-        return orderedCollectionChanged(cloneList, originalList);
+        final Set<Object> originalKeys = new HashSet<>(capacity(original.size()));
+        final KeyExtractor keyExtractor = new KeyExtractor();
+        for (Object item : original) {
+            originalKeys.add(keyExtractor.getKey(item));
+        }
+        final Set<Object> cloneKeys = new HashSet<>(capacity(clone.size()));
+        for (Object item : clone) {
+            final Object key = keyExtractor.getKey(item);
+            if (!originalKeys.contains(key)) {
+                return true;
+            }
+            cloneKeys.add(key);
+        }
+        // Different elements of one of the sets may map to the same key
+        return cloneKeys.size() != originalKeys.size();
+    }
+
+    private static int capacity(int size) {
+        return (int) (size / 0.75f) + 1;
     }
 
     /**
-     * For managed types, the comparator uses identifier's hashCode, for all other types hashCode is used directly.
+     * Maps set elements to keys, remembering the last element type so that the metamodel is not queried for every
+     * element of a homogeneous set.
      */
-    private Comparator<Object> getSetComparator(Class<?> elemType) {
-        if (metamodelProvider.isEntityType(elemType)) {
-            return (o1, o2) -> {
-                final Object keyOne = EntityPropertiesUtils.getIdentifier(o1, metamodelProvider.getMetamodel());
-                final Object keyTwo = EntityPropertiesUtils.getIdentifier(o2, metamodelProvider.getMetamodel());
-                if (keyOne == null || keyTwo == null) {
-                    return 0;
-                }
-                return Integer.compare(keyOne.hashCode(), keyTwo.hashCode());
-            };
-        } else {
-            return Comparator.comparingInt(Object::hashCode);
+    private final class KeyExtractor {
+
+        private Class<?> lastType;
+        private boolean lastTypeEntity;
+
+        private Object getKey(Object item) {
+            if (item == null) {
+                return null;
+            }
+            final Class<?> type = item.getClass();
+            if (type != lastType) {
+                this.lastType = type;
+                this.lastTypeEntity = metamodelProvider.isEntityType(type);
+            }
+            return lastTypeEntity ? EntityPropertiesUtils.getIdentifier(item, metamodelProvider.getMetamodel()) : item;
         }
     }
 }
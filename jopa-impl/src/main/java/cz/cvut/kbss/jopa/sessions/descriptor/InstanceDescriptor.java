@@ -18,7 +18,9 @@ import cz.cvut.kbss.jopa.model.LoadState;
 import cz.cvut.kbss.jopa.model.annotations.FetchType;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.model.metamodel.PropertyFieldIndex;
 
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -32,14 +34,21 @@ public class InstanceDescriptor<T> {
 
     private final Map<FieldSpecification<? super T, ?>, LoadState> loadState;
 
+    private final PropertyFieldIndex<T> fieldIndex;
+
+    // Indexed by field index slots. Empty until the first change, most managed instances are only read
+    private final BitSet dirty = new BitSet(0);
+
     InstanceDescriptor(T instance, EntityType<T> et) {
         this.instance = Objects.requireNonNull(instance);
         this.loadState = mapInstanceAttributes(et);
+        this.fieldIndex = PropertyFieldIndex.of(et);
     }
 
     InstanceDescriptor(T instance, InstanceDescriptor<T> other) {
         this.instance = Objects.requireNonNull(instance);
         this.loadState = new HashMap<>(other.loadState);
+        this.fieldIndex = other.fieldIndex;
     }
 
     private Map<FieldSpecification<? super T, ?>, LoadState> mapInstanceAttributes(EntityType<T> et) {
@@ -82,11 +91,46 @@ public class InstanceDescriptor<T> {
         loadState.put(fs, state);
     }
 
+    /**
+     * Marks the specified attribute as changed in the current transaction.
+     * <p>
+     * The identifier is not tracked, it cannot be changed.
+     *
+     * @param fs Changed attribute
+     */
+    public void setDirty(FieldSpecification<? super T, ?> fs) {
+        final int slot = fieldIndex.slotOf(Objects.requireNonNull(fs).getJavaField());
+        if (slot != PropertyFieldIndex.NO_SLOT) {
+            dirty.set(slot);
+        }
+    }
+
+    /**
+     * Checks whether the specified attribute has been changed in the current transaction.
+     *
+     * @param fs Attribute to check
+     * @return {@code true} if the attribute has been marked as changed, {@code false} otherwise
+     */
+    public boolean isDirty(FieldSpecification<?, ?> fs) {
+        final int slot = fieldIndex.slotOf(Objects.requireNonNull(fs).getJavaField());
+        return slot != PropertyFieldIndex.NO_SLOT && dirty.get(slot);
+    }
+
+    /**
+     * Checks whether any attribute of the instance has been changed in the current transaction.
+     *
+     * @return {@code true} if at least one attribute has been marked as changed, {@code false} otherwise
+     */
+    public boolean isDirty() {
+        return !dirty.isEmpty();
+    }
+
     @Override
     public String toString() {
         return "InstanceDescriptor{" +
                 "instance=" + instance +
                 ", loadState=" + loadState +
+                ", dirty=" + dirty +
                 '}';
     }
 }
@@ -69,14 +69,7 @@ public class EntityPropertiesUtils {
      */
     public static void setFieldValue(Field field, Object instance, Object value) {
         Objects.requireNonNull(field);
-        if (!field.isAccessible()) {
-            field.setAccessible(true);
-        }
-        try {
-            field.set(instance, value);
-        } catch (IllegalAccessException e) {
-            throw new OWLPersistenceException("Unable to set field value.", e);
-        }
+        FieldAccessor.of(field).set(instance, value);
     }
 
     /**
@@ -88,14 +81,7 @@ public class EntityPropertiesUtils {
      */
     public static Object getFieldValue(Field field, Object instance) {
         Objects.requireNonNull(field);
-        if (!field.isAccessible()) {
-            field.setAccessible(true);
-        }
-        try {
-            return field.get(instance);
-        } catch (IllegalAccessException e) {
-            throw new OWLPersistenceException("Unable to extract field value.", e);
-        }
+        return FieldAccessor.of(field).get(instance);
     }
 
     /**
@@ -107,8 +93,19 @@ public class EntityPropertiesUtils {
      */
     public static Object getAttributeValue(FieldSpecification<?, ?> attribute, Object instance) {
         Objects.requireNonNull(attribute);
-        final Field field = attribute.getJavaField();
-        return getFieldValue(field, instance);
+        return FieldAccessor.of(attribute).get(instance);
+    }
+
+    /**
+     * Sets value of the specified attribute.
+     *
+     * @param attribute Attribute to set value of
+     * @param instance  Target instance
+     * @param value     The value to set (may be {@code null})
+     */
+    public static void setAttributeValue(FieldSpecification<?, ?> attribute, Object instance, Object value) {
+        Objects.requireNonNull(attribute);
+        FieldAccessor.of(attribute).set(instance, value);
     }
 
     /**
@@ -121,7 +118,7 @@ public class EntityPropertiesUtils {
      */
     public static <T> URI getIdentifier(T entity, EntityType<?> et) {
         try {
-            final Object id = getFieldValue(et.getIdentifier().getJavaField(), entity);
+            final Object id = getAttributeValue(et.getIdentifier(), entity);
             if (id == null) {
                 return null;
             }
@@ -144,7 +141,7 @@ public class EntityPropertiesUtils {
         final Field idField = id.getJavaField();
         try {
             final Object assignableId = IdentifierTransformer.transformToIdentifier(identifier, idField.getType());
-            setFieldValue(idField, entity, assignableId);
+            setAttributeValue(id, entity, assignableId);
         } catch (IllegalArgumentException e) {
             throw new UnassignableIdentifierException(e);
         }
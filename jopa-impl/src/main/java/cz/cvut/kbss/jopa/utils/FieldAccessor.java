@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.utils;
+
+import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reads and writes value of a field using method handles.
+ * <p>
+ * Unlike {@link Field#get(Object)} and {@link Field#set(Object, Object)}, the handles are resolved and their access
+ * checks performed only once, when the accessor is created.
+ * <p>
+ * Attributes of the metamodel hold accessors of their fields (see {@link FieldAccessorHolder}), so that no lookup is
+ * necessary when accessing attribute values. Accessors of other fields are cached per declaring class, so they are
+ * created at most once for each field and are released together with the class.
+ */
+public final class FieldAccessor {
+
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<Map<String, FieldAccessor>> ACCESSORS =
+            new ClassValue<Map<String, FieldAccessor>>() {
+                @Override
+                protected Map<String, FieldAccessor> computeValue(Class<?> type) {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    private final Field field;
+    private final MethodHandle getter;
+    // null if the field cannot be written (static final fields)
+    private final MethodHandle setter;
+
+    private FieldAccessor(Field field) {
+        this.field = field;
+        if (!field.isAccessible()) {
+            field.setAccessible(true);
+        }
+        try {
+            final MethodHandle handle = MethodHandles.lookup().unreflectGetter(field);
+            this.getter = adapt(handle, GETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            throw new OWLPersistenceException("Unable to access field " + field + ".", e);
+        }
+        this.setter = resolveSetter();
+    }
+
+    private MethodHandle resolveSetter() {
+        try {
+            return adapt(MethodHandles.lookup().unreflectSetter(field), SETTER_TYPE);
+        } catch (IllegalAccessException e) {
+            return null;
+        }
+    }
+
+    private MethodHandle adapt(MethodHandle handle, MethodType type) {
+        // Static field handles have no receiver parameter, the instance argument is ignored for them
+        final MethodHandle withReceiver = Modifier.isStatic(field.getModifiers()) ?
+                                          MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+        return withReceiver.asType(type);
+    }
+
+    /**
+     * Gets accessor of the specified field.
+     *
+     * @param field Field to access
+     * @return Field accessor
+     */
+    public static FieldAccessor of(Field field) {
+        Objects.requireNonNull(field);
+        final Map<String, FieldAccessor> classAccessors = ACCESSORS.get(field.getDeclaringClass());
+        FieldAccessor accessor = classAccessors.get(field.getName());
+        if (accessor == null) {
+            accessor = classAccessors.computeIfAbsent(field.getName(), n -> new FieldAccessor(field));
+        }
+        return accessor;
+    }
+
+    /**
+     * Gets accessor of the field of the specified attribute.
+     * <p>
+     * The accessor held by the attribute is used, if available.
+     *
+     * @param fieldSpec Attribute whose field is accessed
+     * @return Field accessor
+     */
+    public static FieldAccessor of(FieldSpecification<?, ?> fieldSpec) {
+        if (fieldSpec instanceof FieldAccessorHolder) {
+            final FieldAccessor accessor = ((FieldAccessorHolder) fieldSpec).getFieldAccessor();
+            if (accessor != null) {
+                return accessor;
+            }
+        }
+        return of(fieldSpec.getJavaField());
+    }
+
+    /**
+     * Gets value of the field from the specified instance.
+     *
+     * @param instance Instance that contains the field (may be {@code null} for static fields)
+     * @return Field value
+     */
+    public Object get(Object instance) {
+        try {
+            return getter.invokeExact(instance);
+        } catch (ClassCastException e) {
+            throw new IllegalArgumentException("Cannot get value of field " + field + " from " + instance, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new OWLPersistenceException("Unable to extract field value.", e);
+        }
+    }
+
+    /**
+     * Sets value of the field on the specified instance.
+     *
+     * @param instance Target instance (may be {@code null} for static fields)
+     * @param value    The value to set (may be {@code null})
+     */
+    public void set(Object instance, Object value) {
+        if (setter == null) {
+            throw new OWLPersistenceException("Unable to set value of final field " + field + ".");
+        }
+        try {
+            setter.invokeExact(instance, value);
+        } catch (ClassCastException | NullPointerException e) {
+            if (instance == null && !Modifier.isStatic(field.getModifiers())) {
+                throw e;
+            }
+            throw new IllegalArgumentException("Cannot set value " + value + " of field " + field, e);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new OWLPersistenceException("Unable to set field value.", e);
+        }
+    }
+}
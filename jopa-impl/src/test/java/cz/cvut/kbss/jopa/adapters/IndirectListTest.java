@@ -204,6 +204,43 @@ class IndirectListTest {
         assertEquals(toRetainSize, target.size());
     }
 
+    @Test
+    void appendingElementsDoesNotChangeStoredSize() {
+        target.add(new OWLClassA(Generators.createIndividualIdentifier()));
+        target.addAll(Generators.generateInstances(2));
+        target.add(target.size(), new OWLClassA(Generators.createIndividualIdentifier()));
+        target.listIterator(target.size()).add(new OWLClassA(Generators.createIndividualIdentifier()));
+        assertEquals(backupList.size(), target.getStoredSize());
+    }
+
+    @Test
+    void insertingElementResetsStoredSize() {
+        target.add(1, new OWLClassA(Generators.createIndividualIdentifier()));
+        assertEquals(-1, target.getStoredSize());
+    }
+
+    @Test
+    void removingElementResetsStoredSize() {
+        final Iterator<OWLClassA> it = target.iterator();
+        it.next();
+        it.remove();
+        assertEquals(-1, target.getStoredSize());
+    }
+
+    @Test
+    void appendingToSubListResetsStoredSizeOfParentList() {
+        target.subList(0, 2).add(new OWLClassA(Generators.createIndividualIdentifier()));
+        assertEquals(-1, target.getStoredSize());
+    }
+
+    @Test
+    void markStoredSetsStoredSizeToCurrentListSize() {
+        target.set(0, new OWLClassA(Generators.createIndividualIdentifier()));
+        target.add(new OWLClassA(Generators.createIndividualIdentifier()));
+        target.markStored();
+        assertEquals(backupList.size() + 1, target.getStoredSize());
+    }
+
     @Test
     void testSet() {
         when(uow.isInTransaction()).thenReturn(Boolean.TRUE);
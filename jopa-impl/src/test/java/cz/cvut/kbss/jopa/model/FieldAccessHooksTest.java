@@ -0,0 +1,117 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.model;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassM;
+import cz.cvut.kbss.jopa.environment.OWLClassQ;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.exceptions.AttributeModificationForbiddenException;
+import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.model.annotations.FetchType;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.model.metamodel.PropertyFieldIndex;
+import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.sessions.UnitOfWorkTestBase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class FieldAccessHooksTest extends UnitOfWorkTestBase {
+
+    private UnitOfWorkImpl sut;
+
+    @BeforeEach
+    protected void setUp() throws Exception {
+        super.setUp();
+        this.sut = spy(uow);
+    }
+
+    @Test
+    void afterSetRecordsAttributeChangeOfManagedEntityInTransaction() throws Exception {
+        when(transactionMock.isActive()).thenReturn(true);
+        sut.registerNewObject(entityA, descriptor);
+        FieldAccessHooks.afterSet(entityA, slotOf(OWLClassA.class, OWLClassA.getStrAttField()));
+        verify(sut).attributeChanged(entityA, OWLClassA.getStrAttField());
+    }
+
+    @Test
+    void afterSetDoesNothingWhenPersistenceContextIsNotInTransaction() throws Exception {
+        sut.registerNewObject(entityA, descriptor);
+        FieldAccessHooks.afterSet(entityA, slotOf(OWLClassA.class, OWLClassA.getStrAttField()));
+        verify(sut, never()).attributeChanged(any(), any());
+    }
+
+    @Test
+    void afterSetDoesNothingForInstanceOutsideOfPersistenceContext() throws Exception {
+        when(transactionMock.isActive()).thenReturn(true);
+        FieldAccessHooks.afterSet(new OWLClassA(), slotOf(OWLClassA.class, OWLClassA.getStrAttField()));
+        verify(sut, never()).attributeChanged(any(), any());
+    }
+
+    @Test
+    void afterSetThrowsAttributeModificationForbiddenWhenLexicalFormAttributeIsModified() throws Exception {
+        when(transactionMock.isActive()).thenReturn(true);
+        final OWLClassM entityM = new OWLClassM();
+        entityM.initializeTestValues(true);
+        final Object clone = sut.registerExistingObject(entityM, descriptor);
+        assertThrows(AttributeModificationForbiddenException.class,
+                () -> FieldAccessHooks.afterSet(clone, slotOf(OWLClassM.class, OWLClassM.getLexicalFormField())));
+    }
+
+    @Test
+    void beforeGetLoadsFieldDeclaredInMappedSuperclass() throws Exception {
+        final OWLClassQ entityQ = new OWLClassQ();
+        entityQ.setUri(Generators.createIndividualIdentifier());
+        final FieldSpecification<? super OWLClassQ, ?> aSpec =
+                metamodelMock.entity(OWLClassQ.class).getFieldSpecification("owlClassA");
+        when(aSpec.getFetchType()).thenReturn(FetchType.LAZY);
+        final Object clone = sut.registerExistingObject(entityQ, descriptor);
+        FieldAccessHooks.beforeGet(clone, slotOf(OWLClassQ.class, OWLClassQ.getOwlClassAField()));
+        verify(sut).loadEntityField(clone, OWLClassQ.getOwlClassAField());
+    }
+
+    @Test
+    void beforeGetDoesNothingForInstanceOutsideOfPersistenceContext() throws Exception {
+        FieldAccessHooks.beforeGet(new OWLClassA(), slotOf(OWLClassA.class, OWLClassA.getStrAttField()));
+        verify(sut, never()).loadEntityField(any(), any());
+    }
+
+    @Test
+    void beforeGetDoesNotCheckWhetherEntityIsManagedWhenFieldIsAlreadyLoaded() throws Exception {
+        final Object clone = sut.registerExistingObject(entityA, descriptor);
+        clearInvocations(sut);
+        FieldAccessHooks.beforeGet(clone, slotOf(OWLClassA.class, OWLClassA.getStrAttField()));
+        verify(sut, never()).isObjectManaged(any());
+        verify(sut, never()).loadEntityField(any(), any());
+    }
+
+    @Test
+    void beforeGetThrowsPersistenceExceptionWhenFieldWithSlotDoesNotExist() {
+        sut.registerNewObject(entityA, descriptor);
+        assertThrows(OWLPersistenceException.class, () -> FieldAccessHooks.beforeGet(entityA, 117));
+    }
+
+    private int slotOf(Class<?> cls, Field field) {
+        final int slot = PropertyFieldIndex.of(metamodelMock.entity(cls)).slotOf(field);
+        assert slot != PropertyFieldIndex.NO_SLOT;
+        return slot;
+    }
+}
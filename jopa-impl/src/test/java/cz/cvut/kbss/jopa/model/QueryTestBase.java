@@ -21,9 +21,11 @@ import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.exceptions.NoResultException;
 import cz.cvut.kbss.jopa.model.query.Parameter;
 import cz.cvut.kbss.jopa.model.query.Query;
+import cz.cvut.kbss.jopa.query.sparql.QueryPlanCache;
 import cz.cvut.kbss.jopa.query.sparql.SparqlQueryFactory;
 import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.jopa.utils.Procedure;
 import cz.cvut.kbss.ontodriver.ResultSet;
 import cz.cvut.kbss.ontodriver.Statement;
@@ -81,6 +83,8 @@ abstract class QueryTestBase {
         when(resultSetIterator.next()).thenReturn(resultRow);
         when(resultSetMock.stream()).thenCallRealMethod();
         when(resultSetMock.spliterator()).thenCallRealMethod();
+        when(uowMock.getConfiguration()).thenReturn(new Configuration());
+        when(uowMock.getQueryPlanCache()).thenReturn(new QueryPlanCache(new Configuration()));
         this.queryFactory = new SparqlQueryFactory(uowMock, connectionWrapperMock);
     }
 
@@ -81,6 +81,35 @@ class TypedQueryImplTest extends QueryTestBase {
         verifyResults(uris, res, 5);
     }
 
+    @Test
+    void getResultListWithBatchFetchSizeLoadsEntitiesInBatches() throws Exception {
+        final TypedQueryImpl<OWLClassA> query = create(SELECT_QUERY, OWLClassA.class);
+        query.setBatchFetchSize(2);
+        final List<String> uris = initDataForQuery(5);
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any())).thenAnswer(inv -> {
+            final List<?> ids = inv.getArgument(1);
+            return ids.stream().map(id -> new OWLClassA((URI) id)).collect(Collectors.toList());
+        });
+        final List<OWLClassA> result = query.getResultList();
+        verifyResults(uris, result, 5);
+        final ArgumentCaptor<List<URI>> captor = ArgumentCaptor.forClass(List.class);
+        verify(uowMock, times(3)).readObjects(eq(OWLClassA.class), captor.capture(), any(Descriptor.class));
+        assertEquals(Arrays.asList(URI.create(uris.get(0)), URI.create(uris.get(1))), captor.getAllValues().get(0));
+        assertEquals(Collections.singletonList(URI.create(uris.get(4))), captor.getAllValues().get(2));
+        verify(uowMock, never()).readObject(eq(OWLClassA.class), any(), any(Descriptor.class));
+    }
+
+    @Test
+    void getResultListWithBatchFetchSizeSkipsEntitiesWhichCouldNotBeLoaded() throws Exception {
+        final TypedQueryImpl<OWLClassA> query = create(SELECT_QUERY, OWLClassA.class);
+        query.setBatchFetchSize(5);
+        final List<String> uris = initDataForQuery(2);
+        when(uowMock.readObjects(eq(OWLClassA.class), anyList(), any()))
+                .thenReturn(Arrays.asList(new OWLClassA(URI.create(uris.get(0))), null));
+        final List<OWLClassA> result = query.getResultList();
+        verifyResults(uris, result, 1);
+    }
+
     private <T> TypedQueryImpl<T> create(String query, Class<T> type) {
         final TypedQueryImpl<T> q = queryFactory.createNativeQuery(query, type);
         q.setEnsureOpenProcedure(ensureOpenProcedure);
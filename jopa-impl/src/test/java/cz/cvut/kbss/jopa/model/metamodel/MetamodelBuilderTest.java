@@ -351,4 +351,41 @@ class MetamodelBuilderTest {
         assertTrue(types.isInferred());
         assertEquals(FetchType.EAGER, types.getFetchType());
     }
+
+    @Test
+    void buildMetamodelInitializesFieldIndexIncludingInheritedFields() throws Exception {
+        builder.buildMetamodel(Collections.singleton(OWLClassR.class));
+        final EntityTypeImpl<OWLClassR> et = (EntityTypeImpl<OWLClassR>) builder.getEntityClass(OWLClassR.class);
+        final PropertyFieldIndex<OWLClassR> index = et.getFieldIndex();
+
+        assertEquals(OWLClassR.getStringAttField(),
+                     index.getField(index.slotOf(URI.create(Vocabulary.P_R_STRING_ATTRIBUTE))).getJavaField());
+        assertEquals(OWLClassS.getNameField(), index.getField(index.slotOf(URI.create(RDFS.LABEL))).getJavaField());
+        assertEquals(OWLClassS.getTypesField(), index.getField(index.slotOf(URI.create(RDF.TYPE))).getJavaField());
+        assertEquals(PropertyFieldIndex.NO_SLOT, index.slotOf(URI.create(Vocabulary.ATTRIBUTE_BASE + "unknown")));
+    }
+
+    @Test
+    void fieldIndexMapsUnknownPropertiesToPropertiesField() throws Exception {
+        builder.buildMetamodel(Collections.singleton(OWLClassB.class));
+        final EntityTypeImpl<OWLClassB> et = (EntityTypeImpl<OWLClassB>) builder.getEntityClass(OWLClassB.class);
+        final PropertyFieldIndex<OWLClassB> index = et.getFieldIndex();
+
+        assertEquals(OWLClassB.getPropertiesField(),
+                     index.getField(index.slotOf(URI.create(Vocabulary.ATTRIBUTE_BASE + "unknown"))).getJavaField());
+    }
+
+    @Test
+    void fieldIndexAssignsSlotsToSupertypeFieldsFirstAndOrdersFieldsOfClassByName() throws Exception {
+        builder.buildMetamodel(Collections.singleton(OWLClassQ.class));
+        final EntityTypeImpl<OWLClassQ> et = (EntityTypeImpl<OWLClassQ>) builder.getEntityClass(OWLClassQ.class);
+        final PropertyFieldIndex<OWLClassQ> index = et.getFieldIndex();
+
+        assertEquals(4, index.size());
+        assertEquals(0, index.slotOf(OWLClassQ.getLabelField()));
+        assertEquals(1, index.slotOf(OWLClassQ.getOwlClassAField()));
+        assertEquals(2, index.slotOf(OWLClassQ.getParentStringField()));
+        assertEquals(3, index.slotOf(OWLClassQ.getStringAttributeField()));
+        assertEquals(PropertyFieldIndex.NO_SLOT, index.slotOf(OWLClassQ.getUriField()));
+    }
 }
@@ -241,6 +241,18 @@ class AxiomDescriptorFactoryTest {
         }
     }
 
+    @Test
+    void createForPolymorphicEntityLoadingIncludesAssertionsOfAllEntityTypesInHierarchy() {
+        final AxiomDescriptor res = sut.createForPolymorphicEntityLoading(
+                loadingParameters(OWLClassS.class, descriptor), metamodelMocks.forOwlClassS().entityType());
+        final Set<URI> identifiers = res.getAssertions().stream().map(Assertion::getIdentifier)
+                                        .collect(Collectors.toSet());
+        assertTrue(res.getAssertions().contains(Assertion.createClassAssertion(false)));
+        assertTrue(identifiers.contains(metamodelMocks.forOwlClassS().rNameAtt().getIRI().toURI()));
+        assertTrue(identifiers.contains(metamodelMocks.forOwlClassR().rStringAtt().getIRI().toURI()));
+        assertTrue(identifiers.contains(metamodelMocks.forOwlClassR().rOwlClassAAtt().getIRI().toURI()));
+    }
+
     private <T> LoadingParameters<T> loadingParameters(Class<T> cls, Descriptor descriptor) {
         return new LoadingParameters<>(cls, ID, descriptor);
     }
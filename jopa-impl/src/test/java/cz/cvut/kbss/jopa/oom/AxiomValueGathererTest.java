@@ -192,4 +192,28 @@ class AxiomValueGathererTest {
         assertTrue(result.containsAssertion(DATA_ASSERTION));
         assertNull(result.getAssertionContext(DATA_ASSERTION));
     }
+
+    @Test
+    void addAllAddsValuesTypesAndListsOfOtherGatherer() throws Exception {
+        addValue();
+        final AxiomValueGatherer other = new AxiomValueGatherer(SUBJECT, null);
+        final Assertion objectAssertion = Assertion.createObjectPropertyAssertion(Generators.createPropertyIdentifier(),
+                                                                                  false);
+        final Value<NamedResource> objectValue = new Value<>(NamedResource.create(Generators.createIndividualIdentifier()));
+        other.addValue(objectAssertion, objectValue, CONTEXT);
+        final SimpleListValueDescriptor simpleD = mock(SimpleListValueDescriptor.class);
+        other.addSimpleListValues(simpleD);
+        final Set<URI> typesToAdd = generateTypes();
+        other.addTypes(typesToAdd, null);
+
+        sut.addAll(other);
+        final AxiomValueDescriptor result = getAxiomValueDescriptor();
+        assertTrue(result.containsAssertion(DATA_ASSERTION));
+        assertEquals(Collections.singletonList(objectValue), result.getAssertionValues(objectAssertion));
+        assertEquals(CONTEXT, result.getAssertionContext(objectAssertion));
+        sut.update(connectionMock);
+        verify(connectionMock).update(result);
+        verify(listsMock).updateSimpleList(simpleD);
+        verify(typesMock).addTypes(SUBJECT, null, typesToAdd);
+    }
 }
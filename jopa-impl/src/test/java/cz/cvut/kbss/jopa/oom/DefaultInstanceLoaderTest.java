@@ -20,9 +20,12 @@ import cz.cvut.kbss.jopa.environment.Vocabulary;
 import cz.cvut.kbss.jopa.environment.utils.Generators;
 import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
 import cz.cvut.kbss.jopa.model.metamodel.EntityType;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
+import cz.cvut.kbss.jopa.sessions.cache.QueryAttributeCache;
+import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.model.*;
@@ -34,8 +37,8 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
-import java.util.Collection;
-import java.util.Collections;
+import java.net.URI;
+import java.util.*;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -73,7 +76,8 @@ class DefaultInstanceLoaderTest extends InstanceLoaderTestBase {
         entityA.setTypes(null);
         this.instanceLoader = DefaultInstanceLoader.builder().connection(connectionMock).metamodel(metamodelMock)
                 .descriptorFactory(descriptorFactoryMock).cache(cacheMock)
-                .entityBuilder(entityConstructorMock).build();
+                .entityBuilder(entityConstructorMock)
+                .queryAttributeCache(new QueryAttributeCache(new Configuration())).build();
     }
 
     @Test
@@ -115,6 +119,47 @@ class DefaultInstanceLoaderTest extends InstanceLoaderTestBase {
         verify(cacheMock, never()).contains(etAMock.getJavaType(), IDENTIFIER, descriptor);
     }
 
+    @Test
+    void loadEntitiesLoadsAxiomsOfAllInstancesUsingSingleStorageCall() throws Exception {
+        final URI identifierTwo = Generators.createIndividualIdentifier();
+        final URI unknown = Generators.createIndividualIdentifier();
+        final LoadingParameters<OWLClassA> paramsTwo = new LoadingParameters<>(OWLClassA.class, identifierTwo, descriptor);
+        final LoadingParameters<OWLClassA> paramsUnknown = new LoadingParameters<>(OWLClassA.class, unknown, descriptor);
+        final AxiomDescriptor descriptorTwo = new AxiomDescriptor(NamedResource.create(identifierTwo));
+        final AxiomDescriptor descriptorUnknown = new AxiomDescriptor(NamedResource.create(unknown));
+        when(descriptorFactoryMock.createForEntityLoading(paramsTwo, etAMock)).thenReturn(descriptorTwo);
+        when(descriptorFactoryMock.createForEntityLoading(paramsUnknown, etAMock)).thenReturn(descriptorUnknown);
+        final Collection<Axiom<?>> entityAAxioms = Collections.singletonList(mock(Axiom.class));
+        final Collection<Axiom<?>> entityTwoAxioms = Collections.singletonList(mock(Axiom.class));
+        final Map<NamedResource, Collection<Axiom<?>>> axioms = new HashMap<>();
+        axioms.put(INDIVIDUAL, entityAAxioms);
+        axioms.put(descriptorTwo.getSubject(), entityTwoAxioms);
+        when(connectionMock.findAll(anyCollection())).thenReturn(axioms);
+        final OWLClassA entityTwo = new OWLClassA(identifierTwo);
+        when(entityConstructorMock.reconstructEntity(IDENTIFIER, etAMock, descriptor, entityAAxioms))
+                .thenReturn(entityA);
+        when(entityConstructorMock.reconstructEntity(identifierTwo, etAMock, descriptor, entityTwoAxioms))
+                .thenReturn(entityTwo);
+
+        final List<OWLClassA> result =
+                instanceLoader.loadEntities(Arrays.asList(loadingParameters, paramsUnknown, paramsTwo));
+        assertEquals(Arrays.asList(entityA, null, entityTwo), result);
+        verify(connectionMock).findAll(Arrays.asList(axiomDescriptor, descriptorUnknown, descriptorTwo));
+        verify(connectionMock, never()).find(any());
+    }
+
+    @Test
+    void loadEntitiesReusesInstanceAlreadyReconstructedAsReferenceOfAnotherInstance() throws Exception {
+        final Collection<Axiom<?>> entityAAxioms = Collections.singletonList(mock(Axiom.class));
+        when(connectionMock.findAll(anyCollection()))
+                .thenReturn(Collections.singletonMap(INDIVIDUAL, entityAAxioms));
+        when(entityConstructorMock.getReconstructedInstance(IDENTIFIER, etAMock)).thenReturn(entityA);
+
+        final List<OWLClassA> result = instanceLoader.loadEntities(Collections.singletonList(loadingParameters));
+        assertEquals(Collections.singletonList(entityA), result);
+        verify(entityConstructorMock, never()).reconstructEntity(any(), any(), any(), anyCollection());
+    }
+
     @Test
     void loadReferenceVerifiesClassAssertionExistenceAndBuildsEntityInstanceWithIdentifier() throws Exception {
         final Axiom<NamedResource> typeAxiom =
@@ -201,4 +246,36 @@ class DefaultInstanceLoaderTest extends InstanceLoaderTestBase {
         verify(entityConstructorMock).populateQueryAttributes(entityD, metamodelMocks.forOwlClassD().entityType());
         verify(entityConstructorMock).populateQueryAttributes(entityA, etAMock);
     }
+
+    @Test
+    void loadEntityDoesNotReloadFreshQueryAttributesWhenInstanceIsRetrievedFromCache() {
+        final QueryAttributeCache queryAttributeCache = new QueryAttributeCache(
+                new Configuration(Collections.singletonMap(JOPAPersistenceProperties.QUERY_ATTRIBUTE_CACHE_TTL, "60")));
+        this.instanceLoader = DefaultInstanceLoader.builder().connection(connectionMock).metamodel(metamodelMock)
+                .descriptorFactory(descriptorFactoryMock).cache(cacheMock)
+                .entityBuilder(entityConstructorMock).queryAttributeCache(queryAttributeCache).build();
+        when(cacheMock.contains(OWLClassA.class, loadingParameters.getIdentifier(), descriptor)).thenReturn(true);
+        when(cacheMock.get(OWLClassA.class, loadingParameters.getIdentifier(), descriptor)).thenReturn(entityA);
+        queryAttributeCache.refreshed(entityA);
+
+        final OWLClassA res = instanceLoader.loadEntity(loadingParameters);
+        assertEquals(entityA, res);
+        verify(entityConstructorMock, never()).populateQueryAttributes(entityA, etAMock);
+    }
+
+    @Test
+    void loadEntityReloadsInvalidatedQueryAttributesWhenInstanceIsRetrievedFromCache() {
+        final QueryAttributeCache queryAttributeCache = new QueryAttributeCache(
+                new Configuration(Collections.singletonMap(JOPAPersistenceProperties.QUERY_ATTRIBUTE_CACHE_TTL, "60")));
+        this.instanceLoader = DefaultInstanceLoader.builder().connection(connectionMock).metamodel(metamodelMock)
+                .descriptorFactory(descriptorFactoryMock).cache(cacheMock)
+                .entityBuilder(entityConstructorMock).queryAttributeCache(queryAttributeCache).build();
+        when(cacheMock.contains(OWLClassA.class, loadingParameters.getIdentifier(), descriptor)).thenReturn(true);
+        when(cacheMock.get(OWLClassA.class, loadingParameters.getIdentifier(), descriptor)).thenReturn(entityA);
+        queryAttributeCache.refreshed(entityA);
+        queryAttributeCache.invalidate(entityA);
+
+        instanceLoader.loadEntity(loadingParameters);
+        verify(entityConstructorMock).populateQueryAttributes(entityA, etAMock);
+    }
 }
@@ -20,6 +20,8 @@ import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.environment.utils.TestEnvironmentUtils;
 import cz.cvut.kbss.jopa.exceptions.OWLEntityExistsException;
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.LoadState;
 import cz.cvut.kbss.jopa.model.MetamodelImpl;
 import cz.cvut.kbss.jopa.model.SequencesVocabulary;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
@@ -30,6 +32,7 @@ import cz.cvut.kbss.jopa.oom.exceptions.UnpersistedChangeException;
 import cz.cvut.kbss.jopa.sessions.CacheManager;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.sessions.cache.QueryAttributeCache;
 import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.jopa.utils.EntityPropertiesUtils;
 import cz.cvut.kbss.ontodriver.Connection;
@@ -106,6 +109,7 @@ class ObjectOntologyMapperTest {
         when(uowMock.getMetamodel()).thenReturn(metamodelMock);
         when(uowMock.getLiveObjectCache()).thenReturn(cacheMock);
         when(uowMock.getConfiguration()).thenReturn(new Configuration(Collections.emptyMap()));
+        when(uowMock.getQueryAttributeCache()).thenReturn(new QueryAttributeCache(new Configuration()));
         this.loadingParameters = new LoadingParameters<>(OWLClassA.class, IDENTIFIER, aDescriptor);
         this.mocks = new MetamodelMocks();
         mocks.setMocks(metamodelMock);
@@ -481,6 +485,129 @@ class ObjectOntologyMapperTest {
         assertEquals(aDescriptor.getSingleContext().get(), assertionDesc.getAssertionContext(assertion));
     }
 
+    @Test
+    void persistWithBatchingWritesBufferedEntitiesInBulkWhenBatchIsFull() throws Exception {
+        initMapperWithPersistBatchSize(2);
+        final OWLClassA aOne = new OWLClassA(Generators.createIndividualIdentifier());
+        final OWLClassA aTwo = new OWLClassA(Generators.createIndividualIdentifier());
+        when(entityDeconstructorMock.mapEntityToAxioms(aOne.getUri(), aOne, etAMock, aDescriptor))
+                .thenReturn(new AxiomValueGatherer(NamedResource.create(aOne.getUri()), null));
+        when(entityDeconstructorMock.mapEntityToAxioms(aTwo.getUri(), aTwo, etAMock, aDescriptor))
+                .thenReturn(new AxiomValueGatherer(NamedResource.create(aTwo.getUri()), null));
+
+        mapper.persistEntity(aOne.getUri(), aOne, aDescriptor);
+        verify(connectionMock, never()).persistAll(anyCollection());
+        mapper.persistEntity(aTwo.getUri(), aTwo, aDescriptor);
+        final ArgumentCaptor<Collection<AxiomValueDescriptor>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(connectionMock).persistAll(captor.capture());
+        final List<AxiomValueDescriptor> descriptors = new ArrayList<>(captor.getValue());
+        assertEquals(2, descriptors.size());
+        assertEquals(aOne.getUri(), descriptors.get(0).getSubject().getIdentifier());
+        assertEquals(aTwo.getUri(), descriptors.get(1).getSubject().getIdentifier());
+        verify(connectionMock, never()).persist(any());
+    }
+
+    private void initMapperWithPersistBatchSize(int batchSize) throws Exception {
+        when(uowMock.getConfiguration()).thenReturn(new Configuration(
+                Collections.singletonMap(JOPAPersistenceProperties.PERSIST_BATCH_SIZE, Integer.toString(batchSize))));
+        this.mapper = new ObjectOntologyMapperImpl(uowMock, connectionMock);
+        TestEnvironmentUtils.setMock(mapper,
+                                     ObjectOntologyMapperImpl.class.getDeclaredField("descriptorFactory"),
+                                     descriptorFactoryMock);
+        TestEnvironmentUtils.setMock(mapper,
+                                     ObjectOntologyMapperImpl.class.getDeclaredField("entityBreaker"),
+                                     entityDeconstructorMock);
+    }
+
+    @Test
+    void persistWithBatchingAddsPendingAssertionToBufferedOwner() throws Exception {
+        initMapperWithPersistBatchSize(10);
+        final OWLClassA a = new OWLClassA();
+        final OWLClassD d = new OWLClassD(Generators.createIndividualIdentifier());
+        d.setOwlClassA(a);
+        initDeconstructorMock(d, aDescriptor);
+        mapper.persistEntity(d.getUri(), d, aDescriptor);
+        a.setUri(Generators.createIndividualIdentifier());
+        final NamedResource aIndividual = NamedResource.create(a.getUri());
+        when(entityDeconstructorMock.mapEntityToAxioms(a.getUri(), a, etAMock, aDescriptor))
+                .thenReturn(new AxiomValueGatherer(aIndividual, null));
+        mapper.persistEntity(a.getUri(), a, aDescriptor);
+        mapper.flush();
+
+        final ArgumentCaptor<Collection<AxiomValueDescriptor>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(connectionMock).persistAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        final AxiomValueDescriptor dDesc = captor.getValue().iterator().next();
+        assertEquals(d.getUri(), dDesc.getSubject().getIdentifier());
+        final Assertion assertion = Assertion.createObjectPropertyAssertion(URI.create(Vocabulary.P_HAS_A), false);
+        assertEquals(Collections.singletonList(new Value<>(aIndividual)), dDesc.getAssertionValues(assertion));
+        verify(connectionMock, never()).persist(any());
+        mapper.checkForUnpersistedChanges();
+    }
+
+    @Test
+    void containsEntityFindsBufferedEntityWithoutFlushingBatch() throws Exception {
+        initMapperWithPersistBatchSize(10);
+        final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+        when(entityDeconstructorMock.mapEntityToAxioms(a.getUri(), a, etAMock, aDescriptor))
+                .thenReturn(gathererWithClassAssertion(a.getUri()));
+        mapper.persistEntity(a.getUri(), a, aDescriptor);
+
+        assertTrue(mapper.containsEntity(OWLClassA.class, a.getUri(), aDescriptor));
+        verify(connectionMock, never()).persistAll(anyCollection());
+        verify(connectionMock, never()).contains(any(), anySet());
+    }
+
+    private static AxiomValueGatherer gathererWithClassAssertion(URI identifier) {
+        final AxiomValueGatherer gatherer = new AxiomValueGatherer(NamedResource.create(identifier), null);
+        gatherer.addValue(Assertion.createClassAssertion(false), new Value<>(URI.create(OWLClassA.getClassIri())),
+                          null);
+        return gatherer;
+    }
+
+    @Test
+    void containsEntityChecksStorageWithoutFlushingBatchWhenEntityIsNotBuffered() throws Exception {
+        initMapperWithPersistBatchSize(10);
+        final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+        when(entityDeconstructorMock.mapEntityToAxioms(a.getUri(), a, etAMock, aDescriptor))
+                .thenReturn(gathererWithClassAssertion(a.getUri()));
+        mapper.persistEntity(a.getUri(), a, aDescriptor);
+
+        assertFalse(mapper.containsEntity(OWLClassA.class, Generators.createIndividualIdentifier(), aDescriptor));
+        verify(connectionMock).contains(any(), anySet());
+        verify(connectionMock, never()).persistAll(anyCollection());
+    }
+
+    @Test
+    void persistOfEntitiesWithAssignedIdentifiersWritesThemUsingSingleBulkRequest() throws Exception {
+        final int count = 5;
+        initMapperWithPersistBatchSize(count);
+        for (int i = 0; i < count; i++) {
+            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+            when(entityDeconstructorMock.mapEntityToAxioms(a.getUri(), a, etAMock, aDescriptor))
+                    .thenReturn(gathererWithClassAssertion(a.getUri()));
+            // Existence check done by the persistence context before persisting an entity with assigned identifier
+            assertFalse(mapper.containsEntity(OWLClassA.class, a.getUri(), aDescriptor));
+            mapper.persistEntity(a.getUri(), a, aDescriptor);
+        }
+        final ArgumentCaptor<Collection<AxiomValueDescriptor>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(connectionMock).persistAll(captor.capture());
+        assertEquals(count, captor.getValue().size());
+        verify(connectionMock, never()).persist(any());
+    }
+
+    @Test
+    void discardPendingChangesDropsBufferedEntities() throws Exception {
+        initMapperWithPersistBatchSize(10);
+        final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+        when(entityDeconstructorMock.mapEntityToAxioms(a.getUri(), a, etAMock, aDescriptor))
+                .thenReturn(new AxiomValueGatherer(NamedResource.create(a.getUri()), null));
+        mapper.persistEntity(a.getUri(), a, aDescriptor);
+        mapper.discardPendingChanges();
+        mapper.flush();
+        verify(connectionMock, never()).persistAll(anyCollection());
+    }
+
     @Test
     void checkForUnpersistedChangesThrowsPendingPersistExceptionWhenThereArePendingChanges() {
         final URI subject = Generators.createIndividualIdentifier();
@@ -654,4 +781,229 @@ class ObjectOntologyMapperTest {
         assertThrows(OWLEntityExistsException.class,
                      () -> mapper.getEntityFromCacheOrOntology(OWLClassB.class, IDENTIFIER, aDescriptor));
     }
+
+    @Test
+    void updateFieldValueWritesOnlyDifferenceFromOriginalWhenDeltaUpdatesAreEnabled() throws Exception {
+        initMapperWithDeltaUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        clone.setStringAttribute("newValue");
+        final OWLClassA original = new OWLClassA(IDENTIFIER);
+        original.setStringAttribute("oldValue");
+        initDeltaUpdateMocks(clone, original);
+
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        final ArgumentCaptor<AxiomValueDescriptor> removedCaptor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        final ArgumentCaptor<AxiomValueDescriptor> addedCaptor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        verify(connectionMock).applyChanges(removedCaptor.capture(), addedCaptor.capture());
+        assertEquals(Collections.singletonList(new Value<>("oldValue")),
+                     removedCaptor.getValue().getAssertionValues(stringAttAssertion()));
+        assertEquals(Collections.singletonList(new Value<>("newValue")),
+                     addedCaptor.getValue().getAssertionValues(stringAttAssertion()));
+        verify(connectionMock, never()).update(any());
+    }
+
+    private void initMapperWithDeltaUpdates() throws Exception {
+        when(uowMock.getConfiguration()).thenReturn(new Configuration(
+                Collections.singletonMap(JOPAPersistenceProperties.DELTA_UPDATES, Boolean.TRUE.toString())));
+        this.mapper = new ObjectOntologyMapperImpl(uowMock, connectionMock);
+        TestEnvironmentUtils.setMock(mapper,
+                                     ObjectOntologyMapperImpl.class.getDeclaredField("entityBreaker"),
+                                     entityDeconstructorMock);
+    }
+
+    private void initDeltaUpdateMocks(OWLClassA clone, OWLClassA original) {
+        when(uowMock.getOriginal(clone)).thenReturn(original);
+        when(uowMock.isLoaded(clone, mocks.forOwlClassA().stringAttribute().getName())).thenReturn(LoadState.LOADED);
+        when(entityDeconstructorMock.mapFieldToAxioms(eq(IDENTIFIER), any(OWLClassA.class),
+                                                      eq(mocks.forOwlClassA().stringAttribute()), eq(etAMock),
+                                                      eq(aDescriptor)))
+                .thenAnswer(inv -> stringAttGatherer(((OWLClassA) inv.getArgument(1)).getStringAttribute()));
+    }
+
+    private static Assertion stringAttAssertion() {
+        return Assertion.createDataPropertyAssertion(URI.create(Vocabulary.p_a_stringAttribute), Generators.LANG,
+                                                     false);
+    }
+
+    private static AxiomValueGatherer stringAttGatherer(String value) {
+        final AxiomValueGatherer gatherer = new AxiomValueGatherer(NamedResource.create(IDENTIFIER), null);
+        gatherer.addValue(stringAttAssertion(), value != null ? new Value<>(value) : Value.nullValue(), null);
+        return gatherer;
+    }
+
+    @Test
+    void updateFieldValueDiffsAgainstValuesWrittenPreviouslyInTransaction() throws Exception {
+        initMapperWithDeltaUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        clone.setStringAttribute("newValue");
+        final OWLClassA original = new OWLClassA(IDENTIFIER);
+        original.setStringAttribute("oldValue");
+        initDeltaUpdateMocks(clone, original);
+
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        clone.setStringAttribute(null);
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        final ArgumentCaptor<AxiomValueDescriptor> removedCaptor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        final ArgumentCaptor<AxiomValueDescriptor> addedCaptor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        verify(connectionMock, times(2)).applyChanges(removedCaptor.capture(), addedCaptor.capture());
+        assertEquals(Collections.singletonList(new Value<>("newValue")),
+                     removedCaptor.getAllValues().get(1).getAssertionValues(stringAttAssertion()));
+        assertTrue(addedCaptor.getAllValues().get(1).getAssertions().isEmpty());
+    }
+
+    @Test
+    void updateFieldValueSkipsStorageAccessWhenDeltaIsEmpty() throws Exception {
+        initMapperWithDeltaUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        clone.setStringAttribute("value");
+        final OWLClassA original = new OWLClassA(IDENTIFIER);
+        original.setStringAttribute("value");
+        initDeltaUpdateMocks(clone, original);
+
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        verify(connectionMock, never()).applyChanges(any(), any());
+        verify(connectionMock, never()).update(any());
+    }
+
+    @Test
+    void updateFieldValueUsesRegularUpdateWhenAttributeOfOriginalIsNotLoaded() throws Exception {
+        initMapperWithDeltaUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        clone.setStringAttribute("newValue");
+        initDeltaUpdateMocks(clone, new OWLClassA(IDENTIFIER));
+        when(uowMock.isLoaded(clone, mocks.forOwlClassA().stringAttribute().getName()))
+                .thenReturn(LoadState.NOT_LOADED);
+
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        verify(connectionMock).update(any(AxiomValueDescriptor.class));
+        verify(connectionMock, never()).applyChanges(any(), any());
+    }
+
+    @Test
+    void updateFieldValueUsesRegularUpdateAfterTransactionFinished() throws Exception {
+        initMapperWithDeltaUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        clone.setStringAttribute("newValue");
+        initDeltaUpdateMocks(clone, new OWLClassA(IDENTIFIER));
+        when(uowMock.getOriginal(clone)).thenReturn(null);
+
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        mapper.transactionFinished();
+        clone.setStringAttribute("anotherValue");
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        verify(connectionMock, times(2)).update(any(AxiomValueDescriptor.class));
+        verify(connectionMock, never()).applyChanges(any(), any());
+    }
+
+    @Test
+    void updateFieldValueDefersWriteUntilFlushWhenDeferredUpdatesAreEnabled() throws Exception {
+        initMapperWithDeferredUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        when(entityDeconstructorMock.mapFieldToAxioms(eq(IDENTIFIER), eq(clone),
+                                                      eq(mocks.forOwlClassA().stringAttribute()), eq(etAMock),
+                                                      eq(aDescriptor)))
+                .thenAnswer(inv -> stringAttGatherer(clone.getStringAttribute()));
+        clone.setStringAttribute("valueOne");
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        clone.setStringAttribute("valueTwo");
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        verify(connectionMock, never()).update(any());
+
+        mapper.flush();
+        final ArgumentCaptor<AxiomValueDescriptor> captor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        verify(connectionMock).update(captor.capture());
+        assertEquals(Collections.singletonList(new Value<>("valueTwo")),
+                     captor.getValue().getAssertionValues(stringAttAssertion()));
+    }
+
+    private void initMapperWithDeferredUpdates() throws Exception {
+        when(uowMock.getConfiguration()).thenReturn(new Configuration(
+                Collections.singletonMap(JOPAPersistenceProperties.DEFERRED_UPDATES, Boolean.TRUE.toString())));
+        this.mapper = new ObjectOntologyMapperImpl(uowMock, connectionMock);
+        TestEnvironmentUtils.setMock(mapper,
+                                     ObjectOntologyMapperImpl.class.getDeclaredField("descriptorFactory"),
+                                     descriptorFactoryMock);
+        TestEnvironmentUtils.setMock(mapper,
+                                     ObjectOntologyMapperImpl.class.getDeclaredField("entityBreaker"),
+                                     entityDeconstructorMock);
+    }
+
+    @Test
+    void flushWritesAllDeferredChangesOfEntityUsingSingleUpdate() throws Exception {
+        initMapperWithDeferredUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        clone.setStringAttribute("value");
+        clone.setTypes(Collections.singleton(Vocabulary.c_OwlClassA));
+        when(entityDeconstructorMock.mapFieldToAxioms(IDENTIFIER, clone, mocks.forOwlClassA().stringAttribute(),
+                                                      etAMock, aDescriptor)).thenReturn(stringAttGatherer("value"));
+        final AxiomValueGatherer typesGatherer = new AxiomValueGatherer(NamedResource.create(IDENTIFIER), null);
+        final Set<URI> types = Collections.singleton(URI.create(Vocabulary.c_OwlClassA));
+        typesGatherer.addTypes(types, null);
+        when(entityDeconstructorMock.mapFieldToAxioms(IDENTIFIER, clone, mocks.forOwlClassA().typesSpec(),
+                                                      etAMock, aDescriptor)).thenReturn(typesGatherer);
+        final Types typesMock = mock(Types.class);
+        when(connectionMock.types()).thenReturn(typesMock);
+
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().typesSpec(), aDescriptor);
+        mapper.flush();
+        final ArgumentCaptor<AxiomValueDescriptor> captor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        verify(connectionMock).update(captor.capture());
+        assertTrue(captor.getValue().containsAssertion(stringAttAssertion()));
+        verify(typesMock).addTypes(NamedResource.create(IDENTIFIER), null, types);
+    }
+
+    @Test
+    void discardPendingChangesDiscardsDeferredUpdates() throws Exception {
+        initMapperWithDeferredUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+
+        mapper.discardPendingChanges();
+        mapper.flush();
+        verify(entityDeconstructorMock, never()).mapFieldToAxioms(any(), any(), any(), any(), any());
+        verify(connectionMock, never()).update(any());
+    }
+
+    @Test
+    void removeEntityDiscardsDeferredUpdatesOfRemovedEntity() throws Exception {
+        initMapperWithDeferredUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+        when(descriptorFactoryMock
+                     .createForEntityLoading(new LoadingParameters<>(OWLClassA.class, IDENTIFIER, aDescriptor, true),
+                                             etAMock)).thenReturn(axiomDescriptor);
+
+        mapper.removeEntity(IDENTIFIER, OWLClassA.class, aDescriptor);
+        verify(connectionMock).remove(axiomDescriptor);
+        verify(connectionMock, never()).update(any());
+    }
+
+    @Test
+    void flushUpdatesWritesDeferredChangesOfEntityUsingValuesAtTheTimeOfCall() throws Exception {
+        initMapperWithDeferredUpdates();
+        final OWLClassA clone = new OWLClassA(IDENTIFIER);
+        when(entityDeconstructorMock.mapFieldToAxioms(eq(IDENTIFIER), eq(clone),
+                                                      eq(mocks.forOwlClassA().stringAttribute()), eq(etAMock),
+                                                      eq(aDescriptor)))
+                .thenAnswer(inv -> stringAttGatherer(clone.getStringAttribute()));
+        clone.setStringAttribute("valueOne");
+        mapper.updateFieldValue(clone, mocks.forOwlClassA().stringAttribute(), aDescriptor);
+
+        mapper.flushUpdates(clone);
+        clone.setStringAttribute("valueTwo");
+        mapper.flush();
+        final ArgumentCaptor<AxiomValueDescriptor> captor = ArgumentCaptor.forClass(AxiomValueDescriptor.class);
+        verify(connectionMock).update(captor.capture());
+        assertEquals(Collections.singletonList(new Value<>("valueOne")),
+                     captor.getValue().getAssertionValues(stringAttAssertion()));
+    }
+
+    @Test
+    void flushUpdatesDoesNothingWhenThereAreNoDeferredChangesOfEntity() throws Exception {
+        initMapperWithDeferredUpdates();
+        mapper.flushUpdates(new OWLClassA(IDENTIFIER));
+        verify(connectionMock, never()).update(any());
+        verify(connectionMock, never()).persistAll(anyCollection());
+    }
 }
@@ -12,6 +12,7 @@
  */
 package cz.cvut.kbss.jopa.oom;
 
+import cz.cvut.kbss.jopa.adapters.IndirectList;
 import cz.cvut.kbss.jopa.environment.*;
 import cz.cvut.kbss.jopa.environment.utils.Generators;
 import cz.cvut.kbss.jopa.model.IRI;
@@ -21,6 +22,7 @@ import cz.cvut.kbss.jopa.model.annotations.OWLObjectProperty;
 import cz.cvut.kbss.jopa.model.annotations.Sequence;
 import cz.cvut.kbss.jopa.model.metamodel.*;
 import cz.cvut.kbss.jopa.oom.converter.ObjectOneOfEnumConverter;
+import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
 import cz.cvut.kbss.jopa.vocabulary.OWL;
 import cz.cvut.kbss.ontodriver.descriptor.SimpleListDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.SimpleListValueDescriptor;
@@ -212,6 +214,34 @@ public class SimpleListPropertyStrategyTest extends ListPropertyStrategyTestBase
         verifyListItems(expected, res);
     }
 
+    @Test
+    void extractListValuesSetsStoredPrefixSizeWhenIndirectListHasOnlyBeenAppendedTo() throws Exception {
+        final OWLClassC c = new OWLClassC(PK);
+        final List<OWLClassA> original = generateList();
+        final IndirectList<OWLClassA> list =
+                new IndirectList<>(c, OWLClassC.getSimpleListField(), mock(UnitOfWorkImpl.class), original);
+        list.add(new OWLClassA(Generators.createIndividualIdentifier()));
+        c.setSimpleList(list);
+
+        strategy.buildAxiomValuesFromInstance(c, builder);
+        final SimpleListValueDescriptor res = listValueDescriptor();
+        assertEquals(original.size() - 1, res.getStoredPrefixSize());
+        assertEquals(original.size(), list.getStoredSize());
+    }
+
+    @Test
+    void extractListValuesDoesNotSetStoredPrefixSizeWhenIndirectListHasBeenModified() throws Exception {
+        final OWLClassC c = new OWLClassC(PK);
+        final IndirectList<OWLClassA> list =
+                new IndirectList<>(c, OWLClassC.getSimpleListField(), mock(UnitOfWorkImpl.class), generateList());
+        list.add(0, new OWLClassA(Generators.createIndividualIdentifier()));
+        c.setSimpleList(list);
+
+        strategy.buildAxiomValuesFromInstance(c, builder);
+        final SimpleListValueDescriptor res = listValueDescriptor();
+        assertEquals(-1, res.getStoredPrefixSize());
+    }
+
     @Test
     void extractValuesFromListOfPlainIdentifiersForPersist() throws Exception {
         final OWLClassP p = new OWLClassP();
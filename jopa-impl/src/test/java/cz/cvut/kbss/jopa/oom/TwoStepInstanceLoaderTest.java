@@ -17,32 +17,37 @@ package cz.cvut.kbss.jopa.oom;
 import cz.cvut.kbss.jopa.environment.OWLClassA;
 import cz.cvut.kbss.jopa.environment.OWLClassR;
 import cz.cvut.kbss.jopa.environment.OWLClassS;
+import cz.cvut.kbss.jopa.environment.Vocabulary;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
 import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
 import cz.cvut.kbss.jopa.exceptions.StorageAccessException;
 import cz.cvut.kbss.jopa.sessions.LoadingParameters;
+import cz.cvut.kbss.jopa.sessions.cache.QueryAttributeCache;
+import cz.cvut.kbss.jopa.utils.Configuration;
 import cz.cvut.kbss.ontodriver.Types;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.AxiomImpl;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.model.Value;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -53,8 +58,13 @@ class TwoStepInstanceLoaderTest extends InstanceLoaderTestBase {
     @Mock
     private Types typesMock;
 
+    private MetamodelMocks mocks;
+
     private LoadingParameters<OWLClassS> loadingParameters;
 
+    private AxiomDescriptor rDescriptor;
+    private AxiomDescriptor hierarchyDescriptor;
+
     @BeforeAll
     static void setUpBeforeClass() {
         staticSetup();
@@ -63,73 +73,132 @@ class TwoStepInstanceLoaderTest extends InstanceLoaderTestBase {
     @BeforeEach
     void setUp() throws Exception {
         this.loadingParameters = new LoadingParameters<>(OWLClassS.class, IDENTIFIER, descriptor);
-        final MetamodelMocks mocks = new MetamodelMocks();
+        this.mocks = new MetamodelMocks();
         mocks.setMocks(metamodelMock);
         when(connectionMock.types()).thenReturn(typesMock);
+        this.rDescriptor = new AxiomDescriptor(INDIVIDUAL);
+        rDescriptor.addAssertion(Assertion.createClassAssertion(false));
+        rDescriptor.addAssertion(rStringAssertion());
         when(descriptorFactoryMock.createForEntityLoading(loadingParameters, mocks.forOwlClassR().entityType()))
-                .thenReturn(axiomDescriptor);
+                .thenReturn(rDescriptor);
+        this.hierarchyDescriptor = new AxiomDescriptor(INDIVIDUAL);
+        hierarchyDescriptor.addAssertion(Assertion.createClassAssertion(false));
+        when(descriptorFactoryMock.createForPolymorphicEntityLoading(loadingParameters,
+                                                                     mocks.forOwlClassS().entityType()))
+                .thenReturn(hierarchyDescriptor);
         this.instanceLoader = TwoStepInstanceLoader.builder().connection(connectionMock).metamodel(metamodelMock)
                 .cache(cacheMock).descriptorFactory(descriptorFactoryMock)
-                .entityBuilder(entityConstructorMock).build();
+                .entityBuilder(entityConstructorMock)
+                .queryAttributeCache(new QueryAttributeCache(new Configuration())).build();
     }
 
     @Test
-    void loadEntityLoadsTypesAndDeterminesEntityTypeBeforeLoadingInstance() throws Exception {
-        final Set<Axiom<URI>> types = Collections.singleton(
-                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
-                        new Value<>(URI.create(OWLClassR.getClassIri()))));
-        when(typesMock.getTypes(INDIVIDUAL, Collections.emptySet(), false)).thenReturn(types);
+    void loadEntityLoadsAxiomsOfWholeHierarchyAndResolvesEntityTypeFromThem() throws Exception {
+        final Axiom<NamedResource> typeAxiom = classAssertion(OWLClassR.getClassIri());
+        final Axiom<String> stringAxiom = new AxiomImpl<>(INDIVIDUAL, rStringAssertion(), new Value<>("test"));
+        final Collection<Axiom<?>> axioms = Arrays.asList(typeAxiom, stringAxiom);
+        when(connectionMock.find(hierarchyDescriptor)).thenReturn(axioms);
+        final OWLClassR entityR = new OWLClassR();
+        when(entityConstructorMock.reconstructEntity(eq(IDENTIFIER), eq(mocks.forOwlClassR().entityType()),
+                                                     eq(descriptor), anyCollection())).thenReturn(entityR);
 
-        instanceLoader.loadEntity(loadingParameters);
-        verify(typesMock).getTypes(INDIVIDUAL, Collections.emptySet(), false);
-        verify(descriptorFactoryMock).createForEntityLoading(loadingParameters, metamodelMock.entity(OWLClassR.class));
+        final OWLClassS result = instanceLoader.loadEntity(loadingParameters);
+        assertSame(entityR, result);
+        verify(connectionMock).find(hierarchyDescriptor);
+        verify(connectionMock, never()).find(rDescriptor);
+        verify(typesMock, never()).getTypes(any(), any(), anyBoolean());
+        final ArgumentCaptor<Collection<Axiom<?>>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(entityConstructorMock).reconstructEntity(eq(IDENTIFIER), eq(mocks.forOwlClassR().entityType()),
+                                                        eq(descriptor), captor.capture());
+        assertThat(captor.getValue(), containsInAnyOrder(typeAxiom, stringAxiom));
+    }
+
+    private static Axiom<NamedResource> classAssertion(String type) {
+        return new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
+                               new Value<>(NamedResource.create(type)));
+    }
+
+    private static Assertion rStringAssertion() {
+        return Assertion.createDataPropertyAssertion(URI.create(Vocabulary.P_R_STRING_ATTRIBUTE), false);
     }
 
     @Test
-    void loadEntityLoadsEntityFromStorageWhenEntityTypeIsDetermined() throws Exception {
-        final Set<Axiom<URI>> types = Collections.singleton(
-                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
-                        new Value<>(URI.create(OWLClassR.getClassIri()))));
-        when(typesMock.getTypes(INDIVIDUAL, Collections.emptySet(), false)).thenReturn(types);
-        final OWLClassR entityR = new OWLClassR();
-        final Collection<Axiom<?>> axioms = new HashSet<>(types);
-        when(connectionMock.find(axiomDescriptor)).thenReturn(axioms);
-        when(entityConstructorMock
-                .reconstructEntity(IDENTIFIER, metamodelMock.entity(OWLClassR.class), descriptor, axioms))
-                .thenReturn(entityR);
+    void loadEntitySkipsAxiomsOfAttributesNotDeclaredByResolvedEntityType() throws Exception {
+        final Axiom<NamedResource> typeAxiom = classAssertion(OWLClassR.getClassIri());
+        final Axiom<String> unknownAxiom = new AxiomImpl<>(INDIVIDUAL, Assertion.createDataPropertyAssertion(
+                Generators.createPropertyIdentifier(), false), new Value<>("test"));
+        when(connectionMock.find(hierarchyDescriptor)).thenReturn(Arrays.asList(typeAxiom, unknownAxiom));
 
-        final OWLClassS result = instanceLoader.loadEntity(loadingParameters);
-        assertNotNull(result);
-        assertSame(entityR, result);
+        instanceLoader.loadEntity(loadingParameters);
+        final ArgumentCaptor<Collection<Axiom<?>>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(entityConstructorMock).reconstructEntity(eq(IDENTIFIER), eq(mocks.forOwlClassR().entityType()),
+                                                        eq(descriptor), captor.capture());
+        assertEquals(Collections.singletonList(typeAxiom), new ArrayList<>(captor.getValue()));
     }
 
     @Test
-    void loadEntityReturnsNullWhenNoTypesForIndividualAreFound() throws Exception {
-        when(typesMock.getTypes(INDIVIDUAL, null, false)).thenReturn(Collections.emptySet());
+    void loadEntityReturnsNullWhenNoAxiomsForIndividualAreFound() throws Exception {
+        when(connectionMock.find(hierarchyDescriptor)).thenReturn(Collections.emptySet());
 
         assertNull(instanceLoader.loadEntity(loadingParameters));
+        verify(entityConstructorMock, never()).reconstructEntity(any(), any(), any(), anyCollection());
     }
 
     @Test
     void loadEntityReturnsNullWhenNoMatchingEntityTypeIsFound() throws Exception {
-        final Set<Axiom<URI>> types = Collections.singleton(
-                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
-                        new Value<>(URI.create(OWLClassA.getClassIri()))));
-        when(typesMock.getTypes(INDIVIDUAL, null, false)).thenReturn(types);
+        when(connectionMock.find(hierarchyDescriptor))
+                .thenReturn(Collections.singleton(classAssertion(OWLClassA.getClassIri())));
 
         assertNull(instanceLoader.loadEntity(loadingParameters));
+        verify(entityConstructorMock, never()).reconstructEntity(any(), any(), any(), anyCollection());
     }
 
     @Test
     void loadEntityThrowsStorageAccessExceptionWhenOntoDriverThrowsException() throws Exception {
         final String msg = "Exception message.";
-        when(typesMock.getTypes(INDIVIDUAL, Collections.emptySet(), false)).thenThrow(new OntoDriverException(msg));
+        when(connectionMock.find(hierarchyDescriptor)).thenThrow(new OntoDriverException(msg));
 
         final StorageAccessException ex =
                 assertThrows(StorageAccessException.class, () -> instanceLoader.loadEntity(loadingParameters));
         assertThat(ex.getMessage(), containsString(msg));
     }
 
+    @Test
+    void loadEntityLoadsTypesFirstWhenInstanceFromHierarchyIsCached() throws Exception {
+        final Set<Axiom<URI>> types = Collections.singleton(
+                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
+                        new Value<>(URI.create(OWLClassR.getClassIri()))));
+        when(typesMock.getTypes(INDIVIDUAL, Collections.emptySet(), false)).thenReturn(types);
+        final OWLClassR entityR = new OWLClassR();
+        when(cacheMock.contains(OWLClassR.class, IDENTIFIER, descriptor)).thenReturn(true);
+        when(cacheMock.get(OWLClassR.class, IDENTIFIER, descriptor)).thenReturn(entityR);
+
+        final OWLClassS result = instanceLoader.loadEntity(loadingParameters);
+        assertSame(entityR, result);
+        verify(typesMock).getTypes(INDIVIDUAL, Collections.emptySet(), false);
+        verify(connectionMock, never()).find(any());
+    }
+
+    @Test
+    void loadEntityLoadsTypesFirstWhenHierarchyLoadsInferredTypes() throws Exception {
+        hierarchyDescriptor.addAssertion(Assertion.createClassAssertion(true));
+        final Set<Axiom<URI>> types = Collections.singleton(
+                new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
+                        new Value<>(URI.create(OWLClassR.getClassIri()))));
+        when(typesMock.getTypes(INDIVIDUAL, Collections.emptySet(), false)).thenReturn(types);
+        final OWLClassR entityR = new OWLClassR();
+        final Collection<Axiom<?>> axioms = new HashSet<>(types);
+        when(connectionMock.find(rDescriptor)).thenReturn(axioms);
+        when(entityConstructorMock
+                .reconstructEntity(IDENTIFIER, metamodelMock.entity(OWLClassR.class), descriptor, axioms))
+                .thenReturn(entityR);
+
+        final OWLClassS result = instanceLoader.loadEntity(loadingParameters);
+        assertSame(entityR, result);
+        verify(typesMock).getTypes(INDIVIDUAL, Collections.emptySet(), false);
+        verify(connectionMock, never()).find(hierarchyDescriptor);
+    }
+
     @Test
     void loadReferenceLoadsReferenceFromStorageWhenEntityTypeIsDetermined() throws Exception {
         final Axiom<URI> type = new AxiomImpl<>(INDIVIDUAL, Assertion.createClassAssertion(false),
@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.query.sparql;
+
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.query.parameter.ParameterValueFactory;
+import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QueryPlanCacheTest {
+
+    private static final String QUERY = "SELECT ?x ?y WHERE { ?x ?y ?z . ?z ?y ?x . }";
+
+    private final ParameterValueFactory valueFactory = new ParameterValueFactory(mock(UnitOfWorkImpl.class));
+
+    private SparqlQueryParser parser;
+
+    private QueryPlanCache sut;
+
+    @BeforeEach
+    void setUp() {
+        this.parser = spy(new SparqlQueryParser(valueFactory));
+        this.sut = new QueryPlanCache(new Configuration());
+    }
+
+    @Test
+    void getTemplateParsesQueryOnlyOnce() {
+        final QueryTemplate first = sut.getTemplate(QUERY, parser);
+        final QueryTemplate second = sut.getTemplate(QUERY, parser);
+        assertSame(first, second);
+        verify(parser).parseQuery(QUERY);
+    }
+
+    @Test
+    void getTemplateReturnsTemplateWhoseInstancesAssembleSameQueryAsParsedHolder() {
+        final QueryTemplate template = sut.getTemplate(QUERY, parser);
+        final SparqlQueryHolder parsed = new SparqlQueryParser(valueFactory).parseQuery(QUERY);
+        final SparqlQueryHolder instance = template.instantiate(valueFactory);
+        assertEquals(parsed.getParameters(), instance.getParameters());
+        assertEquals(parsed.assembleQuery(), instance.assembleQuery());
+
+        parsed.setParameter(parsed.getParameter("z"), "test", "en");
+        instance.setParameter(instance.getParameter("z"), "test", "en");
+        assertEquals(parsed.assembleQuery(), instance.assembleQuery());
+    }
+
+    @Test
+    void templateInstancesHaveIndependentParameterValues() {
+        final QueryTemplate template = sut.getTemplate(QUERY, parser);
+        final SparqlQueryHolder one = template.instantiate(valueFactory);
+        final SparqlQueryHolder two = template.instantiate(valueFactory);
+
+        one.setParameter(one.getParameter("z"), "test", "en");
+        assertNotEquals(one.assembleQuery(), two.assembleQuery());
+        assertEquals(QUERY, two.assembleQuery());
+    }
+
+    @Test
+    void templateInstancePreservesProjectedParameters() {
+        final QueryTemplate template = sut.getTemplate(QUERY, parser);
+        final SparqlQueryHolder instance = template.instantiate(valueFactory);
+        assertTrue(instance.getParameter("x").isProjected());
+        assertFalse(instance.getParameter("z").isProjected());
+    }
+
+    @Test
+    void getTemplateDiscardsLeastRecentlyUsedTemplatesWhenCapacityIsExceeded() {
+        this.sut = new QueryPlanCache(
+                new Configuration(Collections.singletonMap(JOPAPersistenceProperties.QUERY_PLAN_CACHE_SIZE, "2")));
+        final String queryTwo = "SELECT ?x WHERE { ?x a ?type . }";
+        final String queryThree = "SELECT ?y WHERE { ?y a ?type . }";
+        sut.getTemplate(QUERY, parser);
+        sut.getTemplate(queryTwo, parser);
+        sut.getTemplate(QUERY, parser);
+        sut.getTemplate(queryThree, parser);
+        assertEquals(2, sut.size());
+
+        sut.getTemplate(QUERY, parser);
+        verify(parser).parseQuery(QUERY);
+        sut.getTemplate(queryTwo, parser);
+        verify(parser, times(2)).parseQuery(queryTwo);
+    }
+
+    @Test
+    void getTemplateAlwaysParsesQueryWhenCacheIsDisabled() {
+        this.sut = new QueryPlanCache(
+                new Configuration(Collections.singletonMap(JOPAPersistenceProperties.QUERY_PLAN_CACHE_SIZE, "0")));
+        sut.getTemplate(QUERY, parser);
+        sut.getTemplate(QUERY, parser);
+        verify(parser, times(2)).parseQuery(QUERY);
+        assertEquals(0, sut.size());
+    }
+
+    @Test
+    void initializationWithInvalidCapacityUsesDefaultValue() {
+        this.sut = new QueryPlanCache(new Configuration(
+                Collections.singletonMap(JOPAPersistenceProperties.QUERY_PLAN_CACHE_SIZE, "not-a-number")));
+        assertEquals(QueryPlanCache.DEFAULT_CAPACITY, sut.getCapacity());
+    }
+}
@@ -24,6 +24,7 @@ import cz.cvut.kbss.jopa.query.ResultSetMappingManager;
 import cz.cvut.kbss.jopa.query.mapper.SparqlResultMapper;
 import cz.cvut.kbss.jopa.sessions.ConnectionWrapper;
 import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -32,8 +33,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
-import static org.junit.jupiter.api.Assertions.assertNotNull;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.net.URI;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -53,6 +55,8 @@ public class SparqlQueryFactoryTest {
     @Mock
     private ConnectionWrapper connectionMock;
 
+    private QueryPlanCache queryPlanCache;
+
     private SparqlQueryFactory factory;
 
     @BeforeEach
@@ -63,6 +67,9 @@ public class SparqlQueryFactoryTest {
         final MetamodelImpl metamodel = mock(MetamodelImpl.class);
         new MetamodelMocks().setMocks(metamodel);
         when(uowMock.getMetamodel()).thenReturn(metamodel);
+        when(uowMock.getConfiguration()).thenReturn(new Configuration());
+        this.queryPlanCache = new QueryPlanCache(new Configuration());
+        when(uowMock.getQueryPlanCache()).thenReturn(queryPlanCache);
         this.factory = new SparqlQueryFactory(uowMock, connectionMock);
     }
 
@@ -137,6 +144,26 @@ public class SparqlQueryFactoryTest {
         verify(managerMock).getMapper(mapping);
     }
 
+    @Test
+    void createQueryReusesCachedTemplateOfPreviouslyCreatedQuery() {
+        final String query = "SELECT ?x WHERE { ?x a ?type . }";
+        final Query first = factory.createNativeQuery(query);
+        final Query second = factory.createNativeQuery(query);
+        assertEquals(1, queryPlanCache.size());
+
+        first.setParameter("type", URI.create("http://onto.fel.cvut.cz/ontologies/jopa/TypeOne"));
+        assertTrue(first.isBound(first.getParameter("type")));
+        assertFalse(second.isBound(second.getParameter("type")));
+    }
+
+    @Test
+    void createQueryCachesSoqlAndSparqlTemplatesSeparately() {
+        factory.createQuery(SOQL_QUERY, CLS);
+        factory.createNativeQuery(SOQL_QUERY.replace("a FROM", "?a FROM"));
+        factory.createQuery(SOQL_QUERY, CLS);
+        assertEquals(2, queryPlanCache.size());
+    }
+
     @Test
     public void createNamedQueryRetrievesNamedQueryFromManagerAndReturnsCorrespondingNativeQuery() {
         final String queryName = "testQuery";
@@ -15,6 +15,7 @@
 package cz.cvut.kbss.jopa.sessions;
 
 import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
 import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
 import cz.cvut.kbss.jopa.oom.ObjectOntologyMapper;
@@ -22,6 +23,7 @@ import cz.cvut.kbss.ontodriver.Connection;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
@@ -67,4 +69,66 @@ class ConnectionWrapperTest {
         when(connectionMock.unwrap(Object.class)).thenThrow(new OntoDriverException());
         assertThrows(OWLPersistenceException.class, () -> connectionWrapper.unwrap(Object.class));
     }
-}
\ No newline at end of file
+
+    @Test
+    void commitFlushesMapperBeforeCommittingConnection() throws Exception {
+        connectionWrapper.commit();
+        final InOrder inOrder = inOrder(oomMock, connectionMock);
+        inOrder.verify(oomMock).flush();
+        inOrder.verify(oomMock).checkForUnpersistedChanges();
+        inOrder.verify(connectionMock).commit();
+    }
+
+    @Test
+    void flushUpdatesWritesBufferedChangesOfEntityUsingMapper() {
+        final OWLClassA entity = new OWLClassA(Generators.createIndividualIdentifier());
+        connectionWrapper.flushUpdates(entity);
+        verify(oomMock).flushUpdates(entity);
+    }
+
+    @Test
+    void rollbackDiscardsChangesPendingInMapper() throws Exception {
+        connectionWrapper.rollback();
+        verify(oomMock).discardPendingChanges();
+        verify(oomMock, never()).flush();
+        verify(connectionMock).rollback();
+    }
+
+    @Test
+    void commitNotifiesMapperThatTransactionFinishedAfterCommittingConnection() throws Exception {
+        connectionWrapper.commit();
+        final InOrder inOrder = inOrder(oomMock, connectionMock);
+        inOrder.verify(connectionMock).commit();
+        inOrder.verify(oomMock).transactionFinished();
+    }
+
+    @Test
+    void rollbackNotifiesMapperThatTransactionFinishedAfterRollingBackConnection() throws Exception {
+        connectionWrapper.rollback();
+        final InOrder inOrder = inOrder(oomMock, connectionMock);
+        inOrder.verify(connectionMock).rollback();
+        inOrder.verify(oomMock).transactionFinished();
+    }
+
+    @Test
+    void commitNotifiesMapperThatTransactionFinishedWhenConnectionCommitFails() throws Exception {
+        doThrow(OntoDriverException.class).when(connectionMock).commit();
+        assertThrows(OWLPersistenceException.class, () -> connectionWrapper.commit());
+        verify(oomMock).transactionFinished();
+    }
+
+    @Test
+    void rollbackNotifiesMapperThatTransactionFinishedWhenConnectionRollbackFails() throws Exception {
+        doThrow(OntoDriverException.class).when(connectionMock).rollback();
+        assertThrows(OWLPersistenceException.class, () -> connectionWrapper.rollback());
+        verify(oomMock).transactionFinished();
+    }
+
+    @Test
+    void createStatementFlushesMapperBeforeCreatingStatement() throws Exception {
+        connectionWrapper.createStatement();
+        final InOrder inOrder = inOrder(oomMock, connectionMock);
+        inOrder.verify(oomMock).flush();
+        inOrder.verify(connectionMock).createStatement();
+    }
+}
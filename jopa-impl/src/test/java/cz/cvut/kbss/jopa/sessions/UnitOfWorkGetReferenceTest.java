@@ -207,6 +207,18 @@ public class UnitOfWorkGetReferenceTest extends UnitOfWorkTestBase {
         verify(cacheManagerMock).evict(OWLClassA.class, entityA.getUri(), descriptor.getSingleContext().orElse(null));
     }
 
+    @Test
+    void uowCommitDoesNotEvictInstanceRetrievedUsingGetReferenceWhenItWasNotChanged() {
+        when(transactionMock.isActive()).thenReturn(true);
+        final OWLClassA reference = new OWLClassA(entityA.getUri());
+        when(storageMock.getReference(any(LoadingParameters.class))).thenReturn(reference);
+        final OWLClassA a = uow.getReference(OWLClassA.class, entityA.getUri(), descriptor);
+        assertNotNull(a);
+        uow.commit();
+        verify(cacheManagerMock, never()).evict(OWLClassA.class, entityA.getUri(),
+                descriptor.getSingleContext().orElse(null));
+    }
+
     @Test
     void attributeChangeSetsChangeRecordToPreventCachingWhenNewValueWasRetrievedUsingGetReference() throws Exception {
         when(transactionMock.isActive()).thenReturn(true);
@@ -100,6 +100,24 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         verify(storageMock, never()).find(any());
     }
 
+    @Test
+    void readObjectsLoadsNotManagedObjectsTogetherAndReturnsThemInOrder() {
+        final OWLClassA clone = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        final OWLClassA another = new OWLClassA(Generators.createIndividualIdentifier());
+        final URI unknown = Generators.createIndividualIdentifier();
+        when(storageMock.findAll(eq(OWLClassA.class), anyList(), eq(descriptor)))
+                .thenReturn(Arrays.asList(null, another));
+        final List<OWLClassA> result = uow.readObjects(OWLClassA.class,
+                Arrays.asList(unknown, entityA.getUri(), another.getUri()), descriptor);
+        assertEquals(3, result.size());
+        assertNull(result.get(0));
+        assertSame(clone, result.get(1));
+        assertNotNull(result.get(2));
+        assertEquals(another.getUri(), result.get(2).getUri());
+        assertTrue(uow.contains(result.get(2)));
+        verify(storageMock).findAll(OWLClassA.class, Arrays.asList(unknown, another.getUri()), descriptor);
+    }
+
     @Test
     void testCalculateNewObjects() {
         uow.registerNewObject(entityA, descriptor);
@@ -372,6 +390,13 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         assertFalse(uow.contains(managed));
     }
 
+    @Test
+    void unregisterObjectWritesBufferedChangesOfInstanceBeforeItIsDetached() {
+        final OWLClassA managed = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        uow.unregisterObject(managed);
+        verify(storageMock).flushUpdates(managed);
+    }
+
     @Test
     void unregisterObjectRemovesItFromCloneBuilderCache() {
         final OWLClassA managed = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
@@ -703,6 +728,13 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         verify(cacheManagerMock).add(entityA.getUri(), original, descriptor);
     }
 
+    @Test
+    void clearWritesBufferedChangesBeforeDetachingInstances() {
+        uow.registerExistingObject(entityA, descriptor);
+        uow.clear();
+        verify(storageMock).flush();
+    }
+
     @Test
     void clearResetsCloneBuilder() {
         uow.registerExistingObject(entityA, descriptor);
@@ -810,6 +842,48 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         assertEquals(original, uow.getOriginal(d));
     }
 
+    @Test
+    void refreshReplacesOriginalInReverseCloneMapping() {
+        final OWLClassD d = (OWLClassD) uow.registerExistingObject(entityD, descriptor);
+        final OWLClassD original = new OWLClassD(d.getUri());
+        original.setOwlClassA(entityA);
+        final LoadingParameters<OWLClassD> loadingParams =
+                new LoadingParameters<>(OWLClassD.class, d.getUri(), descriptor, true);
+        loadingParams.bypassCache();
+        when(storageMock.find(loadingParams)).thenReturn(original);
+        uow.refreshObject(d);
+
+        assertSame(d, uow.getCloneForOriginal(original));
+        assertFalse(uow.containsOriginal(entityD));
+        assertNull(uow.getCloneForOriginal(entityD));
+    }
+
+    @Test
+    void registerExistingObjectMakesCloneResolvableByOriginal() {
+        final Object clone = uow.registerExistingObject(entityA, descriptor);
+        assertTrue(uow.containsOriginal(entityA));
+        assertSame(clone, uow.getCloneForOriginal(entityA));
+        assertSame(clone, uow.registerExistingObject(entityA, descriptor));
+    }
+
+    @Test
+    void unregisterObjectRemovesCloneFromReverseCloneMapping() {
+        final Object clone = uow.registerExistingObject(entityA, descriptor);
+        uow.unregisterObject(clone);
+        assertFalse(uow.containsOriginal(entityA));
+        assertNull(uow.getCloneForOriginal(entityA));
+    }
+
+    @Test
+    void clearRemovesAllClonesFromReverseCloneMapping() {
+        uow.registerExistingObject(entityA, descriptor);
+        uow.registerExistingObject(entityB, descriptor);
+        uow.clear();
+        assertFalse(uow.containsOriginal(entityA));
+        assertFalse(uow.containsOriginal(entityB));
+        assertNull(uow.getCloneForOriginal(entityB));
+    }
+
     @Test
     void refreshThrowsEntityNotFoundForNonExistentEntity() {
         final OWLClassD d = (OWLClassD) uow.registerExistingObject(entityD, descriptor);
@@ -853,6 +927,20 @@ class UnitOfWorkTest extends UnitOfWorkTestBase {
         verify(storageMock).merge(eq(a), eq(metamodelMocks.forOwlClassA().stringAttribute()), any(Descriptor.class));
     }
 
+    @Test
+    void refreshDoesNotWriteAttributesNotChangedInCurrentTransaction() {
+        when(transactionMock.isActive()).thenReturn(true);
+        final OWLClassA a = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
+        final OWLClassA original = new OWLClassA(entityA.getUri());
+        original.setStringAttribute("concurrentlyUpdatedString");
+        original.setTypes(new HashSet<>(entityA.getTypes()));
+        Mockito.reset(storageMock);
+        when(storageMock.find(any())).thenReturn(original);
+        uow.refreshObject(a);
+        assertEquals(original.getStringAttribute(), a.getStringAttribute());
+        verify(storageMock, never()).merge(any(), any(), any());
+    }
+
     @Test
     void restoreDeletedRegistersObjectAgain() {
         final OWLClassA a = (OWLClassA) uow.registerExistingObject(entityA, descriptor);
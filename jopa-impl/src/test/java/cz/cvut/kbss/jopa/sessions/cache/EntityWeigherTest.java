@@ -0,0 +1,88 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.OWLClassD;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.model.MultilingualString;
+import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class EntityWeigherTest {
+
+    private EntityWeigher sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final Metamodel metamodel = mock(Metamodel.class);
+        new MetamodelMocks().setMocks(metamodel);
+        this.sut = new EntityWeigher(metamodel);
+    }
+
+    @Test
+    void weighIncludesAttributeValues() {
+        final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+        final long emptyWeight = sut.weigh(a);
+        a.setStringAttribute("test");
+        final long withString = sut.weigh(a);
+        assertThat(withString, greaterThan(emptyWeight));
+        a.setTypes(new HashSet<>(Arrays.asList(Generators.createIndividualIdentifier().toString(),
+                Generators.createIndividualIdentifier().toString())));
+        assertThat(sut.weigh(a), greaterThan(withString));
+    }
+
+    @Test
+    void weighCountsReferencedEntityOnlyAsReference() {
+        final OWLClassD d = new OWLClassD(Generators.createIndividualIdentifier());
+        final long withoutReference = sut.weigh(d);
+        final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+        a.setStringAttribute("a rather long string value which should not be counted in the referencing entity");
+        d.setOwlClassA(a);
+        assertEquals(withoutReference, sut.weigh(d));
+    }
+
+    @Test
+    void weighValueGrowsWithCollectionSize() {
+        final List<String> values = new ArrayList<>();
+        long previous = EntityWeigher.weighValue(values);
+        for (int i = 0; i < 5; i++) {
+            values.add("value" + i);
+            final long current = EntityWeigher.weighValue(values);
+            assertThat(current, greaterThan(previous));
+            previous = current;
+        }
+    }
+
+    @Test
+    void weighValueIncludesAllMultilingualStringTranslations() {
+        final MultilingualString str = MultilingualString.create("building", "en");
+        final long single = EntityWeigher.weighValue(str);
+        str.set("cs", "budova");
+        assertThat(EntityWeigher.weighValue(str), greaterThan(single));
+    }
+
+    @Test
+    void weighOfUnknownClassIncludesOnlyOverhead() {
+        assertEquals(EntityWeigher.CACHE_ENTRY_OVERHEAD + EntityWeigher.OBJECT_OVERHEAD, sut.weigh(new Object()));
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.utils.Configuration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QueryAttributeCacheTest {
+
+    private final AtomicLong time = new AtomicLong(1000L);
+
+    private final OWLClassA instance = new OWLClassA(Generators.createIndividualIdentifier());
+
+    private QueryAttributeCache withTtl(String ttl) {
+        return new QueryAttributeCache(
+                new Configuration(Collections.singletonMap(JOPAPersistenceProperties.QUERY_ATTRIBUTE_CACHE_TTL, ttl)),
+                time::get);
+    }
+
+    @Test
+    void defaultTtlRefreshesQueryAttributesAlways() {
+        final QueryAttributeCache sut = new QueryAttributeCache(new Configuration());
+        assertEquals(QueryAttributeCache.DEFAULT_TTL, sut.getTtl());
+        sut.refreshed(instance);
+        assertTrue(sut.shouldRefresh(instance));
+    }
+
+    @Test
+    void initializationWithInvalidTtlUsesDefaultValue() {
+        assertEquals(QueryAttributeCache.DEFAULT_TTL, withTtl("-10").getTtl());
+        assertEquals(QueryAttributeCache.DEFAULT_TTL, withTtl("abc").getTtl());
+    }
+
+    @Test
+    void shouldRefreshReturnsTrueForUnknownInstance() {
+        assertTrue(withTtl("60").shouldRefresh(instance));
+    }
+
+    @Test
+    void shouldRefreshReturnsFalseForInstanceRefreshedWithinTtl() {
+        final QueryAttributeCache sut = withTtl("60");
+        sut.refreshed(instance);
+        time.addAndGet(59_000L);
+        assertFalse(sut.shouldRefresh(instance));
+    }
+
+    @Test
+    void shouldRefreshReturnsTrueWhenTtlExpires() {
+        final QueryAttributeCache sut = withTtl("60");
+        sut.refreshed(instance);
+        time.addAndGet(60_000L);
+        assertTrue(sut.shouldRefresh(instance));
+    }
+
+    @Test
+    void shouldRefreshTracksInstancesByIdentity() {
+        final QueryAttributeCache sut = withTtl("60");
+        sut.refreshed(instance);
+        final OWLClassA equalInstance = new OWLClassA(instance.getUri());
+        assertTrue(sut.shouldRefresh(equalInstance));
+    }
+
+    @Test
+    void invalidateCausesRefreshOfInstance() {
+        final QueryAttributeCache sut = withTtl("60");
+        sut.refreshed(instance);
+        sut.invalidate(instance);
+        assertTrue(sut.shouldRefresh(instance));
+    }
+
+    @Test
+    void clearCausesRefreshOfAllInstances() {
+        final QueryAttributeCache sut = withTtl("60");
+        sut.refreshed(instance);
+        sut.clear();
+        assertTrue(sut.shouldRefresh(instance));
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StripedLruCacheManagerTest extends AbstractCacheManagerTest<StripedLruCacheManager> {
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        this.manager = new StripedLruCacheManager();
+    }
+
+    @Test
+    void initWithDefaultCapacity() {
+        assertEquals(LruCacheManager.DEFAULT_CAPACITY, manager.getCapacity());
+    }
+
+    @Test
+    void initWithCustomCapacity() {
+        final int capacity = 117;
+        this.manager = new StripedLruCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        assertEquals(capacity, manager.getCapacity());
+    }
+
+    @Test
+    void initializationWithInvalidCapacityUsesDefaultValue() {
+        this.manager = new StripedLruCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, "-111"));
+        assertEquals(LruCacheManager.DEFAULT_CAPACITY, manager.getCapacity());
+    }
+
+    @Test
+    void resolveSegmentCountReturnsPowerOfTwoBoundedByProcessorsAndCapacity() {
+        assertEquals(16, StripedLruCacheManager.resolveSegmentCount(LruCacheManager.DEFAULT_CAPACITY, 4));
+        assertEquals(StripedLruCacheManager.MAX_SEGMENT_COUNT,
+                StripedLruCacheManager.resolveSegmentCount(Integer.MAX_VALUE, 128));
+        assertEquals(4, StripedLruCacheManager.resolveSegmentCount(64, 16));
+        assertEquals(1, StripedLruCacheManager.resolveSegmentCount(2, 16));
+    }
+
+    @Test
+    void entryGetsEvictedWhenCacheIsFull() {
+        final Descriptor descriptorOne = descriptor(CONTEXT_ONE);
+        final Descriptor descriptorTwo = descriptor(CONTEXT_TWO);
+        this.manager = new StripedLruCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, "2"));
+        assertEquals(1, manager.getSegmentCount());
+        manager.add(testA.getUri(), testA, descriptorOne);
+        assertTrue(manager.contains(testA.getClass(), testA.getUri(), descriptorOne));
+
+        manager.add(testB.getUri(), testB, descriptorTwo);
+        assertFalse(manager.contains(testA.getClass(), testA.getUri(), descriptorOne));
+        assertTrue(manager.contains(testB.getClass(), testB.getUri(), descriptorTwo));
+    }
+
+    @Test
+    void cacheSizeDoesNotExceedCapacity() throws Exception {
+        final int capacity = 128;
+        this.manager = new StripedLruCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.LRU_CACHE_CAPACITY, Integer.toString(capacity)));
+        for (int i = 0; i < capacity * 4; i++) {
+            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+            manager.add(a.getUri(), a, descriptor(null));
+        }
+        assertThat(extractDescriptors().size(), lessThanOrEqualTo(capacity));
+    }
+
+    @Test
+    void concurrentAccessKeepsCacheConsistent() throws Exception {
+        final int threadCount = 8;
+        final int perThread = 200;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int t = 0; t < threadCount; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    final Descriptor descriptor = descriptor(CONTEXT_ONE);
+                    for (int i = 0; i < perThread; i++) {
+                        final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+                        manager.add(a.getUri(), a, descriptor);
+                        final OWLClassA result = manager.get(OWLClassA.class, a.getUri(), descriptor);
+                        if (result != null) {
+                            assertSame(a, result);
+                        }
+                        if (i % 10 == 0) {
+                            manager.evict(OWLClassA.class, a.getUri(), CONTEXT_ONE);
+                            assertFalse(manager.contains(OWLClassA.class, a.getUri(), descriptor));
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(extractDescriptors().size(), lessThanOrEqualTo(manager.getCapacity()));
+    }
+
+    @Test
+    void evictByContextEvictsEntriesFromAllSegments() {
+        final Descriptor descriptor = descriptor(CONTEXT_ONE);
+        final List<OWLClassA> instances = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+            instances.add(a);
+            manager.add(a.getUri(), a, descriptor);
+        }
+        manager.add(testB.getUri(), testB, descriptor(CONTEXT_TWO));
+
+        manager.evict(CONTEXT_ONE);
+        instances.forEach(a -> assertFalse(manager.contains(OWLClassA.class, a.getUri(), descriptor)));
+        assertTrue(manager.contains(testB.getClass(), testB.getUri(), descriptor(CONTEXT_TWO)));
+    }
+
+    @Test
+    void evictByClassEvictsEntriesFromAllSegments() {
+        final List<OWLClassA> instances = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            final OWLClassA a = new OWLClassA(Generators.createIndividualIdentifier());
+            instances.add(a);
+            manager.add(a.getUri(), a, descriptor(null));
+        }
+        manager.add(testB.getUri(), testB, descriptor(null));
+
+        manager.evict(OWLClassA.class);
+        instances.forEach(a -> assertFalse(manager.contains(OWLClassA.class, a.getUri(), descriptor(null))));
+        assertTrue(manager.contains(testB.getClass(), testB.getUri(), descriptor(null)));
+    }
+
+    @Override
+    Map<?, ?> extractDescriptors() throws Exception {
+        final Field segmentsField = StripedLruCacheManager.class.getDeclaredField("segments");
+        segmentsField.setAccessible(true);
+        final Object[] segments = (Object[]) segmentsField.get(manager);
+        final Field cacheField = StripedLruCacheManager.Segment.class.getDeclaredField("entityCache");
+        cacheField.setAccessible(true);
+        final Field descriptorsField = EntityCache.class.getDeclaredField("descriptors");
+        descriptorsField.setAccessible(true);
+        final Map<Object, Object> result = new IdentityHashMap<>();
+        for (Object segment : segments) {
+            final EntityCache cache = (EntityCache) cacheField.get(segment);
+            result.putAll((Map<?, ?>) descriptorsField.get(cache));
+        }
+        return result;
+    }
+}
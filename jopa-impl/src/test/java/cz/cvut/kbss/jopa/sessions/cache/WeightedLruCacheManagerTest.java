@@ -0,0 +1,161 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.sessions.cache;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.MetamodelMocks;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
+import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
+import cz.cvut.kbss.jopa.model.metamodel.Metamodel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.net.URI;
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class WeightedLruCacheManagerTest extends AbstractCacheManagerTest<WeightedLruCacheManager> {
+
+    private Metamodel metamodel;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        super.setUp();
+        this.metamodel = mock(Metamodel.class);
+        new MetamodelMocks().setMocks(metamodel);
+        this.manager = new WeightedLruCacheManager(Collections.emptyMap(), metamodel);
+    }
+
+    private WeightedLruCacheManager createManager(long maxWeight) {
+        return new WeightedLruCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.CACHE_MAX_WEIGHT, Long.toString(maxWeight)),
+                metamodel);
+    }
+
+    @Test
+    void initWithDefaultMaxWeight() {
+        assertEquals(WeightedLruCacheManager.DEFAULT_MAX_WEIGHT, manager.getMaxWeight());
+    }
+
+    @Test
+    void initializationWithInvalidMaxWeightUsesDefaultValue() {
+        this.manager = new WeightedLruCacheManager(
+                Collections.singletonMap(JOPAPersistenceProperties.CACHE_MAX_WEIGHT, "abc"), metamodel);
+        assertEquals(WeightedLruCacheManager.DEFAULT_MAX_WEIGHT, manager.getMaxWeight());
+    }
+
+    @Test
+    void addIncreasesWeightAndEvictDecreasesIt() {
+        assertEquals(0, manager.getWeight());
+        manager.add(testA.getUri(), testA, descriptor(CONTEXT_ONE));
+        final long weightA = manager.getWeight();
+        assertThat(weightA, greaterThan(0L));
+        manager.add(testB.getUri(), testB, descriptor(CONTEXT_ONE));
+        assertThat(manager.getWeight(), greaterThan(weightA));
+
+        manager.evict(testB.getClass(), testB.getUri(), CONTEXT_ONE);
+        assertEquals(weightA, manager.getWeight());
+        manager.evict(CONTEXT_ONE);
+        assertEquals(0, manager.getWeight());
+    }
+
+    @Test
+    void addReplacingExistingEntryDoesNotCountItTwice() {
+        manager.add(testA.getUri(), testA, descriptor(null));
+        final long weight = manager.getWeight();
+        manager.add(testA.getUri(), testA, descriptor(null));
+        assertEquals(weight, manager.getWeight());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvictedWhenMaxWeightIsExceeded() {
+        final OWLClassA first = createInstance(1);
+        final long entryWeight = new EntityWeigher(metamodel).weigh(first);
+        this.manager = createManager(entryWeight * 2);
+        final OWLClassA second = createInstance(2);
+        final OWLClassA third = createInstance(3);
+        manager.add(first.getUri(), first, descriptor(null));
+        manager.add(second.getUri(), second, descriptor(null));
+        // Access makes the first one the most recently used
+        assertNotNull(manager.get(OWLClassA.class, first.getUri(), descriptor(null)));
+        manager.add(third.getUri(), third, descriptor(null));
+
+        assertTrue(manager.contains(OWLClassA.class, first.getUri(), descriptor(null)));
+        assertFalse(manager.contains(OWLClassA.class, second.getUri(), descriptor(null)));
+        assertTrue(manager.contains(OWLClassA.class, third.getUri(), descriptor(null)));
+        assertEquals(1, manager.getEvictionCount());
+        assertThat(manager.getWeight(), lessThanOrEqualTo(manager.getMaxWeight()));
+    }
+
+    private static OWLClassA createInstance(int index) {
+        // Same identifier and attribute length so that the instances weigh the same
+        final OWLClassA a = new OWLClassA(URI.create("http://krizik.felk.cvut.cz/ontologies/jopa#instance-" + index));
+        a.setStringAttribute("stringAttribute");
+        return a;
+    }
+
+    @Test
+    void entityHeavierThanMaxWeightIsNotCached() {
+        this.manager = createManager(EntityWeigher.CACHE_ENTRY_OVERHEAD * 2);
+        final char[] chars = new char[EntityWeigher.CACHE_ENTRY_OVERHEAD];
+        Arrays.fill(chars, 'a');
+        testA.setStringAttribute(new String(chars));
+        manager.add(testA.getUri(), testA, descriptor(null));
+
+        assertFalse(manager.contains(OWLClassA.class, testA.getUri(), descriptor(null)));
+        assertEquals(0, manager.getWeight());
+        assertEquals(0, manager.getEvictionCount());
+    }
+
+    @Test
+    void evictAllResetsWeight() {
+        manager.add(testA.getUri(), testA, descriptor(null));
+        manager.add(testB.getUri(), testB, descriptor(CONTEXT_TWO));
+        manager.evictAll();
+        assertEquals(0, manager.getWeight());
+    }
+
+    @Test
+    void evictByClassDecreasesWeight() {
+        manager.add(testB.getUri(), testB, descriptor(null));
+        final long weightB = manager.getWeight();
+        manager.add(testA.getUri(), testA, descriptor(null));
+        manager.add(testA.getUri(), testA, descriptor(CONTEXT_ONE));
+        manager.evict(OWLClassA.class);
+        assertEquals(weightB, manager.getWeight());
+    }
+
+    @Test
+    void addDoesNotCacheEntityWithMultipleContexts() {
+        final Descriptor descriptor = descriptor(CONTEXT_ONE);
+        descriptor.addContext(CONTEXT_TWO);
+        manager.add(testA.getUri(), testA, descriptor);
+        assertEquals(0, manager.getWeight());
+    }
+
+    @Override
+    Map<?, ?> extractDescriptors() throws Exception {
+        final Field cacheField = WeightedLruCacheManager.class.getDeclaredField("entityCache");
+        cacheField.setAccessible(true);
+        final EntityCache cache = (EntityCache) cacheField.get(manager);
+        final Field descriptorsField = EntityCache.class.getDeclaredField("descriptors");
+        descriptorsField.setAccessible(true);
+        return (Map<?, ?>) descriptorsField.get(cache);
+    }
+}
@@ -153,4 +153,24 @@ public class CollectionChangeDetectorTest {
         }
         assertTrue(changeDetector.hasChanges(clone, original));
     }
+
+    @Test
+    public void hasChangesReturnsFalseForSetsWithSameElementsWithCollidingHashCodesInDifferentOrder() {
+        // "Aa" and "BB" have the same hash code
+        final Set<String> original = new LinkedHashSet<>(Arrays.asList("Aa", "BB"));
+        final Set<String> clone = new LinkedHashSet<>(Arrays.asList("BB", "Aa"));
+        assertFalse(changeDetector.hasChanges(clone, original));
+    }
+
+    @Test
+    public void hasChangesReturnsTrueWhenSetContainsDifferentInstancesWithSameIdentifier() {
+        final OWLClassA a1 = new OWLClassA(Generators.createIndividualIdentifier());
+        final OWLClassA a2 = new OWLClassA(Generators.createIndividualIdentifier());
+        final Set<OWLClassA> original = new HashSet<>(Arrays.asList(a1, a2));
+        final Set<OWLClassA> clone = Collections.newSetFromMap(new IdentityHashMap<>());
+        clone.add(a1);
+        clone.add(new OWLClassA(a1.getUri()));
+        when(providerMock.isEntityType(OWLClassA.class)).thenReturn(true);
+        assertTrue(changeDetector.hasChanges(clone, original));
+    }
 }
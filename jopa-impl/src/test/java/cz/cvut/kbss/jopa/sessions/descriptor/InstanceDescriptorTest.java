@@ -22,8 +22,7 @@ import cz.cvut.kbss.jopa.model.LoadState;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.*;
 
 class InstanceDescriptorTest {
 
@@ -110,4 +109,37 @@ class InstanceDescriptorTest {
 
         assertEquals(LoadState.LOADED, sut.isLoaded());
     }
-}
\ No newline at end of file
+
+    @Test
+    void setDirtyMarksOnlySpecifiedAttributeAsDirty() {
+        final OWLClassA instance = new OWLClassA();
+        final InstanceDescriptor<OWLClassA> sut = new InstanceDescriptor<>(instance,
+                metamodelMocks.forOwlClassA().entityType());
+        assertFalse(sut.isDirty());
+        sut.setDirty(metamodelMocks.forOwlClassA().stringAttribute());
+        assertTrue(sut.isDirty());
+        assertTrue(sut.isDirty(metamodelMocks.forOwlClassA().stringAttribute()));
+        assertFalse(sut.isDirty(metamodelMocks.forOwlClassA().typesSpec()));
+    }
+
+    @Test
+    void copyConstructorDoesNotCopyDirtyAttributes() {
+        final OWLClassA instance = new OWLClassA();
+        final InstanceDescriptor<OWLClassA> sut = new InstanceDescriptor<>(instance,
+                metamodelMocks.forOwlClassA().entityType());
+        sut.setDirty(metamodelMocks.forOwlClassA().stringAttribute());
+
+        final InstanceDescriptor<OWLClassA> result = new InstanceDescriptor<>(new OWLClassA(), sut);
+        assertFalse(result.isDirty());
+    }
+
+    @Test
+    void setDirtyIgnoresIdentifier() {
+        final OWLClassA instance = new OWLClassA();
+        final InstanceDescriptor<OWLClassA> sut = new InstanceDescriptor<>(instance,
+                metamodelMocks.forOwlClassA().entityType());
+        sut.setDirty(metamodelMocks.forOwlClassA().identifier());
+        assertFalse(sut.isDirty());
+        assertFalse(sut.isDirty(metamodelMocks.forOwlClassA().identifier()));
+    }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.utils;
+
+import cz.cvut.kbss.jopa.environment.OWLClassA;
+import cz.cvut.kbss.jopa.environment.utils.Generators;
+import cz.cvut.kbss.jopa.exceptions.OWLPersistenceException;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.model.metamodel.IRIIdentifierImpl;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class FieldAccessorTest {
+
+    @Test
+    void ofReturnsSameAccessorForSameField() throws Exception {
+        final Field field = OWLClassA.getStrAttField();
+        assertSame(FieldAccessor.of(field), FieldAccessor.of(OWLClassA.class.getDeclaredField(field.getName())));
+    }
+
+    @Test
+    void getAndSetAccessPrivateField() throws Exception {
+        final OWLClassA instance = new OWLClassA(Generators.createIndividualIdentifier());
+        final FieldAccessor sut = FieldAccessor.of(OWLClassA.getStrAttField());
+
+        sut.set(instance, "test");
+        assertEquals("test", instance.getStringAttribute());
+        assertEquals("test", sut.get(instance));
+        sut.set(instance, null);
+        assertNull(sut.get(instance));
+    }
+
+    @Test
+    void getAndSetAccessPrimitiveField() throws Exception {
+        final PrimitiveHolder instance = new PrimitiveHolder();
+        final FieldAccessor sut = FieldAccessor.of(PrimitiveHolder.class.getDeclaredField("value"));
+
+        sut.set(instance, 117);
+        assertEquals(117, instance.value);
+        assertEquals(117, sut.get(instance));
+    }
+
+    private static class PrimitiveHolder {
+        private int value;
+    }
+
+    @Test
+    void setThrowsIllegalArgumentExceptionForValueOfIncompatibleType() throws Exception {
+        final OWLClassA instance = new OWLClassA(Generators.createIndividualIdentifier());
+        final FieldAccessor sut = FieldAccessor.of(OWLClassA.getStrAttField());
+
+        assertThrows(IllegalArgumentException.class, () -> sut.set(instance, 117));
+    }
+
+    @Test
+    void setThrowsIllegalArgumentExceptionForNullValueOfPrimitiveField() throws Exception {
+        final FieldAccessor sut = FieldAccessor.of(PrimitiveHolder.class.getDeclaredField("value"));
+
+        assertThrows(IllegalArgumentException.class, () -> sut.set(new PrimitiveHolder(), null));
+    }
+
+    @Test
+    void getAccessesStaticField() throws Exception {
+        final Field field = StaticHolder.class.getDeclaredField("VALUE");
+        assertEquals(StaticHolder.VALUE, FieldAccessor.of(field).get(null));
+    }
+
+    private static class StaticHolder {
+        private static final String VALUE = "static";
+    }
+
+    @Test
+    void setThrowsOWLPersistenceExceptionForStaticFinalField() throws Exception {
+        final FieldAccessor sut = FieldAccessor.of(StaticHolder.class.getDeclaredField("VALUE"));
+        assertThrows(OWLPersistenceException.class, () -> sut.set(null, "anotherValue"));
+    }
+
+    @Test
+    void ofAttributeReturnsAccessorHeldByAttribute() throws Exception {
+        final IRIIdentifierImpl<OWLClassA> identifier =
+                new IRIIdentifierImpl<>(null, OWLClassA.class.getDeclaredField("uri"), false);
+        assertNotNull(identifier.getFieldAccessor());
+        assertSame(identifier.getFieldAccessor(), FieldAccessor.of(identifier));
+    }
+
+    @Test
+    void ofAttributeLooksUpAccessorByFieldWhenAttributeDoesNotHoldIt() throws Exception {
+        final FieldSpecification<?, ?> fs = mock(FieldSpecification.class);
+        when(fs.getJavaField()).thenReturn(OWLClassA.getStrAttField());
+        assertSame(FieldAccessor.of(OWLClassA.getStrAttField()), FieldAccessor.of(fs));
+    }
+}
@@ -16,6 +16,7 @@ package cz.cvut.kbss.jopa.test.runner;
 
 import cz.cvut.kbss.jopa.exceptions.IntegrityConstraintViolatedException;
 import cz.cvut.kbss.jopa.exceptions.RollbackException;
+import cz.cvut.kbss.jopa.model.JOPAPersistenceProperties;
 import cz.cvut.kbss.jopa.model.descriptors.Descriptor;
 import cz.cvut.kbss.jopa.model.descriptors.EntityDescriptor;
 import cz.cvut.kbss.jopa.oom.exceptions.UnpersistedChangeException;
@@ -1376,4 +1377,42 @@ public abstract class UpdateOperationsRunner extends BaseRunner {
         // The incorrect merge messes up the cached value of the original entityA
         assertEquals(entityA.getUri(), aResult.getUri());
     }
+
+    @Test
+    void deferredUpdatesDoNotWriteChangesOfInstanceMadeAfterItWasDetached() {
+        this.em = getEntityManager("deferredUpdatesDoNotWriteChangesOfInstanceMadeAfterItWasDetached", false,
+                                   Collections.singletonMap(JOPAPersistenceProperties.DEFERRED_UPDATES,
+                                                            Boolean.TRUE.toString()));
+        persist(entityA);
+        final String updated = "updatedString";
+
+        em.getTransaction().begin();
+        final OWLClassA a = findRequired(OWLClassA.class, entityA.getUri());
+        a.setStringAttribute(updated);
+        em.detach(a);
+        a.setStringAttribute("changedAfterDetach");
+        em.getTransaction().commit();
+
+        final OWLClassA result = findRequired(OWLClassA.class, entityA.getUri());
+        assertEquals(updated, result.getStringAttribute());
+    }
+
+    @Test
+    void deferredUpdatesDoNotWriteChangesOfInstanceMadeAfterPersistenceContextWasCleared() {
+        this.em = getEntityManager("deferredUpdatesDoNotWriteChangesOfInstanceMadeAfterPersistenceContextWasCleared",
+                                   false, Collections.singletonMap(JOPAPersistenceProperties.DEFERRED_UPDATES,
+                                                                   Boolean.TRUE.toString()));
+        persist(entityA);
+        final String updated = "updatedString";
+
+        em.getTransaction().begin();
+        final OWLClassA a = findRequired(OWLClassA.class, entityA.getUri());
+        a.setStringAttribute(updated);
+        em.clear();
+        a.setStringAttribute("changedAfterClear");
+        em.getTransaction().commit();
+
+        final OWLClassA result = findRequired(OWLClassA.class, entityA.getUri());
+        assertEquals(updated, result.getStringAttribute());
+    }
 }
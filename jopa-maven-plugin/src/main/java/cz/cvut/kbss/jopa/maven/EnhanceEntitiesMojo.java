@@ -0,0 +1,75 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.maven;
+
+import cz.cvut.kbss.jopa.maven.enhance.EntityEnhancementException;
+import cz.cvut.kbss.jopa.maven.enhance.EntityEnhancer;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.List;
+
+/**
+ * Enhances compiled entity classes so that JOPA is notified of persistent field access.
+ * <p>
+ * This is an alternative to weaving the JOPA aspect into the entity classes using the AspectJ compiler. Entity classes
+ * should be processed either by this goal or by AspectJ, not both.
+ */
+@Mojo(name = "enhance-entities", defaultPhase = LifecyclePhase.PROCESS_CLASSES,
+      requiresDependencyResolution = ResolutionScope.COMPILE)
+public class EnhanceEntitiesMojo extends AbstractMojo {
+
+    private static final String CLASSES_DIRECTORY_PARAM = "classes-directory";
+
+    @Parameter(alias = CLASSES_DIRECTORY_PARAM, defaultValue = "${project.build.outputDirectory}")
+    private File classesDirectory;
+
+    // Used to resolve supertypes of entity classes which are not in the classes directory
+    @Parameter(defaultValue = "${project.compileClasspathElements}", readonly = true, required = true)
+    private List<String> classpathElements;
+
+    @Override
+    public void execute() throws MojoExecutionException {
+        if (!classesDirectory.isDirectory()) {
+            getLog().info("Classes directory " + classesDirectory + " does not exist, skipping entity enhancement.");
+            return;
+        }
+        try (URLClassLoader classpath = new URLClassLoader(toUrls(classpathElements), null)) {
+            final int count = new EntityEnhancer(classpath).enhance(classesDirectory.toPath());
+            getLog().info("Enhanced " + count + " entity classes in " + classesDirectory + ".");
+        } catch (EntityEnhancementException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            throw new MojoExecutionException("Unable to enhance entity classes in " + classesDirectory + ".", e);
+        }
+    }
+
+    private static URL[] toUrls(List<String> elements) throws MalformedURLException {
+        final URL[] urls = new URL[elements.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = new File(elements.get(i)).toURI().toURL();
+        }
+        return urls;
+    }
+}
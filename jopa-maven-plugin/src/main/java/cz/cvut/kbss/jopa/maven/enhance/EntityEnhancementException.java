@@ -0,0 +1,39 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.maven.enhance;
+
+/**
+ * Indicates that a class could not be enhanced.
+ */
+public class EntityEnhancementException extends RuntimeException {
+
+    private final String className;
+
+    EntityEnhancementException(String className, String reason, Throwable cause) {
+        super("Unable to enhance class " + className + ". " + reason, cause);
+        this.className = className;
+    }
+
+    /**
+     * Gets name of the class which could not be enhanced.
+     * <p>
+     * If the class file cannot be read, this is the path to the file.
+     *
+     * @return Class name
+     */
+    public String getClassName() {
+        return className;
+    }
+}
@@ -0,0 +1,465 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.maven.enhance;
+
+import org.objectweb.asm.*;
+import org.objectweb.asm.commons.AdviceAdapter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Enhances compiled entity classes so that they notify JOPA of persistent field access without AspectJ weaving.
+ * <p>
+ * The enhancement mirrors what {@code BeanListenerAspect} weaves into entity classes:
+ * <ul>
+ *     <li>The topmost entity class of each hierarchy implements {@code BeanListenerAspect.Manageable}, backed by a
+ *     transient field holding the persistence context,</li>
+ *     <li>Reads of persistent fields in entity classes and mapped superclasses are preceded by a call to {@code
+ *     FieldAccessHooks.beforeGet},</li>
+ *     <li>Writes of persistent fields (except query attributes) are followed by a call to {@code
+ *     FieldAccessHooks.afterSet}.</li>
+ * </ul>
+ * Whether a field is persistent is decided here and the hooks receive the slot of the field in the {@code
+ * PropertyFieldIndex} of the entity type as a constant, so they do not need to look the field up at runtime. The slot
+ * depends on the persistent fields of all managed supertypes of the class declaring the field, so supertypes which
+ * are not in the processed directory are read from the classpath.
+ * <p>
+ * Enhanced classes are marked and skipped when the enhancer is run again. Classes already woven by AspectJ are
+ * rejected.
+ */
+public class EntityEnhancer {
+
+    static final String ENHANCED_MARKER = "$jopa$enhanced";
+    static final String PERSISTENCE_CONTEXT_FIELD = "$jopa$persistenceContext";
+
+    private static final String OBJECT = "java/lang/Object";
+    private static final String OWL_CLASS = "Lcz/cvut/kbss/jopa/model/annotations/OWLClass;";
+    private static final String NON_ENTITY = "Lcz/cvut/kbss/jopa/model/annotations/util/NonEntity;";
+    private static final String MAPPED_SUPERCLASS = "Lcz/cvut/kbss/jopa/model/annotations/MappedSuperclass;";
+    private static final String TRANSIENT = "Lcz/cvut/kbss/jopa/model/annotations/Transient;";
+    private static final String SPARQL = "Lcz/cvut/kbss/jopa/model/annotations/Sparql;";
+    private static final Set<String> PERSISTENT_FIELD_ANNOTATIONS = new HashSet<>(Arrays.asList(
+            "Lcz/cvut/kbss/jopa/model/annotations/OWLObjectProperty;",
+            "Lcz/cvut/kbss/jopa/model/annotations/OWLDataProperty;",
+            "Lcz/cvut/kbss/jopa/model/annotations/OWLAnnotationProperty;",
+            "Lcz/cvut/kbss/jopa/model/annotations/Types;",
+            "Lcz/cvut/kbss/jopa/model/annotations/Properties;",
+            SPARQL));
+
+    private static final String MANAGEABLE = "cz/cvut/kbss/jopa/model/BeanListenerAspect$Manageable";
+    private static final String ASPECTJ_MANAGEABLE_DESC = "L" + MANAGEABLE + ";";
+    private static final String UOW_DESC = "Lcz/cvut/kbss/jopa/sessions/UnitOfWorkImpl;";
+    private static final String HOOKS = "cz/cvut/kbss/jopa/model/FieldAccessHooks";
+    private static final String HOOK_DESC = "(Ljava/lang/Object;I)V";
+
+    private final ClassLoader classpath;
+
+    private final Map<String, ClassInfo> classes = new HashMap<>();
+    private final Map<String, Optional<ClassInfo>> classpathClasses = new HashMap<>();
+
+    /**
+     * Creates enhancer which reads classes outside the processed directory using the class loader of the enhancer.
+     */
+    public EntityEnhancer() {
+        this(EntityEnhancer.class.getClassLoader());
+    }
+
+    /**
+     * Creates enhancer which reads classes outside the processed directory using the specified class loader.
+     *
+     * @param classpath Class loader providing class files of classes not present in the processed directory
+     */
+    public EntityEnhancer(ClassLoader classpath) {
+        this.classpath = Objects.requireNonNull(classpath);
+    }
+
+    /**
+     * Enhances entity classes in the specified directory.
+     * <p>
+     * The class files are rewritten in place.
+     *
+     * @param classesDirectory Directory containing compiled classes
+     * @return Number of enhanced classes
+     * @throws IOException                If unable to read the class files
+     * @throws EntityEnhancementException If a class cannot be enhanced, e.g., because it has already been woven by
+     *                                    AspectJ
+     */
+    public int enhance(Path classesDirectory) throws IOException {
+        final List<Path> classFiles;
+        try (Stream<Path> files = Files.walk(classesDirectory)) {
+            classFiles = files.filter(f -> f.toString().endsWith(".class")).collect(Collectors.toList());
+        }
+        final Map<ClassInfo, Path> locations = new LinkedHashMap<>();
+        for (Path file : classFiles) {
+            final ClassInfo info;
+            try {
+                info = ClassInfo.read(Files.readAllBytes(file));
+            } catch (RuntimeException e) {
+                throw new EntityEnhancementException(file.toString(), e.toString(), e);
+            }
+            classes.put(info.name, info);
+            locations.put(info, file);
+        }
+        int count = 0;
+        for (Map.Entry<ClassInfo, Path> e : locations.entrySet()) {
+            final ClassInfo info = e.getKey();
+            if (!requiresEnhancement(info)) {
+                continue;
+            }
+            if (info.woven) {
+                throw new EntityEnhancementException(info.name.replace('/', '.'), "It has already been woven by AspectJ.",
+                        null);
+            }
+            try {
+                Files.write(e.getValue(), enhance(Files.readAllBytes(e.getValue()), info));
+            } catch (IOException | RuntimeException ex) {
+                throw new EntityEnhancementException(info.name.replace('/', '.'), ex.toString(), ex);
+            }
+            count++;
+        }
+        return count;
+    }
+
+    private static boolean requiresEnhancement(ClassInfo info) {
+        return !info.isInterface && !info.enhanced && (info.entity || info.mappedSuperclass);
+    }
+
+    byte[] enhance(byte[] classFile, ClassInfo info) {
+        final ClassReader reader = new ClassReader(classFile);
+        // Inserted instructions contain no branches and leave the operand stack as it was, so the existing stack map
+        // frames remain valid. AdviceAdapter requires them to be expanded, though
+        final ClassWriter writer = new ClassWriter(reader, ClassWriter.COMPUTE_MAXS);
+        reader.accept(new EnhancingClassVisitor(writer, info, info.entity && !hasEntityAncestor(info)),
+                ClassReader.EXPAND_FRAMES);
+        return writer.toByteArray();
+    }
+
+    private boolean hasEntityAncestor(ClassInfo info) {
+        ClassInfo current = resolveClass(info.superName);
+        while (current != null) {
+            if (current.entity) {
+                return true;
+            }
+            current = resolveClass(current.superName);
+        }
+        return false;
+    }
+
+    /**
+     * Gets information about the specified class, reading it from the classpath if it is not in the processed
+     * directory.
+     *
+     * @return Class info or {@code null} if the class cannot be found
+     */
+    private ClassInfo resolveClass(String name) {
+        if (name == null) {
+            return null;
+        }
+        final ClassInfo info = classes.get(name);
+        if (info != null) {
+            return info;
+        }
+        return classpathClasses.computeIfAbsent(name, this::readFromClasspath).orElse(null);
+    }
+
+    private Optional<ClassInfo> readFromClasspath(String name) {
+        final String resource = name + ".class";
+        try (InputStream in = classpath.getResourceAsStream(resource)) {
+            return in != null ? Optional.of(ClassInfo.read(readAll(in))) : Optional.empty();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to read class " + name.replace('/', '.') + " from classpath.", e);
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Finds the declaration of the specified field, starting with the specified class and going up the hierarchy.
+     */
+    private Optional<FieldRef> resolveField(String owner, String name) {
+        ClassInfo current = resolveClass(owner);
+        while (current != null) {
+            final FieldInfo field = current.fields.get(name);
+            if (field != null) {
+                return Optional.of(new FieldRef(current, field));
+            }
+            current = resolveClass(current.superName);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the slot of the specified field in the field index of entity types inheriting it.
+     * <p>
+     * Fields of managed supertypes come first, fields declared in the same class are ordered by name, which is the
+     * order used by {@code PropertyFieldIndex}.
+     */
+    private int slotOf(FieldRef field) {
+        return slotOffset(field.declaringClass) + field.declaringClass.persistentFields.indexOf(field.field.name);
+    }
+
+    private int slotOffset(ClassInfo info) {
+        final ClassInfo superclass = managedSuperclass(info);
+        return superclass != null ? slotOffset(superclass) + superclass.persistentFields.size() : 0;
+    }
+
+    private ClassInfo managedSuperclass(ClassInfo info) {
+        if (info.superName == null || OBJECT.equals(info.superName)) {
+            return null;
+        }
+        final ClassInfo superclass = resolveClass(info.superName);
+        if (superclass == null) {
+            throw new IllegalStateException("Unable to resolve superclass " + info.superName.replace('/', '.') +
+                    " of " + info.name.replace('/', '.') + ". Make sure it is on the classpath.");
+        }
+        return superclass.managed ? superclass : null;
+    }
+
+    private final class EnhancingClassVisitor extends ClassVisitor {
+        private final ClassInfo info;
+        private final boolean addManageable;
+
+        private EnhancingClassVisitor(ClassVisitor cv, ClassInfo info, boolean addManageable) {
+            super(Opcodes.ASM9, cv);
+            this.info = info;
+            this.addManageable = addManageable;
+        }
+
+        @Override
+        public void visit(int version, int access, String name, String signature, String superName,
+                          String[] interfaces) {
+            if (addManageable) {
+                final String[] extended = Arrays.copyOf(interfaces, interfaces.length + 1);
+                extended[interfaces.length] = MANAGEABLE;
+                interfaces = extended;
+            }
+            super.visit(version, access, name, signature, superName, interfaces);
+        }
+
+        @Override
+        public MethodVisitor visitMethod(int access, String name, String descriptor, String signature,
+                                         String[] exceptions) {
+            final MethodVisitor mv = super.visitMethod(access, name, descriptor, signature, exceptions);
+            if (mv == null || (access & Opcodes.ACC_ABSTRACT) != 0 || (access & Opcodes.ACC_NATIVE) != 0) {
+                return mv;
+            }
+            return new FieldAccessMethodVisitor(mv, access, name, descriptor);
+        }
+
+        @Override
+        public void visitEnd() {
+            super.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_SYNTHETIC,
+                    ENHANCED_MARKER, "Z", null, Boolean.TRUE).visitEnd();
+            if (addManageable) {
+                addManageableImplementation();
+            }
+            super.visitEnd();
+        }
+
+        private void addManageableImplementation() {
+            super.visitField(Opcodes.ACC_PRIVATE | Opcodes.ACC_TRANSIENT | Opcodes.ACC_SYNTHETIC,
+                    PERSISTENCE_CONTEXT_FIELD, UOW_DESC, null, null).visitEnd();
+
+            final MethodVisitor getter = super.visitMethod(Opcodes.ACC_PUBLIC, "getPersistenceContext",
+                    "()" + UOW_DESC, null, null);
+            getter.visitCode();
+            getter.visitVarInsn(Opcodes.ALOAD, 0);
+            getter.visitFieldInsn(Opcodes.GETFIELD, info.name, PERSISTENCE_CONTEXT_FIELD, UOW_DESC);
+            getter.visitInsn(Opcodes.ARETURN);
+            getter.visitMaxs(0, 0);
+            getter.visitEnd();
+
+            final MethodVisitor setter = super.visitMethod(Opcodes.ACC_PUBLIC, "setPersistenceContext",
+                    "(" + UOW_DESC + ")V", null, null);
+            setter.visitCode();
+            setter.visitVarInsn(Opcodes.ALOAD, 0);
+            setter.visitVarInsn(Opcodes.ALOAD, 1);
+            setter.visitFieldInsn(Opcodes.PUTFIELD, info.name, PERSISTENCE_CONTEXT_FIELD, UOW_DESC);
+            setter.visitInsn(Opcodes.RETURN);
+            setter.visitMaxs(0, 0);
+            setter.visitEnd();
+        }
+    }
+
+    private final class FieldAccessMethodVisitor extends AdviceAdapter {
+
+        // In constructors, the instance cannot be passed to the hooks before the super constructor is called
+        private boolean initialized;
+
+        private FieldAccessMethodVisitor(MethodVisitor mv, int access, String name, String descriptor) {
+            super(Opcodes.ASM9, mv, access, name, descriptor);
+        }
+
+        @Override
+        protected void onMethodEnter() {
+            this.initialized = true;
+        }
+
+        @Override
+        public void visitFieldInsn(int opcode, String owner, String name, String descriptor) {
+            if (!initialized || (opcode != Opcodes.GETFIELD && opcode != Opcodes.PUTFIELD)) {
+                super.visitFieldInsn(opcode, owner, name, descriptor);
+                return;
+            }
+            final Optional<FieldRef> field = resolveField(owner, name).filter(f -> f.declaringClass.managed);
+            if (opcode == Opcodes.GETFIELD && field.map(f -> f.field.readHook).orElse(false)) {
+                // [obj] -> [obj, obj] -> hook(obj, slot) -> [obj] -> GETFIELD
+                super.visitInsn(Opcodes.DUP);
+                invokeHook("beforeGet", field.get());
+                super.visitFieldInsn(opcode, owner, name, descriptor);
+            } else if (opcode == Opcodes.PUTFIELD && field.map(f -> f.field.writeHook).orElse(false)) {
+                if (Type.getType(descriptor).getSize() == 2) {
+                    // [obj, value] -> [obj, obj, value]
+                    super.visitInsn(Opcodes.DUP2_X1);
+                    super.visitInsn(Opcodes.POP2);
+                    super.visitInsn(Opcodes.DUP);
+                    super.visitInsn(Opcodes.DUP2_X2);
+                    super.visitInsn(Opcodes.POP2);
+                    super.visitFieldInsn(opcode, owner, name, descriptor);
+                } else {
+                    // [obj, value] -> [obj, value, obj, value] -> PUTFIELD -> [obj]
+                    super.visitInsn(Opcodes.DUP2);
+                    super.visitFieldInsn(opcode, owner, name, descriptor);
+                    super.visitInsn(Opcodes.POP);
+                }
+                invokeHook("afterSet", field.get());
+            } else {
+                super.visitFieldInsn(opcode, owner, name, descriptor);
+            }
+        }
+
+        private void invokeHook(String hook, FieldRef field) {
+            final int slot = slotOf(field);
+            if (slot <= 5) {
+                super.visitInsn(Opcodes.ICONST_0 + slot);
+            } else if (slot <= Byte.MAX_VALUE) {
+                super.visitIntInsn(Opcodes.BIPUSH, slot);
+            } else if (slot <= Short.MAX_VALUE) {
+                super.visitIntInsn(Opcodes.SIPUSH, slot);
+            } else {
+                super.visitLdcInsn(slot);
+            }
+            super.visitMethodInsn(Opcodes.INVOKESTATIC, HOOKS, hook, HOOK_DESC, false);
+        }
+    }
+
+    private static final class FieldRef {
+        private final ClassInfo declaringClass;
+        private final FieldInfo field;
+
+        private FieldRef(ClassInfo declaringClass, FieldInfo field) {
+            this.declaringClass = declaringClass;
+            this.field = field;
+        }
+    }
+
+    static final class FieldInfo {
+        private final String name;
+        private final int access;
+        private final Set<String> annotations = new HashSet<>();
+        private boolean readHook;
+        private boolean writeHook;
+
+        private FieldInfo(String name, int access) {
+            this.name = name;
+            this.access = access;
+        }
+
+        private void resolve() {
+            final boolean persistent = (access & (Opcodes.ACC_STATIC | Opcodes.ACC_FINAL | Opcodes.ACC_TRANSIENT)) == 0
+                    && !annotations.contains(TRANSIENT)
+                    && annotations.stream().anyMatch(PERSISTENT_FIELD_ANNOTATIONS::contains);
+            this.readHook = persistent;
+            this.writeHook = persistent && !annotations.contains(SPARQL);
+        }
+    }
+
+    static final class ClassInfo {
+        private String name;
+        private String superName;
+        private boolean isInterface;
+        private boolean entity;
+        private boolean mappedSuperclass;
+        // Entity class or mapped superclass, regardless of NonEntity, as decided by the metamodel
+        private boolean managed;
+        private boolean enhanced;
+        private boolean woven;
+        private final Map<String, FieldInfo> fields = new HashMap<>();
+        // Names of persistent fields, ordered by name
+        private List<String> persistentFields;
+
+        static ClassInfo read(byte[] classFile) {
+            final ClassInfo info = new ClassInfo();
+            final Set<String> classAnnotations = new HashSet<>();
+            new ClassReader(classFile).accept(new ClassVisitor(Opcodes.ASM9) {
+                @Override
+                public void visit(int version, int access, String name, String signature, String superName,
+                                  String[] interfaces) {
+                    info.name = name;
+                    info.superName = superName;
+                    info.isInterface = (access & Opcodes.ACC_INTERFACE) != 0;
+                }
+
+                @Override
+                public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                    classAnnotations.add(descriptor);
+                    return null;
+                }
+
+                @Override
+                public FieldVisitor visitField(int access, String name, String descriptor, String signature,
+                                               Object value) {
+                    if (ENHANCED_MARKER.equals(name)) {
+                        info.enhanced = true;
+                    }
+                    if (name.startsWith("ajc$") || ASPECTJ_MANAGEABLE_DESC.equals(descriptor)) {
+                        info.woven = true;
+                    }
+                    final FieldInfo field = new FieldInfo(name, access);
+                    info.fields.put(name, field);
+                    return new FieldVisitor(Opcodes.ASM9) {
+                        @Override
+                        public AnnotationVisitor visitAnnotation(String descriptor, boolean visible) {
+                            field.annotations.add(descriptor);
+                            return null;
+                        }
+                    };
+                }
+            }, ClassReader.SKIP_CODE | ClassReader.SKIP_DEBUG | ClassReader.SKIP_FRAMES);
+            info.entity = classAnnotations.contains(OWL_CLASS) && !classAnnotations.contains(NON_ENTITY);
+            info.mappedSuperclass = classAnnotations.contains(MAPPED_SUPERCLASS);
+            info.managed = classAnnotations.contains(OWL_CLASS) || info.mappedSuperclass;
+            info.fields.values().forEach(FieldInfo::resolve);
+            info.persistentFields = info.fields.values().stream().filter(f -> f.readHook).map(f -> f.name).sorted()
+                                               .collect(Collectors.toList());
+            return info;
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.maven.enhance;
+
+import cz.cvut.kbss.jopa.maven.enhance.environment.BaseEntity;
+import cz.cvut.kbss.jopa.maven.enhance.environment.Document;
+import cz.cvut.kbss.jopa.maven.enhance.environment.Report;
+import cz.cvut.kbss.jopa.model.BeanListenerAspect;
+import cz.cvut.kbss.jopa.model.MetamodelImpl;
+import cz.cvut.kbss.jopa.model.metamodel.FieldSpecification;
+import cz.cvut.kbss.jopa.sessions.UnitOfWorkImpl;
+import cz.cvut.kbss.jopa.utils.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class EntityEnhancerTest {
+
+    private static final URI ID = URI.create("http://krizik.felk.cvut.cz/ontologies/jopa/entities#document");
+
+    @TempDir
+    Path classesDir;
+
+    @Mock
+    private UnitOfWorkImpl uowMock;
+
+    @BeforeEach
+    void setUp() {
+        when(uowMock.isInTransaction()).thenReturn(true);
+    }
+
+    @Test
+    void enhanceEnhancesEntityClassesAndMappedSuperclasses() throws Exception {
+        copyClasses(classesDir, BaseEntity.class, Document.class, Report.class);
+
+        assertEquals(3, new EntityEnhancer().enhance(classesDir));
+    }
+
+    @Test
+    void enhanceSkipsClassesWhichHaveAlreadyBeenEnhanced() throws Exception {
+        copyClasses(classesDir, BaseEntity.class, Document.class, Report.class);
+        new EntityEnhancer().enhance(classesDir);
+
+        assertEquals(0, new EntityEnhancer().enhance(classesDir));
+    }
+
+    @Test
+    void enhancedTopmostEntityClassImplementsManageable() throws Exception {
+        final ClassLoader loader = enhanceAndLoad(BaseEntity.class, Document.class, Report.class);
+
+        final Class<?> documentCls = loader.loadClass(Document.class.getName());
+        assertTrue(BeanListenerAspect.Manageable.class.isAssignableFrom(documentCls));
+        assertEquals(Collections.singletonList(BeanListenerAspect.Manageable.class),
+                Arrays.asList(documentCls.getInterfaces()));
+        assertEquals(0, loader.loadClass(Report.class.getName()).getInterfaces().length);
+    }
+
+    private ClassLoader enhanceAndLoad(Class<?>... classes) throws Exception {
+        copyClasses(classesDir, classes);
+        new EntityEnhancer().enhance(classesDir);
+        return new EnhancedClassLoader(classesDir);
+    }
+
+    private static void copyClasses(Path targetDir, Class<?>... classes) throws IOException, URISyntaxException {
+        for (Class<?> cls : classes) {
+            final Path source = Paths.get(cls.getResource(cls.getSimpleName() + ".class").toURI());
+            final Path target = targetDir.resolve(cls.getName().replace('.', '/') + ".class");
+            Files.createDirectories(target.getParent());
+            Files.copy(source, target);
+        }
+    }
+
+    @Test
+    void enhancedGettersLoadFieldsOfManagedInstance() throws Exception {
+        final ClassLoader loader = enhanceAndLoad(BaseEntity.class, Document.class, Report.class);
+        final Class<?> documentCls = loader.loadClass(Document.class.getName());
+        final Object document = managedInstance(loader, documentCls);
+
+        invoke(document, "getName");
+        invoke(document, "getLabel");
+        verify(uowMock).loadEntityFieldIfManaged(eq(document), fieldSpec(documentCls.getDeclaredField("name")));
+        verify(uowMock).loadEntityFieldIfManaged(eq(document), fieldSpec(
+                loader.loadClass(BaseEntity.class.getName()).getDeclaredField("label")));
+    }
+
+    private Object managedInstance(ClassLoader loader, Class<?>... entityClasses) throws Exception {
+        final Set<Class<?>> classes = new HashSet<>(Arrays.asList(entityClasses));
+        classes.add(loader.loadClass(Document.class.getName()));
+        final MetamodelImpl metamodel = new MetamodelImpl(new Configuration(Collections.emptyMap()));
+        metamodel.build(classes);
+        when(uowMock.getMetamodel()).thenReturn(metamodel);
+
+        final Object instance = entityClasses[0].getDeclaredConstructor().newInstance();
+        ((BeanListenerAspect.Manageable) instance).setPersistenceContext(uowMock);
+        return instance;
+    }
+
+    private static <T> FieldSpecification<T, ?> fieldSpec(Field field) {
+        return argThat(fs -> fs.getJavaField().equals(field));
+    }
+
+    private static Object invoke(Object instance, String method, Object... args) throws Exception {
+        final Method m = Arrays.stream(instance.getClass().getMethods())
+                               .filter(candidate -> candidate.getName().equals(method) &&
+                                       candidate.getParameterCount() == args.length).findFirst()
+                               .orElseThrow(() -> new NoSuchMethodException(method));
+        return m.invoke(instance, args);
+    }
+
+    @Test
+    void enhancedSettersRecordChangesOfManagedInstance() throws Exception {
+        final ClassLoader loader = enhanceAndLoad(BaseEntity.class, Document.class, Report.class);
+        final Class<?> documentCls = loader.loadClass(Document.class.getName());
+        final Object document = managedInstance(loader, documentCls);
+
+        invoke(document, "setPageCount", 117);
+        invoke(document, "setLabel", "Document");
+        verify(uowMock).attributeChanged(document, documentCls.getDeclaredField("pageCount"));
+        verify(uowMock).attributeChanged(document, loader.loadClass(BaseEntity.class.getName())
+                                                         .getDeclaredField("label"));
+        verify(uowMock, times(2)).attributeChanged(eq(document), any());
+    }
+
+    @Test
+    void enhancedMethodsWithBranchesAndLoopsCallHooks() throws Exception {
+        final ClassLoader loader = enhanceAndLoad(BaseEntity.class, Document.class, Report.class);
+        final Class<?> documentCls = loader.loadClass(Document.class.getName());
+        final Object document = managedInstance(loader, documentCls);
+        invoke(document, "setName", "Report");
+        invoke(document, "setPageCount", 5);
+        invoke(document, "setTypes", Collections.singleton("draft"));
+
+        assertEquals("Report (5 pages) draft", invoke(document, "describe"));
+        verify(uowMock, atLeastOnce())
+                .loadEntityFieldIfManaged(eq(document), fieldSpec(documentCls.getDeclaredField("name")));
+        verify(uowMock, atLeastOnce())
+                .loadEntityFieldIfManaged(eq(document), fieldSpec(documentCls.getDeclaredField("pageCount")));
+        verify(uowMock, atLeastOnce())
+                .loadEntityFieldIfManaged(eq(document), fieldSpec(documentCls.getDeclaredField("types")));
+    }
+
+    @Test
+    void enhancedSubclassCallsHooksWithSlotsOfOwnAndInheritedFields() throws Exception {
+        final ClassLoader loader = enhanceAndLoad(BaseEntity.class, Document.class, Report.class);
+        final Class<?> reportCls = loader.loadClass(Report.class.getName());
+        final Object report = managedInstance(loader, reportCls);
+
+        invoke(report, "setAuthor", "Tom");
+        invoke(report, "setName", "Report");
+        invoke(report, "isAuthoredBy", "Tom");
+        verify(uowMock).attributeChanged(report, reportCls.getDeclaredField("author"));
+        verify(uowMock).attributeChanged(report, reportCls.getSuperclass().getDeclaredField("name"));
+        verify(uowMock, atLeastOnce())
+                .loadEntityFieldIfManaged(eq(report), fieldSpec(reportCls.getDeclaredField("author")));
+    }
+
+    @Test
+    void enhancedConstructorsAssignFieldsWithoutNotifyingPersistenceContext() throws Exception {
+        final ClassLoader loader = enhanceAndLoad(BaseEntity.class, Document.class, Report.class);
+        final Class<?> reportCls = loader.loadClass(Report.class.getName());
+
+        final Object report = reportCls.getConstructor(URI.class, String.class, String.class)
+                                       .newInstance(ID, null, "Tom");
+        assertEquals("unnamed", invoke(report, "getName"));
+        assertEquals("Tom", invoke(report, "getAuthor"));
+        assertNull(((BeanListenerAspect.Manageable) report).getPersistenceContext());
+        verifyNoInteractions(uowMock);
+    }
+
+    @Test
+    void enhanceReadsSupertypesOutsideOfProcessedDirectoryFromClasspath(@TempDir Path supertypesDir)
+            throws Exception {
+        copyClasses(supertypesDir, BaseEntity.class, Document.class);
+        new EntityEnhancer().enhance(supertypesDir);
+        copyClasses(classesDir, Report.class);
+        try (URLClassLoader classpath = new URLClassLoader(new URL[]{supertypesDir.toUri().toURL()}, null)) {
+            assertEquals(1, new EntityEnhancer(classpath).enhance(classesDir));
+        }
+        final ClassLoader loader = new EnhancedClassLoader(supertypesDir, classesDir);
+        final Class<?> reportCls = loader.loadClass(Report.class.getName());
+        final Object report = managedInstance(loader, reportCls);
+
+        invoke(report, "setAuthor", "Tom");
+        invoke(report, "getLabel");
+        verify(uowMock).attributeChanged(report, reportCls.getDeclaredField("author"));
+        verify(uowMock).loadEntityFieldIfManaged(eq(report), fieldSpec(
+                loader.loadClass(BaseEntity.class.getName()).getDeclaredField("label")));
+    }
+
+    @Test
+    void enhanceThrowsEntityEnhancementExceptionNamingClassWhenSupertypeCannotBeResolved() throws Exception {
+        copyClasses(classesDir, Report.class);
+        try (URLClassLoader classpath = new URLClassLoader(new URL[0], null)) {
+            final EntityEnhancementException ex = assertThrows(EntityEnhancementException.class,
+                    () -> new EntityEnhancer(classpath).enhance(classesDir));
+            assertEquals(Report.class.getName(), ex.getClassName());
+            assertThat(ex.getMessage(), containsString(Report.class.getName()));
+            assertThat(ex.getMessage(), containsString(Document.class.getName()));
+        }
+    }
+
+    /**
+     * Loads classes from the specified directories before delegating to the test class loader, so that enhanced
+     * classes are used instead of the original ones.
+     */
+    private static final class EnhancedClassLoader extends ClassLoader {
+
+        private final List<Path> directories;
+
+        private EnhancedClassLoader(Path... directories) {
+            super(EntityEnhancerTest.class.getClassLoader());
+            this.directories = Arrays.asList(directories);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> cls = findLoadedClass(name);
+                if (cls == null) {
+                    final Optional<Path> classFile = directories.stream()
+                                                                .map(d -> d.resolve(name.replace('.', '/') + ".class"))
+                                                                .filter(Files::exists).findFirst();
+                    if (!classFile.isPresent()) {
+                        return super.loadClass(name, resolve);
+                    }
+                    try {
+                        final byte[] bytes = Files.readAllBytes(classFile.get());
+                        cls = defineClass(name, bytes, 0, bytes.length);
+                    } catch (IOException e) {
+                        throw new ClassNotFoundException(name, e);
+                    }
+                }
+                if (resolve) {
+                    resolveClass(cls);
+                }
+                return cls;
+            }
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.jopa.maven.enhance.environment;
+
+import cz.cvut.kbss.jopa.model.annotations.*;
+
+import java.net.URI;
+import java.util.Set;
+
+@OWLClass(iri = "http://krizik.felk.cvut.cz/ontologies/jopa/entities#Document")
+public class Document extends BaseEntity {
+
+    @Id
+    private URI uri;
+
+    @OWLDataProperty(iri = "http://krizik.felk.cvut.cz/ontologies/jopa/attributes#name")
+    private String name;
+
+    @OWLDataProperty(iri = "http://krizik.felk.cvut.cz/ontologies/jopa/attributes#pageCount")
+    private Integer pageCount;
+
+    @Types
+    private Set<String> types;
+
+    public Document() {
+    }
+
+    public Document(URI uri, String name) {
+        this.uri = uri;
+        this.name = name != null ? name : "unnamed";
+    }
+
+    public URI getUri() {
+        return uri;
+    }
+
+    public void setUri(URI uri) {
+        this.uri = uri;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Integer getPageCount() {
+        return pageCount;
+    }
+
+    public void setPageCount(Integer pageCount) {
+        this.pageCount = pageCount;
+    }
+
+    public Set<String> getTypes() {
+        return types;
+    }
+
+    public void setTypes(Set<String> types) {
+        this.types = types;
+    }
+
+    public String describe() {
+        final StringBuilder sb = new StringBuilder(name != null ? name : getLabel());
+        if (pageCount != null && pageCount > 0) {
+            sb.append(" (").append(pageCount).append(" pages)");
+        }
+        if (types != null) {
+            for (String type : types) {
+                sb.append(' ').append(type);
+            }
+        }
+        return sb.toString();
+    }
+}
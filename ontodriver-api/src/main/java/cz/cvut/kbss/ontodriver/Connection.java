@@ -17,13 +17,13 @@ package cz.cvut.kbss.ontodriver;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.model.Value;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 public interface Connection extends AutoCloseable, Wrapper {
 
@@ -158,6 +158,30 @@ public interface Connection extends AutoCloseable, Wrapper {
      */
     Collection<Axiom<?>> find(AxiomDescriptor descriptor) throws OntoDriverException;
 
+    /**
+     * Finds axioms with the corresponding subjects and properties.
+     * <p>
+     * This is a bulk version of {@link #find(AxiomDescriptor)}. It allows drivers to load axioms of multiple subjects
+     * using a single request to the underlying storage. The default implementation just invokes {@link
+     * #find(AxiomDescriptor)} for each of the specified descriptors.
+     *
+     * @param descriptors Loading descriptors, each specifying subject, properties to load and possible contexts to
+     *                    work with
+     * @return Axioms matching the specified criteria, grouped by their subject. Subjects without any matching axioms
+     * need not be present in the result
+     * @throws OntoDriverException   If an ontology access error occurs
+     * @throws IllegalStateException If called on a closed connection
+     */
+    default Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> descriptors)
+            throws OntoDriverException {
+        Objects.requireNonNull(descriptors);
+        final Map<NamedResource, Collection<Axiom<?>>> result = new HashMap<>(descriptors.size());
+        for (AxiomDescriptor descriptor : descriptors) {
+            result.computeIfAbsent(descriptor.getSubject(), k -> new ArrayList<>()).addAll(find(descriptor));
+        }
+        return result;
+    }
+
     /**
      * Persists new individual and its property values specified by the descriptor.
      *
@@ -167,6 +191,24 @@ public interface Connection extends AutoCloseable, Wrapper {
      */
     void persist(AxiomValueDescriptor descriptor) throws OntoDriverException;
 
+    /**
+     * Persists new individuals and their property values specified by the descriptors.
+     * <p>
+     * This is a bulk version of {@link #persist(AxiomValueDescriptor)}. It allows drivers to insert data of multiple
+     * individuals using a single request to the underlying storage. The default implementation just invokes {@link
+     * #persist(AxiomValueDescriptor)} for each of the specified descriptors.
+     *
+     * @param descriptors Descriptors of the persisted values
+     * @throws OntoDriverException   If an ontology access error occurs
+     * @throws IllegalStateException If called on a closed connection
+     */
+    default void persistAll(Collection<AxiomValueDescriptor> descriptors) throws OntoDriverException {
+        Objects.requireNonNull(descriptors);
+        for (AxiomValueDescriptor descriptor : descriptors) {
+            persist(descriptor);
+        }
+    }
+
     /**
      * Generates a new unique identifier based on the specified type.
      * <p>
@@ -190,6 +232,42 @@ public interface Connection extends AutoCloseable, Wrapper {
      */
     void update(AxiomValueDescriptor descriptor) throws OntoDriverException;
 
+    /**
+     * Applies the specified changes of property values of an individual.
+     * <p>
+     * Unlike {@link #update(AxiomValueDescriptor)}, this method does not determine the current property values from the
+     * ontology. Only the values specified in {@code removed} are removed and values specified in {@code added} are
+     * inserted, other values of the properties are left untouched. Both descriptors are expected to have the same
+     * subject.
+     * <p>
+     * The default implementation removes the values using {@link Properties#removeProperties(NamedResource, URI,
+     * Map)} and inserts the new ones using {@link #persist(AxiomValueDescriptor)}.
+     *
+     * @param removed Descriptor of the values to remove
+     * @param added   Descriptor of the values to insert
+     * @throws OntoDriverException   If an ontology access error occurs
+     * @throws IllegalStateException If called on a closed connection
+     */
+    default void applyChanges(AxiomValueDescriptor removed, AxiomValueDescriptor added) throws OntoDriverException {
+        Objects.requireNonNull(removed);
+        Objects.requireNonNull(added);
+        assert removed.getSubject().equals(added.getSubject());
+        final Map<URI, Map<Assertion, Set<Value<?>>>> toRemove = new HashMap<>();
+        for (Assertion a : removed.getAssertions()) {
+            final List<Value<?>> values = removed.getAssertionValues(a);
+            if (!values.isEmpty()) {
+                toRemove.computeIfAbsent(removed.getAssertionContext(a), ctx -> new HashMap<>())
+                        .put(a, new HashSet<>(values));
+            }
+        }
+        for (Map.Entry<URI, Map<Assertion, Set<Value<?>>>> e : toRemove.entrySet()) {
+            properties().removeProperties(removed.getSubject(), e.getKey(), e.getValue());
+        }
+        if (!added.getAssertions().isEmpty()) {
+            persist(added);
+        }
+    }
+
     /**
      * Removes all axioms related to subject specified by the descriptor.
      * <p>
@@ -38,4 +38,33 @@ public interface ListValueDescriptor extends ListDescriptor {
      *            The value to add, i. e. identifier of the list element
      */
     void addValue(NamedResource elem);
+
+    /**
+     * Gets the number of leading values of this descriptor which are already stored in the repository.
+     * <p>
+     * A non-negative value means that the list has only been appended to since it was last written, i.e., the
+     * stored list should consist exactly of the first {@code n} values of this descriptor. A driver may use this to
+     * append only the new values instead of merging the whole list. Since this is just a hint, the driver has to
+     * verify the stored list before relying on it.
+     *
+     * <p>
+     * By default, the number is unknown.
+     *
+     * @return Number of values already stored, {@code -1} if unknown
+     */
+    default int getStoredPrefixSize() {
+        return -1;
+    }
+
+    /**
+     * Sets the number of leading values of this descriptor which are already stored in the repository.
+     * <p>
+     * The default implementation ignores the value, so the list is always merged as a whole.
+     *
+     * @param storedPrefixSize Number of values already stored, {@code -1} if unknown
+     * @see #getStoredPrefixSize()
+     */
+    default void setStoredPrefixSize(int storedPrefixSize) {
+        // Do nothing by default
+    }
 }
@@ -27,6 +27,8 @@ public class ReferencedListValueDescriptor extends ReferencedListDescriptorImpl
 
     private final List<NamedResource> values;
 
+    private int storedPrefixSize = -1;
+
     public ReferencedListValueDescriptor(NamedResource listOwner, Assertion listProperty,
                                          Assertion nextNode, Assertion nodeContent) {
         super(listOwner, listProperty, nextNode, nodeContent);
@@ -44,6 +46,16 @@ public class ReferencedListValueDescriptor extends ReferencedListDescriptorImpl
         values.add(value);
     }
 
+    @Override
+    public int getStoredPrefixSize() {
+        return storedPrefixSize;
+    }
+
+    @Override
+    public void setStoredPrefixSize(int storedPrefixSize) {
+        this.storedPrefixSize = storedPrefixSize;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
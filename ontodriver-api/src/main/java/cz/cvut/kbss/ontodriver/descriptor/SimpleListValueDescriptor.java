@@ -32,6 +32,8 @@ public class SimpleListValueDescriptor extends SimpleListDescriptorImpl implemen
 
     private final List<NamedResource> values;
 
+    private int storedPrefixSize = -1;
+
     public SimpleListValueDescriptor(NamedResource listOwner, Assertion listProperty,
                                      Assertion nextNodeProperty) {
         super(listOwner, listProperty, nextNodeProperty);
@@ -49,6 +51,16 @@ public class SimpleListValueDescriptor extends SimpleListDescriptorImpl implemen
         values.add(value);
     }
 
+    @Override
+    public int getStoredPrefixSize() {
+        return storedPrefixSize;
+    }
+
+    @Override
+    public void setStoredPrefixSize(int storedPrefixSize) {
+        this.storedPrefixSize = storedPrefixSize;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
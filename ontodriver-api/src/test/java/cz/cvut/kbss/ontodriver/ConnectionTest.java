@@ -0,0 +1,101 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver;
+
+import cz.cvut.kbss.ontodriver.descriptor.AxiomDescriptor;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
+import cz.cvut.kbss.ontodriver.model.*;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.*;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ConnectionTest {
+
+    @Test
+    void findAllInvokesFindForEachDescriptorAndGroupsResultsBySubject() throws Exception {
+        final Connection sut = mock(Connection.class);
+        when(sut.findAll(anyCollection())).thenCallRealMethod();
+        final AxiomDescriptor descOne = new AxiomDescriptor(NamedResource.create("http://example.org/one"));
+        final AxiomDescriptor descTwo = new AxiomDescriptor(NamedResource.create("http://example.org/two"));
+        final Axiom<?> axOne = classAssertion(descOne.getSubject());
+        final Axiom<?> axTwo = classAssertion(descTwo.getSubject());
+        when(sut.find(descOne)).thenReturn(Collections.singleton(axOne));
+        when(sut.find(descTwo)).thenReturn(Collections.singleton(axTwo));
+
+        final Map<NamedResource, Collection<Axiom<?>>> result = sut.findAll(Arrays.asList(descOne, descTwo));
+        assertEquals(2, result.size());
+        assertThat(result.get(descOne.getSubject()), containsInAnyOrder(axOne));
+        assertThat(result.get(descTwo.getSubject()), containsInAnyOrder(axTwo));
+        verify(sut).find(descOne);
+        verify(sut).find(descTwo);
+    }
+
+    @Test
+    void persistAllInvokesPersistForEachDescriptor() throws Exception {
+        final Connection sut = mock(Connection.class);
+        doCallRealMethod().when(sut).persistAll(anyCollection());
+        final AxiomValueDescriptor descOne = new AxiomValueDescriptor(NamedResource.create("http://example.org/one"));
+        final AxiomValueDescriptor descTwo = new AxiomValueDescriptor(NamedResource.create("http://example.org/two"));
+
+        sut.persistAll(Arrays.asList(descOne, descTwo));
+        verify(sut).persist(descOne);
+        verify(sut).persist(descTwo);
+    }
+
+    @Test
+    void applyChangesRemovesValuesUsingPropertiesAndPersistsAddedValues() throws Exception {
+        final Connection sut = mock(Connection.class);
+        doCallRealMethod().when(sut).applyChanges(any(), any());
+        final Properties properties = mock(Properties.class);
+        when(sut.properties()).thenReturn(properties);
+        final NamedResource subject = NamedResource.create("http://example.org/one");
+        final Assertion assertion = Assertion.createDataPropertyAssertion(URI.create("http://example.org/p"), false);
+        final AxiomValueDescriptor removed = new AxiomValueDescriptor(subject);
+        removed.addAssertionValue(assertion, new Value<>("old"));
+        final AxiomValueDescriptor added = new AxiomValueDescriptor(subject);
+        added.addAssertionValue(assertion, new Value<>("new"));
+
+        sut.applyChanges(removed, added);
+        verify(properties).removeProperties(subject, null,
+                                            Collections.singletonMap(assertion,
+                                                                     Collections.singleton(new Value<>("old"))));
+        verify(sut).persist(added);
+        verify(sut, never()).update(any());
+    }
+
+    @Test
+    void applyChangesSkipsPersistWhenNothingIsAdded() throws Exception {
+        final Connection sut = mock(Connection.class);
+        doCallRealMethod().when(sut).applyChanges(any(), any());
+        final NamedResource subject = NamedResource.create("http://example.org/one");
+
+        sut.applyChanges(new AxiomValueDescriptor(subject), new AxiomValueDescriptor(subject));
+        verify(sut, never()).persist(any());
+        verify(sut, never()).properties();
+    }
+
+    private static Axiom<?> classAssertion(NamedResource subject) {
+        return new AxiomImpl<>(subject, Assertion.createClassAssertion(false),
+                               new Value<>(NamedResource.create("http://example.org/Type")));
+    }
+}
@@ -15,6 +15,7 @@
 package cz.cvut.kbss.ontodriver.jena;
 
 import cz.cvut.kbss.ontodriver.descriptor.AbstractAxiomDescriptor;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
 import cz.cvut.kbss.ontodriver.jena.connector.StorageConnector;
 import cz.cvut.kbss.ontodriver.jena.util.JenaUtils;
 import cz.cvut.kbss.ontodriver.model.Assertion;
@@ -23,10 +24,10 @@ import cz.cvut.kbss.ontodriver.model.Value;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
+import org.apache.jena.rdf.model.Statement;
 
 import java.net.URI;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 
 /**
  * This class performs an epistemic removal of statements.
@@ -88,4 +89,30 @@ class EpistemicAxiomRemover {
             });
         }
     }
+
+    /**
+     * Removes exactly the specified assertion values, without looking up the current values of the assertions.
+     * <p>
+     * Statements are removed from the context of the corresponding assertion.
+     *
+     * @param descriptor Values to remove
+     */
+    void removeValues(AxiomValueDescriptor descriptor) {
+        final Resource subject = ResourceFactory.createResource(descriptor.getSubject().getIdentifier().toString());
+        final Map<URI, List<Statement>> toRemove = new HashMap<>();
+        descriptor.getAssertions().forEach(assertion -> {
+            final Property property = ResourceFactory.createProperty(assertion.getIdentifier().toString());
+            final List<Statement> statements =
+                    toRemove.computeIfAbsent(descriptor.getAssertionContext(assertion), k -> new ArrayList<>());
+            descriptor.getAssertionValues(assertion).stream().filter(v -> v != Value.nullValue())
+                      .forEach(v -> statements.add(ResourceFactory.createStatement(subject, property,
+                                                                                    JenaUtils.valueToRdfNode(
+                                                                                            assertion, v))));
+        });
+        toRemove.forEach((context, statements) -> {
+            if (!statements.isEmpty()) {
+                connector.remove(statements, context != null ? context.toString() : null);
+            }
+        });
+    }
 }
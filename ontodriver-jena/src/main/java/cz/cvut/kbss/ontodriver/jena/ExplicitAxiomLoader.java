@@ -48,11 +48,27 @@ class ExplicitAxiomLoader extends AbstractAxiomLoader {
 
     @Override
     Collection<Axiom<?>> find(AxiomDescriptor descriptor, Map<String, Assertion> assertions) {
+        final Resource subject = ResourceFactory.createResource(descriptor.getSubject().getIdentifier().toString());
+        final Collection<Statement> statements = findStatements(subject, null, descriptor.getSubjectContexts());
+        return find(descriptor, assertions, statements);
+    }
+
+    /**
+     * Loads axioms corresponding to the specified assertions, using already retrieved statements of the subject.
+     * <p>
+     * Values of assertions whose contexts differ from the subject contexts are loaded separately.
+     *
+     * @param descriptor        Loading descriptor, contains subject and context info
+     * @param assertions        Assertions to load
+     * @param subjectStatements Statements of the subject from the subject contexts
+     * @return Matching axioms
+     */
+    List<Axiom<?>> find(AxiomDescriptor descriptor, Map<String, Assertion> assertions,
+                        Collection<Statement> subjectStatements) {
         this.assertedProperties = assertions;
         this.unspecifiedProperty = resolveUnspecifiedProperty();
         final Resource subject = ResourceFactory.createResource(descriptor.getSubject().getIdentifier().toString());
-        final Collection<Statement> statements = findStatements(subject, null, descriptor.getSubjectContexts());
-        final List<Axiom<?>> result = transformStatementsToAxioms(descriptor, statements);
+        final List<Axiom<?>> result = transformStatementsToAxioms(descriptor, subjectStatements);
         result.addAll(loadAxiomsForPropertiesInContext(descriptor, subject));
         return result;
     }
@@ -69,6 +85,10 @@ class ExplicitAxiomLoader extends AbstractAxiomLoader {
                 .find(subject, property, null, contexts.stream().map(URI::toString).collect(Collectors.toSet()));
     }
 
+    Collection<Statement> findStatements(Collection<Resource> subjects, Collection<URI> contexts) {
+        return connector.find(subjects, contexts.stream().map(URI::toString).collect(Collectors.toSet()));
+    }
+
     private List<Axiom<?>> transformStatementsToAxioms(AxiomDescriptor descriptor, Collection<Statement> statements) {
         final List<Axiom<?>> axioms = new ArrayList<>(statements.size());
         for (Statement statement : statements) {
@@ -25,11 +25,13 @@ import cz.cvut.kbss.ontodriver.jena.query.JenaPreparedStatement;
 import cz.cvut.kbss.ontodriver.jena.query.JenaStatement;
 import cz.cvut.kbss.ontodriver.jena.util.IdentifierGenerator;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.util.Transaction;
 
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -75,6 +77,11 @@ public class JenaAdapter implements Wrapper {
         new AxiomSaver(connector).saveAxioms(descriptor);
     }
 
+    void persistAll(Collection<AxiomValueDescriptor> descriptors) {
+        beginTransactionIfNotActive();
+        new AxiomSaver(connector).saveAxioms(descriptors);
+    }
+
     private void beginTransactionIfNotActive() {
         if (!transaction.isActive()) {
             connector.begin();
@@ -87,6 +94,11 @@ public class JenaAdapter implements Wrapper {
         return new MainAxiomLoader(connector, inferenceConnector).find(descriptor);
     }
 
+    Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> descriptors) {
+        beginTransactionIfNotActive();
+        return new MainAxiomLoader(connector, inferenceConnector).find(descriptors);
+    }
+
     boolean contains(Axiom<?> axiom, Set<URI> contexts) {
         beginTransactionIfNotActive();
         return new MainAxiomLoader(connector, inferenceConnector).contains(axiom, contexts);
@@ -118,6 +130,12 @@ public class JenaAdapter implements Wrapper {
         new AxiomSaver(connector).saveAxioms(descriptor);
     }
 
+    void applyChanges(AxiomValueDescriptor removed, AxiomValueDescriptor added) {
+        beginTransactionIfNotActive();
+        new EpistemicAxiomRemover(connector).removeValues(removed);
+        new AxiomSaver(connector).saveAxioms(added);
+    }
+
     void remove(AxiomDescriptor descriptor) {
         beginTransactionIfNotActive();
         new EpistemicAxiomRemover(connector).remove(descriptor);
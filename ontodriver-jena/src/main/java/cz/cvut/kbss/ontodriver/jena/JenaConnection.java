@@ -24,10 +24,12 @@ import cz.cvut.kbss.ontodriver.jena.list.JenaLists;
 import cz.cvut.kbss.ontodriver.jena.query.JenaStatement;
 import cz.cvut.kbss.ontodriver.jena.util.ConnectionListener;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 
 import java.net.URI;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
@@ -148,6 +150,18 @@ public class JenaConnection implements Connection {
         }
     }
 
+    @Override
+    public Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> descriptors)
+            throws JenaDriverException {
+        ensureOpen();
+        Objects.requireNonNull(descriptors);
+        try {
+            return adapter.findAll(descriptors);
+        } catch (RuntimeException e) {
+            throw new JenaDriverException(e);
+        }
+    }
+
     @Override
     public void persist(AxiomValueDescriptor descriptor) throws JenaDriverException {
         ensureOpen();
@@ -160,6 +174,18 @@ public class JenaConnection implements Connection {
         }
     }
 
+    @Override
+    public void persistAll(Collection<AxiomValueDescriptor> descriptors) throws JenaDriverException {
+        ensureOpen();
+        Objects.requireNonNull(descriptors);
+        try {
+            adapter.persistAll(descriptors);
+            commitIfAuto();
+        } catch (RuntimeException e) {
+            throw new JenaDriverException(e);
+        }
+    }
+
     @Override
     public URI generateIdentifier(URI classUri) {
         ensureOpen();
@@ -175,6 +201,19 @@ public class JenaConnection implements Connection {
         commitIfAuto();
     }
 
+    @Override
+    public void applyChanges(AxiomValueDescriptor removed, AxiomValueDescriptor added) throws OntoDriverException {
+        ensureOpen();
+        Objects.requireNonNull(removed);
+        Objects.requireNonNull(added);
+        try {
+            adapter.applyChanges(removed, added);
+            commitIfAuto();
+        } catch (RuntimeException e) {
+            throw new JenaDriverException(e);
+        }
+    }
+
     @Override
     public void remove(AxiomDescriptor descriptor) throws OntoDriverException {
         ensureOpen();
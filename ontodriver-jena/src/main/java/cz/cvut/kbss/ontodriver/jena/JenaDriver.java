@@ -35,7 +35,7 @@ class JenaDriver implements Closeable, ConnectionListener {
     private static final List<ConfigurationParameter> CONFIGS = Arrays
             .asList(DriverConfigParam.AUTO_COMMIT, DriverConfigParam.REASONER_FACTORY_CLASS,
                     JenaConfigParam.ISOLATION_STRATEGY, JenaConfigParam.STORAGE_TYPE,
-                    JenaConfigParam.TREAT_DEFAULT_GRAPH_AS_UNION);
+                    JenaConfigParam.TREAT_DEFAULT_GRAPH_AS_UNION, JenaConfigParam.SHARED_INFERENCE);
 
     private volatile boolean open;
 
@@ -72,6 +72,8 @@ class JenaDriver implements Closeable, ConnectionListener {
                 return new ReadCommittedConnectorFactory(configuration);
             case JenaOntoDriverProperties.SNAPSHOT:
                 return new SnapshotConnectorFactory(configuration);
+            case JenaOntoDriverProperties.VERSIONED_SNAPSHOT:
+                return new VersionedSnapshotConnectorFactory(configuration);
             default:
                 throw new IllegalArgumentException("Unsupported transaction isolation strategy " + isolationStrategy);
         }
@@ -18,16 +18,12 @@ import cz.cvut.kbss.ontodriver.jena.connector.StorageConnector;
 import cz.cvut.kbss.ontodriver.jena.util.JenaUtils;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
-import org.apache.jena.rdf.model.Property;
-import org.apache.jena.rdf.model.RDFNode;
-import org.apache.jena.rdf.model.Resource;
-import org.apache.jena.rdf.model.ResourceFactory;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
+import org.apache.jena.rdf.model.*;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Collectors;
 
 class MainAxiomLoader {
 
@@ -88,6 +84,42 @@ class MainAxiomLoader {
         return result;
     }
 
+    /**
+     * Loads axioms corresponding to the specified descriptors.
+     * <p>
+     * Explicit statements of subjects with the same subject contexts are retrieved from the storage together.
+     *
+     * @param descriptors Descriptors of axioms to load
+     * @return Matching axioms grouped by subject
+     */
+    Map<NamedResource, Collection<Axiom<?>>> find(Collection<AxiomDescriptor> descriptors) {
+        final Map<Set<URI>, List<AxiomDescriptor>> bySubjectContexts = descriptors.stream().collect(
+                Collectors.groupingBy(AxiomDescriptor::getSubjectContexts, LinkedHashMap::new, Collectors.toList()));
+        final Map<NamedResource, Collection<Axiom<?>>> result = new HashMap<>(descriptors.size());
+        for (Map.Entry<Set<URI>, List<AxiomDescriptor>> e : bySubjectContexts.entrySet()) {
+            final List<Resource> subjects = e.getValue().stream().map(MainAxiomLoader::subjectResource)
+                                             .collect(Collectors.toList());
+            final Map<Resource, List<Statement>> statements = explicitLoader.findStatements(subjects, e.getKey())
+                                                                            .stream().collect(Collectors.groupingBy(
+                            Statement::getSubject));
+            for (AxiomDescriptor descriptor : e.getValue()) {
+                final Map<String, Assertion> asserted = new HashMap<>(descriptor.getAssertions().size());
+                final Map<String, Assertion> inferred = new HashMap<>(descriptor.getAssertions().size());
+                mapAssertions(descriptor, asserted, inferred);
+                final Collection<Axiom<?>> axioms =
+                        result.computeIfAbsent(descriptor.getSubject(), k -> new ArrayList<>());
+                axioms.addAll(explicitLoader.find(descriptor, asserted,
+                        statements.getOrDefault(subjectResource(descriptor), Collections.emptyList())));
+                axioms.addAll(inferredLoader.find(descriptor, inferred));
+            }
+        }
+        return result;
+    }
+
+    private static Resource subjectResource(AxiomDescriptor descriptor) {
+        return ResourceFactory.createResource(descriptor.getSubject().getIdentifier().toString());
+    }
+
     private static void mapAssertions(AxiomDescriptor descriptor, Map<String, Assertion> asserted,
                                       Map<String, Assertion> inferred) {
         for (Assertion a : descriptor.getAssertions()) {
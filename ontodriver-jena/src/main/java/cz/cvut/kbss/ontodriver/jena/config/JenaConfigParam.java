@@ -20,7 +20,8 @@ public enum JenaConfigParam implements ConfigurationParameter {
 
     ISOLATION_STRATEGY(JenaOntoDriverProperties.JENA_ISOLATION_STRATEGY),
     STORAGE_TYPE(JenaOntoDriverProperties.JENA_STORAGE_TYPE),
-    TREAT_DEFAULT_GRAPH_AS_UNION(JenaOntoDriverProperties.JENA_TREAT_DEFAULT_GRAPH_AS_UNION);
+    TREAT_DEFAULT_GRAPH_AS_UNION(JenaOntoDriverProperties.JENA_TREAT_DEFAULT_GRAPH_AS_UNION),
+    SHARED_INFERENCE(JenaOntoDriverProperties.JENA_SHARED_INFERENCE);
 
     private final String name;
 
@@ -23,6 +23,7 @@ public class JenaOntoDriverProperties {
      * <ul>
      * <li>{@link #READ_COMMITTED}</li>
      * <li>{@link #SNAPSHOT}</li>
+     * <li>{@link #VERSIONED_SNAPSHOT}</li>
      * </ul>
      */
     public static final String JENA_ISOLATION_STRATEGY = "cz.cvut.kbss.ontodriver.jena.isolation";
@@ -46,6 +47,18 @@ public class JenaOntoDriverProperties {
      */
     public static final String SNAPSHOT = "snapshot";
 
+    /**
+     * Storage access isolation strategy.
+     * <p>
+     * Provides the same isolation as {@link #SNAPSHOT}, but transactions do not copy the repository when they start.
+     * Instead, they read the shared repository and revert changes committed by other transactions in the meantime. The
+     * repository is copied only when a transaction runs a SPARQL query against its transactional snapshot, or when
+     * another transaction executes a SPARQL update while it is running.
+     *
+     * @see #JENA_ISOLATION_STRATEGY
+     */
+    public static final String VERSIONED_SNAPSHOT = "versioned-snapshot";
+
     /**
      * Represents parameter specifying type of storage to be used by this driver.
      * <p>
@@ -106,6 +119,25 @@ public class JenaOntoDriverProperties {
      */
     public static final String JENA_TREAT_DEFAULT_GRAPH_AS_UNION = "cz.cvut.kbss.ontodriver.jena.default_graph_as_union";
 
+    /**
+     * Parameter specifying whether transactions should share inference graphs maintained over the central storage.
+     * <p>
+     * Applies only when inference is enabled by setting a reasoner factory class. By default, each transaction computes
+     * inference over its own snapshot of the repository. When this parameter is set to {@code true}, inference graphs
+     * are kept for the whole repository and updated by changes committed by transactions. Transactions read inferred
+     * statements from these graphs and overlay them with their pending changes, so statements inferred from pending
+     * changes are available after commit. Asserted statements are read as in the
+     * {@link #VERSIONED_SNAPSHOT} isolation strategy.
+     * <p>
+     * The shared inference graphs reflect the latest committed state of the repository. A transaction uses them only
+     * while no other transaction has committed since it began. Otherwise, it computes inference over a copy of its
+     * snapshot on the first inference read, so that it does not see statements inferred from changes committed after
+     * it began.
+     * <p>
+     * Defaults to {@code false}.
+     */
+    public static final String JENA_SHARED_INFERENCE = "cz.cvut.kbss.ontodriver.jena.shared_inference";
+
     private JenaOntoDriverProperties() {
         throw new AssertionError();
     }
@@ -18,11 +18,11 @@ import cz.cvut.kbss.ontodriver.Statement.StatementOntology;
 import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import cz.cvut.kbss.ontodriver.jena.query.AbstractResultSet;
-import org.apache.jena.query.Dataset;
 import org.apache.jena.query.Query;
 import org.apache.jena.rdf.model.*;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * This connector tracks transactional changes and writes them on commit to the {@link SharedStorageConnector}.
@@ -68,21 +68,11 @@ public class ChangeTrackingStorageConnector extends AbstractStorageConnector {
     }
 
     private void mergeRemovedStatements() {
-        final Dataset removed = localModel.getRemoved();
-        centralConnector.remove(removed.getDefaultModel().listStatements().toList(), null);
-        removed.listNames().forEachRemaining(context -> {
-            final Model model = removed.getNamedModel(context);
-            centralConnector.remove(model.listStatements().toList(), context);
-        });
+        localModel.forEachRemoved((context, statements) -> centralConnector.remove(statements, context));
     }
 
     private void mergeAddedStatements() {
-        final Dataset added = localModel.getAdded();
-        centralConnector.add(added.getDefaultModel().listStatements().toList(), null);
-        added.listNames().forEachRemaining(context -> {
-            final Model model = added.getNamedModel(context);
-            centralConnector.add(model.listStatements().toList(), context);
-        });
+        localModel.forEachAdded((context, statements) -> centralConnector.add(statements, context));
     }
 
     @Override
@@ -99,6 +89,19 @@ public class ChangeTrackingStorageConnector extends AbstractStorageConnector {
         return localModel.enhanceStatements(existing, subject, property, value, contexts);
     }
 
+    @Override
+    public Collection<Statement> find(Collection<Resource> subjects, Collection<String> contexts) {
+        transaction.verifyActive();
+        final Map<Resource, List<Statement>> existing = centralConnector.find(subjects, contexts).stream().collect(
+                Collectors.groupingBy(Statement::getSubject));
+        final List<Statement> result = new ArrayList<>();
+        for (Resource subject : subjects) {
+            result.addAll(localModel.enhanceStatements(existing.getOrDefault(subject, Collections.emptyList()),
+                    subject, null, null, contexts));
+        }
+        return result;
+    }
+
     @Override
     public boolean contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
         transaction.verifyActive();
@@ -0,0 +1,513 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.Statement.StatementOntology;
+import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.DatasetFactory;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+
+import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps track of changes committed to the central storage, so that transactions can read the central storage as it was
+ * when they started without having to copy it.
+ * <p>
+ * Every commit records the statements it actually added to and removed from the central storage. A {@link Snapshot}
+ * remembers the version at which it was opened and reads the current central data, reverting changes made by commits
+ * with a higher version. Commits are kept only as long as there is an open snapshot which may need them.
+ * <p>
+ * Changes whose effect cannot be tracked (SPARQL Update, storage reload) detach all open snapshots before they are
+ * executed. A detached snapshot gets a copy of the data it represents and stops reading the central storage.
+ */
+class CommitLog {
+
+    private final AbstractStorageConnector centralConnector;
+
+    private final boolean defaultAsUnion;
+
+    /**
+     * Serializes changes of the central storage.
+     */
+    private final Object commitLock = new Object();
+
+    private final List<Commit> commits = new ArrayList<>();
+    private final Set<Snapshot> openSnapshots = new HashSet<>();
+    private long version;
+
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    CommitLog(AbstractStorageConnector centralConnector) {
+        this.centralConnector = centralConnector;
+        this.defaultAsUnion = centralConnector.configuration.is(JenaConfigParam.TREAT_DEFAULT_GRAPH_AS_UNION);
+    }
+
+    /**
+     * Opens a snapshot of the current state of the central storage.
+     *
+     * @return New snapshot
+     */
+    synchronized Snapshot openSnapshot() {
+        final Snapshot snapshot = new Snapshot(version);
+        openSnapshots.add(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * Registers a listener which is notified of changes of the central storage.
+     *
+     * @param listener Listener to register
+     */
+    void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    private synchronized void closeSnapshot(Snapshot snapshot) {
+        if (openSnapshots.remove(snapshot)) {
+            pruneCommits();
+        }
+    }
+
+    private void pruneCommits() {
+        // A commit with a version higher than the current one is being written into the central storage and snapshots
+        // opened in the meantime will need to revert it
+        final long oldest = openSnapshots.stream().mapToLong(s -> s.version).min().orElse(version);
+        commits.removeIf(c -> c.version <= oldest && c.version <= version);
+    }
+
+    private synchronized List<Commit> commitsAfter(long snapshotVersion) {
+        return commits.stream().filter(c -> c.version > snapshotVersion).collect(Collectors.toList());
+    }
+
+    synchronized int getCommitCount() {
+        return commits.size();
+    }
+
+    /**
+     * Writes the specified transactional changes into the central storage.
+     * <p>
+     * If there are SPARQL updates to execute, the commit cannot be tracked and all open snapshots are detached before
+     * it is applied.
+     *
+     * @param changes Statements added and removed by the transaction
+     * @param updates SPARQL updates executed by the transaction
+     * @throws JenaDriverException If writing the changes fails
+     */
+    void commit(LocalModel changes, List<String> updates) throws JenaDriverException {
+        synchronized (commitLock) {
+            if (updates.isEmpty()) {
+                commitTracked(changes);
+            } else {
+                executeUntracked(() -> writeToCentral(changes, updates));
+            }
+        }
+    }
+
+    private void commitTracked(LocalModel changes) throws JenaDriverException {
+        centralConnector.begin();
+        Commit commit = null;
+        try {
+            final Set<String> contextsBefore = new HashSet<>(centralConnector.getContexts());
+            final Map<String, Set<Statement>> touched = touchedStatements(changes, contextsBefore);
+            final Map<String, Set<Statement>> presentBefore = presentStatements(touched);
+            applyChanges(changes);
+            final Set<String> contextsAfter = new HashSet<>(centralConnector.getContexts());
+            final Map<String, Set<Statement>> presentAfter = presentStatements(touched);
+            synchronized (this) {
+                commit = new Commit(version + 1);
+                commit.recordChanges(presentBefore, presentAfter);
+                commit.recordContexts(contextsBefore, contextsAfter);
+                // The commit must be registered before the changes become visible in the central storage
+                commits.add(commit);
+            }
+            centralConnector.commit();
+            synchronized (this) {
+                this.version = commit.version;
+                pruneCommits();
+            }
+        } catch (JenaDriverException | RuntimeException e) {
+            synchronized (this) {
+                commits.remove(commit);
+            }
+            centralConnector.rollback();
+            throw e;
+        }
+        for (ChangeListener listener : listeners) {
+            listener.committed(commit.added, commit.removed);
+        }
+    }
+
+    private Map<String, Set<Statement>> touchedStatements(LocalModel changes, Set<String> centralContexts) {
+        final Map<String, Set<Statement>> touched = new HashMap<>();
+        changes.forEachAdded((ctx, statements) -> registerTouched(ctx, statements, touched, Collections.emptySet()));
+        // Removal from the default graph removes the statements from all graphs when default is treated as union
+        final Set<String> affectedByDefault = defaultAsUnion ? centralContexts : Collections.emptySet();
+        changes.forEachRemoved((ctx, statements) -> registerTouched(ctx, statements, touched, affectedByDefault));
+        return touched;
+    }
+
+    private void registerTouched(String context, List<Statement> statements, Map<String, Set<Statement>> touched,
+                                 Set<String> affectedByDefault) {
+        touched.computeIfAbsent(context, k -> new HashSet<>()).addAll(statements);
+        if (context == null) {
+            affectedByDefault.forEach(ctx -> touched.computeIfAbsent(ctx, k -> new HashSet<>()).addAll(statements));
+        } else if (defaultAsUnion) {
+            touched.computeIfAbsent(null, k -> new HashSet<>()).addAll(statements);
+        }
+    }
+
+    private Map<String, Set<Statement>> presentStatements(Map<String, Set<Statement>> touched) {
+        final Map<String, Set<Statement>> present = new HashMap<>();
+        touched.forEach((ctx, statements) -> present.put(ctx, statements.stream()
+                .filter(s -> centralConnector.contains(s.getSubject(), s.getPredicate(), s.getObject(), contexts(ctx)))
+                .collect(Collectors.toSet())));
+        return present;
+    }
+
+    private static Collection<String> contexts(String context) {
+        return context != null ? Collections.singleton(context) : Collections.emptySet();
+    }
+
+    private void writeToCentral(LocalModel changes, List<String> updates) throws JenaDriverException {
+        centralConnector.begin();
+        try {
+            applyChanges(changes);
+            for (String update : updates) {
+                centralConnector.executeUpdate(update, StatementOntology.CENTRAL);
+            }
+            centralConnector.commit();
+        } catch (JenaDriverException | RuntimeException e) {
+            centralConnector.rollback();
+            throw e;
+        }
+    }
+
+    private void applyChanges(LocalModel changes) {
+        changes.forEachRemoved((ctx, statements) -> centralConnector.remove(statements, ctx));
+        changes.forEachAdded((ctx, statements) -> centralConnector.add(statements, ctx));
+    }
+
+    /**
+     * Executes a change of the central storage whose effect cannot be tracked.
+     * <p>
+     * All open snapshots are detached before the change is executed.
+     *
+     * @param change The change to execute
+     * @throws JenaDriverException If the change fails
+     */
+    void executeUntracked(UntrackedChange change) throws JenaDriverException {
+        synchronized (commitLock) {
+            synchronized (this) {
+                detachSnapshots();
+                try {
+                    change.execute();
+                } finally {
+                    version++;
+                    listeners.forEach(ChangeListener::untrackedChangeExecuted);
+                }
+            }
+        }
+    }
+
+    private void detachSnapshots() {
+        for (Snapshot snapshot : openSnapshots) {
+            snapshot.detached = revertChanges(copyCentral(), commitsAfter(snapshot.version));
+        }
+        openSnapshots.clear();
+        commits.clear();
+    }
+
+    private SnapshotStorage copyCentral() {
+        final SnapshotStorage copy = new SnapshotStorage(centralConnector.configuration);
+        copy.addCentralData(centralConnector.getStorage().getDataset());
+        return copy;
+    }
+
+    private static SnapshotStorage revertChanges(SnapshotStorage copy, List<Commit> toRevert) {
+        final Dataset dataset = copy.getDataset();
+        for (int i = toRevert.size() - 1; i >= 0; i--) {
+            final Commit commit = toRevert.get(i);
+            dataset.getDefaultModel().remove(commit.added.getDefaultModel());
+            dataset.getDefaultModel().add(commit.removed.getDefaultModel());
+            commit.added.listNames()
+                        .forEachRemaining(n -> dataset.getNamedModel(n).remove(commit.added.getNamedModel(n)));
+            commit.removed.listNames()
+                          .forEachRemaining(n -> dataset.getNamedModel(n).add(commit.removed.getNamedModel(n)));
+        }
+        return copy;
+    }
+
+    private static void forEachStatement(Dataset dataset, String context, Resource subject, Property property,
+                                         RDFNode value, Consumer<Statement> consumer) {
+        if (context == null) {
+            dataset.getDefaultModel().listStatements(subject, property, value).forEachRemaining(consumer);
+        } else if (dataset.containsNamedModel(context)) {
+            dataset.getNamedModel(context).listStatements(subject, property, value).forEachRemaining(consumer);
+        }
+    }
+
+    /**
+     * Listens to changes of the central storage made through the log.
+     */
+    interface ChangeListener {
+
+        /**
+         * Called after a commit has been written into the central storage.
+         *
+         * @param added   Statements actually added by the commit
+         * @param removed Statements actually removed by the commit
+         */
+        void committed(Dataset added, Dataset removed);
+
+        /**
+         * Called after a change which could not be tracked has been executed on the central storage.
+         */
+        void untrackedChangeExecuted();
+    }
+
+    /**
+     * Represents a change of the central storage which cannot be tracked by the log.
+     */
+    @FunctionalInterface
+    interface UntrackedChange {
+        void execute() throws JenaDriverException;
+    }
+
+    /**
+     * Statements actually added to and removed from the central storage by one commit.
+     * <p>
+     * The default graph changes represent changes of the union of all graphs when default graph is treated as union.
+     */
+    private static final class Commit {
+
+        private final long version;
+
+        private final Dataset added = DatasetFactory.create();
+        private final Dataset removed = DatasetFactory.create();
+        private final Set<String> createdContexts = new HashSet<>();
+        private final Set<String> droppedContexts = new HashSet<>();
+
+        private Commit(long version) {
+            this.version = version;
+        }
+
+        private void recordChanges(Map<String, Set<Statement>> presentBefore,
+                                   Map<String, Set<Statement>> presentAfter) {
+            presentBefore.forEach((ctx, before) -> {
+                final Set<Statement> after = presentAfter.get(ctx);
+                final List<Statement> addedToCtx =
+                        after.stream().filter(s -> !before.contains(s)).collect(Collectors.toList());
+                final List<Statement> removedFromCtx =
+                        before.stream().filter(s -> !after.contains(s)).collect(Collectors.toList());
+                if (!addedToCtx.isEmpty()) {
+                    model(added, ctx).add(addedToCtx);
+                }
+                if (!removedFromCtx.isEmpty()) {
+                    model(removed, ctx).add(removedFromCtx);
+                }
+            });
+        }
+
+        private static Model model(Dataset dataset, String context) {
+            return context != null ? dataset.getNamedModel(context) : dataset.getDefaultModel();
+        }
+
+        private void recordContexts(Set<String> before, Set<String> after) {
+            after.stream().filter(ctx -> !before.contains(ctx)).forEach(createdContexts::add);
+            before.stream().filter(ctx -> !after.contains(ctx)).forEach(droppedContexts::add);
+        }
+    }
+
+    /**
+     * Snapshot of the central storage at a certain version.
+     * <p>
+     * Snapshot reads are not enhanced with transactional changes.
+     */
+    final class Snapshot {
+
+        private final long version;
+
+        private volatile SnapshotStorage detached;
+
+        private Snapshot(long version) {
+            this.version = version;
+        }
+
+        /**
+         * Whether this snapshot has been detached from the central storage and works with its own copy of the data.
+         *
+         * @return {@code true} if this snapshot is detached
+         */
+        boolean isDetached() {
+            return detached != null;
+        }
+
+        List<Statement> find(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
+            final List<String> views = contexts.isEmpty() ? Collections.singletonList(null) : new ArrayList<>(contexts);
+            if (!isDetached()) {
+                // Central storage has to be read before the log so that no commit visible in the result is missed
+                final List<Collection<Statement>> current = new ArrayList<>(views.size());
+                views.forEach(ctx -> current.add(centralConnector.find(subject, property, value, contexts(ctx))));
+                final List<Commit> toRevert = commitsAfter(version);
+                if (!isDetached()) {
+                    final List<Statement> result = new ArrayList<>();
+                    for (int i = 0; i < views.size(); i++) {
+                        result.addAll(revert(current.get(i), toRevert, subject, property, value, views.get(i)));
+                    }
+                    return result;
+                }
+            }
+            return findDetached(subject, property, value, views);
+        }
+
+        private List<Statement> findDetached(Resource subject, Property property, RDFNode value,
+                                             List<String> views) {
+            final List<Statement> result = new ArrayList<>();
+            for (String ctx : views) {
+                final Model graph = ctx != null ? detached.getNamedGraph(ctx) : detached.getDefaultGraph();
+                result.addAll(graph.listStatements(subject, property, value).toList());
+            }
+            return result;
+        }
+
+        /**
+         * Bulk version of {@link #find(Resource, Property, RDFNode, Collection)}.
+         */
+        List<Statement> find(Collection<Resource> subjects, Collection<String> contexts) {
+            if (!isDetached()) {
+                final Collection<Statement> current = centralConnector.find(subjects, contexts);
+                final List<Commit> toRevert = commitsAfter(version);
+                if (toRevert.isEmpty() && !isDetached()) {
+                    return new ArrayList<>(current);
+                }
+            }
+            final List<Statement> result = new ArrayList<>();
+            subjects.forEach(s -> result.addAll(find(s, null, null, contexts)));
+            return result;
+        }
+
+        boolean contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
+            if (!isDetached()) {
+                final boolean current = centralConnector.contains(subject, property, value, contexts);
+                final List<Commit> toRevert = commitsAfter(version);
+                if (toRevert.isEmpty() && !isDetached()) {
+                    return current;
+                }
+            }
+            return !find(subject, property, value, contexts).isEmpty();
+        }
+
+        List<String> getContexts() {
+            if (!isDetached()) {
+                final Set<String> contexts = new LinkedHashSet<>(centralConnector.getContexts());
+                final List<Commit> toRevert = commitsAfter(version);
+                if (!isDetached()) {
+                    for (int i = toRevert.size() - 1; i >= 0; i--) {
+                        contexts.removeAll(toRevert.get(i).createdContexts);
+                        contexts.addAll(toRevert.get(i).droppedContexts);
+                    }
+                    return new ArrayList<>(contexts);
+                }
+            }
+            final List<String> result = new ArrayList<>();
+            detached.getDataset().listNames().forEachRemaining(result::add);
+            return result;
+        }
+
+        /**
+         * Creates a storage containing a copy of the data represented by this snapshot and closes the snapshot.
+         *
+         * @return Snapshot storage
+         */
+        SnapshotStorage materialize() {
+            if (!isDetached()) {
+                final SnapshotStorage copy = copyCentral();
+                final List<Commit> toRevert = commitsAfter(version);
+                if (!isDetached()) {
+                    close();
+                    return revertChanges(copy, toRevert);
+                }
+            }
+            return detached;
+        }
+
+        /**
+         * Executes the specified read of data derived from the central storage, provided the central storage has not
+         * changed since this snapshot was opened.
+         * <p>
+         * No change of the central storage can be made while the read is executed, so the data read correspond to
+         * this snapshot.
+         *
+         * @param read The read to execute
+         * @param <T>  Result type
+         * @return Result of the read, empty if the central storage has changed since this snapshot was opened
+         */
+        <T> Optional<T> readIfCurrent(Supplier<T> read) {
+            synchronized (commitLock) {
+                synchronized (CommitLog.this) {
+                    if (isDetached() || version != CommitLog.this.version) {
+                        return Optional.empty();
+                    }
+                }
+                return Optional.of(read.get());
+            }
+        }
+
+        /**
+         * Closes this snapshot, so that the log does not have to keep commits for it anymore.
+         */
+        void close() {
+            closeSnapshot(this);
+        }
+    }
+
+    /**
+     * Reverts changes made by the specified commits in statements matching the specified pattern.
+     * <p>
+     * A statement belongs to the snapshot if the first commit after the snapshot version which touched it removed it.
+     * If no commit touched it, it belongs to the snapshot if it is in the current data.
+     */
+    private static Collection<Statement> revert(Collection<Statement> current, List<Commit> commits, Resource subject,
+                                                Property property, RDFNode value, String context) {
+        final Map<Statement, Boolean> firstChange = new HashMap<>();
+        for (Commit commit : commits) {
+            forEachStatement(commit.added, context, subject, property, value,
+                    s -> firstChange.putIfAbsent(s, Boolean.TRUE));
+            forEachStatement(commit.removed, context, subject, property, value,
+                    s -> firstChange.putIfAbsent(s, Boolean.FALSE));
+        }
+        if (firstChange.isEmpty()) {
+            return current;
+        }
+        final Set<Statement> result = new LinkedHashSet<>();
+        current.stream().filter(s -> !Boolean.TRUE.equals(firstChange.get(s))).forEach(result::add);
+        firstChange.forEach((s, added) -> {
+            if (!added) {
+                result.add(s);
+            }
+        });
+        return result;
+    }
+}
@@ -15,6 +15,9 @@
 package cz.cvut.kbss.ontodriver.jena.connector;
 
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import org.apache.jena.query.Dataset;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -23,20 +26,67 @@ public class InferenceConnectorFactory extends SharedConnectorBasedConnectorFact
 
     private final Map<String, String> reasonerConfig;
 
+    /**
+     * Commit log and inference shared by connectors, used only when {@link JenaConfigParam#SHARED_INFERENCE} is
+     * enabled.
+     */
+    private final CommitLog commitLog;
+    private final SharedInference sharedInference;
+
     public InferenceConnectorFactory(DriverConfiguration configuration, Map<String, String> reasonerConfig) {
         super(configuration);
         this.reasonerConfig = new HashMap<>(reasonerConfig);
+        if (configuration.is(JenaConfigParam.SHARED_INFERENCE)) {
+            this.commitLog = new CommitLog(centralConnector);
+            this.sharedInference = new SharedInference(centralConnector, configuration, this.reasonerConfig);
+            commitLog.addChangeListener(sharedInference);
+        } else {
+            this.commitLog = null;
+            this.sharedInference = null;
+        }
     }
 
     @Override
     public StorageConnector createConnector() {
         ensureOpen();
+        if (sharedInference != null) {
+            return new SharedInferenceStorageConnector(centralConnector, commitLog, sharedInference, reasonerConfig);
+        }
         return new SnapshotStorageConnectorWithInference(centralConnector, reasonerConfig);
     }
 
     @Override
     public InferredStorageConnector createInferredConnector(StorageConnector connector) {
-        assert connector instanceof SnapshotStorageConnectorWithInference;
+        assert connector instanceof SnapshotStorageConnectorWithInference ||
+                connector instanceof SharedInferenceStorageConnector;
         return (InferredStorageConnector) connector;
     }
+
+    @Override
+    public synchronized void reloadStorage() {
+        if (commitLog == null) {
+            super.reloadStorage();
+            return;
+        }
+        ensureOpen();
+        try {
+            commitLog.executeUntracked(centralConnector::reloadStorage);
+        } catch (JenaDriverException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void setDataset(Dataset dataset) {
+        if (commitLog == null) {
+            super.setDataset(dataset);
+            return;
+        }
+        ensureOpen();
+        try {
+            commitLog.executeUntracked(() -> centralConnector.setDataset(dataset));
+        } catch (JenaDriverException e) {
+            throw new IllegalStateException(e);
+        }
+    }
 }
@@ -14,19 +14,25 @@
  */
 package cz.cvut.kbss.ontodriver.jena.connector;
 
+import org.apache.jena.graph.Node;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.DatasetFactory;
 import org.apache.jena.rdf.model.*;
 
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 /**
  * Tracks transactional changes.
+ * <p>
+ * Added and removed statements are kept in in-memory indexes per graph, so that reads can be enhanced with
+ * transactional changes without copying the changes into temporary models.
  */
 class LocalModel {
 
-    private final Dataset added;
-    private final Dataset removed;
+    private final Map<String, GraphIndex> added = new HashMap<>();
+    private final Map<String, GraphIndex> removed = new HashMap<>();
 
     /**
      * Whether default graph should be treated as union of all graphs.
@@ -38,56 +44,76 @@ class LocalModel {
     }
 
     LocalModel(boolean defaultAsUnion) {
-        this.added = DatasetFactory.create();
-        this.removed = DatasetFactory.create();
         this.defaultAsUnion = defaultAsUnion;
     }
 
     Collection<Statement> enhanceStatements(Collection<Statement> statements, Resource subject, Property property,
                                             RDFNode value, Collection<String> contexts) {
+        final Set<Statement> addedMatches = new LinkedHashSet<>();
+        final Set<Statement> removedMatches = new HashSet<>();
+        final Node s = node(subject);
+        final Node p = node(property);
+        final Node o = node(value);
         if (contexts.isEmpty()) {
-            return enhanceStatements(statements, subject, property, value, addedDefault(), removedDefault());
+            forEachDefaultGraph(added, g -> g.find(s, p, o, addedMatches::add));
+            forEachDefaultGraph(removed, g -> g.find(s, p, o, removedMatches::add));
         } else {
-            Collection<Statement> enhanced = statements;
             for (String ctx : contexts) {
-                enhanced = enhanceStatements(statements, subject, property, value, added.getNamedModel(ctx),
-                        removed.getNamedModel(ctx));
+                findInGraph(added, ctx, s, p, o, addedMatches::add);
+                findInGraph(removed, ctx, s, p, o, removedMatches::add);
             }
-            return enhanced;
         }
+        if (addedMatches.isEmpty() && removedMatches.isEmpty()) {
+            return statements;
+        }
+        final List<Statement> result = new ArrayList<>(statements.size() + addedMatches.size());
+        for (Statement statement : statements) {
+            if (!removedMatches.contains(statement)) {
+                result.add(statement);
+                addedMatches.remove(statement);
+            }
+        }
+        addedMatches.removeAll(removedMatches);
+        result.addAll(addedMatches);
+        return result;
     }
 
-    private Model addedDefault() {
-        return defaultAsUnion ? added.getUnionModel().union(added.getDefaultModel()) : added.getDefaultModel();
+    private void forEachDefaultGraph(Map<String, GraphIndex> graphs, Consumer<GraphIndex> action) {
+        if (defaultAsUnion) {
+            graphs.values().forEach(action);
+        } else if (graphs.containsKey(null)) {
+            action.accept(graphs.get(null));
+        }
     }
 
-    private Model removedDefault() {
-        return defaultAsUnion ? removed.getUnionModel().union(removed.getDefaultModel()) : removed.getDefaultModel();
+    private static void findInGraph(Map<String, GraphIndex> graphs, String context, Node subject, Node property,
+                                    Node value, Consumer<Statement> consumer) {
+        final GraphIndex graph = graphs.get(context);
+        if (graph != null) {
+            graph.find(subject, property, value, consumer);
+        }
     }
 
-    private static Collection<Statement> enhanceStatements(Collection<Statement> toEnhance, Resource subject,
-                                                           Property property, RDFNode value, Model addedModel,
-                                                           Model removedModel) {
-        final Set<Statement> statements = new HashSet<>(toEnhance);
-        statements.addAll(addedModel.listStatements(subject, property, value).toList());
-        removedModel.listStatements(subject, property, value).toList().forEach(statements::remove);
-        return statements;
+    private static Node node(RDFNode node) {
+        return node != null ? node.asNode() : null;
     }
 
     Containment contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
+        final Node s = node(subject);
+        final Node p = node(property);
+        final Node o = node(value);
         if (contexts.isEmpty()) {
-            if (removedDefault().contains(subject, property, value)) {
+            if (containsInDefault(removed, s, p, o)) {
                 return Containment.REMOVED;
             } else {
-                return addedDefault().contains(subject, property, value) ? Containment.ADDED :
-                       Containment.UNKNOWN;
+                return containsInDefault(added, s, p, o) ? Containment.ADDED : Containment.UNKNOWN;
             }
         } else {
             Containment result = Containment.UNKNOWN;
             for (String c : contexts) {
-                if (removed.getNamedModel(c).contains(subject, property, value)) {
+                if (containsInGraph(removed, c, s, p, o)) {
                     return Containment.REMOVED;
-                } else if (added.getNamedModel(c).contains(subject, property, value)) {
+                } else if (containsInGraph(added, c, s, p, o)) {
                     result = Containment.ADDED;
                 }
             }
@@ -95,39 +121,268 @@ class LocalModel {
         }
     }
 
+    private boolean containsInDefault(Map<String, GraphIndex> graphs, Node subject, Node property, Node value) {
+        if (defaultAsUnion) {
+            return graphs.values().stream().anyMatch(g -> g.contains(subject, property, value));
+        }
+        return containsInGraph(graphs, null, subject, property, value);
+    }
+
+    private static boolean containsInGraph(Map<String, GraphIndex> graphs, String context, Node subject,
+                                           Node property, Node value) {
+        final GraphIndex graph = graphs.get(context);
+        return graph != null && graph.contains(subject, property, value);
+    }
+
     void addStatements(List<Statement> statements, String context) {
         registerStatements(statements, context, added, removed);
     }
 
-    private void registerStatements(List<Statement> statements, String context, Dataset addTo, Dataset removeFrom) {
-        if (context != null) {
-            addTo.getNamedModel(context).add(statements);
-            removeFrom.getNamedModel(context).remove(statements);
-        } else {
-            addTo.getDefaultModel().add(statements);
-            removeFrom.getDefaultModel().remove(statements);
-            if (defaultAsUnion) {
-                removeFrom.listNames().forEachRemaining(n -> removeFrom.getNamedModel(n).remove(statements));
-            }
+    private void registerStatements(List<Statement> statements, String context, Map<String, GraphIndex> addTo,
+                                    Map<String, GraphIndex> removeFrom) {
+        final GraphIndex target = addTo.computeIfAbsent(context, c -> new GraphIndex());
+        statements.forEach(target::add);
+        if (context == null && defaultAsUnion) {
+            removeFrom.values().forEach(g -> statements.forEach(g::remove));
+        } else if (removeFrom.containsKey(context)) {
+            final GraphIndex source = removeFrom.get(context);
+            statements.forEach(source::remove);
         }
+        removeFrom.values().removeIf(GraphIndex::isEmpty);
     }
 
     void removeStatements(List<Statement> statements, String context) {
         registerStatements(statements, context, removed, added);
     }
 
+    /**
+     * Gets statements added in this transaction.
+     * <p>
+     * The returned dataset is a copy, modifying it does not affect this instance.
+     *
+     * @return Dataset of added statements
+     */
     Dataset getAdded() {
-        return added;
+        return toDataset(added);
     }
 
+    /**
+     * Gets statements removed in this transaction.
+     * <p>
+     * The returned dataset is a copy, modifying it does not affect this instance.
+     *
+     * @return Dataset of removed statements
+     */
     Dataset getRemoved() {
-        return removed;
+        return toDataset(removed);
+    }
+
+    private static Dataset toDataset(Map<String, GraphIndex> graphs) {
+        final Dataset dataset = DatasetFactory.create();
+        forEachGraph(graphs, (ctx, statements) -> {
+            if (ctx != null) {
+                dataset.getNamedModel(ctx).add(statements);
+            } else {
+                dataset.getDefaultModel().add(statements);
+            }
+        });
+        return dataset;
+    }
+
+    /**
+     * Passes statements added in this transaction to the specified consumer, graph by graph.
+     * <p>
+     * The default graph is represented by {@code null} context. Empty graphs are skipped.
+     *
+     * @param consumer Consumer of the context and a list of statements added to it
+     */
+    void forEachAdded(BiConsumer<String, List<Statement>> consumer) {
+        forEachGraph(added, consumer);
+    }
+
+    /**
+     * Passes statements removed in this transaction to the specified consumer, graph by graph.
+     * <p>
+     * The default graph is represented by {@code null} context. Empty graphs are skipped.
+     *
+     * @param consumer Consumer of the context and a list of statements removed from it
+     */
+    void forEachRemoved(BiConsumer<String, List<Statement>> consumer) {
+        forEachGraph(removed, consumer);
+    }
+
+    private static void forEachGraph(Map<String, GraphIndex> graphs, BiConsumer<String, List<Statement>> consumer) {
+        graphs.forEach((ctx, graph) -> {
+            if (!graph.isEmpty()) {
+                final List<Statement> statements = new ArrayList<>(graph.size());
+                graph.find(null, null, null, statements::add);
+                consumer.accept(ctx, statements);
+            }
+        });
     }
 
     List<String> getContexts() {
-        final Iterator<String> it = added.listNames();
         final List<String> contexts = new ArrayList<>();
-        it.forEachRemaining(contexts::add);
+        added.forEach((ctx, graph) -> {
+            if (ctx != null && !graph.isEmpty()) {
+                contexts.add(ctx);
+            }
+        });
         return contexts;
     }
+
+    /**
+     * Statements of one graph indexed by subject, predicate and object (SPO, POS and OSP).
+     * <p>
+     * Statements are stored by term equality. Literal objects in patterns are matched by value, as in Jena in-memory
+     * graphs, e.g., {@code "01"^^xsd:integer} matches {@code "1"^^xsd:integer}.
+     */
+    private static final class GraphIndex {
+
+        private final Map<Node, Map<Node, Map<Node, Statement>>> spo = new HashMap<>();
+        private final Map<Node, Map<Node, Map<Node, Statement>>> pos = new HashMap<>();
+        private final Map<Node, Map<Node, Map<Node, Statement>>> osp = new HashMap<>();
+
+        // Literal objects present in the graph by their indexing value
+        private final Map<Object, Set<Node>> literals = new HashMap<>();
+
+        private int size;
+
+        void add(Statement statement) {
+            final Node s = statement.getSubject().asNode();
+            final Node p = statement.getPredicate().asNode();
+            final Node o = statement.getObject().asNode();
+            if (put(spo, s, p, o, statement)) {
+                put(pos, p, o, s, statement);
+                put(osp, o, s, p, statement);
+                if (o.isLiteral()) {
+                    literals.computeIfAbsent(o.getIndexingValue(), k -> new HashSet<>(2)).add(o);
+                }
+                size++;
+            }
+        }
+
+        private static boolean put(Map<Node, Map<Node, Map<Node, Statement>>> index, Node first, Node second,
+                                   Node third, Statement statement) {
+            return index.computeIfAbsent(first, k -> new HashMap<>()).computeIfAbsent(second, k -> new HashMap<>())
+                        .putIfAbsent(third, statement) == null;
+        }
+
+        void remove(Statement statement) {
+            final Node s = statement.getSubject().asNode();
+            final Node p = statement.getPredicate().asNode();
+            final Node o = statement.getObject().asNode();
+            if (remove(spo, s, p, o)) {
+                remove(pos, p, o, s);
+                remove(osp, o, s, p);
+                if (o.isLiteral() && !osp.containsKey(o)) {
+                    final Set<Node> sameValue = literals.get(o.getIndexingValue());
+                    sameValue.remove(o);
+                    if (sameValue.isEmpty()) {
+                        literals.remove(o.getIndexingValue());
+                    }
+                }
+                size--;
+            }
+        }
+
+        private static boolean remove(Map<Node, Map<Node, Map<Node, Statement>>> index, Node first, Node second,
+                                      Node third) {
+            final Map<Node, Map<Node, Statement>> level2 = index.get(first);
+            if (level2 == null) {
+                return false;
+            }
+            final Map<Node, Statement> level3 = level2.get(second);
+            if (level3 == null || level3.remove(third) == null) {
+                return false;
+            }
+            if (level3.isEmpty()) {
+                level2.remove(second);
+                if (level2.isEmpty()) {
+                    index.remove(first);
+                }
+            }
+            return true;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        int size() {
+            return size;
+        }
+
+        boolean contains(Node subject, Node property, Node value) {
+            if (subject != null && property != null && value != null && !value.isLiteral()) {
+                final Map<Node, Map<Node, Statement>> bySubject = spo.get(subject);
+                final Map<Node, Statement> byProperty = bySubject != null ? bySubject.get(property) : null;
+                return byProperty != null && byProperty.containsKey(value);
+            }
+            final boolean[] found = new boolean[1];
+            find(subject, property, value, s -> found[0] = true);
+            return found[0];
+        }
+
+        /**
+         * Passes statements matching the specified pattern to the consumer.
+         * <p>
+         * {@code null} in the pattern matches any node, literal values are matched by value. The index with the most
+         * bound leading positions is used.
+         */
+        void find(Node subject, Node property, Node value, Consumer<Statement> consumer) {
+            if (value != null && value.isLiteral()) {
+                for (Node literal : literals.getOrDefault(value.getIndexingValue(), Collections.emptySet())) {
+                    if (literal.sameValueAs(value)) {
+                        findByTerm(subject, property, literal, consumer);
+                    }
+                }
+            } else {
+                findByTerm(subject, property, value, consumer);
+            }
+        }
+
+        private void findByTerm(Node subject, Node property, Node value, Consumer<Statement> consumer) {
+            if (subject != null) {
+                if (property == null && value != null) {
+                    find(osp, value, subject, null, consumer);
+                } else {
+                    find(spo, subject, property, value, consumer);
+                }
+            } else if (property != null) {
+                find(pos, property, value, null, consumer);
+            } else if (value != null) {
+                find(osp, value, null, null, consumer);
+            } else {
+                spo.values().forEach(m -> m.values().forEach(l -> l.values().forEach(consumer)));
+            }
+        }
+
+        private static void find(Map<Node, Map<Node, Map<Node, Statement>>> index, Node first, Node second,
+                                 Node third, Consumer<Statement> consumer) {
+            final Map<Node, Map<Node, Statement>> level2 = index.get(first);
+            if (level2 == null) {
+                return;
+            }
+            if (second == null) {
+                level2.values().forEach(level3 -> findInLevel3(level3, third, consumer));
+            } else {
+                final Map<Node, Statement> level3 = level2.get(second);
+                if (level3 != null) {
+                    findInLevel3(level3, third, consumer);
+                }
+            }
+        }
+
+        private static void findInLevel3(Map<Node, Statement> level3, Node third, Consumer<Statement> consumer) {
+            if (third == null) {
+                level3.values().forEach(consumer);
+            } else {
+                final Statement statement = level3.get(third);
+                if (statement != null) {
+                    consumer.accept(statement);
+                }
+            }
+        }
+    }
 }
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.InfModel;
+import org.apache.jena.rdf.model.Model;
+import org.apache.jena.rdf.model.ModelFactory;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.reasoner.ReasonerFactory;
+import org.apache.jena.reasoner.ValidityReport;
+
+import java.util.*;
+
+/**
+ * Inference graphs over the central storage shared by all transactions.
+ * <p>
+ * An inference graph is created when a context is first read with inference and then kept up to date by applying
+ * statements added and removed by commits recorded in the {@link CommitLog}, so that the reasoner does not have to
+ * start from scratch for every transaction. Changes which cannot be tracked by the log discard all the graphs, they
+ * are created again on next read.
+ * <p>
+ * Jena inference graphs are not thread-safe, so access to them is synchronized.
+ */
+class SharedInference implements CommitLog.ChangeListener {
+
+    private final AbstractStorageConnector centralConnector;
+
+    private final ReasonerFactory reasonerFactory;
+    private final Map<String, String> reasonerConfig;
+
+    private final Map<String, InfModel> inferredGraphs = new HashMap<>();
+
+    SharedInference(AbstractStorageConnector centralConnector, DriverConfiguration configuration,
+                    Map<String, String> reasonerConfig) {
+        this.centralConnector = centralConnector;
+        this.reasonerFactory = SnapshotStorageWithInference.initReasonerFactory(configuration);
+        this.reasonerConfig = SnapshotStorageWithInference.filterReasonerConfig(reasonerConfig);
+    }
+
+    synchronized List<Statement> find(Resource subject, Property property, RDFNode value,
+                                      Collection<String> contexts) {
+        if (contexts.isEmpty()) {
+            return getGraph(null).listStatements(subject, property, value).toList();
+        }
+        final List<Statement> result = new ArrayList<>();
+        contexts.forEach(ctx -> result.addAll(getGraph(ctx).listStatements(subject, property, value).toList()));
+        return result;
+    }
+
+    synchronized boolean contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
+        if (contexts.isEmpty()) {
+            return getGraph(null).contains(subject, property, value);
+        }
+        return contexts.stream().anyMatch(ctx -> getGraph(ctx).contains(subject, property, value));
+    }
+
+    synchronized ValidityReport checkConsistency(String context) {
+        return getGraph(context).validate();
+    }
+
+    private InfModel getGraph(String context) {
+        return inferredGraphs.computeIfAbsent(context, ctx -> {
+            final Model data = ModelFactory.createDefaultModel();
+            data.add(new ArrayList<>(centralConnector.find(null, null, null,
+                    ctx != null ? Collections.singleton(ctx) : Collections.emptySet())));
+            return ModelFactory
+                    .createInfModel(SnapshotStorageWithInference.createReasoner(reasonerFactory, reasonerConfig),
+                            data);
+        });
+    }
+
+    @Override
+    public synchronized void committed(Dataset added, Dataset removed) {
+        inferredGraphs.forEach((ctx, graph) -> {
+            graph.remove(statements(removed, ctx));
+            graph.add(statements(added, ctx));
+        });
+    }
+
+    private static List<Statement> statements(Dataset dataset, String context) {
+        if (context == null) {
+            return dataset.getDefaultModel().listStatements().toList();
+        }
+        return dataset.containsNamedModel(context) ? dataset.getNamedModel(context).listStatements().toList() :
+               Collections.emptyList();
+    }
+
+    @Override
+    public synchronized void untrackedChangeExecuted() {
+        inferredGraphs.clear();
+    }
+}
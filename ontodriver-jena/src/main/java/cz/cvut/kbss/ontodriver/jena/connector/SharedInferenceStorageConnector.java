@@ -0,0 +1,142 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static cz.cvut.kbss.ontodriver.jena.connector.SnapshotStorageConnectorWithInference.*;
+
+/**
+ * This connector supports inference using {@link SharedInference} graphs maintained over the central storage.
+ * <p>
+ * Asserted statements are read from a {@link CommitLog.Snapshot}, as in {@link VersionedSnapshotStorageConnector}.
+ * Inferred statements are read from the shared inference graphs and overlaid with transactional changes. Statements
+ * inferred from transactional changes thus become available once the transaction commits.
+ * <p>
+ * The shared inference graphs reflect the current state of the central storage. They are used only as long as no
+ * change has been committed to the central storage since the transaction began. Otherwise, and when the transaction
+ * runs a SPARQL query against its transactional snapshot, the transaction gets its own inference graphs over a copy
+ * of the snapshot data, the same way as {@link SnapshotStorageConnectorWithInference}.
+ */
+class SharedInferenceStorageConnector extends VersionedSnapshotStorageConnector implements InferredStorageConnector {
+
+    private final SharedInference inference;
+
+    private final Map<String, String> reasonerConfig;
+
+    SharedInferenceStorageConnector(AbstractStorageConnector centralConnector, CommitLog commitLog,
+                                    SharedInference inference, Map<String, String> reasonerConfig) {
+        super(centralConnector, commitLog);
+        this.inference = inference;
+        this.reasonerConfig = reasonerConfig;
+    }
+
+    @Override
+    SnapshotStorage createTransactionalStorage(SnapshotStorage snapshotData) {
+        final SnapshotStorageWithInference s = new SnapshotStorageWithInference(configuration, reasonerConfig);
+        s.addCentralData(snapshotData.getDataset());
+        return s;
+    }
+
+    @Override
+    public List<Statement> find(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            return findRaw((SnapshotStorageWithInference) storage, subject, property, value, contexts);
+        }
+        return super.find(subject, property, value, contexts);
+    }
+
+    @Override
+    public List<Statement> find(Collection<Resource> subjects, Collection<String> contexts) {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            final List<Statement> result = new ArrayList<>();
+            subjects.forEach(s -> result.addAll(
+                    findRaw((SnapshotStorageWithInference) storage, s, null, null, contexts)));
+            return result;
+        }
+        return super.find(subjects, contexts);
+    }
+
+    @Override
+    public boolean contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            return containsRaw((SnapshotStorageWithInference) storage, subject, property, value, contexts);
+        }
+        return super.contains(subject, property, value, contexts);
+    }
+
+    @Override
+    public List<Statement> findWithInference(Resource subject, Property property, RDFNode value,
+                                             Collection<String> contexts) {
+        ensureTransactionalState();
+        final Optional<List<Statement>> shared =
+                readIfSnapshotCurrent(() -> inference.find(subject, property, value, contexts));
+        if (shared.isPresent()) {
+            return new ArrayList<>(
+                    transactionalChanges.enhanceStatements(shared.get(), subject, property, value, contexts));
+        }
+        ensureMaterialized();
+        return findInferred(storage, subject, property, value, contexts);
+    }
+
+    /**
+     * Creates inference graphs of this transaction once the shared ones no longer correspond to its snapshot.
+     */
+    private void ensureMaterialized() {
+        if (!isMaterialized()) {
+            materialize();
+        }
+    }
+
+    @Override
+    public boolean containsWithInference(Resource subject, Property property, RDFNode value,
+                                         Collection<String> contexts) {
+        ensureTransactionalState();
+        final LocalModel.Containment localStatus = transactionalChanges.contains(subject, property, value, contexts);
+        if (!isMaterialized() && localStatus != LocalModel.Containment.UNKNOWN) {
+            return localStatus == LocalModel.Containment.ADDED;
+        }
+        final Optional<Boolean> shared =
+                readIfSnapshotCurrent(() -> inference.contains(subject, property, value, contexts));
+        if (shared.isPresent()) {
+            return shared.get();
+        }
+        ensureMaterialized();
+        return containsInferred(storage, subject, property, value, contexts);
+    }
+
+    @Override
+    public boolean isConsistent(String context) {
+        ensureTransactionalState();
+        final Optional<Boolean> shared = readIfSnapshotCurrent(() -> inference.checkConsistency(context).isValid());
+        if (shared.isPresent()) {
+            return shared.get();
+        }
+        ensureMaterialized();
+        return ((SnapshotStorageWithInference) storage).checkConsistency(context).isValid();
+    }
+}
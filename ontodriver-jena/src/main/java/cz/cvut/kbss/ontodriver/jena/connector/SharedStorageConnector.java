@@ -24,6 +24,7 @@ import org.apache.jena.query.Dataset;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryExecution;
 import org.apache.jena.query.ReadWrite;
+import org.apache.jena.rdf.model.Model;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
 import org.apache.jena.rdf.model.Resource;
@@ -33,6 +34,7 @@ import org.apache.jena.update.UpdateAction;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -105,6 +107,22 @@ public class SharedStorageConnector extends AbstractStorageConnector {
         });
     }
 
+    @Override
+    public Collection<Statement> find(Collection<Resource> subjects, Collection<String> contexts) {
+        ensureOpen();
+        return Txn.calculateRead(storage.getTransactional(), () -> findStatements(subjects, contexts));
+    }
+
+    List<Statement> findStatements(Collection<Resource> subjects, Collection<String> contexts) {
+        final List<Model> graphs = contexts.isEmpty() ? Collections.singletonList(storage.getDefaultGraph()) :
+                                   contexts.stream().map(storage::getNamedGraph).collect(Collectors.toList());
+        final List<Statement> result = new ArrayList<>();
+        for (Model graph : graphs) {
+            subjects.forEach(subject -> result.addAll(graph.listStatements(subject, null, (RDFNode) null).toList()));
+        }
+        return result;
+    }
+
     @Override
     public boolean contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
         ensureOpen();
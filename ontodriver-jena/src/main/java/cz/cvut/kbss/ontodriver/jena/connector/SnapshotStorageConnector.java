@@ -18,7 +18,6 @@ import cz.cvut.kbss.ontodriver.Statement.StatementOntology;
 import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
 import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
 import cz.cvut.kbss.ontodriver.jena.query.AbstractResultSet;
-import org.apache.jena.query.Dataset;
 import org.apache.jena.query.Query;
 import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.RDFNode;
@@ -39,8 +38,8 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
 
     final AbstractStorageConnector centralConnector;
 
-    private LocalModel transactionalChanges;
-    private List<String> transactionalUpdates;
+    LocalModel transactionalChanges;
+    List<String> transactionalUpdates;
 
     SnapshotStorageConnector(AbstractStorageConnector centralConnector) {
         super(centralConnector.configuration);
@@ -83,17 +82,11 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
     }
 
     private void applyRemovals() {
-        final Dataset removed = transactionalChanges.getRemoved();
-        centralConnector.remove(removed.getDefaultModel().listStatements().toList(), null);
-        removed.listNames()
-               .forEachRemaining(n -> centralConnector.remove(removed.getNamedModel(n).listStatements().toList(), n));
+        transactionalChanges.forEachRemoved((ctx, statements) -> centralConnector.remove(statements, ctx));
     }
 
     private void applyAdditions() {
-        final Dataset added = transactionalChanges.getAdded();
-        centralConnector.add(added.getDefaultModel().listStatements().toList(), null);
-        added.listNames()
-             .forEachRemaining(n -> centralConnector.add(added.getNamedModel(n).listStatements().toList(), n));
+        transactionalChanges.forEachAdded((ctx, statements) -> centralConnector.add(statements, ctx));
     }
 
     private void applyTransactionUpdateQueries() throws JenaDriverException {
@@ -110,7 +103,7 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
         transaction.afterRollback();
     }
 
-    private void cleanup() {
+    void cleanup() {
         this.storage = null;
         this.transactionalChanges = null;
         this.transactionalUpdates = null;
@@ -128,6 +121,12 @@ public class SnapshotStorageConnector extends SharedStorageConnector {
         }
     }
 
+    @Override
+    public List<Statement> find(Collection<Resource> subjects, Collection<String> contexts) {
+        ensureTransactionalState();
+        return findStatements(subjects, contexts);
+    }
+
     @Override
     public boolean contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
         ensureTransactionalState();
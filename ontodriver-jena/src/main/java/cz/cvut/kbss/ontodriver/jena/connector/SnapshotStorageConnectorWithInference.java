@@ -47,14 +47,16 @@ class SnapshotStorageConnectorWithInference extends SnapshotStorageConnector imp
     @Override
     public List<Statement> find(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
         ensureTransactionalState();
+        return findRaw((SnapshotStorageWithInference) storage, subject, property, value, contexts);
+    }
+
+    static List<Statement> findRaw(SnapshotStorageWithInference storage, Resource subject, Property property,
+                                   RDFNode value, Collection<String> contexts) {
         if (contexts.isEmpty()) {
-            return ((SnapshotStorageWithInference) storage).getRawDefaultGraph()
-                                                           .listStatements(subject, property, value).toList();
+            return storage.getRawDefaultGraph().listStatements(subject, property, value).toList();
         } else {
-            return contexts.stream().map(ctx -> ((SnapshotStorageWithInference) storage).getRawNamedGraph(ctx)
-                                                                                        .listStatements(subject,
-                                                                                                property, value)
-                                                                                        .toList())
+            return contexts.stream().map(ctx -> storage.getRawNamedGraph(ctx).listStatements(subject, property, value)
+                                                       .toList())
                            .flatMap(Collection::stream).collect(Collectors.toList());
         }
     }
@@ -62,12 +64,15 @@ class SnapshotStorageConnectorWithInference extends SnapshotStorageConnector imp
     @Override
     public boolean contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
         ensureTransactionalState();
+        return containsRaw((SnapshotStorageWithInference) storage, subject, property, value, contexts);
+    }
+
+    static boolean containsRaw(SnapshotStorageWithInference storage, Resource subject, Property property,
+                               RDFNode value, Collection<String> contexts) {
         if (contexts.isEmpty()) {
-            return ((SnapshotStorageWithInference) storage).getRawDefaultGraph().contains(subject, property, value);
+            return storage.getRawDefaultGraph().contains(subject, property, value);
         } else {
-            return contexts.stream().anyMatch(c -> ((SnapshotStorageWithInference) storage).getRawNamedGraph(c)
-                                                                                           .contains(subject, property,
-                                                                                                   value));
+            return contexts.stream().anyMatch(c -> storage.getRawNamedGraph(c).contains(subject, property, value));
         }
     }
 
@@ -75,6 +80,11 @@ class SnapshotStorageConnectorWithInference extends SnapshotStorageConnector imp
     public List<Statement> findWithInference(Resource subject, Property property, RDFNode value,
                                              Collection<String> contexts) {
         ensureTransactionalState();
+        return findInferred(storage, subject, property, value, contexts);
+    }
+
+    static List<Statement> findInferred(Storage storage, Resource subject, Property property, RDFNode value,
+                                        Collection<String> contexts) {
         if (contexts.isEmpty()) {
             return storage.getDefaultGraph().listStatements(subject, property, value).toList();
         } else {
@@ -88,6 +98,11 @@ class SnapshotStorageConnectorWithInference extends SnapshotStorageConnector imp
     public boolean containsWithInference(Resource subject, Property property, RDFNode value,
                                          Collection<String> contexts) {
         ensureTransactionalState();
+        return containsInferred(storage, subject, property, value, contexts);
+    }
+
+    static boolean containsInferred(Storage storage, Resource subject, Property property, RDFNode value,
+                                    Collection<String> contexts) {
         if (contexts.isEmpty()) {
             return storage.getDefaultGraph().contains(subject, property, value);
         } else {
@@ -62,13 +62,17 @@ class SnapshotStorageWithInference extends SnapshotStorage {
     SnapshotStorageWithInference(DriverConfiguration configuration, Map<String, String> reasonerConfig) {
         super(configuration);
         this.reasonerFactory = initReasonerFactory(configuration);
-        this.reasonerConfig = reasonerConfig.entrySet().stream()
-                                            .filter(e -> SUPPORTED_CONFIG.contains(e.getKey()))
-                                            .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        this.reasonerConfig = filterReasonerConfig(reasonerConfig);
         this.dataset = DatasetFactory.createGeneral();
     }
 
-    private static ReasonerFactory initReasonerFactory(DriverConfiguration configuration) {
+    static Map<String, String> filterReasonerConfig(Map<String, String> reasonerConfig) {
+        return reasonerConfig.entrySet().stream()
+                             .filter(e -> SUPPORTED_CONFIG.contains(e.getKey()))
+                             .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    static ReasonerFactory initReasonerFactory(DriverConfiguration configuration) {
         final String factoryClass = configuration.getProperty(DriverConfigParam.REASONER_FACTORY_CLASS, "");
         LOG.trace("Creating reasoner using reasoner factory class {}.", factoryClass);
         try {
@@ -114,6 +118,10 @@ class SnapshotStorageWithInference extends SnapshotStorage {
     }
 
     private Reasoner createReasoner() {
+        return createReasoner(reasonerFactory, reasonerConfig);
+    }
+
+    static Reasoner createReasoner(ReasonerFactory reasonerFactory, Map<String, String> reasonerConfig) {
         final Reasoner reasoner = reasonerFactory.create(null);
         reasonerConfig.forEach((key, value) -> {
             final Property prop = createProperty(key);
@@ -0,0 +1,59 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import org.apache.jena.query.Dataset;
+
+/**
+ * Creates connectors implementing the
+ * {@link cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties#VERSIONED_SNAPSHOT} transactional strategy.
+ */
+public class VersionedSnapshotConnectorFactory extends SharedConnectorBasedConnectorFactory {
+
+    private final CommitLog commitLog;
+
+    public VersionedSnapshotConnectorFactory(DriverConfiguration configuration) {
+        super(configuration);
+        this.commitLog = new CommitLog(centralConnector);
+    }
+
+    @Override
+    public StorageConnector createConnector() {
+        ensureOpen();
+        return new VersionedSnapshotStorageConnector(centralConnector, commitLog);
+    }
+
+    @Override
+    public synchronized void reloadStorage() {
+        ensureOpen();
+        try {
+            commitLog.executeUntracked(centralConnector::reloadStorage);
+        } catch (JenaDriverException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public void setDataset(Dataset dataset) {
+        ensureOpen();
+        try {
+            commitLog.executeUntracked(() -> centralConnector.setDataset(dataset));
+        } catch (JenaDriverException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
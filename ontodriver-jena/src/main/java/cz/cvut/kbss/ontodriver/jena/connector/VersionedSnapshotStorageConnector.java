@@ -0,0 +1,243 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.Statement.StatementOntology;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import cz.cvut.kbss.ontodriver.jena.query.AbstractResultSet;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.Query;
+import org.apache.jena.rdf.model.Property;
+import org.apache.jena.rdf.model.RDFNode;
+import org.apache.jena.rdf.model.Resource;
+import org.apache.jena.rdf.model.Statement;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * This connector implements the {@link cz.cvut.kbss.ontodriver.jena.config.JenaOntoDriverProperties#VERSIONED_SNAPSHOT}
+ * transactional strategy.
+ * <p>
+ * Instead of copying the central dataset when a transaction begins, the connector opens a {@link CommitLog.Snapshot},
+ * which reads the central storage and reverts changes committed after the transaction began. Transactional changes
+ * are kept in a {@link LocalModel} and overlay the snapshot data.
+ * <p>
+ * A copy of the snapshot data is created only when the transaction executes a SPARQL query or update against the
+ * transactional snapshot. From then on, the connector works the same way as {@link SnapshotStorageConnector}.
+ */
+class VersionedSnapshotStorageConnector extends SnapshotStorageConnector {
+
+    private final CommitLog commitLog;
+
+    private CommitLog.Snapshot snapshot;
+
+    VersionedSnapshotStorageConnector(AbstractStorageConnector centralConnector, CommitLog commitLog) {
+        super(centralConnector);
+        this.commitLog = commitLog;
+    }
+
+    @Override
+    void snapshotCentralDataset() {
+        this.snapshot = commitLog.openSnapshot();
+    }
+
+    boolean isMaterialized() {
+        return snapshot == null;
+    }
+
+    void materialize() {
+        final SnapshotStorage s = createTransactionalStorage(snapshot.materialize());
+        transactionalChanges.forEachRemoved((ctx, statements) -> s.remove(statements, ctx));
+        transactionalChanges.forEachAdded((ctx, statements) -> s.add(statements, ctx));
+        this.storage = s;
+        this.snapshot = null;
+    }
+
+    /**
+     * Executes the specified read of data shared with other transactions, provided the central storage has not changed
+     * since the snapshot of this transaction was opened, so that the data read correspond to the snapshot.
+     *
+     * @param read The read to execute
+     * @param <T>  Result type
+     * @return Result of the read, empty if the central storage has changed or the snapshot has been materialized
+     */
+    <T> Optional<T> readIfSnapshotCurrent(Supplier<T> read) {
+        return isMaterialized() ? Optional.empty() : snapshot.readIfCurrent(read);
+    }
+
+    /**
+     * Creates storage the transaction works with once it needs a copy of the snapshot data.
+     *
+     * @param snapshotData Copy of the snapshot data, without transactional changes
+     * @return Transactional storage
+     */
+    SnapshotStorage createTransactionalStorage(SnapshotStorage snapshotData) {
+        return snapshotData;
+    }
+
+    @Override
+    public void commit() throws JenaDriverException {
+        ensureTransactionalState();
+        transaction.commit();
+        try {
+            commitLog.commit(transactionalChanges, transactionalUpdates);
+        } finally {
+            cleanup();
+            transaction.afterCommit();
+        }
+    }
+
+    @Override
+    void cleanup() {
+        if (snapshot != null) {
+            snapshot.close();
+            this.snapshot = null;
+        }
+        super.cleanup();
+    }
+
+    @Override
+    public List<Statement> find(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            return super.find(subject, property, value, contexts);
+        }
+        return new ArrayList<>(transactionalChanges.enhanceStatements(snapshot.find(subject, property, value, contexts),
+                subject, property, value, contexts));
+    }
+
+    @Override
+    public List<Statement> find(Collection<Resource> subjects, Collection<String> contexts) {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            return super.find(subjects, contexts);
+        }
+        final Map<Resource, List<Statement>> existing = snapshot.find(subjects, contexts).stream().collect(
+                Collectors.groupingBy(Statement::getSubject));
+        final List<Statement> result = new ArrayList<>();
+        for (Resource subject : subjects) {
+            result.addAll(transactionalChanges.enhanceStatements(
+                    existing.getOrDefault(subject, Collections.emptyList()), subject, null, null, contexts));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean contains(Resource subject, Property property, RDFNode value, Collection<String> contexts) {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            return super.contains(subject, property, value, contexts);
+        }
+        final LocalModel.Containment localStatus = transactionalChanges.contains(subject, property, value, contexts);
+        return localStatus == LocalModel.Containment.ADDED ||
+                localStatus == LocalModel.Containment.UNKNOWN && snapshot.contains(subject, property, value, contexts);
+    }
+
+    @Override
+    public List<String> getContexts() {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            return super.getContexts();
+        }
+        final Set<String> contexts = new LinkedHashSet<>(snapshot.getContexts());
+        contexts.addAll(transactionalChanges.getContexts());
+        return new ArrayList<>(contexts);
+    }
+
+    @Override
+    public void add(List<Statement> statements, String context) {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            super.add(statements, context);
+        } else {
+            transactionalChanges.addStatements(statements, context);
+        }
+    }
+
+    @Override
+    public void remove(List<Statement> statements, String context) {
+        ensureTransactionalState();
+        if (isMaterialized()) {
+            super.remove(statements, context);
+        } else {
+            transactionalChanges.removeStatements(statements, context);
+        }
+    }
+
+    @Override
+    public AbstractResultSet executeSelectQuery(Query query, StatementOntology target) throws JenaDriverException {
+        if (target == StatementOntology.TRANSACTIONAL) {
+            ensureTransactionalState();
+            if (!isMaterialized()) {
+                materialize();
+            }
+        }
+        return super.executeSelectQuery(query, target);
+    }
+
+    @Override
+    public AbstractResultSet executeAskQuery(Query query, StatementOntology target) throws JenaDriverException {
+        if (target == StatementOntology.TRANSACTIONAL) {
+            ensureTransactionalState();
+            if (!isMaterialized()) {
+                materialize();
+            }
+        }
+        return super.executeAskQuery(query, target);
+    }
+
+    @Override
+    public void executeUpdate(String query, StatementOntology target) throws JenaDriverException {
+        if (target == StatementOntology.TRANSACTIONAL) {
+            ensureTransactionalState();
+            if (!isMaterialized()) {
+                materialize();
+            }
+            super.executeUpdate(query, target);
+        } else {
+            ensureOpen();
+            commitLog.executeUntracked(() -> centralConnector.executeUpdate(query, target));
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (transaction.isActive()) {
+            rollback();
+        }
+        super.close();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Unwrapping the dataset in a transaction materializes the snapshot, so that the transactional dataset, including
+     * changes made by the transaction, is returned.
+     */
+    @Override
+    public <T> T unwrap(Class<T> cls) {
+        if (!cls.isAssignableFrom(getClass()) && cls.isAssignableFrom(Dataset.class)) {
+            if (!transaction.isActive()) {
+                return centralConnector.unwrap(cls);
+            }
+            if (!isMaterialized()) {
+                materialize();
+            }
+        }
+        return super.unwrap(cls);
+    }
+}
@@ -31,6 +31,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.GregorianCalendar;
 import java.util.List;
@@ -71,6 +72,27 @@ public class AxiomSaverTest {
         assertEquals(ResourceFactory.createResource(type.getIdentifier().toString()), arg.get(0).getObject());
     }
 
+    @Test
+    void saveAxiomsWithMultipleDescriptorsAddsStatementsGroupedByContext() {
+        final AxiomValueDescriptor descOne = new AxiomValueDescriptor(SUBJECT);
+        final Assertion a = Assertion.createClassAssertion(false);
+        final NamedResource type = NamedResource.create(Generator.generateUri());
+        descOne.addAssertionValue(a, new Value<>(type));
+        final AxiomValueDescriptor descTwo = new AxiomValueDescriptor(NamedResource.create(Generator.generateUri()));
+        descTwo.addAssertionValue(a, new Value<>(type));
+        final Assertion dp = Assertion.createDataPropertyAssertion(Generator.generateUri(), false);
+        final String context = Generator.generateUri().toString();
+        descTwo.addAssertionValue(dp, new Value<>(117));
+        descTwo.setAssertionContext(dp, URI.create(context));
+
+        saver.saveAxioms(Arrays.asList(descOne, descTwo));
+        final ArgumentCaptor<List> captor = ArgumentCaptor.forClass(List.class);
+        verify(connectorMock).add(captor.capture(), eq(null));
+        assertEquals(2, captor.getValue().size());
+        verify(connectorMock).add(captor.capture(), eq(context));
+        assertEquals(1, captor.getValue().size());
+    }
+
     @Test
     public void saveAxiomsAddsResourceStatementsForObjectPropertyAssertionAxioms() {
         final AxiomValueDescriptor descriptor = new AxiomValueDescriptor(SUBJECT);
@@ -220,6 +220,29 @@ class JenaAdapterTest {
         assertEquals(ResourceFactory.createResource(newValue.toString()), result.getObject());
     }
 
+    @Test
+    void applyChangesRemovesSpecifiedValuesAndAddsNewOnesWithoutLoadingCurrentValues() {
+        final Assertion assertion = Assertion.createObjectPropertyAssertion(Generator.generateUri(), false);
+        final URI oldValue = Generator.generateUri();
+        final URI newValue = Generator.generateUri();
+        final AxiomValueDescriptor removed = new AxiomValueDescriptor(SUBJECT);
+        removed.addAssertionValue(assertion, new Value<>(NamedResource.create(oldValue)));
+        final AxiomValueDescriptor added = new AxiomValueDescriptor(SUBJECT);
+        added.addAssertionValue(assertion, new Value<>(NamedResource.create(newValue)));
+
+        adapter.applyChanges(removed, added);
+        verify(connectorMock, never()).find(any(), any(), any(), anyCollection());
+        verify(connectorMock).remove(Collections.singletonList(
+                ResourceFactory.createStatement(SUBJECT_RESOURCE, assertionToProperty(assertion),
+                                                ResourceFactory.createResource(oldValue.toString()))), null);
+        final ArgumentCaptor<List<Statement>> captor = ArgumentCaptor.forClass(List.class);
+        verify(connectorMock).add(captor.capture(), eq(null));
+        assertEquals(Collections.singletonList(
+                ResourceFactory.createStatement(SUBJECT_RESOURCE, assertionToProperty(assertion),
+                                                ResourceFactory.createResource(newValue.toString()))),
+                     captor.getValue());
+    }
+
     @Test
     void createStatementReturnsNewJenaStatement() throws Exception {
         final JenaStatement result = adapter.createStatement();
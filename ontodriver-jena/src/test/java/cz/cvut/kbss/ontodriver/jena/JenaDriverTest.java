@@ -99,6 +99,15 @@ public class JenaDriverTest {
         assertTrue(getConnectorFactory() instanceof SnapshotConnectorFactory);
     }
 
+    @Test
+    public void initCreatesVersionedSnapshotConnectorFactoryWhenConfigured() throws Exception {
+        properties.put(JenaOntoDriverProperties.JENA_ISOLATION_STRATEGY, JenaOntoDriverProperties.VERSIONED_SNAPSHOT);
+        this.driver = new JenaDriver(storageProps, properties);
+        assertNotNull(driver);
+        assertTrue(driver.isOpen());
+        assertTrue(getConnectorFactory() instanceof VersionedSnapshotConnectorFactory);
+    }
+
     @Test
     public void initCreatesInferenceConnectorFactoryWhenReasonerFactoryIsConfigured() throws Exception {
         properties.put(OntoDriverProperties.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
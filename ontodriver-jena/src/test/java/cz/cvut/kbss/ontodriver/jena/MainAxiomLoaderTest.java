@@ -29,8 +29,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.net.URI;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Map;
 
 import static org.apache.jena.rdf.model.ResourceFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
@@ -105,6 +107,28 @@ public class MainAxiomLoaderTest {
         assertTrue(result.contains(inferred));
     }
 
+    @Test
+    void findForMultipleDescriptorsRetrievesExplicitStatementsOfAllSubjectsTogether() {
+        final NamedResource subjectTwo = NamedResource.create(Generator.generateUri());
+        final Resource subjectTwoRes = createResource(subjectTwo.getIdentifier().toString());
+        final Assertion assertion = Assertion.createObjectPropertyAssertion(URI.create(PROPERTY.getURI()), false);
+        final AxiomDescriptor descriptorOne = new AxiomDescriptor(SUBJECT);
+        descriptorOne.addAssertion(assertion);
+        final AxiomDescriptor descriptorTwo = new AxiomDescriptor(subjectTwo);
+        descriptorTwo.addAssertion(assertion);
+        when(connectorMock.find(Arrays.asList(SUBJECT_RES, subjectTwoRes), Collections.emptySet()))
+                .thenReturn(Arrays.asList(createStatement(SUBJECT_RES, PROPERTY, OBJECT_RES),
+                        createStatement(subjectTwoRes, PROPERTY, SUBJECT_RES)));
+
+        final Map<NamedResource, Collection<Axiom<?>>> result = sut.find(Arrays.asList(descriptorOne, descriptorTwo));
+        assertEquals(Collections.singletonList(new AxiomImpl<>(SUBJECT, assertion, new Value<>(OBJECT))),
+                result.get(SUBJECT));
+        assertEquals(Collections.singletonList(new AxiomImpl<>(subjectTwo, assertion, new Value<>(SUBJECT))),
+                result.get(subjectTwo));
+        verify(connectorMock).find(anyCollection(), anyCollection());
+        verify(connectorMock, never()).find(any(), any(), any(), anyCollection());
+    }
+
     @Test
     void isInferredChecksWhetherInferredLoaderContainsAndAssertedDoesNotContainSpecifiedAxiom() {
         final URI ctx = Generator.generateUri();
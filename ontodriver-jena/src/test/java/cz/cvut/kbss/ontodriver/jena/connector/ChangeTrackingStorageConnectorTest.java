@@ -29,6 +29,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -107,6 +108,29 @@ public class ChangeTrackingStorageConnectorTest {
         assertTrue(result.contains(added));
     }
 
+    @Test
+    void findForMultipleSubjectsEnhancesResultFromCentralConnectorWithTransactionalChanges() throws Exception {
+        centralConnector.begin();
+        final Statement existing = createStatement(createResource(SUBJECT), createProperty(Vocabulary.RDF_TYPE),
+                createResource(TYPE_ONE));
+        final Statement removed = createStatement(createResource(TYPE_ONE), createProperty(Vocabulary.RDF_TYPE),
+                createResource(TYPE_TWO));
+        centralConnector.add(Arrays.asList(existing, removed), null);
+        centralConnector.commit();
+        connector.begin();
+        final Statement added = createStatement(createResource(TYPE_ONE), createProperty(Vocabulary.RDF_TYPE),
+                createResource(SUBJECT));
+        getLocalModel().addStatements(Collections.singletonList(added), null);
+        getLocalModel().removeStatements(Collections.singletonList(removed), null);
+
+        final Collection<Statement> result = connector
+                .find(Arrays.asList(createResource(SUBJECT), createResource(TYPE_ONE)), Collections.emptySet());
+        assertEquals(2, result.size());
+        assertTrue(result.contains(existing));
+        assertTrue(result.contains(added));
+        verify(centralConnector).find(anyCollection(), anyCollection());
+    }
+
     @Test
     public void findPreventsDuplicateStatementsFromCentralAndLocalModel() throws Exception {
         centralConnector.begin();
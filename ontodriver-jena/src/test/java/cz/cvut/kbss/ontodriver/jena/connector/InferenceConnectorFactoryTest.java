@@ -14,12 +14,16 @@
  */
 package cz.cvut.kbss.ontodriver.jena.connector;
 
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
+import org.apache.jena.reasoner.rulesys.RDFSRuleReasonerFactory;
 import org.junit.jupiter.api.Test;
 
 import java.lang.reflect.Field;
 import java.util.Collections;
 
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class InferenceConnectorFactoryTest extends ConnectorFactoryTestBase {
@@ -44,4 +48,15 @@ public class InferenceConnectorFactoryTest extends ConnectorFactoryTestBase {
         final InferredStorageConnector result = factory.createInferredConnector(connector);
         assertTrue(result instanceof SnapshotStorageConnectorWithInference);
     }
+
+    @Test
+    public void createConnectorCreatesSharedInferenceConnectorWhenSharedInferenceIsConfigured() {
+        final DriverConfiguration configuration = StorageTestUtil.createConfiguration("test:uri");
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
+        configuration.setProperty(JenaConfigParam.SHARED_INFERENCE, Boolean.toString(true));
+        final ConnectorFactory factory = connectorFactory(configuration);
+        final StorageConnector connector = factory.createConnector();
+        assertTrue(connector instanceof SharedInferenceStorageConnector);
+        assertSame(connector, factory.createInferredConnector(connector));
+    }
 }
@@ -15,21 +15,23 @@
 package cz.cvut.kbss.ontodriver.jena.connector;
 
 import cz.cvut.kbss.ontodriver.util.Vocabulary;
+import org.apache.jena.datatypes.xsd.XSDDatatype;
 import org.apache.jena.query.Dataset;
+import org.apache.jena.rdf.model.Literal;
+import org.apache.jena.rdf.model.Property;
 import org.apache.jena.rdf.model.Statement;
 import org.junit.jupiter.api.Test;
 
-import java.util.Collection;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
-import static org.apache.jena.rdf.model.ResourceFactory.createProperty;
-import static org.apache.jena.rdf.model.ResourceFactory.createResource;
+import static org.apache.jena.rdf.model.ResourceFactory.*;
 import static org.junit.jupiter.api.Assertions.*;
 
 public class LocalModelTest {
 
+    private static final Property AGE = createProperty("http://onto.fel.cvut.cz/ontologies/jena-driver/age");
+
     private final LocalModel localModel = new LocalModel(false);
 
     @Test
@@ -243,4 +245,117 @@ public class LocalModelTest {
         assertTrue(model.getRemoved().isEmpty());
         assertTrue(model.getAdded().getDefaultModel().contains(statement));
     }
+
+    @Test
+    public void enhanceStatementsReturnsArgumentWhenThereAreNoMatchingChanges() {
+        localModel.addStatements(Collections.singletonList(statement(TYPE_ONE, Vocabulary.RDF_TYPE, TYPE_TWO)), null);
+        final Collection<Statement> toEnhance = Collections
+                .singletonList(statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_ONE));
+        final Collection<Statement> result = localModel
+                .enhanceStatements(toEnhance, createResource(SUBJECT), null, null, Collections.emptySet());
+        assertSame(toEnhance, result);
+    }
+
+    @Test
+    public void enhanceStatementsMatchesPatternWithObjectOnly() {
+        final Statement added = statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_ONE);
+        localModel.addStatements(Arrays.asList(added, statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_TWO)), null);
+        final Collection<Statement> result = localModel
+                .enhanceStatements(Collections.emptyList(), null, null, createResource(TYPE_ONE),
+                        Collections.emptySet());
+        assertEquals(Collections.singletonList(added), new ArrayList<>(result));
+    }
+
+    @Test
+    public void enhanceStatementsDoesNotDuplicateStatementsAlreadyPresentInArgument() {
+        final Statement added = statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_ONE);
+        localModel.addStatements(Collections.singletonList(added), null);
+        final Collection<Statement> result = localModel
+                .enhanceStatements(Collections.singletonList(statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_ONE)), null,
+                        createProperty(Vocabulary.RDF_TYPE), null, Collections.emptySet());
+        assertEquals(1, result.size());
+        assertTrue(result.contains(added));
+    }
+
+    @Test
+    public void enhanceStatementsAccumulatesChangesFromAllContexts() {
+        final String otherGraph = NAMED_GRAPH + "2";
+        final Statement addedOne = statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_ONE);
+        localModel.addStatements(Collections.singletonList(addedOne), NAMED_GRAPH);
+        final Statement addedTwo = statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_TWO);
+        localModel.addStatements(Collections.singletonList(addedTwo), otherGraph);
+        final Collection<Statement> result = localModel
+                .enhanceStatements(Collections.emptyList(), createResource(SUBJECT), null, null,
+                        Arrays.asList(NAMED_GRAPH, otherGraph));
+        assertEquals(2, result.size());
+        assertTrue(result.containsAll(Arrays.asList(addedOne, addedTwo)));
+    }
+
+    @Test
+    public void addingStatementRemovedInTransactionMarksItAsAddedAgain() {
+        final Statement statement = statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_ONE);
+        localModel.addStatements(Collections.singletonList(statement), NAMED_GRAPH);
+        localModel.removeStatements(Collections.singletonList(statement), NAMED_GRAPH);
+        localModel.addStatements(Collections.singletonList(statement), NAMED_GRAPH);
+        assertEquals(LocalModel.Containment.ADDED, localModel
+                .contains(null, createProperty(Vocabulary.RDF_TYPE), createResource(TYPE_ONE),
+                        Collections.singleton(NAMED_GRAPH)));
+        assertTrue(localModel.getRemoved().isEmpty());
+        assertEquals(Collections.singletonList(NAMED_GRAPH), localModel.getContexts());
+    }
+
+    @Test
+    public void forEachAddedPassesStatementsAddedToEachGraph() {
+        final Statement inDefault = statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_ONE);
+        final Statement inContext = statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_TWO);
+        localModel.addStatements(Collections.singletonList(inDefault), null);
+        localModel.addStatements(Collections.singletonList(inContext), NAMED_GRAPH);
+        final Map<String, List<Statement>> result = new HashMap<>();
+        localModel.forEachAdded(result::put);
+        assertEquals(2, result.size());
+        assertEquals(Collections.singletonList(inDefault), result.get(null));
+        assertEquals(Collections.singletonList(inContext), result.get(NAMED_GRAPH));
+    }
+
+    @Test
+    public void forEachRemovedSkipsGraphsWithoutRemovedStatements() {
+        final Statement statement = statement(SUBJECT, Vocabulary.RDF_TYPE, TYPE_ONE);
+        localModel.removeStatements(Collections.singletonList(statement), NAMED_GRAPH);
+        localModel.addStatements(Collections.singletonList(statement), NAMED_GRAPH);
+        final Map<String, List<Statement>> result = new HashMap<>();
+        localModel.forEachRemoved(result::put);
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    public void containsMatchesLiteralsByValue() {
+        final Literal stored = createTypedLiteral("01", XSDDatatype.XSDinteger);
+        localModel.addStatements(Collections.singletonList(createStatement(RESOURCE, AGE, stored)), null);
+        assertEquals(LocalModel.Containment.ADDED, localModel
+                .contains(RESOURCE, AGE, createTypedLiteral("1", XSDDatatype.XSDinteger), Collections.emptySet()));
+    }
+
+    @Test
+    public void enhanceStatementsMatchesLiteralsByValue() {
+        final Statement added = createStatement(RESOURCE, AGE, createTypedLiteral("01", XSDDatatype.XSDinteger));
+        localModel.addStatements(Collections.singletonList(added), null);
+        final Collection<Statement> result = localModel
+                .enhanceStatements(Collections.emptyList(), RESOURCE, AGE,
+                        createTypedLiteral("1", XSDDatatype.XSDinteger), Collections.emptySet());
+        assertEquals(Collections.singletonList(added), new ArrayList<>(result));
+    }
+
+    @Test
+    public void removeStatementsKeepsMatchingOtherLiteralsWithSameValue() {
+        final Statement one = createStatement(RESOURCE, AGE,
+                createTypedLiteral("01", XSDDatatype.XSDinteger));
+        final Statement two = createStatement(RESOURCE, AGE,
+                createTypedLiteral("1", XSDDatatype.XSDinteger));
+        localModel.addStatements(Arrays.asList(one, two), null);
+        localModel.removeStatements(Collections.singletonList(one), null);
+        final Collection<Statement> result = localModel
+                .enhanceStatements(Collections.emptyList(), RESOURCE, AGE,
+                        one.getObject(), Collections.emptySet());
+        assertEquals(Collections.singletonList(two), new ArrayList<>(result));
+    }
 }
@@ -0,0 +1,215 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.Statement.StatementOntology;
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import cz.cvut.kbss.ontodriver.jena.query.AbstractResultSet;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.reasoner.rulesys.RDFSRuleReasonerFactory;
+import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
+import static org.apache.jena.rdf.model.ResourceFactory.createResource;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class SharedInferenceStorageConnectorTest {
+
+    private SharedStorageConnector centralConnector;
+
+    private CommitLog commitLog;
+
+    private SharedInference inference;
+
+    private SharedInferenceStorageConnector connector;
+
+    @BeforeEach
+    void setUp() {
+        final DriverConfiguration configuration = StorageTestUtil.createConfiguration("test:uri");
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS, RDFSRuleReasonerFactory.class.getName());
+        this.centralConnector = spy(new SharedStorageConnector(configuration));
+        this.commitLog = new CommitLog(centralConnector);
+        this.inference = spy(new SharedInference(centralConnector, configuration, Collections.emptyMap()));
+        commitLog.addChangeListener(inference);
+        this.connector = createConnector();
+    }
+
+    private SharedInferenceStorageConnector createConnector() {
+        return new SharedInferenceStorageConnector(centralConnector, commitLog, inference, Collections.emptyMap());
+    }
+
+    private void generateTestData(String context) throws JenaDriverException {
+        final SharedInferenceStorageConnector other = createConnector();
+        other.begin();
+        other.add(Arrays.asList(statement(TYPE_ONE, RDFS.subClassOf.getURI(), TYPE_TWO),
+                statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), context);
+        other.commit();
+    }
+
+    @Test
+    void findReturnsAssertedStatementsOnly() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        final List<Statement> result = connector.find(createResource(SUBJECT), RDF.type, null, Collections.emptySet());
+        assertEquals(1, result.size());
+        assertEquals(createResource(TYPE_ONE), result.get(0).getObject());
+    }
+
+    @Test
+    void findWithInferenceReturnsStatementsInferredFromCentralStorage() throws Exception {
+        generateTestData(NAMED_GRAPH);
+        connector.begin();
+        final Collection<Statement> result = connector.findWithInference(createResource(SUBJECT), RDF.type, null,
+                Collections.singleton(NAMED_GRAPH));
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(s -> s.getObject().equals(createResource(TYPE_TWO))));
+        assertTrue(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO),
+                Collections.singleton(NAMED_GRAPH)));
+    }
+
+    @Test
+    void findWithInferenceReusesInferenceGraphAcrossTransactions() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        connector.findWithInference(createResource(SUBJECT), RDF.type, null, Collections.emptySet());
+        connector.commit();
+        final SharedInferenceStorageConnector other = createConnector();
+        other.begin();
+        assertTrue(other.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+        // Inference graph is built from the central data only once
+        verify(centralConnector).find(null, null, null, Collections.emptySet());
+    }
+
+    @Test
+    void commitUpdatesSharedInferenceGraph() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        assertTrue(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+        connector.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        connector.commit();
+        final Statement added = statement(SUBJECT + "2", RDF.type.getURI(), TYPE_ONE);
+        final SharedInferenceStorageConnector other = createConnector();
+        other.begin();
+        other.add(Collections.singletonList(added), null);
+        other.commit();
+
+        connector.begin();
+        assertFalse(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+        assertTrue(connector.containsWithInference(added.getSubject(), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+        verify(centralConnector).find(null, null, null, Collections.emptySet());
+    }
+
+    @Test
+    void findWithInferenceOverlaysInferredStatementsWithTransactionalChanges() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        final Statement typeTwo = statement(SUBJECT, RDF.type.getURI(), TYPE_TWO);
+        final Statement added = statement(SUBJECT, RDF.type.getURI(), TYPE_ONE + "Other");
+        connector.add(Collections.singletonList(added), null);
+        connector.remove(Collections.singletonList(typeTwo), null);
+
+        final Collection<Statement> result =
+                connector.findWithInference(createResource(SUBJECT), RDF.type, null, Collections.emptySet());
+        assertTrue(result.contains(added));
+        assertFalse(result.contains(typeTwo));
+        assertFalse(connector.containsWithInference(typeTwo.getSubject(), typeTwo.getPredicate(), typeTwo.getObject(),
+                Collections.emptySet()));
+    }
+
+    @Test
+    void untrackedChangeDiscardsSharedInferenceGraphs() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        assertTrue(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+        connector.executeUpdate("DELETE WHERE { ?x a ?y . }", StatementOntology.CENTRAL);
+        connector.commit();
+
+        connector.begin();
+        assertFalse(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+        verify(centralConnector, times(2)).find(null, null, null, Collections.emptySet());
+    }
+
+    @Test
+    void isConsistentChecksSharedInferenceGraph() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        assertTrue(connector.isConsistent(null));
+        verify(inference).checkConsistency(null);
+    }
+
+    @Test
+    void findWithInferenceDoesNotReturnStatementsInferredFromChangesCommittedAfterBegin() throws Exception {
+        connector.begin();
+        generateTestData(null);
+
+        assertTrue(connector.findWithInference(createResource(SUBJECT), RDF.type, null, Collections.emptySet())
+                            .isEmpty());
+        assertFalse(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+        verify(inference, never()).find(any(), any(), any(), any());
+    }
+
+    @Test
+    void containsWithInferenceReturnsStatementsInferredFromDataRemovedByCommitAfterBegin() throws Exception {
+        generateTestData(null);
+        connector.begin();
+        final SharedInferenceStorageConnector other = createConnector();
+        other.begin();
+        other.remove(Collections.singletonList(statement(SUBJECT, RDF.type.getURI(), TYPE_ONE)), null);
+        other.commit();
+
+        assertTrue(connector.containsWithInference(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+        assertTrue(connector.isConsistent(null));
+        verify(inference, never()).checkConsistency(any());
+    }
+
+    @Test
+    void executeSelectQueryOnTransactionalSnapshotUsesTransactionalInference() throws OntoDriverException {
+        generateTestData(null);
+        connector.begin();
+        connector.add(Collections.singletonList(statement(SUBJECT + "2", RDF.type.getURI(), TYPE_ONE)), null);
+        final String query = "ASK { <" + SUBJECT + "2> a <" + TYPE_TWO + "> . }";
+        try (final AbstractResultSet resultSet = connector.executeAskQuery(QueryFactory.create(query),
+                StatementOntology.TRANSACTIONAL)) {
+            assertTrue(resultSet.hasNext());
+            resultSet.next();
+            assertTrue(resultSet.getBoolean(0));
+        }
+        assertTrue(connector.getStorage() instanceof SnapshotStorageWithInference);
+        assertEquals(1, connector.find(createResource(SUBJECT), RDF.type, null, Collections.emptySet()).size());
+        assertTrue(connector.containsWithInference(createResource(SUBJECT + "2"), RDF.type, createResource(TYPE_TWO),
+                Collections.emptySet()));
+    }
+}
@@ -24,9 +24,11 @@ import org.apache.jena.graph.Graph;
 import org.apache.jena.query.Dataset;
 import org.apache.jena.query.Query;
 import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Resource;
 import org.apache.jena.rdf.model.ResourceFactory;
 import org.apache.jena.rdf.model.Statement;
 import org.apache.jena.vocabulary.RDF;
+import org.apache.jena.vocabulary.RDFS;
 import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
@@ -89,6 +91,24 @@ public class SharedStorageConnectorTest {
         assertTrue(result.isEmpty());
     }
 
+    @Test
+    void findForMultipleSubjectsReturnsStatementsOfAllSubjectsFromTargetContext() {
+        final SharedStorageConnector connector = initConnector();
+        final Dataset ds = connector.storage.getDataset();
+        generateTestData(ds);
+        final Resource typeOne = createResource(TYPE_ONE);
+
+        final Collection<Statement> result =
+                connector.find(Arrays.asList(RESOURCE, typeOne), Collections.emptySet());
+        assertEquals(2, result.size());
+        assertTrue(result.contains(createStatement(RESOURCE, RDF.type, typeOne)));
+        assertTrue(result.contains(createStatement(typeOne, RDFS.subClassOf, createResource(TYPE_TWO))));
+        final Collection<Statement> inContext =
+                connector.find(Arrays.asList(RESOURCE, typeOne), Collections.singleton(NAMED_GRAPH));
+        assertEquals(Collections.singletonList(createStatement(RESOURCE, RDF.type, createResource(TYPE_TWO))),
+                inContext);
+    }
+
     @Test
     public void containsChecksForStatementExistenceInDefaultGraph() {
         final SharedStorageConnector connector = initConnector();
@@ -0,0 +1,48 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class VersionedSnapshotConnectorFactoryTest extends ConnectorFactoryTestBase {
+
+    @Override
+    ConnectorFactory connectorFactory(DriverConfiguration configuration) {
+        return new VersionedSnapshotConnectorFactory(configuration);
+    }
+
+    @Override
+    SharedStorageConnector getCentralConnector(ConnectorFactory factory) throws Exception {
+        final Field connectorField = SharedConnectorBasedConnectorFactory.class.getDeclaredField("centralConnector");
+        connectorField.setAccessible(true);
+        return (SharedStorageConnector) connectorField.get(factory);
+    }
+
+    @Test
+    public void createConnectorCreatesNewVersionedSnapshotStorageConnector() throws Exception {
+        final DriverConfiguration configuration = StorageTestUtil.createConfiguration("test:uri");
+        final ConnectorFactory factory = connectorFactory(configuration);
+        final StorageConnector connector = factory.createConnector();
+        assertTrue(connector instanceof VersionedSnapshotStorageConnector);
+        assertNotNull(getCentralConnector(factory));
+        assertTrue(getCentralConnector(factory).isOpen());
+    }
+}
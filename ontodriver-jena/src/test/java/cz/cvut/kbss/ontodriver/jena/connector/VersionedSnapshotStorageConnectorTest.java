@@ -0,0 +1,301 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.jena.connector;
+
+import cz.cvut.kbss.ontodriver.Statement.StatementOntology;
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.jena.config.JenaConfigParam;
+import cz.cvut.kbss.ontodriver.jena.environment.Generator;
+import cz.cvut.kbss.ontodriver.jena.exception.JenaDriverException;
+import cz.cvut.kbss.ontodriver.jena.query.AbstractResultSet;
+import org.apache.jena.query.Dataset;
+import org.apache.jena.query.QueryFactory;
+import org.apache.jena.rdf.model.Statement;
+import org.apache.jena.vocabulary.RDF;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import static cz.cvut.kbss.ontodriver.jena.connector.StorageTestUtil.*;
+import static org.apache.jena.rdf.model.ResourceFactory.createResource;
+import static org.apache.jena.rdf.model.ResourceFactory.createStatement;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VersionedSnapshotStorageConnectorTest {
+
+    private static final Statement STATEMENT =
+            createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_ONE));
+
+    private DriverConfiguration configuration;
+
+    private SharedStorageConnector centralConnector;
+
+    private CommitLog commitLog;
+
+    private VersionedSnapshotStorageConnector connector;
+
+    @BeforeEach
+    void setUp() {
+        this.configuration = StorageTestUtil.createConfiguration("test:uri");
+        initConnectors();
+    }
+
+    private void initConnectors() {
+        this.centralConnector = spy(new SharedStorageConnector(configuration));
+        this.commitLog = new CommitLog(centralConnector);
+        this.connector = new VersionedSnapshotStorageConnector(centralConnector, commitLog);
+    }
+
+    private void commitInOtherTransaction(List<Statement> added, List<Statement> removed, String context)
+            throws JenaDriverException {
+        final VersionedSnapshotStorageConnector other = new VersionedSnapshotStorageConnector(centralConnector,
+                commitLog);
+        other.begin();
+        other.remove(removed, context);
+        other.add(added, context);
+        other.commit();
+    }
+
+    @Test
+    void beginDoesNotCopyCentralDataset() throws JenaDriverException {
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        connector.begin();
+        verify(centralConnector, never()).getStorage();
+        assertTrue(connector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+    }
+
+    @Test
+    void findDoesNotReturnStatementsAddedByTransactionCommittedAfterBegin() throws JenaDriverException {
+        connector.begin();
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+
+        assertTrue(connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet()).isEmpty());
+        assertFalse(connector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+        assertTrue(centralConnector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+    }
+
+    @Test
+    void findReturnsStatementsRemovedByTransactionCommittedAfterBegin() throws JenaDriverException {
+        final String context = Generator.generateUri().toString();
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), context);
+        connector.begin();
+        commitInOtherTransaction(Collections.emptyList(), Collections.singletonList(STATEMENT), context);
+
+        final Collection<Statement> result =
+                connector.find(STATEMENT.getSubject(), null, null, Collections.singleton(context));
+        assertEquals(Collections.singletonList(STATEMENT), result);
+        assertTrue(connector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.singleton(context)));
+        assertEquals(Collections.singletonList(STATEMENT),
+                connector.find(Collections.singleton(STATEMENT.getSubject()), Collections.singleton(context)));
+        assertThat(connector.getContexts(), hasItem(context));
+    }
+
+    @Test
+    void findRevertsStatementRemovedAndAddedAgainByTransactionsCommittedAfterBegin() throws JenaDriverException {
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        connector.begin();
+        commitInOtherTransaction(Collections.emptyList(), Collections.singletonList(STATEMENT), null);
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        final Statement other = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        commitInOtherTransaction(Collections.singletonList(other), Collections.singletonList(STATEMENT), null);
+
+        assertEquals(Collections.singletonList(STATEMENT),
+                connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet()));
+    }
+
+    @Test
+    void findCombinesSnapshotDataWithTransactionalChanges() throws JenaDriverException {
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        connector.begin();
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        connector.add(Collections.singletonList(added), null);
+        connector.remove(Collections.singletonList(STATEMENT), null);
+
+        final Collection<Statement> result = connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet());
+        assertEquals(Collections.singletonList(added), result);
+        assertTrue(centralConnector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+    }
+
+    @Test
+    void getContextsDoesNotReturnContextCreatedByTransactionCommittedAfterBegin() throws JenaDriverException {
+        final String context = Generator.generateUri().toString();
+        connector.begin();
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), context);
+
+        assertThat(connector.getContexts(), not(hasItem(context)));
+        assertThat(centralConnector.getContexts(), hasItem(context));
+    }
+
+    @Test
+    void findInDefaultGraphTreatedAsUnionReturnsStatementRemovedFromNamedGraphAfterBegin() throws Exception {
+        configuration.setProperty(JenaConfigParam.TREAT_DEFAULT_GRAPH_AS_UNION, Boolean.toString(true));
+        initConnectors();
+        final String context = Generator.generateUri().toString();
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), context);
+        connector.begin();
+        commitInOtherTransaction(Collections.emptyList(), Collections.singletonList(STATEMENT), null);
+
+        assertFalse(centralConnector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.singleton(context)));
+        assertEquals(Collections.singletonList(STATEMENT),
+                connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet()));
+        assertEquals(Collections.singletonList(STATEMENT),
+                connector.find(STATEMENT.getSubject(), null, null, Collections.singleton(context)));
+    }
+
+    @Test
+    void commitAppliesTransactionalChangesToCentralConnector() throws JenaDriverException {
+        connector.begin();
+        connector.add(Collections.singletonList(STATEMENT), null);
+        assertFalse(centralConnector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+        connector.commit();
+        assertTrue(centralConnector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+        assertFalse(connector.transaction.isActive());
+    }
+
+    @Test
+    void commitLogDiscardsCommitsWhenNoSnapshotNeedsThem() throws JenaDriverException {
+        connector.begin();
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        assertEquals(1, commitLog.getCommitCount());
+        connector.rollback();
+        assertEquals(0, commitLog.getCommitCount());
+        commitInOtherTransaction(Collections.emptyList(), Collections.singletonList(STATEMENT), null);
+        assertEquals(0, commitLog.getCommitCount());
+    }
+
+    @Test
+    void closeReleasesSnapshotOfActiveTransaction() throws JenaDriverException {
+        connector.begin();
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        connector.close();
+        assertFalse(connector.isOpen());
+        assertEquals(0, commitLog.getCommitCount());
+    }
+
+    @Test
+    void executeSelectQueryOnTransactionalSnapshotCopiesSnapshotDataWithTransactionalChanges() throws
+                                                                                                OntoDriverException {
+        connector.begin();
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        connector.add(Collections.singletonList(added), null);
+
+        try (final AbstractResultSet resultSet = connector.executeSelectQuery(
+                QueryFactory.create("SELECT ?type WHERE { ?x a ?type . }"), StatementOntology.TRANSACTIONAL)) {
+            assertTrue(resultSet.hasNext());
+            resultSet.next();
+            assertEquals(TYPE_TWO, resultSet.getString(0));
+            assertFalse(resultSet.hasNext());
+        }
+        assertTrue(connector.getStorage() instanceof SnapshotStorage);
+        assertEquals(Collections.singletonList(added),
+                connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet()));
+        connector.commit();
+        assertTrue(centralConnector.contains(added.getSubject(), added.getPredicate(), added.getObject(),
+                Collections.emptySet()));
+    }
+
+    @Test
+    void executeUpdateOnCentralDetachesOpenSnapshots() throws OntoDriverException {
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        connector.begin();
+        final VersionedSnapshotStorageConnector other = new VersionedSnapshotStorageConnector(centralConnector,
+                commitLog);
+        other.executeUpdate("DELETE WHERE { ?x ?y ?z . }", StatementOntology.CENTRAL);
+
+        assertFalse(centralConnector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+        assertEquals(Collections.singletonList(STATEMENT),
+                connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet()));
+        assertTrue(connector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+    }
+
+    @Test
+    void commitExecutesTransactionalUpdatesOnCentral() throws OntoDriverException {
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        connector.begin();
+        final String update = "DELETE WHERE { ?x ?y ?z . }";
+        connector.executeUpdate(update, StatementOntology.TRANSACTIONAL);
+        assertTrue(connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet()).isEmpty());
+        connector.commit();
+        verify(centralConnector).executeUpdate(update, StatementOntology.CENTRAL);
+        assertFalse(centralConnector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+    }
+
+    @Test
+    void commitLogKeepsCommitBeingWrittenForSnapshotOpenedWhileNoOtherSnapshotIsOpen() throws Exception {
+        final VersionedSnapshotStorageConnector reader = new VersionedSnapshotStorageConnector(centralConnector,
+                commitLog);
+        reader.begin();
+        final VersionedSnapshotStorageConnector writer = new VersionedSnapshotStorageConnector(centralConnector,
+                commitLog);
+        writer.begin();
+        writer.add(Collections.singletonList(STATEMENT), null);
+        // Materializing releases the snapshot of the writer
+        writer.unwrap(Dataset.class);
+        doAnswer(inv -> {
+            // Closing the last open snapshot prunes the log while the commit is being written
+            reader.rollback();
+            connector.begin();
+            return inv.callRealMethod();
+        }).when(centralConnector).commit();
+        writer.commit();
+
+        assertTrue(centralConnector.contains(STATEMENT.getSubject(), STATEMENT.getPredicate(), STATEMENT.getObject(),
+                Collections.emptySet()));
+        assertTrue(connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet()).isEmpty());
+        assertEquals(1, commitLog.getCommitCount());
+    }
+
+    @Test
+    void unwrapDatasetInTransactionReturnsTransactionalDatasetWithTransactionalChanges() throws JenaDriverException {
+        connector.begin();
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+        final Statement added = createStatement(createResource(SUBJECT), RDF.type, createResource(TYPE_TWO));
+        connector.add(Collections.singletonList(added), null);
+
+        final Dataset result = connector.unwrap(Dataset.class);
+        assertTrue(result.getDefaultModel().contains(added));
+        assertFalse(result.getDefaultModel().contains(STATEMENT));
+        assertFalse(connector.find(STATEMENT.getSubject(), null, null, Collections.emptySet()).contains(STATEMENT));
+        assertFalse(centralConnector.contains(added.getSubject(), added.getPredicate(), added.getObject(),
+                Collections.emptySet()));
+    }
+
+    @Test
+    void unwrapDatasetOutsideOfTransactionReturnsCentralDataset() throws JenaDriverException {
+        commitInOtherTransaction(Collections.singletonList(STATEMENT), Collections.emptyList(), null);
+
+        assertSame(centralConnector.unwrap(Dataset.class), connector.unwrap(Dataset.class));
+    }
+}
@@ -37,6 +37,9 @@ class MainAxiomLoader {
     private final Set<Assertion> inferredAssertions = new HashSet<>();
     private final Set<Assertion> explicitAssertions = new HashSet<>();
 
+    private AxiomLoader explicitLoader;
+    private AxiomLoader inferredLoader;
+
     MainAxiomLoader(OwlapiAdapter adapter, OntologySnapshot snapshot) {
         this.adapter = adapter;
         this.snapshot = snapshot;
@@ -55,6 +58,28 @@ class MainAxiomLoader {
         return result;
     }
 
+    /**
+     * Finds axioms corresponding to the specified descriptors.
+     * <p>
+     * All the descriptors are processed against the same ontology snapshot, reusing the axiom loaders.
+     *
+     * @param descriptors Descriptors of axioms to load
+     * @return Matching axioms grouped by subject
+     */
+    Map<NamedResource, Collection<Axiom<?>>> findAxioms(Collection<AxiomDescriptor> descriptors) {
+        final Map<NamedResource, Collection<Axiom<?>>> result = new HashMap<>(descriptors.size());
+        for (AxiomDescriptor descriptor : descriptors) {
+            inferredAssertionUris.clear();
+            inferredAssertions.clear();
+            explicitAssertions.clear();
+            final Collection<Axiom<?>> axioms = findAxioms(descriptor);
+            if (!axioms.isEmpty()) {
+                result.computeIfAbsent(descriptor.getSubject(), k -> new ArrayList<>()).addAll(axioms);
+            }
+        }
+        return result;
+    }
+
     private void resolveInferredAssertions(AxiomDescriptor descriptor) {
         descriptor.getAssertions().forEach(assertion -> {
             if (assertion.isInferred()) {
@@ -70,15 +95,20 @@ class MainAxiomLoader {
         if (inferredAssertions.isEmpty()) {
             return Collections.emptySet();
         }
-        return new InferredAxiomLoader(adapter, snapshot).loadAxioms(subject, inferredAssertions);
+        if (inferredLoader == null) {
+            this.inferredLoader = new InferredAxiomLoader(adapter, snapshot);
+        }
+        return inferredLoader.loadAxioms(subject, inferredAssertions);
     }
 
     private Collection<Axiom<?>> loadExplicitValues(NamedResource subject) {
         if (explicitAssertions.isEmpty()) {
             return Collections.emptySet();
         }
-        final Collection<Axiom<?>> values = new ExplicitAxiomLoader(adapter, snapshot)
-                .loadAxioms(subject, explicitAssertions);
+        if (explicitLoader == null) {
+            this.explicitLoader = new ExplicitAxiomLoader(adapter, snapshot);
+        }
+        final Collection<Axiom<?>> values = explicitLoader.loadAxioms(subject, explicitAssertions);
         return values.stream().filter(axiom -> !inferredAssertionUris.contains(axiom.getAssertion().getIdentifier()))
                      .collect(Collectors.toList());
     }
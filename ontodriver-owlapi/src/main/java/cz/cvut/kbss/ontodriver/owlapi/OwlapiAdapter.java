@@ -16,6 +16,7 @@ package cz.cvut.kbss.ontodriver.owlapi;
 
 import cz.cvut.kbss.ontodriver.descriptor.*;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.owlapi.connector.Connector;
 import cz.cvut.kbss.ontodriver.owlapi.connector.OntologySnapshot;
 import cz.cvut.kbss.ontodriver.owlapi.exception.OwlapiDriverException;
@@ -167,6 +168,11 @@ public class OwlapiAdapter {
         return new MainAxiomLoader(this, ontologySnapshot).findAxioms(descriptor);
     }
 
+    Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> descriptors) {
+        startTransactionIfNotActive();
+        return new MainAxiomLoader(this, ontologySnapshot).findAxioms(descriptors);
+    }
+
     void persist(AxiomValueDescriptor descriptor) {
         startTransactionIfNotActive();
         new AxiomSaver(this, ontologySnapshot).persist(descriptor);
@@ -227,6 +233,8 @@ public class OwlapiAdapter {
         if (cls.isAssignableFrom(this.getClass())) {
             return cls.cast(this);
         } else if (cls.isAssignableFrom(OWLOntology.class)) {
+            // The ontology may be modified directly by the client
+            ontologySnapshot.markModified();
             return cls.cast(ontology());
         } else if (cls.isAssignableFrom(OWLReasoner.class)) {
             return cls.cast(reasoner());
@@ -36,6 +36,15 @@ public abstract class OwlapiOntoDriverProperties {
      */
     public static final String WRITE_ON_COMMIT = "cz.cvut.kbss.ontodriver.owlapi.writeOnCommit";
 
+    /**
+     * When set to true, the reasoner of a transactional ontology kept for reuse by the next transaction is kept as
+     * well.
+     * <p>
+     * The reasoner then receives committed changes incrementally instead of being created anew for each transaction,
+     * which pays off mainly with reasoners supporting incremental reasoning. Defaults to false.
+     */
+    public static final String REUSE_REASONER = "cz.cvut.kbss.ontodriver.owlapi.reuseReasoner";
+
     /**
      * Default IRI mapping delimiter.
      *
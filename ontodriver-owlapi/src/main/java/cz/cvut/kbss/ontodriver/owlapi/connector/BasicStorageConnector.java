@@ -17,6 +17,7 @@ import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiConfigParam;
+import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiOntoDriverProperties;
 import cz.cvut.kbss.ontodriver.owlapi.exception.*;
 import cz.cvut.kbss.ontodriver.owlapi.util.DefaultOntologyIriMapper;
 import cz.cvut.kbss.ontodriver.owlapi.util.MappingFileParser;
@@ -30,7 +31,10 @@ import org.slf4j.LoggerFactory;
 
 import java.io.FileNotFoundException;
 import java.net.URI;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -44,6 +48,13 @@ import java.util.stream.Collectors;
  * Each call to {@link #getOntologySnapshot()} returns a new snapshot of the current state of the ontology. The changes
  * are the applied to a shared ontology, which represents the current state of the underlying storage.
  * <p>
+ * Copying the whole ontology for each snapshot is expensive, so the ontology of a closed snapshot is kept and reused by
+ * the next snapshot, provided it still corresponds to the shared ontology. Changes committed into the shared ontology
+ * are applied to the kept snapshot ontology as well. The ontology of a committed snapshot already contains the
+ * committed changes, so it can be reused if no other changes have been committed in the meantime. Snapshot reasoners
+ * are created only when they are first used. If {@link OwlapiOntoDriverProperties#REUSE_REASONER} is enabled, the
+ * reasoner is kept together with the ontology, so that it processes the committed changes incrementally.
+ * <p>
  * Note: This connector currently does not handle concurrent updates.
  */
 public class BasicStorageConnector extends AbstractConnector {
@@ -61,6 +72,18 @@ public class BasicStorageConnector extends AbstractConnector {
 
     private OWLOntologyIRIMapper iriMapper;
 
+    /**
+     * Version of the shared ontology, incremented whenever it changes.
+     */
+    private long version;
+    private final Map<OWLOntology, SnapshotRecord> openSnapshots = new IdentityHashMap<>();
+    /**
+     * Ontology of a closed snapshot kept for reuse, it is always in sync with the shared ontology.
+     */
+    private OWLOntology idleSnapshotOntology;
+    private OWLReasoner idleSnapshotReasoner;
+    private boolean reuseReasoner;
+
     BasicStorageConnector(DriverConfiguration configuration) throws OwlapiDriverException {
         super(configuration);
     }
@@ -79,6 +102,7 @@ public class BasicStorageConnector extends AbstractConnector {
         loadOntology(storageProperties);
         initializeReasonerFactory();
         this.reasoner = getReasoner(ontology);
+        this.reuseReasoner = configuration.is(OwlapiConfigParam.REUSE_REASONER);
     }
 
     private void resolveIriMapper() {
@@ -155,10 +179,12 @@ public class BasicStorageConnector extends AbstractConnector {
         ensureOpen();
         READ.lock();
         try {
-            final OWLOntology snapshot = ontologyManager.createOntology();
-            cloneOntologyContent(snapshot);
-            return new OntologySnapshot(snapshot, ontologyManager, ontologyManager.getOWLDataFactory(),
-                                        getReasoner(snapshot));
+            final OntologySnapshot snapshot = createSnapshot();
+            final OWLOntology target = snapshot.getOntology();
+            synchronized (openSnapshots) {
+                openSnapshots.put(target, new SnapshotRecord(snapshot, version));
+            }
+            return snapshot;
         } catch (OWLOntologyCreationException e) {
             throw new OntologySnapshotException("Unable to create ontology snapshot.", e);
         } finally {
@@ -166,6 +192,32 @@ public class BasicStorageConnector extends AbstractConnector {
         }
     }
 
+    private OntologySnapshot createSnapshot() throws OWLOntologyCreationException {
+        final OWLOntology idleOntology;
+        final OWLReasoner idleReasoner;
+        synchronized (openSnapshots) {
+            idleOntology = idleSnapshotOntology;
+            idleReasoner = idleSnapshotReasoner;
+            this.idleSnapshotOntology = null;
+            this.idleSnapshotReasoner = null;
+        }
+        if (idleReasoner != null) {
+            // Let the reasoner process changes committed since it was last used
+            idleReasoner.flush();
+            return new OntologySnapshot(idleOntology, ontologyManager, ontologyManager.getOWLDataFactory(),
+                                        idleReasoner);
+        }
+        final OWLOntology target;
+        if (idleOntology != null) {
+            target = idleOntology;
+        } else {
+            target = ontologyManager.createOntology();
+            cloneOntologyContent(target);
+        }
+        return OntologySnapshot.withLazyReasoner(target, ontologyManager, ontologyManager.getOWLDataFactory(),
+                                                 () -> getReasoner(target));
+    }
+
     private void cloneOntologyContent(OWLOntology target) {
         ontologyManager.addAxioms(target, ontology.axioms());
         ontologyManager.applyChanges(
@@ -194,6 +246,7 @@ public class BasicStorageConnector extends AbstractConnector {
         WRITE.lock();
         try {
             function.accept(getLiveOntology());
+            sharedOntologyChanged(Collections.emptyList(), false);
         } finally {
             WRITE.unlock();
         }
@@ -213,9 +266,12 @@ public class BasicStorageConnector extends AbstractConnector {
         assert changes != null;
         WRITE.lock();
         try {
+            final OWLOntology source = resolveSourceOntology(changes);
             changes.stream().filter(ch -> ch instanceof MutableAxiomChange)
                    .forEach(ch -> ((MutableAxiomChange) ch).setOntology(ontology));
             ontologyManager.applyChanges(changes);
+            sharedOntologyChanged(changes, true);
+            markCommitted(source, changes.size());
             try {
                 writeToFile();
             } catch (OntologyStorageException e) {
@@ -226,17 +282,101 @@ public class BasicStorageConnector extends AbstractConnector {
         }
     }
 
+    /**
+     * Resolves the snapshot ontology all the specified changes have been applied to.
+     *
+     * @return Snapshot ontology, {@code null} if the changes do not come from a single snapshot
+     */
+    private OWLOntology resolveSourceOntology(List<OWLOntologyChange> changes) {
+        if (changes.isEmpty() || !changes.stream().allMatch(ch -> ch instanceof MutableAxiomChange)) {
+            return null;
+        }
+        final OWLOntology source = ((MutableAxiomChange) changes.get(0)).getOntology();
+        return changes.stream().allMatch(ch -> ((MutableAxiomChange) ch).getOntology() == source) ? source : null;
+    }
+
+    /**
+     * Updates snapshot bookkeeping after the shared ontology has changed.
+     *
+     * @param changes       The applied changes
+     * @param axiomsChanged Whether the changes describe the whole modification of the shared ontology
+     */
+    private void sharedOntologyChanged(List<OWLOntologyChange> changes, boolean axiomsChanged) {
+        synchronized (openSnapshots) {
+            version++;
+            if (idleSnapshotOntology == null) {
+                return;
+            }
+            if (axiomsChanged && changes.stream().allMatch(OWLOntologyChange::isAxiomChange)) {
+                final OWLOntology target = idleSnapshotOntology;
+                ontologyManager.applyChanges(changes.stream().map(ch -> ch.isAddAxiom() ?
+                                                                        new AddAxiom(target, ch.getAxiom()) :
+                                                                        new RemoveAxiom(target, ch.getAxiom()))
+                                                    .collect(Collectors.toList()));
+            } else {
+                discardIdleSnapshot();
+            }
+        }
+    }
+
+    private void discardIdleSnapshot() {
+        if (idleSnapshotReasoner != null) {
+            idleSnapshotReasoner.dispose();
+            this.idleSnapshotReasoner = null;
+        }
+        if (idleSnapshotOntology != null) {
+            ontologyManager.removeOntology(idleSnapshotOntology);
+            this.idleSnapshotOntology = null;
+        }
+    }
+
+    /**
+     * Marks the snapshot whose changes have been just committed as corresponding to the shared ontology, provided no
+     * other changes have been committed since the snapshot was created.
+     */
+    private void markCommitted(OWLOntology source, int changeCount) {
+        if (source == null) {
+            return;
+        }
+        synchronized (openSnapshots) {
+            final SnapshotRecord record = openSnapshots.get(source);
+            if (record != null && record.version == version - 1 &&
+                    record.snapshot.getChangeCount() == changeCount) {
+                record.version = version;
+                record.committedChangeCount = changeCount;
+            }
+        }
+    }
+
     @Override
     public void closeSnapshot(OntologySnapshot snapshot) {
         ensureOpen();
         assert snapshot != null;
-        ontologyManager.removeOntology(snapshot.getOntology());
+        final OWLOntology snapshotOntology = snapshot.getOntology();
+        synchronized (openSnapshots) {
+            final SnapshotRecord record = openSnapshots.remove(snapshotOntology);
+            if (record != null && idleSnapshotOntology == null && record.isInSync(version)) {
+                this.idleSnapshotOntology = snapshotOntology;
+                if (reuseReasoner) {
+                    this.idleSnapshotReasoner = snapshot.releaseReasoner();
+                } else {
+                    snapshot.disposeReasoner();
+                }
+                return;
+            }
+        }
+        snapshot.disposeReasoner();
+        ontologyManager.removeOntology(snapshotOntology);
     }
 
     @Override
     void reloadData() throws OwlapiDriverException {
         WRITE.lock();
         try {
+            synchronized (openSnapshots) {
+                version++;
+                discardIdleSnapshot();
+            }
             ontologyManager.clearOntologies();
             loadOntology(configuration.getStorageProperties());
             this.reasoner = getReasoner(ontology);
@@ -267,4 +407,22 @@ public class BasicStorageConnector extends AbstractConnector {
                     "Error when saving ontology to " + configuration.getStorageProperties().getPhysicalURI(), e);
         }
     }
+
+    private static final class SnapshotRecord {
+        private final OntologySnapshot snapshot;
+        /**
+         * Version of the shared ontology the snapshot ontology corresponds to.
+         */
+        private long version;
+        private int committedChangeCount;
+
+        private SnapshotRecord(OntologySnapshot snapshot, long version) {
+            this.snapshot = snapshot;
+            this.version = version;
+        }
+
+        private boolean isInSync(long currentVersion) {
+            return version == currentVersion && snapshot.getChangeCount() == committedChangeCount;
+        }
+    }
 }
@@ -23,13 +23,20 @@ import org.semanticweb.owlapi.model.parameters.ChangeApplied;
 import org.semanticweb.owlapi.reasoner.OWLReasoner;
 
 import java.util.List;
+import java.util.function.Supplier;
 
 public class OntologySnapshot {
 
     private final OWLOntology ontology;
     private final OWLOntologyManager ontologyManager;
     private final OWLDataFactory dataFactory;
-    private final OWLReasoner reasoner;
+    private OWLReasoner reasoner;
+    private Supplier<OWLReasoner> reasonerSupplier;
+
+    /**
+     * Number of changes applied to this snapshot, negative if the ontology has been modified directly.
+     */
+    private int changeCount;
 
     public OntologySnapshot(OWLOntology ontology, OWLOntologyManager ontologyManager, OWLDataFactory dataFactory,
                             OWLReasoner reasoner) {
@@ -39,6 +46,26 @@ public class OntologySnapshot {
         this.reasoner = reasoner;
     }
 
+    private OntologySnapshot(OWLOntology ontology, OWLOntologyManager ontologyManager, OWLDataFactory dataFactory,
+                             Supplier<OWLReasoner> reasonerSupplier) {
+        this(ontology, ontologyManager, dataFactory, (OWLReasoner) null);
+        this.reasonerSupplier = reasonerSupplier;
+    }
+
+    /**
+     * Creates a snapshot whose reasoner is created on first use.
+     *
+     * @param ontology         Snapshot ontology
+     * @param ontologyManager  Ontology manager
+     * @param dataFactory      Data factory
+     * @param reasonerSupplier Creates reasoner for the snapshot ontology
+     * @return New snapshot
+     */
+    static OntologySnapshot withLazyReasoner(OWLOntology ontology, OWLOntologyManager ontologyManager,
+                                             OWLDataFactory dataFactory, Supplier<OWLReasoner> reasonerSupplier) {
+        return new OntologySnapshot(ontology, ontologyManager, dataFactory, reasonerSupplier);
+    }
+
     public OWLOntology getOntology() {
         return ontology;
     }
@@ -52,9 +79,35 @@ public class OntologySnapshot {
     }
 
     public OWLReasoner getReasoner() {
+        if (reasonerSupplier != null) {
+            this.reasoner = reasonerSupplier.get();
+            this.reasonerSupplier = null;
+        }
         return reasoner;
     }
 
+    /**
+     * Disposes of the reasoner of this snapshot, if it has been created.
+     */
+    void disposeReasoner() {
+        final OWLReasoner toDispose = releaseReasoner();
+        if (toDispose != null) {
+            toDispose.dispose();
+        }
+    }
+
+    /**
+     * Detaches the reasoner from this snapshot, so that it can be used further.
+     *
+     * @return The reasoner, {@code null} if it has not been created
+     */
+    OWLReasoner releaseReasoner() {
+        final OWLReasoner result = reasonerSupplier == null ? reasoner : null;
+        this.reasonerSupplier = null;
+        this.reasoner = null;
+        return result;
+    }
+
     /**
      * Applies the specified changes to this ontology snapshot.
      *
@@ -68,6 +121,28 @@ public class OntologySnapshot {
                     "At least one of the following changes could not have been applied to this ontology snapshot: " +
                             changes);
         }
+        if (changeCount >= 0) {
+            changeCount += changes.size();
+        }
         return changes;
     }
+
+    /**
+     * Marks the ontology of this snapshot as modified other than by {@link #applyChanges(List)}, e.g., directly by the
+     * client.
+     * <p>
+     * Such a snapshot cannot be reused by the connector after it is closed.
+     */
+    public void markModified() {
+        this.changeCount = -1;
+    }
+
+    /**
+     * Gets the number of changes applied to this snapshot.
+     *
+     * @return Number of applied changes, a negative number if the ontology has been modified directly
+     */
+    int getChangeCount() {
+        return changeCount;
+    }
 }
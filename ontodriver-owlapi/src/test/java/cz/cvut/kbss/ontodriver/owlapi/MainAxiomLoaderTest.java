@@ -33,10 +33,7 @@ import org.semanticweb.owlapi.reasoner.impl.OWLNamedIndividualNodeSet;
 import org.semanticweb.owlapi.vocab.OWL2Datatype;
 
 import java.net.URI;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -99,6 +96,28 @@ class MainAxiomLoaderTest {
         }
     }
 
+    @Test
+    void findAxiomsForMultipleDescriptorsLoadsAxiomsOfEachSubject() {
+        final URI assertionProperty = Generator.generateUri();
+        final Assertion dp = Assertion.createDataPropertyAssertion(assertionProperty, false);
+        final OWLDataProperty owlDp = dataFactory.getOWLDataProperty(IRI.create(assertionProperty));
+        final NamedResource subjectTwo = NamedResource.create(Generator.generateUri());
+        final OWLNamedIndividual individualTwo = dataFactory.getOWLNamedIndividual(IRI.create(subjectTwo.getIdentifier()));
+        manager.applyChange(new AddAxiom(ontology, dataFactory.getOWLDataPropertyAssertionAxiom(owlDp, individual, 158)));
+        manager.applyChange(new AddAxiom(ontology, dataFactory.getOWLDataPropertyAssertionAxiom(owlDp, individualTwo, 200)));
+        final AxiomDescriptor descriptorTwo = new AxiomDescriptor(subjectTwo);
+        descriptorTwo.addAssertion(dp);
+        final AxiomDescriptor unknown = new AxiomDescriptor(NamedResource.create(Generator.generateUri()));
+        unknown.addAssertion(dp);
+
+        final Map<NamedResource, Collection<Axiom<?>>> result =
+                sut.findAxioms(Arrays.asList(descriptor(dp), descriptorTwo, unknown));
+        assertEquals(2, result.size());
+        assertEquals(158, result.get(SUBJECT).iterator().next().getValue().getValue());
+        assertEquals(200, result.get(subjectTwo).iterator().next().getValue().getValue());
+        assertFalse(result.containsKey(unknown.getSubject()));
+    }
+
     private AxiomDescriptor descriptor(Assertion... assertions) {
         final AxiomDescriptor descriptor = new AxiomDescriptor(SUBJECT);
         for (Assertion a : assertions) {
@@ -15,8 +15,10 @@
 package cz.cvut.kbss.ontodriver.owlapi.connector;
 
 import cz.cvut.kbss.ontodriver.OntologyStorageProperties;
+import cz.cvut.kbss.ontodriver.config.DriverConfigParam;
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.owlapi.OwlapiDataSource;
+import cz.cvut.kbss.ontodriver.owlapi.config.OwlapiConfigParam;
 import cz.cvut.kbss.ontodriver.owlapi.environment.Generator;
 import cz.cvut.kbss.ontodriver.owlapi.exception.InvalidOntologyIriException;
 import cz.cvut.kbss.ontodriver.owlapi.util.MutableAddAxiom;
@@ -24,6 +26,8 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 import org.semanticweb.owlapi.apibinding.OWLManager;
 import org.semanticweb.owlapi.model.*;
+import org.semanticweb.owlapi.reasoner.OWLReasoner;
+import org.semanticweb.owlapi.reasoner.structural.StructuralReasonerFactory;
 
 import java.io.File;
 import java.net.URI;
@@ -188,7 +192,7 @@ public class BasicStorageConnectorTest {
     }
 
     @Test
-    public void closeSnapshotRemovesTransactionalOntologyFromManager() throws Exception {
+    public void closeSnapshotRemovesModifiedTransactionalOntologyFromManager() throws Exception {
         final URI physicalUri = initOntology(Collections.emptySet(), false);
         final OntologyStorageProperties storageProperties = initStorageProperties(physicalUri, ONTOLOGY_URI);
         this.connector = new BasicStorageConnector(new DriverConfiguration(storageProperties));
@@ -196,10 +200,114 @@ public class BasicStorageConnectorTest {
         final OWLOntology transactionalOntology = snapshot.getOntology();
         final OWLOntologyManager manager = snapshot.getOntologyManager(); // We know this is the root manager
         assertTrue(manager.contains(transactionalOntology));
+        snapshot.applyChanges(Collections.singletonList(classDeclaration(snapshot)));
         connector.closeSnapshot(snapshot);
         assertFalse(manager.contains(transactionalOntology));
     }
 
+    private OWLOntologyChange classDeclaration(OntologySnapshot snapshot) {
+        final OWLClass cls = snapshot.getDataFactory().getOWLClass(IRI.create(Generator.generateUri()));
+        return new MutableAddAxiom(snapshot.getOntology(), snapshot.getDataFactory().getOWLDeclarationAxiom(cls));
+    }
+
+    @Test
+    public void getSnapshotReusesOntologyOfClosedUnmodifiedSnapshot() throws Exception {
+        final URI physicalUri = initOntology(Generator.generateAxioms(), false);
+        final OntologyStorageProperties storageProperties = initStorageProperties(physicalUri, ONTOLOGY_URI);
+        this.connector = new BasicStorageConnector(new DriverConfiguration(storageProperties));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLOntology transactionalOntology = snapshot.getOntology();
+        connector.closeSnapshot(snapshot);
+
+        final OntologySnapshot result = connector.getOntologySnapshot();
+        assertSame(transactionalOntology, result.getOntology());
+    }
+
+    @Test
+    public void getSnapshotReusesOntologyOfCommittedSnapshot() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final OntologyStorageProperties storageProperties = initStorageProperties(physicalUri, ONTOLOGY_URI);
+        this.connector = new BasicStorageConnector(new DriverConfiguration(storageProperties));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLOntology transactionalOntology = snapshot.getOntology();
+        final OWLOntologyChange change = classDeclaration(snapshot);
+        connector.applyChanges(snapshot.applyChanges(Collections.singletonList(change)));
+        connector.closeSnapshot(snapshot);
+
+        final OntologySnapshot result = connector.getOntologySnapshot();
+        assertSame(transactionalOntology, result.getOntology());
+        assertTrue(result.getOntology().containsAxiom(change.getAxiom()));
+    }
+
+    @Test
+    public void applyChangesAppliesChangesToOntologyOfClosedSnapshotKeptForReuse() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final OntologyStorageProperties storageProperties = initStorageProperties(physicalUri, ONTOLOGY_URI);
+        this.connector = new BasicStorageConnector(new DriverConfiguration(storageProperties));
+        final OntologySnapshot snapshotOne = connector.getOntologySnapshot();
+        final OntologySnapshot snapshotTwo = connector.getOntologySnapshot();
+        final OWLOntology reusedOntology = snapshotOne.getOntology();
+        connector.closeSnapshot(snapshotOne);
+        final OWLOntologyChange change = classDeclaration(snapshotTwo);
+        connector.applyChanges(snapshotTwo.applyChanges(Collections.singletonList(change)));
+        connector.closeSnapshot(snapshotTwo);
+
+        final OntologySnapshot result = connector.getOntologySnapshot();
+        assertSame(reusedOntology, result.getOntology());
+        assertTrue(result.getOntology().containsAxiom(change.getAxiom()));
+    }
+
+    @Test
+    public void getSnapshotDoesNotReuseOntologyOfSnapshotWhichWasNotUpToDateWhenClosed() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final OntologyStorageProperties storageProperties = initStorageProperties(physicalUri, ONTOLOGY_URI);
+        this.connector = new BasicStorageConnector(new DriverConfiguration(storageProperties));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLOntology staleOntology = snapshot.getOntology();
+        final OWLClass cls = addClassToOntology(connector.getOntologySnapshot());
+        connector.closeSnapshot(snapshot);
+
+        final OntologySnapshot result = connector.getOntologySnapshot();
+        assertNotSame(staleOntology, result.getOntology());
+        assertTrue(result.getOntology().containsClassInSignature(cls.getIRI()));
+    }
+
+    @Test
+    public void getSnapshotReusesReasonerOfClosedSnapshotWhenReasonerReuseIsEnabled() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        final DriverConfiguration configuration = initConfigurationWithReasoner(physicalUri);
+        configuration.setProperty(OwlapiConfigParam.REUSE_REASONER, Boolean.TRUE.toString());
+        this.connector = new BasicStorageConnector(configuration);
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLReasoner reasoner = snapshot.getReasoner();
+        assertNotNull(reasoner);
+        connector.closeSnapshot(snapshot);
+
+        final OntologySnapshot result = connector.getOntologySnapshot();
+        assertSame(reasoner, result.getReasoner());
+    }
+
+    private DriverConfiguration initConfigurationWithReasoner(URI physicalUri) {
+        final DriverConfiguration configuration =
+                new DriverConfiguration(initStorageProperties(physicalUri, ONTOLOGY_URI));
+        configuration.setProperty(DriverConfigParam.REASONER_FACTORY_CLASS,
+                                  StructuralReasonerFactory.class.getName());
+        return configuration;
+    }
+
+    @Test
+    public void getSnapshotCreatesNewReasonerWhenReasonerReuseIsDisabled() throws Exception {
+        final URI physicalUri = initOntology(Collections.emptySet(), false);
+        this.connector = new BasicStorageConnector(initConfigurationWithReasoner(physicalUri));
+        final OntologySnapshot snapshot = connector.getOntologySnapshot();
+        final OWLReasoner reasoner = snapshot.getReasoner();
+        assertNotNull(reasoner);
+        connector.closeSnapshot(snapshot);
+
+        final OntologySnapshot result = connector.getOntologySnapshot();
+        assertNotSame(reasoner, result.getReasoner());
+    }
+
     @Test
     public void getSnapshotResolvesImportsOfTheTransactionalSnapshot() throws Exception {
         final URI physicalUri = initOntology(Collections.emptySet(), false);
@@ -23,22 +23,20 @@ import cz.cvut.kbss.ontodriver.rdf4j.loader.StatementLoader;
 import cz.cvut.kbss.ontodriver.rdf4j.util.AxiomBuilder;
 import cz.cvut.kbss.ontodriver.rdf4j.util.Rdf4jUtils;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
 
 import java.util.*;
+import java.util.stream.Collectors;
 
 class AxiomLoader {
 
     private final Connector connector;
 
-    private final Map<IRI, Assertion> propertyToAssertion;
-    private Map<IRI, Assertion> explicitAssertions;
-    private Map<IRI, Assertion> inferredAssertions;
-
     private final RuntimeConfiguration config;
 
     AxiomLoader(Connector connector, RuntimeConfiguration config) {
         this.connector = connector;
-        this.propertyToAssertion = new HashMap<>();
         this.config = config;
     }
 
@@ -48,19 +46,78 @@ class AxiomLoader {
 
     private Collection<Axiom<?>> findStatements(AxiomDescriptor descriptor) throws Rdf4jDriverException {
         final Collection<Axiom<?>> result = new HashSet<>();
-        final Assertion unspecified = processAssertions(descriptor);
-        final AxiomBuilder axiomBuilder = new AxiomBuilder(descriptor.getSubject(), propertyToAssertion, unspecified);
-        final StatementLoader statementLoader = createLoader(descriptor.getSubject(), axiomBuilder);
+        final SubjectAssertions assertions = processAssertions(descriptor);
+        final StatementLoader statementLoader = createLoader(descriptor.getSubject(), assertions);
         statementLoader.setLoadAllThreshold(config.getLoadAllThreshold());
-        if (unspecified == null || !unspecified.isInferred()) {
+        if (assertions.loadExplicit()) {
             statementLoader.setIncludeInferred(false);
-            result.addAll(statementLoader.loadAxioms(descriptor, explicitAssertions));
+            result.addAll(statementLoader.loadAxioms(descriptor, assertions.explicitAssertions));
         }
         statementLoader.setIncludeInferred(true);
-        result.addAll(statementLoader.loadAxioms(descriptor, inferredAssertions));
+        result.addAll(statementLoader.loadAxioms(descriptor, assertions.inferredAssertions));
+        return result;
+    }
+
+    /**
+     * Loads axioms corresponding to the specified descriptors.
+     * <p>
+     * Statements of all the subjects are retrieved together, using at most one repository request for explicit and one
+     * for inferred statements.
+     *
+     * @param descriptors Descriptors of the axioms to load
+     * @return Loaded axioms grouped by subject
+     * @throws Rdf4jDriverException If a repository access error occurs
+     */
+    Map<NamedResource, Collection<Axiom<?>>> loadAxioms(Collection<AxiomDescriptor> descriptors)
+            throws Rdf4jDriverException {
+        final Map<AxiomDescriptor, SubjectAssertions> assertions = new LinkedHashMap<>(descriptors.size());
+        final Set<IRI> explicitSubjects = new LinkedHashSet<>(descriptors.size());
+        final Set<IRI> inferredSubjects = new LinkedHashSet<>(descriptors.size());
+        for (AxiomDescriptor descriptor : descriptors) {
+            final SubjectAssertions subjectAssertions = processAssertions(descriptor);
+            assertions.put(descriptor, subjectAssertions);
+            if (subjectAssertions.loadExplicit()) {
+                explicitSubjects.add(subjectAssertions.subject);
+            }
+            if (!subjectAssertions.inferredAssertions.isEmpty()) {
+                inferredSubjects.add(subjectAssertions.subject);
+            }
+        }
+        final Map<Resource, List<Statement>> explicitStatements = findStatements(explicitSubjects, false);
+        final Map<Resource, List<Statement>> inferredStatements = findStatements(inferredSubjects, true);
+        final Map<NamedResource, Collection<Axiom<?>>> result = new HashMap<>(descriptors.size());
+        for (Map.Entry<AxiomDescriptor, SubjectAssertions> e : assertions.entrySet()) {
+            final AxiomDescriptor descriptor = e.getKey();
+            final SubjectAssertions subjectAssertions = e.getValue();
+            final StatementLoader statementLoader = createLoader(descriptor.getSubject(), subjectAssertions);
+            final Collection<Axiom<?>> axioms = result.computeIfAbsent(descriptor.getSubject(), k -> new HashSet<>());
+            if (subjectAssertions.loadExplicit()) {
+                statementLoader.setIncludeInferred(false);
+                axioms.addAll(statementLoader.loadAxioms(descriptor, subjectAssertions.explicitAssertions,
+                        explicitStatements.getOrDefault(subjectAssertions.subject, Collections.emptyList())));
+            }
+            statementLoader.setIncludeInferred(true);
+            axioms.addAll(statementLoader.loadAxioms(descriptor, subjectAssertions.inferredAssertions,
+                    inferredStatements.getOrDefault(subjectAssertions.subject, Collections.emptyList())));
+        }
         return result;
     }
 
+    private Map<Resource, List<Statement>> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws Rdf4jDriverException {
+        if (subjects.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return connector.findStatements(subjects, includeInferred).stream()
+                        .collect(Collectors.groupingBy(Statement::getSubject));
+    }
+
+    private StatementLoader createLoader(NamedResource individual, SubjectAssertions assertions) {
+        final AxiomBuilder axiomBuilder =
+                new AxiomBuilder(individual, assertions.propertyToAssertion, assertions.unspecified);
+        return config.getStatementLoaderFactory().create(connector, assertions.subject, axiomBuilder);
+    }
+
     private StatementLoader createLoader(NamedResource individual, AxiomBuilder axiomBuilder) {
         final IRI subject = Rdf4jUtils.toRdf4jIri(individual.getIdentifier(), connector.getValueFactory());
         return config.getStatementLoaderFactory().create(connector, subject, axiomBuilder);
@@ -69,29 +126,29 @@ class AxiomLoader {
     /**
      * Processes assertions in the specified descriptor.
      * <p>
-     * Splits them into explicit and inferred and returns unspecified property, if it is present in the descriptor.
+     * Splits them into explicit and inferred and finds unspecified property, if it is present in the descriptor.
      *
      * @param descriptor The descriptor to process
-     * @return Unspecified property, if it is present
+     * @return Processed assertions
      */
-    private Assertion processAssertions(AxiomDescriptor descriptor) {
+    private SubjectAssertions processAssertions(AxiomDescriptor descriptor) {
         final Set<Assertion> assertions = descriptor.getAssertions();
-        this.explicitAssertions = new HashMap<>(assertions.size());
-        this.inferredAssertions = new HashMap<>(assertions.size());
-        Assertion unspecified = null;
+        final SubjectAssertions result = new SubjectAssertions(
+                Rdf4jUtils.toRdf4jIri(descriptor.getSubject().getIdentifier(), connector.getValueFactory()),
+                assertions.size());
         for (Assertion a : assertions) {
             final IRI property = Rdf4jUtils.toRdf4jIri(a.getIdentifier(), connector.getValueFactory());
-            propertyToAssertion.put(property, a);
+            result.propertyToAssertion.put(property, a);
             if (a.equals(Assertion.createUnspecifiedPropertyAssertion(a.isInferred()))) {
-                unspecified = a;
+                result.unspecified = a;
             }
             if (a.isInferred()) {
-                inferredAssertions.put(property, a);
+                result.inferredAssertions.put(property, a);
             } else {
-                explicitAssertions.put(property, a);
+                result.explicitAssertions.put(property, a);
             }
         }
-        return unspecified;
+        return result;
     }
 
     Collection<Axiom<?>> loadAxioms(NamedResource individual, boolean includeInferred, java.net.URI context)
@@ -101,4 +158,23 @@ class AxiomLoader {
         final StatementLoader loader = createLoader(individual, axiomBuilder);
         return loader.loadAxioms(context != null ? Collections.singleton(context) : Collections.emptySet());
     }
+
+    private static class SubjectAssertions {
+        private final IRI subject;
+        private final Map<IRI, Assertion> propertyToAssertion;
+        private final Map<IRI, Assertion> explicitAssertions;
+        private final Map<IRI, Assertion> inferredAssertions;
+        private Assertion unspecified;
+
+        private SubjectAssertions(IRI subject, int assertionCount) {
+            this.subject = subject;
+            this.propertyToAssertion = new HashMap<>(assertionCount);
+            this.explicitAssertions = new HashMap<>(assertionCount);
+            this.inferredAssertions = new HashMap<>(assertionCount);
+        }
+
+        private boolean loadExplicit() {
+            return unspecified == null || !unspecified.isInferred();
+        }
+    }
 }
@@ -37,11 +37,23 @@ class AxiomSaver {
     }
 
     void persistAxioms(AxiomValueDescriptor axiomDescriptor) throws Rdf4jDriverException {
+        persistAxioms(Collections.singleton(axiomDescriptor));
+    }
+
+    /**
+     * Persists axioms specified by all the descriptors using a single call to the connector.
+     *
+     * @param axiomDescriptors Descriptors of the persisted values
+     * @throws Rdf4jDriverException If a storage access error occurs
+     */
+    void persistAxioms(Collection<AxiomValueDescriptor> axiomDescriptors) throws Rdf4jDriverException {
         final List<Statement> statements = new ArrayList<>();
-        for (Assertion assertion : axiomDescriptor.getAssertions()) {
-            statements.addAll(createRdf4jStatements(axiomDescriptor.getSubject(), assertion,
-                                                    axiomDescriptor.getAssertionValues(assertion),
-                                                    axiomDescriptor.getAssertionContext(assertion)));
+        for (AxiomValueDescriptor axiomDescriptor : axiomDescriptors) {
+            for (Assertion assertion : axiomDescriptor.getAssertions()) {
+                statements.addAll(createRdf4jStatements(axiomDescriptor.getSubject(), assertion,
+                                                        axiomDescriptor.getAssertionValues(assertion),
+                                                        axiomDescriptor.getAssertionContext(assertion)));
+            }
         }
         if (!statements.isEmpty()) {
             connector.addStatements(statements);
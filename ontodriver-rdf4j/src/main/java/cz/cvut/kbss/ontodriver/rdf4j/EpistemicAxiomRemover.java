@@ -13,6 +13,7 @@
 package cz.cvut.kbss.ontodriver.rdf4j;
 
 import cz.cvut.kbss.ontodriver.descriptor.AbstractAxiomDescriptor;
+import cz.cvut.kbss.ontodriver.descriptor.AxiomValueDescriptor;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.model.Value;
@@ -67,16 +68,44 @@ class EpistemicAxiomRemover {
         final Collection<Statement> toRemove = new ArrayList<>();
         final ValueConverter valueConverter = new ValueConverter(valueFactory);
         for (Map.Entry<Assertion, Set<Value<?>>> entry : values.entrySet()) {
-            final IRI property = toRdf4jIri(entry.getKey(), valueFactory);
-            for (Value<?> val : entry.getValue()) {
-                final org.eclipse.rdf4j.model.Value rdf4jValue = valueConverter.toRdf4jValue(entry.getKey(), val);
-                if (repoContext != null) {
-                    toRemove.add(valueFactory.createStatement(subject, property, rdf4jValue, repoContext));
-                } else {
-                    toRemove.add(valueFactory.createStatement(subject, property, rdf4jValue));
-                }
-            }
+            addStatements(subject, entry.getKey(), entry.getValue(), repoContext, valueConverter, toRemove);
         }
         connector.removeStatements(toRemove);
     }
+
+    /**
+     * Removes exactly the specified assertion values, without looking up the current values of the assertions.
+     *
+     * @param values Values to remove
+     * @throws Rdf4jDriverException When storage access error occurs
+     */
+    void removeValues(AxiomValueDescriptor values) throws Rdf4jDriverException {
+        final Resource subject = toRdf4jIri(values.getSubject().getIdentifier(), valueFactory);
+        final Collection<Statement> toRemove = new ArrayList<>();
+        final ValueConverter valueConverter = new ValueConverter(valueFactory);
+        for (Assertion a : values.getAssertions()) {
+            addStatements(subject, a, values.getAssertionValues(a),
+                          toRdf4jIri(values.getAssertionContext(a), valueFactory), valueConverter, toRemove);
+        }
+        if (!toRemove.isEmpty()) {
+            connector.removeStatements(toRemove);
+        }
+    }
+
+    private void addStatements(Resource subject, Assertion assertion, Collection<Value<?>> values, IRI context,
+                               ValueConverter valueConverter, Collection<Statement> target)
+            throws Rdf4jDriverException {
+        final IRI property = toRdf4jIri(assertion, valueFactory);
+        for (Value<?> val : values) {
+            if (val == Value.nullValue()) {
+                continue;
+            }
+            final org.eclipse.rdf4j.model.Value rdf4jValue = valueConverter.toRdf4jValue(assertion, val);
+            if (context != null) {
+                target.add(valueFactory.createStatement(subject, property, rdf4jValue, context));
+            } else {
+                target.add(valueFactory.createStatement(subject, property, rdf4jValue));
+            }
+        }
+    }
 }
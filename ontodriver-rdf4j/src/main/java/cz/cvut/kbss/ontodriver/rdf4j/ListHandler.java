@@ -16,7 +16,9 @@ package cz.cvut.kbss.ontodriver.rdf4j;
 
 import cz.cvut.kbss.ontodriver.descriptor.*;
 import cz.cvut.kbss.ontodriver.exception.IntegrityConstraintViolatedException;
+import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.AxiomImpl;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.rdf4j.connector.Connector;
 import cz.cvut.kbss.ontodriver.rdf4j.exception.Rdf4jDriverException;
@@ -45,20 +47,70 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
 
     /**
      * Loads axioms representing list described by the specified list descriptor.
+     * <p>
+     * All the list statements are retrieved from the storage together and the list is then reconstructed from them in
+     * memory.
      *
      * @return Collection of axioms representing sequence values
      * @throws Rdf4jDriverException When storage access error occurs
      */
     List<Axiom<NamedResource>> loadList(T listDescriptor) throws Rdf4jDriverException {
+        final IRI owner = owner(listDescriptor);
+        final IRI hasList = hasList(listDescriptor);
+        final IRI hasNext = hasNext(listDescriptor);
+        final ListStatements statements = new ListStatements(
+                connector.findListStatements(owner, hasList, hasNext, hasContent(listDescriptor),
+                        listDescriptor.getListProperty().isInferred(), contexts(listDescriptor)));
         final List<Axiom<NamedResource>> axioms = new ArrayList<>();
-        final ListIterator it = createIterator(listDescriptor);
-        while (it.hasNext()) {
-            axioms.add(it.nextAxiom());
+        final Set<Resource> visited = new HashSet<>();
+        Resource previous = owner;
+        IRI property = hasList;
+        Resource node;
+        while ((node = statements.nextNode(previous, property)) != null) {
+            if (!visited.add(node)) {
+                throw new IntegrityConstraintViolatedException(
+                        "Node " + node + " appears in the list of " + owner + " more than once.");
+            }
+            axioms.add(createListAxiom(listDescriptor, previous, property, node, statements));
+            previous = node;
+            property = hasNext;
         }
         return axioms;
     }
 
-    abstract ListIterator createIterator(T listDescriptor) throws Rdf4jDriverException;
+    /**
+     * Gets the property linking list nodes to their content.
+     *
+     * @return Node content property, {@code null} if list nodes are the list values themselves
+     */
+    abstract IRI hasContent(T listDescriptor);
+
+    /**
+     * Creates axiom representing the specified list node.
+     *
+     * @param listDescriptor List descriptor
+     * @param previous       The previous node (or list owner in case of the list head)
+     * @param property       Property linking the previous node to the specified node
+     * @param node           The list node
+     * @param statements     All the list statements
+     * @return Axiom representing list value
+     */
+    abstract Axiom<NamedResource> createListAxiom(T listDescriptor, Resource previous, IRI property, Resource node,
+                                                  ListStatements statements);
+
+    /**
+     * Gets the list node represented by the specified list axiom.
+     *
+     * @param listAxiom Axiom created by {@link #createListAxiom(ListDescriptor, Resource, IRI, Resource,
+     *                  ListStatements)}
+     * @return List node
+     */
+    abstract Resource listNode(Axiom<NamedResource> listAxiom);
+
+    static Axiom<NamedResource> createAxiom(Resource subject, Assertion assertion, Resource value) {
+        return new AxiomImpl<>(NamedResource.create(subject.stringValue()), assertion,
+                new cz.cvut.kbss.ontodriver.model.Value<>(NamedResource.create(value.stringValue())));
+    }
 
     /**
      * Persists list values specified by the descriptor.
@@ -92,11 +144,13 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
     void updateList(V listValueDescriptor) throws Rdf4jDriverException {
         if (listValueDescriptor.getValues().isEmpty()) {
             clearList(listValueDescriptor);
-        } else if (isOldListEmpty(owner(listValueDescriptor), hasList(listValueDescriptor),
-                listValueDescriptor.getListProperty().isInferred(), contexts(listValueDescriptor))) {
-            persistList(listValueDescriptor);
-        } else {
-            mergeList(listValueDescriptor);
+        } else if (!appendToStoredList(listValueDescriptor)) {
+            if (isOldListEmpty(owner(listValueDescriptor), hasList(listValueDescriptor),
+                    listValueDescriptor.getListProperty().isInferred(), contexts(listValueDescriptor))) {
+                persistList(listValueDescriptor);
+            } else {
+                mergeList(listValueDescriptor);
+            }
         }
     }
 
@@ -107,6 +161,42 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
         return stmts.isEmpty();
     }
 
+    /**
+     * Appends new values to the stored list if the descriptor indicates that the list has only been appended to.
+     * <p>
+     * The stored list is loaded in bulk and verified to consist exactly of the leading values of the descriptor, so
+     * that only the statements representing the new values need to be added.
+     * <p>
+     * Note that the verification still reads all the statements of the stored list. It is done by a single request to
+     * the storage and the list is then traversed in memory, so it is linear in the size of the list. Compared to
+     * {@link #mergeList(ListValueDescriptor)}, which accesses the storage node by node and rewrites the differing
+     * nodes, it saves the round trips and the writes, but not the read. Checking just the tail node is not sufficient,
+     * because the length of the stored list cannot be determined without traversing it.
+     *
+     * @param listValueDescriptor Describes the updated values
+     * @return {@code true} if the new values have been appended, {@code false} if the list has to be merged
+     * @throws Rdf4jDriverException When storage access error occurs
+     */
+    private boolean appendToStoredList(V listValueDescriptor) throws Rdf4jDriverException {
+        final int storedSize = listValueDescriptor.getStoredPrefixSize();
+        final List<NamedResource> values = listValueDescriptor.getValues();
+        if (storedSize <= 0 || storedSize >= values.size()) {
+            return false;
+        }
+        @SuppressWarnings("unchecked") final List<Axiom<NamedResource>> stored =
+                loadList((T) (ListDescriptor) listValueDescriptor);
+        if (stored.size() != storedSize) {
+            return false;
+        }
+        for (int i = 0; i < storedSize; i++) {
+            if (!stored.get(i).getValue().getValue().equals(values.get(i))) {
+                return false;
+            }
+        }
+        appendNewNodes(listValueDescriptor, new MergeResult(storedSize, listNode(stored.get(storedSize - 1))));
+        return true;
+    }
+
     abstract void clearList(V listDescriptor) throws Rdf4jDriverException;
 
     private void mergeList(V listDescriptor) throws Rdf4jDriverException {
@@ -202,6 +292,46 @@ abstract class ListHandler<T extends ListDescriptor, V extends ListValueDescript
         return new ReferencedListHandler(connector, vf);
     }
 
+    /**
+     * Statements of a list indexed by subject and property.
+     */
+    static final class ListStatements {
+
+        private final Map<Resource, Map<IRI, Set<Value>>> index = new HashMap<>();
+
+        ListStatements(Collection<Statement> statements) {
+            // Duplicate statements (e.g., from different sources) are ignored
+            statements.forEach(s -> index.computeIfAbsent(s.getSubject(), k -> new HashMap<>())
+                                         .computeIfAbsent(s.getPredicate(), k -> new LinkedHashSet<>())
+                                         .add(s.getObject()));
+        }
+
+        /**
+         * Gets the node which is value of the specified property of the specified subject.
+         *
+         * @return The next node, {@code null} if there is no such value
+         * @throws IntegrityConstraintViolatedException If there are multiple values or the value is a literal
+         */
+        Resource nextNode(Resource subject, IRI property) {
+            final Set<Value> values = index.getOrDefault(subject, Collections.emptyMap())
+                                           .getOrDefault(property, Collections.emptySet());
+            if (values.isEmpty()) {
+                return null;
+            }
+            if (values.size() > 1) {
+                throw new IntegrityConstraintViolatedException(
+                        "Invalid number of values found for assertion " + property + ". Expected 1, got " +
+                                values.size());
+            }
+            final Value val = values.iterator().next();
+            if (!(val instanceof Resource)) {
+                throw new IntegrityConstraintViolatedException(
+                        "Invalid property value. Expected object property value, got literal.");
+            }
+            return (Resource) val;
+        }
+    }
+
     static final class MergeResult {
         final int i;
         final Resource previous;
@@ -18,6 +18,7 @@ import cz.cvut.kbss.ontodriver.descriptor.*;
 import cz.cvut.kbss.ontodriver.exception.IdentifierGenerationException;
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
 import cz.cvut.kbss.ontodriver.model.Axiom;
+import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.rdf4j.config.Constants;
 import cz.cvut.kbss.ontodriver.rdf4j.config.RuntimeConfiguration;
 import cz.cvut.kbss.ontodriver.rdf4j.connector.Connector;
@@ -184,17 +185,34 @@ class Rdf4jAdapter implements Closeable, Wrapper {
         return new AxiomLoader(connector, config).loadAxioms(axiomDescriptor);
     }
 
+    Map<NamedResource, Collection<Axiom<?>>> findAll(Collection<AxiomDescriptor> axiomDescriptors)
+            throws Rdf4jDriverException {
+        startTransactionIfNotActive();
+        return new AxiomLoader(connector, config).loadAxioms(axiomDescriptors);
+    }
+
     void persist(AxiomValueDescriptor axiomDescriptor) throws Rdf4jDriverException {
         startTransactionIfNotActive();
         new AxiomSaver(connector).persistAxioms(axiomDescriptor);
     }
 
+    void persistAll(Collection<AxiomValueDescriptor> axiomDescriptors) throws Rdf4jDriverException {
+        startTransactionIfNotActive();
+        new AxiomSaver(connector).persistAxioms(axiomDescriptors);
+    }
+
     void update(AxiomValueDescriptor axiomDescriptor) throws Rdf4jDriverException {
         startTransactionIfNotActive();
         new EpistemicAxiomRemover(connector, valueFactory).remove(axiomDescriptor);
         new AxiomSaver(connector).persistAxioms(axiomDescriptor);
     }
 
+    void applyChanges(AxiomValueDescriptor removed, AxiomValueDescriptor added) throws Rdf4jDriverException {
+        startTransactionIfNotActive();
+        new EpistemicAxiomRemover(connector, valueFactory).removeValues(removed);
+        new AxiomSaver(connector).persistAxioms(added);
+    }
+
     void remove(AxiomDescriptor axiomDescriptor) throws Rdf4jDriverException {
         startTransactionIfNotActive();
         new EpistemicAxiomRemover(connector, valueFactory).remove(axiomDescriptor);
@@ -16,6 +16,8 @@ package cz.cvut.kbss.ontodriver.rdf4j;
 
 import cz.cvut.kbss.ontodriver.descriptor.ReferencedListDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.ReferencedListValueDescriptor;
+import cz.cvut.kbss.ontodriver.exception.IntegrityConstraintViolatedException;
+import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.rdf4j.connector.Connector;
 import cz.cvut.kbss.ontodriver.rdf4j.exception.Rdf4jDriverException;
@@ -36,8 +38,18 @@ public class ReferencedListHandler extends
     }
 
     @Override
-    ListIterator createIterator(ReferencedListDescriptor listDescriptor) throws Rdf4jDriverException {
-        return new ReferencedListIterator(listDescriptor, connector, vf);
+    Axiom<NamedResource> createListAxiom(ReferencedListDescriptor listDescriptor, Resource previous, IRI property,
+                                         Resource node, ListStatements statements) {
+        final Resource content = statements.nextNode(node, hasContent(listDescriptor));
+        if (content == null) {
+            throw new IntegrityConstraintViolatedException("Node " + node + " has no content.");
+        }
+        return createAxiom(node, listDescriptor.getNodeContent(), content);
+    }
+
+    @Override
+    Resource listNode(Axiom<NamedResource> listAxiom) {
+        return toRdf4jIri(listAxiom.getSubject().getIdentifier());
     }
 
     @Override
@@ -54,7 +66,8 @@ public class ReferencedListHandler extends
         return nodeUri;
     }
 
-    private IRI hasContent(ReferencedListDescriptor listDescriptor) {
+    @Override
+    IRI hasContent(ReferencedListDescriptor listDescriptor) {
         return toRdf4jIri(listDescriptor.getNodeContent().getIdentifier());
     }
 
@@ -16,6 +16,8 @@ package cz.cvut.kbss.ontodriver.rdf4j;
 
 import cz.cvut.kbss.ontodriver.descriptor.SimpleListDescriptor;
 import cz.cvut.kbss.ontodriver.descriptor.SimpleListValueDescriptor;
+import cz.cvut.kbss.ontodriver.model.Assertion;
+import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
 import cz.cvut.kbss.ontodriver.rdf4j.connector.Connector;
 import cz.cvut.kbss.ontodriver.rdf4j.exception.Rdf4jDriverException;
@@ -33,8 +35,22 @@ class SimpleListHandler extends ListHandler<SimpleListDescriptor, SimpleListValu
     }
 
     @Override
-    ListIterator createIterator(SimpleListDescriptor listDescriptor) throws Rdf4jDriverException {
-        return new SimpleListIterator(listDescriptor, connector, vf);
+    IRI hasContent(SimpleListDescriptor listDescriptor) {
+        return null;
+    }
+
+    @Override
+    Axiom<NamedResource> createListAxiom(SimpleListDescriptor listDescriptor, Resource previous, IRI property,
+                                         Resource node, ListStatements statements) {
+        final Assertion assertion =
+                property.equals(hasList(listDescriptor)) ? listDescriptor.getListProperty() :
+                listDescriptor.getNextNode();
+        return createAxiom(previous, assertion, node);
+    }
+
+    @Override
+    Resource listNode(Axiom<NamedResource> listAxiom) {
+        return toRdf4jIri(listAxiom.getValue().getValue().getIdentifier());
     }
 
     @Override
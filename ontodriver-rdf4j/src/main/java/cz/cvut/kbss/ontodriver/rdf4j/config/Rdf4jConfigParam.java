@@ -32,7 +32,9 @@ public enum Rdf4jConfigParam implements ConfigurationParameter {
     PASSWORD(OntoDriverProperties.DATA_SOURCE_PASSWORD),
     REPOSITORY_CONFIG(Rdf4jOntoDriverProperties.REPOSITORY_CONFIG),
     RECONNECT_ATTEMPTS(Rdf4jOntoDriverProperties.RECONNECT_ATTEMPTS),
-    INFERENCE_IN_DEFAULT_CONTEXT(Rdf4jOntoDriverProperties.INFERENCE_IN_DEFAULT_CONTEXT);
+    INFERENCE_IN_DEFAULT_CONTEXT(Rdf4jOntoDriverProperties.INFERENCE_IN_DEFAULT_CONTEXT),
+    DRIVER_LOCKING(Rdf4jOntoDriverProperties.DRIVER_LOCKING),
+    TRANSACTION_ISOLATION_LEVEL(Rdf4jOntoDriverProperties.TRANSACTION_ISOLATION_LEVEL);
 
     private final String name;
 
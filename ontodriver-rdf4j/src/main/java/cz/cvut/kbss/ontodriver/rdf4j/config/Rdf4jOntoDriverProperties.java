@@ -99,6 +99,35 @@ public abstract class Rdf4jOntoDriverProperties {
     public static final String INFERENCE_IN_DEFAULT_CONTEXT =
             "cz.cvut.kbss.ontodriver.rdf4j.inference-in-default-context";
 
+    /**
+     * Whether the driver should serialize access to the repository using its own lock.
+     * <p>
+     * When enabled, commits of connections to the same repository are serialized and reads outside of transactions
+     * wait for a running commit to finish. The lock is scoped to the repository, so persistence units working with
+     * different repositories do not block each other.
+     * <p>
+     * When disabled, the driver does no locking and concurrency control is left to the transaction isolation of the
+     * repository. Commits may then overlap with reads and with each other.
+     * <p>
+     * {@code Boolean} value expected, default is true.
+     */
+    public static final String DRIVER_LOCKING = "cz.cvut.kbss.ontodriver.rdf4j.driver-locking";
+
+    /**
+     * Isolation level of repository transactions used to write transactional changes directly into the repository.
+     * <p>
+     * By default, the driver keeps transactional changes in a local model and writes them into the repository on
+     * commit. When this parameter is set, changes are instead written directly into a repository transaction with the
+     * specified isolation level, which is started for each driver transaction. Reads in the transaction then see the
+     * changes natively and commit does not need to replay them. Concurrency control is left to the repository and
+     * {@link #DRIVER_LOCKING} does not apply.
+     * <p>
+     * The value is the name of one of the {@link org.eclipse.rdf4j.IsolationLevels}, e.g., {@code SNAPSHOT_READ}.
+     * Note that the repository has to support the isolation level.
+     */
+    public static final String TRANSACTION_ISOLATION_LEVEL =
+            "cz.cvut.kbss.ontodriver.rdf4j.transaction-isolation-level";
+
     private Rdf4jOntoDriverProperties() {
         throw new AssertionError();
     }
@@ -98,6 +98,19 @@ public interface Connector extends Closeable, StatementExecutor, Wrapper {
                                          boolean includeInferred, Collection<IRI> contexts)
             throws Rdf4jDriverException;
 
+    /**
+     * Finds all statements with any of the specified subjects.
+     * <p>
+     * The statements are looked up in the default context using a single repository request.
+     *
+     * @param subjects        Statement subjects
+     * @param includeInferred Whether to include inferred statements as well
+     * @return Collection of matching statements
+     * @throws Rdf4jDriverException If a repository access error occurs
+     */
+    Collection<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws Rdf4jDriverException;
+
     /**
      * Checks whether the repository contains any statements matching the specified criteria.
      *
@@ -114,6 +127,33 @@ public interface Connector extends Closeable, StatementExecutor, Wrapper {
                               Collection<IRI> contexts)
             throws Rdf4jDriverException;
 
+    /**
+     * Finds statements forming a list (simple or referenced) of the specified owner.
+     * <p>
+     * The result contains the statement linking the owner to the list head, statements linking the list nodes and, if
+     * {@code hasContent} is specified, statements linking the list nodes to their content. The statements are not
+     * ordered and the caller is responsible for reconstructing the list from them.
+     * <p>
+     * This default implementation traverses the list node by node, implementations may load the whole list using a
+     * single repository request.
+     *
+     * @param owner           List owner
+     * @param hasList         Property linking the owner to the list head
+     * @param hasNext         Property linking list nodes
+     * @param hasContent      Property linking list nodes to their content, {@code null} for simple lists
+     * @param includeInferred Whether to include inferred statements as well
+     * @param contexts        Contexts in which the search should be performed. Empty collection indicates the default
+     *                        context will be searched
+     * @return Collection of list statements
+     * @throws Rdf4jDriverException If a repository access error occurs
+     */
+    default Collection<Statement> findListStatements(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                                     boolean includeInferred, Collection<IRI> contexts)
+            throws Rdf4jDriverException {
+        return new ListStatementsFinder(owner, hasList, hasNext, hasContent, includeInferred, contexts)
+                .traverse(this);
+    }
+
     /**
      * Checks whether the specified statement is inferred by the repository.
      * <p>
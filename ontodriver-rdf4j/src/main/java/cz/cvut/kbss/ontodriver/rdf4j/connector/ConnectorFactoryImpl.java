@@ -13,23 +13,69 @@
 package cz.cvut.kbss.ontodriver.rdf4j.connector;
 
 import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import org.eclipse.rdf4j.IsolationLevel;
 import org.eclipse.rdf4j.repository.Repository;
 
+import java.util.Objects;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
 public final class ConnectorFactoryImpl implements ConnectorFactory {
 
     private boolean open;
 
     private StorageConnector centralConnector;
 
+    // Shared by all connectors working with the central connector, i.e., locking is scoped to a single repository
+    private final ReadWriteLock lock;
+
+    // Set only when connectors write directly into repository transactions
+    private final IsolationLevel isolationLevel;
+    private final boolean directTransactions;
+
     public ConnectorFactoryImpl(StorageConnector connector) {
+        this(connector, true);
+    }
+
+    /**
+     * Creates factory of connectors working with the specified central connector.
+     *
+     * @param connector     Central connector
+     * @param driverLocking Whether the driver should lock the repository on commit. If {@code false}, concurrency
+     *                      control is left to the repository transaction isolation
+     * @see cz.cvut.kbss.ontodriver.rdf4j.config.Rdf4jOntoDriverProperties#DRIVER_LOCKING
+     */
+    public ConnectorFactoryImpl(StorageConnector connector, boolean driverLocking) {
         this.open = true;
         this.centralConnector = connector;
+        this.lock = driverLocking ? new ReentrantReadWriteLock() : NoOpReadWriteLock.INSTANCE;
+        this.isolationLevel = null;
+        this.directTransactions = false;
+    }
+
+    /**
+     * Creates factory of connectors which write transactional changes directly into repository transactions.
+     *
+     * @param connector      Central connector
+     * @param isolationLevel Isolation level of the repository transactions
+     * @see DirectStorageConnector
+     * @see cz.cvut.kbss.ontodriver.rdf4j.config.Rdf4jOntoDriverProperties#TRANSACTION_ISOLATION_LEVEL
+     */
+    public ConnectorFactoryImpl(StorageConnector connector, IsolationLevel isolationLevel) {
+        this.open = true;
+        this.centralConnector = connector;
+        this.lock = NoOpReadWriteLock.INSTANCE;
+        this.isolationLevel = Objects.requireNonNull(isolationLevel);
+        this.directTransactions = true;
     }
 
     @Override
     public Connector createStorageConnector() {
         ensureOpen();
-        return new PoolingStorageConnector(centralConnector);
+        if (directTransactions) {
+            return new DirectStorageConnector(centralConnector, isolationLevel);
+        }
+        return new PoolingStorageConnector(centralConnector, lock);
     }
 
     private void ensureOpen() {
@@ -0,0 +1,253 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.rdf4j.connector;
+
+import cz.cvut.kbss.ontodriver.exception.OntoDriverException;
+import cz.cvut.kbss.ontodriver.rdf4j.exception.Rdf4jDriverException;
+import cz.cvut.kbss.ontodriver.rdf4j.query.QuerySpecification;
+import org.eclipse.rdf4j.IsolationLevel;
+import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Connector which writes transactional changes directly into a repository transaction.
+ * <p>
+ * Unlike {@link PoolingStorageConnector}, this connector does not keep the changes in a local model. Instead, a
+ * repository connection is acquired for each transaction and a repository transaction with the configured isolation
+ * level is started on it. All reads and writes in the transaction (including SPARQL updates) are then executed on this
+ * connection, so they see the transactional changes natively, and commit just commits the repository transaction.
+ * <p>
+ * Reads outside of a transaction are delegated to the central connector.
+ */
+public class DirectStorageConnector extends AbstractConnector {
+
+    private static final Logger LOG = LoggerFactory.getLogger(DirectStorageConnector.class);
+
+    private final StorageConnector centralConnector;
+    private final IsolationLevel isolationLevel;
+
+    private RepositoryConnection connection;
+
+    DirectStorageConnector(StorageConnector centralConnector, IsolationLevel isolationLevel) {
+        this.centralConnector = centralConnector;
+        this.isolationLevel = isolationLevel;
+        this.open = true;
+    }
+
+    @Override
+    public TupleQueryResult executeSelectQuery(QuerySpecification query) throws Rdf4jDriverException {
+        if (transaction.isActive()) {
+            return new ConnectionStatementExecutor(wrapConnection()).executeSelectQuery(query);
+        }
+        return centralConnector.executeSelectQuery(query);
+    }
+
+    private RepositoryConnection wrapConnection() {
+        return new TransactionalRepositoryConnection(connection);
+    }
+
+    @Override
+    public boolean executeBooleanQuery(QuerySpecification query) throws Rdf4jDriverException {
+        if (transaction.isActive()) {
+            return new ConnectionStatementExecutor(wrapConnection()).executeBooleanQuery(query);
+        }
+        return centralConnector.executeBooleanQuery(query);
+    }
+
+    @Override
+    public void executeUpdate(QuerySpecification query) throws Rdf4jDriverException {
+        if (transaction.isActive()) {
+            new ConnectionStatementExecutor(wrapConnection()).executeUpdate(query);
+        } else {
+            centralConnector.executeUpdate(query);
+        }
+    }
+
+    @Override
+    public List<Resource> getContexts() throws Rdf4jDriverException {
+        if (!transaction.isActive()) {
+            return centralConnector.getContexts();
+        }
+        try {
+            return Iterations.asList(connection.getContextIDs());
+        } catch (RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+    }
+
+    @Override
+    public ValueFactory getValueFactory() {
+        return centralConnector.getValueFactory();
+    }
+
+    @Override
+    public void begin() throws Rdf4jDriverException {
+        super.begin();
+        this.connection = centralConnector.acquireConnection();
+        try {
+            connection.begin(isolationLevel);
+        } catch (RepositoryException e) {
+            transaction.rollback();
+            releaseConnection();
+            transaction.afterRollback();
+            throw new Rdf4jDriverException(e);
+        }
+    }
+
+    private void releaseConnection() throws Rdf4jDriverException {
+        try {
+            centralConnector.releaseConnection(connection);
+        } finally {
+            this.connection = null;
+        }
+    }
+
+    @Override
+    public void commit() throws Rdf4jDriverException {
+        transaction.commit();
+        try {
+            connection.commit();
+            transaction.afterCommit();
+        } catch (RepositoryException e) {
+            transaction.rollback();
+            rollbackRepositoryTransaction();
+            transaction.afterRollback();
+            throw new Rdf4jDriverException(e);
+        } finally {
+            releaseConnection();
+        }
+    }
+
+    private void rollbackRepositoryTransaction() {
+        try {
+            if (connection.isActive()) {
+                connection.rollback();
+            }
+        } catch (RepositoryException e) {
+            LOG.error("Unable to rollback repository transaction.", e);
+        }
+    }
+
+    @Override
+    public void rollback() throws Rdf4jDriverException {
+        transaction.rollback();
+        try {
+            connection.rollback();
+        } catch (RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        } finally {
+            releaseConnection();
+            transaction.afterRollback();
+        }
+    }
+
+    @Override
+    public void close() throws OntoDriverException {
+        if (open && transaction.isActive()) {
+            rollbackRepositoryTransaction();
+            releaseConnection();
+        }
+        super.close();
+    }
+
+    @Override
+    public void addStatements(Collection<Statement> statements) throws Rdf4jDriverException {
+        verifyTransactionActive();
+        assert statements != null;
+        try {
+            connection.add(statements);
+        } catch (RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+    }
+
+    @Override
+    public void removeStatements(Collection<Statement> statements) throws Rdf4jDriverException {
+        verifyTransactionActive();
+        assert statements != null;
+        try {
+            connection.remove(statements);
+        } catch (RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+    }
+
+    @Override
+    public Collection<Statement> findStatements(Resource subject, IRI property, Value value, boolean includeInferred)
+            throws Rdf4jDriverException {
+        return findStatements(subject, property, value, includeInferred, Collections.emptySet());
+    }
+
+    @Override
+    public Collection<Statement> findStatements(Resource subject, IRI property, Value value,
+                                                boolean includeInferred, Collection<IRI> contexts)
+            throws Rdf4jDriverException {
+        verifyTransactionActive();
+        try {
+            return Iterations.asList(connection.getStatements(subject, property, value, includeInferred,
+                                                              contexts.toArray(new IRI[0])));
+        } catch (RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+    }
+
+    @Override
+    public Collection<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws Rdf4jDriverException {
+        verifyTransactionActive();
+        return new SubjectStatementsFinder(connection).findStatements(subjects, includeInferred);
+    }
+
+    @Override
+    public Collection<Statement> findListStatements(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                                    boolean includeInferred, Collection<IRI> contexts)
+            throws Rdf4jDriverException {
+        verifyTransactionActive();
+        return new ListStatementsFinder(owner, hasList, hasNext, hasContent, includeInferred, contexts)
+                .findStatements(connection);
+    }
+
+    @Override
+    public boolean containsStatement(Resource subject, IRI property, Value value, boolean includeInferred,
+                                     Collection<IRI> contexts) throws Rdf4jDriverException {
+        verifyTransactionActive();
+        try {
+            return connection.hasStatement(subject, property, value, includeInferred, contexts.toArray(new IRI[0]));
+        } catch (RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+    }
+
+    @Override
+    public boolean isInferred(Statement statement, Collection<IRI> contexts) throws Rdf4jDriverException {
+        verifyTransactionActive();
+        return centralConnector.isInferred(statement, contexts);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> cls) throws OntoDriverException {
+        if (cls.isAssignableFrom(this.getClass())) {
+            return cls.cast(this);
+        }
+        return centralConnector.unwrap(cls);
+    }
+}
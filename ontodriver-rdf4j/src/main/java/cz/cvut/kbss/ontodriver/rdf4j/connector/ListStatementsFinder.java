@@ -0,0 +1,137 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.rdf4j.connector;
+
+import cz.cvut.kbss.ontodriver.rdf4j.exception.Rdf4jDriverException;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesUtil;
+
+import java.util.*;
+
+/**
+ * Finds statements forming a list (simple or referenced).
+ * <p>
+ * The whole list can be found using a single SPARQL query with a property path, or by traversing the list node by
+ * node.
+ *
+ * @see Connector#findListStatements(Resource, IRI, IRI, IRI, boolean, Collection)
+ */
+class ListStatementsFinder {
+
+    private static final String SUBJECT = "s";
+    private static final String PROPERTY = "p";
+    private static final String VALUE = "o";
+    private static final String OWNER = "owner";
+
+    private final Resource owner;
+    private final IRI hasList;
+    private final IRI hasNext;
+    private final IRI hasContent;
+    private final boolean includeInferred;
+    private final Collection<IRI> contexts;
+
+    ListStatementsFinder(Resource owner, IRI hasList, IRI hasNext, IRI hasContent, boolean includeInferred,
+                         Collection<IRI> contexts) {
+        this.owner = owner;
+        this.hasList = hasList;
+        this.hasNext = hasNext;
+        this.hasContent = hasContent;
+        this.includeInferred = includeInferred;
+        this.contexts = contexts;
+    }
+
+    /**
+     * Finds the list statements using a single SPARQL query evaluated on the specified connection.
+     *
+     * @param connection Repository connection
+     * @return List statements
+     * @throws Rdf4jDriverException If a repository access error occurs
+     */
+    Collection<Statement> findStatements(RepositoryConnection connection) throws Rdf4jDriverException {
+        final ValueFactory vf = connection.getValueFactory();
+        final Resource context = contexts.size() == 1 ? contexts.iterator().next() : null;
+        final List<Statement> result = new ArrayList<>();
+        try {
+            final TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL, createQuery());
+            // The owner is bound instead of written into the query, as it may also be a blank node
+            tq.setBinding(OWNER, owner);
+            tq.setIncludeInferred(includeInferred);
+            try (final TupleQueryResult queryResult = tq.evaluate()) {
+                while (queryResult.hasNext()) {
+                    final BindingSet bs = queryResult.next();
+                    result.add(vf.createStatement((Resource) bs.getValue(SUBJECT), (IRI) bs.getValue(PROPERTY),
+                                                  bs.getValue(VALUE), context));
+                }
+            }
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+        return result;
+    }
+
+    private String createQuery() {
+        final StringBuilder sb = new StringBuilder("SELECT ?s ?p ?o");
+        contexts.forEach(ctx -> sb.append(" FROM ").append(iri(ctx)));
+        sb.append(" WHERE { { ?").append(OWNER).append(' ').append(iri(hasList)).append(" ?o . BIND (?")
+          .append(OWNER).append(" AS ?s) BIND (").append(iri(hasList)).append(" AS ?p) } UNION { ?").append(OWNER)
+          .append(' ').append(iri(hasList)).append('/').append(iri(hasNext)).append("* ?s . ")
+          .append("VALUES ?p { ").append(iri(hasNext));
+        if (hasContent != null) {
+            sb.append(' ').append(iri(hasContent));
+        }
+        sb.append(" } ?s ?p ?o . } }");
+        return sb.toString();
+    }
+
+    private static String iri(IRI value) {
+        return NTriplesUtil.toNTriplesString(value);
+    }
+
+    /**
+     * Finds the list statements by traversing the list node by node using the specified connector.
+     * <p>
+     * The traversal stops when a node does not have exactly one successor or when a node is reached for the second
+     * time.
+     *
+     * @param connector Connector to use for statement lookup
+     * @return List statements
+     * @throws Rdf4jDriverException If a repository access error occurs
+     */
+    Collection<Statement> traverse(Connector connector) throws Rdf4jDriverException {
+        final List<Statement> result = new ArrayList<>();
+        final Set<Resource> visited = new HashSet<>();
+        Resource current = owner;
+        IRI property = hasList;
+        while (true) {
+            final Collection<Statement> successors =
+                    connector.findStatements(current, property, null, includeInferred, contexts);
+            result.addAll(successors);
+            if (new HashSet<>(successors).size() != 1) {
+                break;
+            }
+            final Value next = successors.iterator().next().getObject();
+            if (!(next instanceof Resource) || !visited.add((Resource) next)) {
+                break;
+            }
+            current = (Resource) next;
+            if (hasContent != null) {
+                result.addAll(connector.findStatements(current, hasContent, null, includeInferred, contexts));
+            }
+            property = hasNext;
+        }
+        return result;
+    }
+}
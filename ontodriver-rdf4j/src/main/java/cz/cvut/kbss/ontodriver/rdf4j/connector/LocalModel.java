@@ -18,6 +18,9 @@ import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.model.impl.LinkedHashModel;
 
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
 
 /**
  * Caches local transactional changes to the RDF4J repository model.
@@ -46,6 +49,31 @@ class LocalModel {
         statements.removeAll(removed);
     }
 
+    /**
+     * Enhances statements of the specified subjects with local changes.
+     * <p>
+     * Local changes are filtered once for the whole subject set and statements already present in the specified
+     * collection are not added again.
+     *
+     * @param statements Statements of the subjects loaded from the repository
+     * @param subjects   Subjects whose statements are enhanced
+     */
+    void enhanceStatements(Collection<Statement> statements, Collection<? extends Resource> subjects) {
+        final Set<Statement> added = new LinkedHashSet<>();
+        final Set<Statement> removed = new HashSet<>();
+        for (Resource subject : subjects) {
+            added.addAll(addedStatements.filter(subject, null, null));
+            removed.addAll(removedStatements.filter(subject, null, null));
+        }
+        if (!removed.isEmpty()) {
+            statements.removeIf(removed::contains);
+        }
+        if (!added.isEmpty()) {
+            added.removeAll(new HashSet<>(statements));
+            statements.addAll(added);
+        }
+    }
+
     Contains contains(Resource subject, IRI property, Value object, Collection<IRI> contexts) {
         final IRI[] ctxArray = contexts.toArray(new IRI[0]);
         if (addedStatements.contains(subject, property, object, ctxArray)) {
@@ -54,6 +82,22 @@ class LocalModel {
         return removedStatements.contains(subject, property, object, ctxArray) ? Contains.FALSE : Contains.UNKNOWN;
     }
 
+    /**
+     * Checks whether there are any local changes of statements with any of the specified properties.
+     *
+     * @param properties Properties to check, {@code null} values are ignored
+     * @return {@code true} if any statement with one of the properties has been added or removed locally
+     */
+    boolean containsChangesOf(IRI... properties) {
+        for (IRI property : properties) {
+            if (property != null && (addedStatements.contains(null, property, null) ||
+                    removedStatements.contains(null, property, null))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     void addStatements(Collection<Statement> statements) {
         removedStatements.removeAll(statements);
         addedStatements.addAll(statements);
@@ -0,0 +1,114 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.rdf4j.connector;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ * Read-write lock which does not lock anything.
+ * <p>
+ * Used when concurrency control is left to the repository transaction isolation.
+ */
+final class NoOpReadWriteLock implements ReadWriteLock {
+
+    static final NoOpReadWriteLock INSTANCE = new NoOpReadWriteLock();
+
+    private static final Lock NO_OP_LOCK = new Lock() {
+        @Override
+        public void lock() {
+            // Do nothing
+        }
+
+        @Override
+        public void lockInterruptibly() {
+            // Do nothing
+        }
+
+        @Override
+        public boolean tryLock() {
+            return true;
+        }
+
+        @Override
+        public boolean tryLock(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public void unlock() {
+            // Do nothing
+        }
+
+        @Override
+        public Condition newCondition() {
+            return NO_OP_CONDITION;
+        }
+    };
+
+    /**
+     * Condition whose waiting methods return immediately, as if woken up spuriously.
+     */
+    private static final Condition NO_OP_CONDITION = new Condition() {
+        @Override
+        public void await() {
+            // Do nothing
+        }
+
+        @Override
+        public void awaitUninterruptibly() {
+            // Do nothing
+        }
+
+        @Override
+        public long awaitNanos(long nanosTimeout) {
+            return nanosTimeout;
+        }
+
+        @Override
+        public boolean await(long time, TimeUnit unit) {
+            return true;
+        }
+
+        @Override
+        public boolean awaitUntil(Date deadline) {
+            return true;
+        }
+
+        @Override
+        public void signal() {
+            // Do nothing
+        }
+
+        @Override
+        public void signalAll() {
+            // Do nothing
+        }
+    };
+
+    private NoOpReadWriteLock() {
+    }
+
+    @Override
+    public Lock readLock() {
+        return NO_OP_LOCK;
+    }
+
+    @Override
+    public Lock writeLock() {
+        return NO_OP_LOCK;
+    }
+}
@@ -20,26 +20,40 @@ import org.eclipse.rdf4j.model.*;
 import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.ReadWriteLock;
 
+/**
+ * Connector used by a single driver connection.
+ * <p>
+ * Transactional changes are kept in a local model and written into the repository on commit, using the repository
+ * connection acquired for the transaction. Reads outside of a transaction are delegated to the central connector.
+ * <p>
+ * The lock passed to the connector is shared by all connectors of the same central connector. The write lock is held
+ * during commit and update execution, the read lock during non-transactional reads.
+ */
 public class PoolingStorageConnector extends AbstractConnector {
 
-    private static final ReentrantReadWriteLock LOCK = new ReentrantReadWriteLock();
-    private static final Lock READ = LOCK.readLock();
-    private static final Lock WRITE = LOCK.writeLock();
+    private static final Logger LOG = LoggerFactory.getLogger(PoolingStorageConnector.class);
+
+    private final Lock readLock;
+    private final Lock writeLock;
 
     private final StorageConnector centralConnector;
 
     private RepositoryConnection connection;
     private LocalModel localModel;
 
-    PoolingStorageConnector(StorageConnector centralConnector) {
+    PoolingStorageConnector(StorageConnector centralConnector, ReadWriteLock lock) {
         this.centralConnector = centralConnector;
+        this.readLock = lock.readLock();
+        this.writeLock = lock.writeLock();
         this.open = true;
     }
 
@@ -48,11 +62,11 @@ public class PoolingStorageConnector extends AbstractConnector {
         if (transaction.isActive()) {
             return new ConnectionStatementExecutor(wrapConnection()).executeSelectQuery(query);
         }
-        READ.lock();
+        readLock.lock();
         try {
             return centralConnector.executeSelectQuery(query);
         } finally {
-            READ.unlock();
+            readLock.unlock();
         }
     }
 
@@ -65,31 +79,31 @@ public class PoolingStorageConnector extends AbstractConnector {
         if (transaction.isActive()) {
             return new ConnectionStatementExecutor(wrapConnection()).executeBooleanQuery(query);
         }
-        READ.lock();
+        readLock.lock();
         try {
             return centralConnector.executeBooleanQuery(query);
         } finally {
-            READ.unlock();
+            readLock.unlock();
         }
     }
 
     @Override
     public void executeUpdate(QuerySpecification query) throws Rdf4jDriverException {
-        WRITE.lock();
+        writeLock.lock();
         try {
             centralConnector.executeUpdate(query);
         } finally {
-            WRITE.unlock();
+            writeLock.unlock();
         }
     }
 
     @Override
     public List<Resource> getContexts() throws Rdf4jDriverException {
-        READ.lock();
+        readLock.lock();
         try {
             return centralConnector.getContexts();
         } finally {
-            READ.unlock();
+            readLock.unlock();
         }
     }
 
@@ -110,25 +124,36 @@ public class PoolingStorageConnector extends AbstractConnector {
     @Override
     public void commit() throws Rdf4jDriverException {
         transaction.commit();
-        WRITE.lock();
+        writeLock.lock();
         try {
-            centralConnector.begin();
-            centralConnector.removeStatements(localModel.getRemovedStatements());
-            centralConnector.addStatements(localModel.getAddedStatements());
-            centralConnector.commit();
+            // Use the transaction's own connection, so that commits of different connectors do not share any state
+            connection.begin();
+            connection.remove(localModel.getRemovedStatements());
+            connection.add(localModel.getAddedStatements());
+            connection.commit();
             transaction.afterCommit();
-        } catch (Rdf4jDriverException e) {
+        } catch (RepositoryException e) {
             transaction.rollback();
-            centralConnector.rollback();
+            rollbackRepositoryTransaction();
             transaction.afterRollback();
-            throw e;
+            throw new Rdf4jDriverException(e);
         } finally {
-            WRITE.unlock();
+            writeLock.unlock();
             centralConnector.releaseConnection(connection);
             this.localModel = null;
         }
     }
 
+    private void rollbackRepositoryTransaction() {
+        try {
+            if (connection.isActive()) {
+                connection.rollback();
+            }
+        } catch (RepositoryException e) {
+            LOG.error("Unable to rollback repository transaction.", e);
+        }
+    }
+
     @Override
     public void rollback() throws Rdf4jDriverException {
         transaction.rollback();
@@ -184,6 +209,40 @@ public class PoolingStorageConnector extends AbstractConnector {
         }
     }
 
+    @Override
+    public Collection<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws Rdf4jDriverException {
+        verifyTransactionActive();
+        try {
+            final Collection<Statement> statements =
+                    new SubjectStatementsFinder(connection).findStatements(subjects, includeInferred);
+            localModel.enhanceStatements(statements, subjects);
+            return statements;
+        } catch (Rdf4jDriverException e) {
+            rollback();
+            throw e;
+        }
+    }
+
+    @Override
+    public Collection<Statement> findListStatements(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                                    boolean includeInferred, Collection<IRI> contexts)
+            throws Rdf4jDriverException {
+        verifyTransactionActive();
+        final ListStatementsFinder finder =
+                new ListStatementsFinder(owner, hasList, hasNext, hasContent, includeInferred, contexts);
+        // Local changes may modify the list structure, which the repository query would not reflect
+        if (localModel.containsChangesOf(hasList, hasNext, hasContent)) {
+            return finder.traverse(this);
+        }
+        try {
+            return finder.findStatements(connection);
+        } catch (Rdf4jDriverException e) {
+            rollback();
+            throw e;
+        }
+    }
+
     @Override
     public boolean containsStatement(Resource subject, IRI property, Value value, boolean includeInferred,
                                      Collection<IRI> contexts)
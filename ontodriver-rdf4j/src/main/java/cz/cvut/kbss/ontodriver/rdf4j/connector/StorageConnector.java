@@ -228,6 +228,28 @@ public class StorageConnector extends AbstractConnector {
         }
     }
 
+    @Override
+    public Collection<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws Rdf4jDriverException {
+        try (final RepositoryConnection conn = acquireConnection()) {
+            return new SubjectStatementsFinder(conn).findStatements(subjects, includeInferred);
+        } catch (RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+    }
+
+    @Override
+    public Collection<Statement> findListStatements(Resource owner, IRI hasList, IRI hasNext, IRI hasContent,
+                                                    boolean includeInferred, Collection<IRI> contexts)
+            throws Rdf4jDriverException {
+        try (final RepositoryConnection conn = acquireConnection()) {
+            return new ListStatementsFinder(owner, hasList, hasNext, hasContent, includeInferred, contexts)
+                    .findStatements(conn);
+        } catch (RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+    }
+
     @Override
     public boolean containsStatement(Resource subject, IRI property, Value value, boolean includeInferred,
                                      Collection<IRI> contexts) throws Rdf4jDriverException {
@@ -0,0 +1,99 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ *
+ * This program is free software: you can redistribute it and/or modify it under
+ * the terms of the GNU General Public License as published by the Free Software
+ * Foundation, either version 3 of the License, or (at your option) any
+ * later version.
+ *
+ * This program is distributed in the hope that it will be useful, but WITHOUT
+ * ANY WARRANTY; without even the implied warranty of MERCHANTABILITY or FITNESS
+ * FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.rdf4j.connector;
+
+import cz.cvut.kbss.ontodriver.rdf4j.exception.Rdf4jDriverException;
+import org.eclipse.rdf4j.model.*;
+import org.eclipse.rdf4j.model.vocabulary.SESAME;
+import org.eclipse.rdf4j.query.*;
+import org.eclipse.rdf4j.query.impl.SimpleDataset;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesUtil;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Finds statements of multiple subjects using a single SPARQL query per graph kind.
+ * <p>
+ * Named graphs and the default graph are queried separately, so that statement contexts correspond to what {@link
+ * RepositoryConnection#getStatements(Resource, IRI, Value, boolean, Resource...)} would return. Note that the default
+ * graph of a SPARQL query usually contains also statements from named graphs, so it is restricted to the {@link
+ * SESAME#NIL} context.
+ */
+class SubjectStatementsFinder {
+
+    private static final String SUBJECT = "s";
+    private static final String PROPERTY = "p";
+    private static final String VALUE = "o";
+    private static final String CONTEXT = "g";
+
+    private final RepositoryConnection connection;
+
+    SubjectStatementsFinder(RepositoryConnection connection) {
+        this.connection = connection;
+    }
+
+    /**
+     * Finds statements with any of the specified subjects.
+     *
+     * @param subjects        Statement subjects
+     * @param includeInferred Whether to include inferred statements
+     * @return Matching statements
+     * @throws Rdf4jDriverException If a repository access error occurs
+     */
+    Collection<Statement> findStatements(Collection<IRI> subjects, boolean includeInferred)
+            throws Rdf4jDriverException {
+        final List<Statement> result = new ArrayList<>();
+        if (subjects.isEmpty()) {
+            return result;
+        }
+        final String values = subjectValues(subjects);
+        try {
+            final TupleQuery inContexts = connection.prepareTupleQuery(QueryLanguage.SPARQL,
+                    "SELECT ?s ?p ?o ?g WHERE { " + values + " GRAPH ?g { ?s ?p ?o . } }");
+            evaluate(inContexts, includeInferred, result);
+            final TupleQuery inDefault = connection.prepareTupleQuery(QueryLanguage.SPARQL,
+                    "SELECT ?s ?p ?o WHERE { " + values + " ?s ?p ?o . }");
+            final SimpleDataset dataset = new SimpleDataset();
+            dataset.addDefaultGraph(SESAME.NIL);
+            inDefault.setDataset(dataset);
+            evaluate(inDefault, includeInferred, result);
+        } catch (MalformedQueryException | QueryEvaluationException | RepositoryException e) {
+            throw new Rdf4jDriverException(e);
+        }
+        return result;
+    }
+
+    private static String subjectValues(Collection<IRI> subjects) {
+        final StringBuilder sb = new StringBuilder("VALUES ?s {");
+        subjects.forEach(s -> sb.append(' ').append(NTriplesUtil.toNTriplesString(s)));
+        return sb.append(" }").toString();
+    }
+
+    private void evaluate(TupleQuery query, boolean includeInferred, List<Statement> result) {
+        final ValueFactory vf = connection.getValueFactory();
+        query.setIncludeInferred(includeInferred);
+        try (final TupleQueryResult queryResult = query.evaluate()) {
+            while (queryResult.hasNext()) {
+                final BindingSet bs = queryResult.next();
+                result.add(vf.createStatement((Resource) bs.getValue(SUBJECT), (IRI) bs.getValue(PROPERTY),
+                        bs.getValue(VALUE), (Resource) bs.getValue(CONTEXT)));
+            }
+        }
+    }
+}
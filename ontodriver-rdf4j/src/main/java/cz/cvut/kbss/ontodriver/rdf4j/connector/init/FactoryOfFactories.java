@@ -2,6 +2,7 @@ package cz.cvut.kbss.ontodriver.rdf4j.connector.init;
 
 import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
 import cz.cvut.kbss.ontodriver.rdf4j.config.Rdf4jConfigParam;
+import cz.cvut.kbss.ontodriver.rdf4j.config.Rdf4jOntoDriverProperties;
 import cz.cvut.kbss.ontodriver.rdf4j.connector.ConnectorFactory;
 import cz.cvut.kbss.ontodriver.rdf4j.connector.ConnectorFactoryImpl;
 import cz.cvut.kbss.ontodriver.rdf4j.connector.GraphDBStorageConnector;
@@ -11,11 +12,15 @@ import cz.cvut.kbss.ontodriver.rdf4j.loader.DefaultContextInferenceStatementLoad
 import cz.cvut.kbss.ontodriver.rdf4j.loader.DefaultStatementLoaderFactory;
 import cz.cvut.kbss.ontodriver.rdf4j.loader.GraphDBStatementLoaderFactory;
 import cz.cvut.kbss.ontodriver.rdf4j.loader.StatementLoaderFactory;
+import org.eclipse.rdf4j.IsolationLevel;
+import org.eclipse.rdf4j.IsolationLevels;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 
+import java.util.Arrays;
+
 /**
  * Builds factories for the driver.
  */
@@ -42,7 +47,23 @@ public class FactoryOfFactories {
         } else {
             connector = new StorageConnector(connectorInitializer);
         }
-        return new ConnectorFactoryImpl(connector);
+        if (config.isSet(Rdf4jConfigParam.TRANSACTION_ISOLATION_LEVEL)) {
+            return new ConnectorFactoryImpl(connector, resolveIsolationLevel());
+        }
+        final boolean driverLocking =
+                !config.isSet(Rdf4jConfigParam.DRIVER_LOCKING) || config.is(Rdf4jConfigParam.DRIVER_LOCKING);
+        return new ConnectorFactoryImpl(connector, driverLocking);
+    }
+
+    private IsolationLevel resolveIsolationLevel() throws Rdf4jDriverException {
+        final String value = config.getProperty(Rdf4jConfigParam.TRANSACTION_ISOLATION_LEVEL);
+        try {
+            return IsolationLevels.valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new Rdf4jDriverException(
+                    "Invalid value of configuration parameter " + Rdf4jOntoDriverProperties.TRANSACTION_ISOLATION_LEVEL +
+                            ": " + value + ". Must be one of " + Arrays.toString(IsolationLevels.values()) + ".");
+        }
     }
 
     public StatementLoaderFactory createStatementLoaderFactory() throws Rdf4jDriverException {
@@ -96,6 +96,28 @@ public class StatementLoader {
     private Collection<Axiom<?>> loadAll(AxiomDescriptor descriptor,
                                          Map<IRI, Assertion> properties) throws Rdf4jDriverException {
         final Collection<Statement> statements = connector.findStatements(subject, null, null, includeInferred);
+        return statementsToAxioms(descriptor, properties, statements);
+    }
+
+    /**
+     * Transforms the specified already loaded statements of the subject into axioms.
+     * <p>
+     * The statements are expected to have been loaded from the default context with the same inference setting as
+     * this loader uses. Only statements corresponding to the specified properties and their contexts are used.
+     *
+     * @param descriptor Descriptor of the axioms to load
+     * @param properties Properties to load
+     * @param statements All statements of the subject
+     * @return Axioms corresponding to the statements
+     */
+    public Collection<Axiom<?>> loadAxioms(AxiomDescriptor descriptor, Map<IRI, Assertion> properties,
+                                           Collection<Statement> statements) {
+        this.loadAll = properties.containsValue(Assertion.createUnspecifiedPropertyAssertion(includeInferred));
+        return statementsToAxioms(descriptor, properties, statements);
+    }
+
+    private Collection<Axiom<?>> statementsToAxioms(AxiomDescriptor descriptor, Map<IRI, Assertion> properties,
+                                                    Collection<Statement> statements) {
         final Collection<Axiom<?>> result = new HashSet<>(statements.size());
         final Assertion unspecified = Assertion.createUnspecifiedPropertyAssertion(includeInferred);
         for (Statement s : statements) {
@@ -218,6 +218,67 @@ class AxiomLoaderTest {
         }
     }
 
+    @Test
+    void loadAxiomsForMultipleDescriptorsReturnsSameAxiomsAsLoadingThemOneByOne() throws Exception {
+        connector.begin();
+        final List<AxiomDescriptor> descriptors = generatedData.individuals.stream().limit(3).map(ind -> {
+            final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(ind));
+            generatedData.values.get(ind).keySet().forEach(desc::addAssertion);
+            return desc;
+        }).collect(Collectors.toList());
+        final AxiomDescriptor unknown = new AxiomDescriptor(NamedResource.create(Generator.generateUri()));
+        unknown.addAssertion(Assertion.createClassAssertion(false));
+        descriptors.add(unknown);
+
+        final Map<NamedResource, Collection<Axiom<?>>> result = axiomLoader.loadAxioms(descriptors);
+        for (AxiomDescriptor desc : descriptors) {
+            final Collection<Axiom<?>> expected = new AxiomLoader(connector, new RuntimeConfiguration(
+                    new DriverConfiguration(TestRepositoryProvider.storageProperties()))).loadAxioms(desc);
+            assertEquals(new HashSet<>(expected),
+                    new HashSet<>(result.getOrDefault(desc.getSubject(), Collections.emptySet())));
+        }
+    }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsLoadsValuesFromContextWhenContextIsSpecifiedForAssertion()
+            throws Exception {
+        final String individual = generatedData.individuals.get(0);
+        final Assertion property = generatedData.values.get(individual).keySet().iterator().next();
+        final String context = Generator.generateUri().toString();
+        final Object value = saveValueIntoContext(individual, property, context);
+        final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(individual));
+        desc.addAssertion(property);
+        desc.addAssertionContext(property, URI.create(context));
+        final String another = generatedData.individuals.get(1);
+        final AxiomDescriptor anotherDesc = new AxiomDescriptor(NamedResource.create(another));
+        generatedData.values.get(another).keySet().forEach(anotherDesc::addAssertion);
+
+        connector.begin();
+        final Map<NamedResource, Collection<Axiom<?>>> result =
+                axiomLoader.loadAxioms(Arrays.asList(desc, anotherDesc));
+        assertEquals(1, result.get(desc.getSubject()).size());
+        assertEquals(value.toString(),
+                result.get(desc.getSubject()).iterator().next().getValue().getValue().toString());
+        assertEquals(generatedData.getTotalValueCount(another), result.get(anotherDesc.getSubject()).size());
+    }
+
+    @Test
+    void loadAxiomsForMultipleDescriptorsIncludesTransactionalChanges() throws Exception {
+        final String individual = generatedData.individuals.get(0);
+        final Assertion property = Assertion.createDataPropertyAssertion(Generator.generateUri(), false);
+        final AxiomDescriptor desc = new AxiomDescriptor(NamedResource.create(individual));
+        desc.addAssertion(property);
+        connector.begin();
+        connector.addStatements(Collections.singleton(
+                vf.createStatement(vf.createIRI(individual), vf.createIRI(property.getIdentifier().toString()),
+                        vf.createLiteral(117))));
+
+        final Map<NamedResource, Collection<Axiom<?>>> result =
+                axiomLoader.loadAxioms(Collections.singletonList(desc));
+        assertEquals(1, result.get(desc.getSubject()).size());
+        assertEquals(117, result.get(desc.getSubject()).iterator().next().getValue().getValue());
+    }
+
     @Test
     void loadAxiomsCombinesUnspecifiedPropertyInDefaultWithPropertyInContext() throws Exception {
         final String individual = generatedData.individuals.get(Generator.randomIndex(generatedData.individuals));
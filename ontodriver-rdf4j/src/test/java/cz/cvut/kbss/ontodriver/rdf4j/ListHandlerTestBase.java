@@ -25,6 +25,7 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 
@@ -65,6 +66,13 @@ public abstract class ListHandlerTestBase<D extends ListDescriptor, V extends Li
         nextNodeProperty = vf.createIRI(NEXT_NODE_PROPERTY);
     }
 
+    @BeforeEach
+    void setUpListStatementsLookup() throws Exception {
+        // Use the default node by node traversal so that tests can mock individual statement lookups
+        lenient().when(connector.findListStatements(any(), any(), any(), nullable(IRI.class), anyBoolean(),
+                anyCollection())).thenCallRealMethod();
+    }
+
     static List<NamedResource> initList() {
         final List<NamedResource> lst = new ArrayList<>();
         for (int i = 0; i < 5; i++) {
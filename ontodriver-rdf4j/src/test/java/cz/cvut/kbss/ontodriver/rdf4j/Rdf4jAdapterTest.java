@@ -142,6 +142,29 @@ class Rdf4jAdapterTest {
         assertTrue(statementsCorrespondToAxiomDescriptor(ad, res));
     }
 
+    @Test
+    void persistAllAddsStatementsOfAllDescriptorsInSingleCall() throws Exception {
+        final AxiomValueDescriptor adOne = new AxiomValueDescriptor(SUBJECT);
+        adOne.addAssertionValue(Assertion.createClassAssertion(false),
+                new Value<>(URI.create("http://krizik.felk.cvut.cz/ontologies/jopa/entities#OWLClassA")));
+        final AxiomValueDescriptor adTwo =
+                new AxiomValueDescriptor(NamedResource.create("http://krizik.felk.cvut.cz/ontologies/jopa#another"));
+        adTwo.addAssertionValue(Assertion.createClassAssertion(false),
+                new Value<>(URI.create("http://krizik.felk.cvut.cz/ontologies/jopa/entities#OWLClassB")));
+        final Assertion dataAssertion = Assertion.createDataPropertyAssertion(
+                URI.create("http://krizik.felk.cvut.cz/ontologies/jopa/attributes#A-stringAttribute"), false);
+        adTwo.addAssertionValue(dataAssertion, new Value<>("StringValue"));
+        adTwo.setAssertionContext(dataAssertion, URI.create("http://krizik.felk.cvut.cz/ontologies/contextOne"));
+
+        adapter.persistAll(Arrays.asList(adOne, adTwo));
+        final ArgumentCaptor<Collection<Statement>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(connectorMock).addStatements(captor.capture());
+        final Collection<Statement> res = captor.getValue();
+        assertEquals(3, res.size());
+        assertTrue(statementsCorrespondToAxiomDescriptor(adOne, res));
+        assertTrue(statementsCorrespondToAxiomDescriptor(adTwo, res));
+    }
+
     private boolean statementsCorrespondToAxiomDescriptor(AxiomValueDescriptor ad,
                                                           Collection<Statement> statements) {
         for (Assertion as : ad.getAssertions()) {
@@ -192,6 +215,29 @@ class Rdf4jAdapterTest {
         assertTrue(statementsCorrespondToAxiomDescriptor(ad, res));
     }
 
+    @Test
+    void applyChangesRemovesSpecifiedStatementsAndAddsNewOnesWithoutLoadingCurrentValues() throws Exception {
+        final Assertion assertion = Assertion.createDataPropertyAssertion(
+                URI.create("http://krizik.felk.cvut.cz/ontologies/jopa/attributes#A-stringAttribute"), false);
+        final URI context = URI.create("http://krizik.felk.cvut.cz/ontologies/contextOne");
+        final AxiomValueDescriptor removed = new AxiomValueDescriptor(SUBJECT);
+        removed.addAssertionValue(assertion, new Value<>("oldValue"));
+        removed.setAssertionContext(assertion, context);
+        final AxiomValueDescriptor added = new AxiomValueDescriptor(SUBJECT);
+        added.addAssertionValue(assertion, new Value<>("newValue"));
+        added.setAssertionContext(assertion, context);
+
+        adapter.applyChanges(removed, added);
+        verify(connectorMock, never()).findStatements(any(), any(), any(), anyBoolean(), anyCollection());
+        final IRI property = VF.createIRI(assertion.getIdentifier().toString());
+        verify(connectorMock).removeStatements(Collections.singletonList(
+                VF.createStatement(subjectIri, property, VF.createLiteral("oldValue"), VF.createIRI(context.toString()))));
+        final ArgumentCaptor<Collection<Statement>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(connectorMock).addStatements(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertTrue(statementsCorrespondToAxiomDescriptor(added, captor.getValue()));
+    }
+
     @Test
     void testPersistEntityWithObjectPropertyMultipleValues() throws Exception {
         final AxiomValueDescriptor ad = new AxiomValueDescriptor(SUBJECT);
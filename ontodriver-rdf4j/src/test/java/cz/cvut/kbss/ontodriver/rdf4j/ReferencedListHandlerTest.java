@@ -21,6 +21,7 @@ import cz.cvut.kbss.ontodriver.exception.IntegrityConstraintViolatedException;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.rdf4j.environment.Generator;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
@@ -104,6 +105,25 @@ public class ReferencedListHandlerTest
         }
     }
 
+    @Test
+    public void loadListReconstructsListFromStatementsFoundBySingleLookup() throws Exception {
+        final List<NamedResource> refList = initList();
+        final List<java.net.URI> listNodes = initListNodes(refList);
+        final List<Statement> statements = new ArrayList<>(initStatementsForList(listNodes, refList));
+        Collections.shuffle(statements);
+        doReturn(statements).when(connector).findListStatements(owner, hasListProperty, nextNodeProperty,
+                nodeContentProperty, false, Collections.emptySet());
+
+        final List<Axiom<NamedResource>> res = handler.loadList(listDescriptor);
+        assertEquals(refList.size(), res.size());
+        for (int i = 0; i < refList.size(); i++) {
+            assertEquals(NamedResource.create(listNodes.get(i)), res.get(i).getSubject());
+            assertEquals(refList.get(i), res.get(i).getValue().getValue());
+        }
+        verify(connector, never()).findStatements(any(Resource.class), any(IRI.class), any(), anyBoolean(),
+                anyCollection());
+    }
+
     private List<java.net.URI> initListNodes(List<?> content) {
         final List<java.net.URI> nodes = new ArrayList<>();
         for (int i = 0; i < content.size(); i++) {
@@ -191,7 +211,9 @@ public class ReferencedListHandlerTest
         final List<java.net.URI> listNodes = initListNodes(refList);
         initStatementsForList(listNodes, refList);
         final Resource node = selectRandomNode(listNodes);
-        final List<Statement> stmts = Arrays.asList(mock(Statement.class), mock(Statement.class));
+        final List<Statement> stmts = Arrays.asList(
+                vf.createStatement(node, property, vf.createIRI(Generator.generateUri().toString())),
+                vf.createStatement(node, property, vf.createIRI(Generator.generateUri().toString())));
         when(connector.findStatements(eq(node), eq(property), eq(null),
                 anyBoolean(), eq(Collections.emptySet()))).thenReturn(stmts);
         assertThrows(IntegrityConstraintViolatedException.class, () -> handler.loadList(listDescriptor));
@@ -138,6 +138,35 @@ public class ReferencedListHandlerWithStorageTest
         updateAndCheck(updated);
     }
 
+    @Test
+    public void updatesListByAppendingNewValuesWhenDescriptorSpecifiesStoredPrefix() throws Exception {
+        final ReferencedListValueDescriptor original = persistOriginalList();
+
+        final ReferencedListValueDescriptor updated = initValues(0);
+        for (NamedResource r : original.getValues()) {
+            updated.addValue(r);
+        }
+        updated.addValue(NamedResource.create("http://krizik.felk.cvut.cz/ontologies/jopa/entities#Appended"));
+        updated.setStoredPrefixSize(original.getValues().size());
+        updateAndCheck(updated);
+    }
+
+    @Test
+    public void updatesListByMergingWhenStoredPrefixDoesNotMatchStoredList() throws Exception {
+        final ReferencedListValueDescriptor original = persistOriginalList();
+
+        final ReferencedListValueDescriptor updated = initValues(0);
+        for (int i = 0; i < original.getValues().size() / 2; i++) {
+            updated.addValue(original.getValues().get(i));
+        }
+        for (int i = 0; i < 5; i++) {
+            updated.addValue(NamedResource
+                    .create("http://krizik.felk.cvut.cz/ontologies/jopa/entities#Appended_" + i));
+        }
+        updated.setStoredPrefixSize(original.getValues().size() / 2);
+        updateAndCheck(updated);
+    }
+
     @Test
     public void updatesListByRemovingSeveralValuesFromTheEnd() throws Exception {
         final ReferencedListValueDescriptor original = persistOriginalList();
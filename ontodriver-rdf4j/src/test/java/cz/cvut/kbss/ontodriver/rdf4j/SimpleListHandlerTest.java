@@ -21,6 +21,7 @@ import cz.cvut.kbss.ontodriver.exception.IntegrityConstraintViolatedException;
 import cz.cvut.kbss.ontodriver.model.Assertion;
 import cz.cvut.kbss.ontodriver.model.Axiom;
 import cz.cvut.kbss.ontodriver.model.NamedResource;
+import cz.cvut.kbss.ontodriver.rdf4j.environment.Generator;
 import cz.cvut.kbss.ontodriver.rdf4j.exception.Rdf4jDriverException;
 import cz.cvut.kbss.ontodriver.rdf4j.util.Rdf4jUtils;
 import org.eclipse.rdf4j.model.IRI;
@@ -112,11 +113,41 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
         return statements;
     }
 
+    @Test
+    public void loadListReconstructsListFromStatementsFoundBySingleLookup() throws Exception {
+        final List<NamedResource> simpleList = initList();
+        final List<Statement> statements = new ArrayList<>(initStatementsForList(simpleList));
+        Collections.shuffle(statements);
+        doReturn(statements).when(connector).findListStatements(owner, hasListProperty, nextNodeProperty, null, false,
+                Collections.emptySet());
+
+        final List<Axiom<NamedResource>> res = handler.loadList(listDescriptor);
+        assertEquals(simpleList.size(), res.size());
+        for (int i = 0; i < simpleList.size(); i++) {
+            assertEquals(simpleList.get(i), res.get(i).getValue().getValue());
+            assertEquals(i == 0 ? OWNER : simpleList.get(i - 1), res.get(i).getSubject());
+        }
+        verify(connector, never()).findStatements(any(Resource.class), any(IRI.class), any(), anyBoolean(),
+                anyCollection());
+    }
+
+    @Test
+    public void loadListThrowsICViolationExceptionWhenListContainsCycle() throws Exception {
+        final Resource first = vf.createIRI(Generator.generateUri().toString());
+        final Resource second = vf.createIRI(Generator.generateUri().toString());
+        doReturn(Arrays.asList(vf.createStatement(owner, hasListProperty, first),
+                vf.createStatement(first, nextNodeProperty, second),
+                vf.createStatement(second, nextNodeProperty, first))).when(connector)
+                .findListStatements(owner, hasListProperty, nextNodeProperty, null, false, Collections.emptySet());
+
+        assertThrows(IntegrityConstraintViolatedException.class, () -> handler.loadList(listDescriptor));
+    }
+
     @Test
     public void throwsICViolationExceptionWhenMultipleHasListValuesFound() throws Exception {
         final Collection<Statement> stmts = new HashSet<>();
-        stmts.add(mock(Statement.class));
-        stmts.add(mock(Statement.class));
+        stmts.add(vf.createStatement(owner, hasListProperty, vf.createIRI(Generator.generateUri().toString())));
+        stmts.add(vf.createStatement(owner, hasListProperty, vf.createIRI(Generator.generateUri().toString())));
         when(connector.findStatements(owner, hasListProperty, null, false, Collections.emptySet())).thenReturn(stmts);
 
         assertThrows(IntegrityConstraintViolatedException.class, () -> handler.loadList(listDescriptor));
@@ -127,10 +158,10 @@ public class SimpleListHandlerTest extends ListHandlerTestBase<SimpleListDescrip
 
     @Test
     public void throwsICViolationExceptionWhenMultipleNodeSuccessorsAreFound() throws Exception {
-        final Collection<Statement> stmts = new HashSet<>();
-        stmts.add(mock(Statement.class));
-        stmts.add(mock(Statement.class));
         final Resource firstElem = vf.createIRI("http://krizik.felk.cvut.cz/ontologies/jopa/firstElem");
+        final Collection<Statement> stmts = new HashSet<>();
+        stmts.add(vf.createStatement(firstElem, nextNodeProperty, vf.createIRI(Generator.generateUri().toString())));
+        stmts.add(vf.createStatement(firstElem, nextNodeProperty, vf.createIRI(Generator.generateUri().toString())));
         final Statement firstStmt = vf.createStatement(owner, hasListProperty, firstElem);
 
         when(connector.findStatements(owner, hasListProperty, null, false, Collections.emptySet()))
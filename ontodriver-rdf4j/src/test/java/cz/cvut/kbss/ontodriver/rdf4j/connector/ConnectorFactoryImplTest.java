@@ -16,8 +16,11 @@ import org.eclipse.rdf4j.repository.Repository;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
 import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.junit.jupiter.api.Test;
+import org.powermock.reflect.Whitebox;
 
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.mock;
 
 public class ConnectorFactoryImplTest {
@@ -34,4 +37,27 @@ public class ConnectorFactoryImplTest {
             repo.shutDown();
         }
     }
+
+    @Test
+    public void connectorsCreatedBySameFactoryShareLock() {
+        final ConnectorFactory sut = new ConnectorFactoryImpl(mock(StorageConnector.class));
+        final Connector one = sut.createStorageConnector();
+        final Connector two = sut.createStorageConnector();
+        assertSame(Whitebox.<Lock>getInternalState(one, "writeLock"), Whitebox.getInternalState(two, "writeLock"));
+    }
+
+    @Test
+    public void connectorsCreatedByDifferentFactoriesDoNotShareLock() {
+        final Connector one = new ConnectorFactoryImpl(mock(StorageConnector.class)).createStorageConnector();
+        final Connector two = new ConnectorFactoryImpl(mock(StorageConnector.class)).createStorageConnector();
+        assertNotSame(Whitebox.<Lock>getInternalState(one, "writeLock"), Whitebox.getInternalState(two, "writeLock"));
+    }
+
+    @Test
+    public void connectorsDoNotLockWhenDriverLockingIsDisabled() {
+        final Connector connector =
+                new ConnectorFactoryImpl(mock(StorageConnector.class), false).createStorageConnector();
+        assertSame(NoOpReadWriteLock.INSTANCE.writeLock(), Whitebox.getInternalState(connector, "writeLock"));
+        assertSame(NoOpReadWriteLock.INSTANCE.readLock(), Whitebox.getInternalState(connector, "readLock"));
+    }
 }
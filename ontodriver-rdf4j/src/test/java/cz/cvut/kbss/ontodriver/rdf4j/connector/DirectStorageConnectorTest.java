@@ -0,0 +1,140 @@
+/**
+ * Copyright (C) 2022 Czech Technical University in Prague
+ * <p>
+ * This program is free software: you can redistribute it and/or modify it under the terms of the GNU General Public
+ * License as published by the Free Software Foundation, either version 3 of the License, or (at your option) any later
+ * version.
+ * <p>
+ * This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY; without even the implied
+ * warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the GNU General Public License for more
+ * details. You should have received a copy of the GNU General Public License along with this program. If not, see
+ * <http://www.gnu.org/licenses/>.
+ */
+package cz.cvut.kbss.ontodriver.rdf4j.connector;
+
+import cz.cvut.kbss.ontodriver.config.DriverConfiguration;
+import cz.cvut.kbss.ontodriver.rdf4j.config.Rdf4jConfigParam;
+import cz.cvut.kbss.ontodriver.rdf4j.connector.init.RepositoryConnectorInitializer;
+import cz.cvut.kbss.ontodriver.rdf4j.environment.Generator;
+import cz.cvut.kbss.ontodriver.rdf4j.environment.TestRepositoryProvider;
+import cz.cvut.kbss.ontodriver.rdf4j.query.QuerySpecification;
+import org.eclipse.rdf4j.IsolationLevels;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DirectStorageConnectorTest {
+
+    private ConnectorFactory factory;
+
+    private ValueFactory vf;
+
+    private Connector sut;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        final DriverConfiguration configuration =
+                new DriverConfiguration(TestRepositoryProvider.storageProperties());
+        configuration.setProperty(Rdf4jConfigParam.USE_VOLATILE_STORAGE, Boolean.TRUE.toString());
+        final RepositoryConnectorInitializer connectorInitializer = new RepositoryConnectorInitializer(configuration);
+        connectorInitializer.initializeRepository();
+        this.factory = new ConnectorFactoryImpl(new StorageConnector(connectorInitializer),
+                                                IsolationLevels.SNAPSHOT_READ);
+        this.sut = factory.createStorageConnector();
+        this.vf = sut.getValueFactory();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        factory.close();
+    }
+
+    @Test
+    void factoryCreatesDirectConnectorWhenIsolationLevelIsSpecified() {
+        assertTrue(sut instanceof DirectStorageConnector);
+    }
+
+    @Test
+    void statementsAddedInTransactionAreVisibleInTransactionBeforeCommit() throws Exception {
+        final Statement statement = typeStatement();
+        sut.begin();
+        sut.addStatements(Collections.singleton(statement));
+        assertTrue(sut.containsStatement(statement.getSubject(), RDF.TYPE, statement.getObject(), false,
+                                         Collections.emptySet()));
+        assertEquals(Collections.singletonList(statement),
+                     sut.findStatements(statement.getSubject(), RDF.TYPE, null, false));
+    }
+
+    private Statement typeStatement() {
+        final IRI subject = vf.createIRI(Generator.generateUri().toString());
+        return vf.createStatement(subject, RDF.TYPE, vf.createIRI(Generator.generateUri().toString()));
+    }
+
+    @Test
+    void statementsAddedInTransactionAreVisibleToOtherConnectorsOnlyAfterCommit() throws Exception {
+        final Statement statement = typeStatement();
+        final Connector other = factory.createStorageConnector();
+        sut.begin();
+        sut.addStatements(Collections.singleton(statement));
+        other.begin();
+        assertFalse(other.containsStatement(statement.getSubject(), RDF.TYPE, statement.getObject(), false,
+                                            Collections.emptySet()));
+        other.commit();
+        sut.commit();
+
+        other.begin();
+        assertTrue(other.containsStatement(statement.getSubject(), RDF.TYPE, statement.getObject(), false,
+                                           Collections.emptySet()));
+        other.commit();
+    }
+
+    @Test
+    void rollbackDiscardsChangesMadeInTransaction() throws Exception {
+        final Statement statement = typeStatement();
+        sut.begin();
+        sut.addStatements(Collections.singleton(statement));
+        sut.rollback();
+
+        sut.begin();
+        assertFalse(sut.containsStatement(statement.getSubject(), RDF.TYPE, statement.getObject(), false,
+                                          Collections.emptySet()));
+        sut.commit();
+    }
+
+    @Test
+    void executeUpdateInTransactionIsPartOfTransaction() throws Exception {
+        final Statement statement = typeStatement();
+        sut.begin();
+        sut.executeUpdate(QuerySpecification.query(
+                "INSERT DATA { <" + statement.getSubject() + "> a <" + statement.getObject() + "> . }"));
+        assertTrue(sut.containsStatement(statement.getSubject(), RDF.TYPE, statement.getObject(), false,
+                                         Collections.emptySet()));
+        sut.rollback();
+
+        assertFalse(sut.executeBooleanQuery(QuerySpecification.query(
+                "ASK { <" + statement.getSubject() + "> a <" + statement.getObject() + "> . }")));
+    }
+
+    @Test
+    void beginStartsRepositoryTransactionWithConfiguredIsolationLevel() throws Exception {
+        final StorageConnector centralMock = mock(StorageConnector.class);
+        final RepositoryConnection connectionMock = mock(RepositoryConnection.class);
+        when(centralMock.acquireConnection()).thenReturn(connectionMock);
+        final DirectStorageConnector connector = new DirectStorageConnector(centralMock, IsolationLevels.SERIALIZABLE);
+        connector.begin();
+        verify(connectionMock).begin(IsolationLevels.SERIALIZABLE);
+        connector.commit();
+        verify(connectionMock).commit();
+        verify(centralMock).releaseConnection(connectionMock);
+    }
+}
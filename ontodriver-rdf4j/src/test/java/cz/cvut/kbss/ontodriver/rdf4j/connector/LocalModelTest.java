@@ -16,13 +16,18 @@ package cz.cvut.kbss.ontodriver.rdf4j.connector;
 
 import cz.cvut.kbss.ontodriver.rdf4j.environment.Generator;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class LocalModelTest {
 
@@ -85,4 +90,33 @@ public class LocalModelTest {
         assertEquals(LocalModel.Contains.UNKNOWN,
                 localModel.contains(subject, property, null, Collections.singleton(context)));
     }
+
+    @Test
+    public void enhanceStatementsOfSubjectsAppliesChangesOfAllSubjectsWithoutDuplicates() {
+        final IRI subjectOne = valueFactory.createIRI(Generator.generateUri().toString());
+        final IRI subjectTwo = valueFactory.createIRI(Generator.generateUri().toString());
+        final IRI property = valueFactory.createIRI(Generator.generateUri().toString());
+        final Statement existing = valueFactory.createStatement(subjectOne, property, valueFactory.createLiteral(1));
+        final Statement removed = valueFactory.createStatement(subjectTwo, property, valueFactory.createLiteral(2));
+        final Statement added = valueFactory.createStatement(subjectTwo, property, valueFactory.createLiteral(3));
+        localModel.addStatements(Arrays.asList(existing, added));
+        localModel.removeStatements(Collections.singletonList(removed));
+        final List<Statement> statements = new ArrayList<>(Arrays.asList(existing, removed));
+
+        localModel.enhanceStatements(statements, Arrays.asList(subjectOne, subjectTwo));
+        assertEquals(Arrays.asList(existing, added), statements);
+    }
+
+    @Test
+    public void enhanceStatementsOfSubjectsIgnoresChangesOfOtherSubjects() {
+        final IRI subject = valueFactory.createIRI(Generator.generateUri().toString());
+        final IRI property = valueFactory.createIRI(Generator.generateUri().toString());
+        localModel.addStatements(Collections.singletonList(valueFactory
+                .createStatement(valueFactory.createIRI(Generator.generateUri().toString()), property,
+                        valueFactory.createLiteral(1))));
+        final List<Statement> statements = new ArrayList<>();
+
+        localModel.enhanceStatements(statements, Collections.singleton(subject));
+        assertTrue(statements.isEmpty());
+    }
 }
@@ -28,6 +28,7 @@ import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.query.BooleanQuery;
 import org.eclipse.rdf4j.query.QueryLanguage;
 import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryResult;
@@ -38,12 +39,11 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.powermock.core.classloader.annotations.PrepareForTest;
-import org.powermock.reflect.Whitebox;
 
 import java.lang.reflect.Field;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -58,6 +58,8 @@ public class PoolingStorageConnectorTest {
     private Lock readLock;
     @Mock
     private Lock writeLock;
+    @Mock
+    private ReadWriteLock lock;
 
     private ValueFactory vf;
 
@@ -68,12 +70,12 @@ public class PoolingStorageConnectorTest {
     @BeforeEach
     public void setUp() throws Exception {
         this.vf = SimpleValueFactory.getInstance();
-        this.connector = new PoolingStorageConnector(centralMock);
+        when(lock.readLock()).thenReturn(readLock);
+        when(lock.writeLock()).thenReturn(writeLock);
+        this.connector = new PoolingStorageConnector(centralMock, lock);
         final Field transactionField = AbstractConnector.class.getDeclaredField("transaction");
         transactionField.setAccessible(true);
         this.transaction = (Transaction) transactionField.get(connector);
-        Whitebox.setInternalState(PoolingStorageConnector.class, "READ", readLock);
-        Whitebox.setInternalState(PoolingStorageConnector.class, "WRITE", writeLock);
     }
 
     @Test
@@ -191,33 +193,58 @@ public class PoolingStorageConnectorTest {
 
     @Test
     public void testCommit() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        when(centralMock.acquireConnection()).thenReturn(conn);
         connector.begin();
         connector.commit();
-        verify(writeLock).lock();
-        verify(centralMock).begin();
-        verify(centralMock).addStatements(anyCollection());
-        verify(centralMock).removeStatements(anyCollection());
-        verify(centralMock).commit();
-        verify(writeLock).unlock();
+        final InOrder inOrder = inOrder(writeLock, conn);
+        inOrder.verify(writeLock).lock();
+        inOrder.verify(conn).begin();
+        inOrder.verify(conn).remove(anyCollection());
+        inOrder.verify(conn).add(anyCollection());
+        inOrder.verify(conn).commit();
+        inOrder.verify(writeLock).unlock();
+        verify(centralMock, never()).begin();
         assertFalse(transaction.isActive());
     }
 
     @Test
     public void testUnlockWhenCommitThrowsException() throws Exception {
-        doThrow(new Rdf4jDriverException()).when(centralMock).commit();
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        doThrow(new RepositoryException()).when(conn).commit();
+        when(conn.isActive()).thenReturn(true);
         connector.begin();
         try {
             assertThrows(Rdf4jDriverException.class, () -> connector.commit());
         } finally {
-            verify(centralMock).begin();
-            verify(centralMock).addStatements(anyCollection());
-            verify(centralMock).removeStatements(anyCollection());
-            verify(centralMock).commit();
+            verify(conn).begin();
+            verify(conn).add(anyCollection());
+            verify(conn).remove(anyCollection());
+            verify(conn).commit();
+            verify(conn).rollback();
             verify(writeLock).unlock();
+            verify(centralMock).releaseConnection(conn);
             assertEquals(TransactionState.ABORTED, transaction.getState());
         }
     }
 
+    @Test
+    public void noOpLockDoesNotBlockReadsWhileCommitIsInProgress() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        final PoolingStorageConnector sut = new PoolingStorageConnector(centralMock, NoOpReadWriteLock.INSTANCE);
+        final PoolingStorageConnector reader = new PoolingStorageConnector(centralMock, NoOpReadWriteLock.INSTANCE);
+        doAnswer(inv -> {
+            // Reads of other connectors proceed while the repository transaction is being committed
+            reader.getContexts();
+            return null;
+        }).when(conn).commit();
+        sut.begin();
+        sut.commit();
+        verify(centralMock).getContexts();
+    }
+
     @Test
     public void testRollback() throws Exception {
         connector.begin();
@@ -296,6 +323,46 @@ public class PoolingStorageConnectorTest {
         verify(conn).getStatements(res, property, null, false);
     }
 
+    @Test
+    public void findListStatementsLoadsListUsingSingleQueryOnTransactionalConnection() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        final TupleQuery tq = mock(TupleQuery.class);
+        when(conn.getValueFactory()).thenReturn(vf);
+        when(conn.prepareTupleQuery(eq(QueryLanguage.SPARQL), anyString())).thenReturn(tq);
+        when(tq.evaluate()).thenReturn(mock(TupleQueryResult.class));
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        final IRI owner = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasList = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasNext = vf.createIRI(Generator.generateUri().toString());
+        connector.begin();
+        connector.findListStatements(owner, hasList, hasNext, null, false, Collections.emptySet());
+
+        verify(conn).prepareTupleQuery(eq(QueryLanguage.SPARQL), anyString());
+        verify(tq).setIncludeInferred(false);
+        verify(tq).evaluate();
+    }
+
+    @Test
+    public void findListStatementsTraversesListWhenListWasModifiedInTransaction() throws Exception {
+        final RepositoryConnection conn = mock(RepositoryConnection.class);
+        when(conn.getStatements(any(Resource.class), any(IRI.class), any(), anyBoolean()))
+                .thenAnswer(inv -> new RepositoryResult<Statement>(mock(CloseableIteration.class)));
+        when(centralMock.acquireConnection()).thenReturn(conn);
+        final IRI owner = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasList = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasNext = vf.createIRI(Generator.generateUri().toString());
+        final IRI node = vf.createIRI(Generator.generateUri().toString());
+        final List<Statement> added = Arrays.asList(vf.createStatement(owner, hasList, node),
+                vf.createStatement(node, hasNext, vf.createIRI(Generator.generateUri().toString())));
+        connector.begin();
+        connector.addStatements(added);
+
+        final Collection<Statement> result =
+                connector.findListStatements(owner, hasList, hasNext, null, false, Collections.emptySet());
+        assertEquals(new HashSet<>(added), new HashSet<>(result));
+        verify(conn, never()).prepareTupleQuery(any(QueryLanguage.class), anyString());
+    }
+
     @Test
     public void exceptionInFindStatementsCausesTransactionRollback() throws Exception {
         final RepositoryConnection conn = mock(RepositoryConnection.class);
@@ -22,6 +22,7 @@ import cz.cvut.kbss.ontodriver.rdf4j.environment.TestUtils;
 import cz.cvut.kbss.ontodriver.rdf4j.exception.Rdf4jDriverException;
 import cz.cvut.kbss.ontodriver.rdf4j.exception.RepositoryCreationException;
 import org.eclipse.rdf4j.common.iteration.Iterations;
+import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -52,8 +53,7 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Collection;
-import java.util.Collections;
+import java.util.*;
 import java.util.stream.Collectors;
 
 import static org.hamcrest.CoreMatchers.containsString;
@@ -181,6 +181,45 @@ class StorageConnectorTest {
         }
     }
 
+    @Test
+    void findStatementsForMultipleSubjectsReturnsStatementsOfAllSubjectsWithTheirContexts() throws Exception {
+        createInMemoryConnector();
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        final IRI subjectOne = vf.createIRI(Generator.generateUri().toString());
+        final IRI subjectTwo = vf.createIRI(Generator.generateUri().toString());
+        final IRI context = vf.createIRI(Generator.generateUri().toString());
+        final Statement inDefault = vf.createStatement(subjectOne, RDFS.LABEL, vf.createLiteral("One"));
+        final Statement inContext = vf.createStatement(subjectTwo, RDFS.LABEL, vf.createLiteral("Two"), context);
+        final Statement other = vf.createStatement(vf.createIRI(Generator.generateUri().toString()), RDFS.LABEL,
+                vf.createLiteral("Other"));
+        try (RepositoryConnection conn = connector.unwrap(Repository.class).getConnection()) {
+            conn.add(Arrays.asList(inDefault, inContext, other));
+        }
+
+        final Collection<Statement> result = connector.findStatements(Arrays.asList(subjectOne, subjectTwo), false);
+        assertEquals(2, result.size());
+        assertTrue(result.contains(inDefault));
+        assertTrue(result.stream().anyMatch(s -> s.equals(inContext) && context.equals(s.getContext())));
+    }
+
+    @Test
+    void findStatementsForMultipleSubjectsReturnsBothDefaultAndNamedGraphCopiesOfStatement() throws Exception {
+        createInMemoryConnector();
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        final IRI subject = vf.createIRI(Generator.generateUri().toString());
+        final IRI context = vf.createIRI(Generator.generateUri().toString());
+        final Statement inDefault = vf.createStatement(subject, RDFS.LABEL, vf.createLiteral("One"));
+        final Statement inContext = vf.createStatement(subject, RDFS.LABEL, vf.createLiteral("One"), context);
+        try (RepositoryConnection conn = connector.unwrap(Repository.class).getConnection()) {
+            conn.add(Arrays.asList(inDefault, inContext));
+        }
+
+        final Collection<Statement> result = connector.findStatements(Collections.singletonList(subject), false);
+        assertEquals(2, result.size());
+        assertTrue(result.stream().anyMatch(s -> s.equals(inDefault) && s.getContext() == null));
+        assertTrue(result.stream().anyMatch(s -> s.equals(inContext) && context.equals(s.getContext())));
+    }
+
     @Test
     void setRepositoryThrowsUnsupportedOperationWhenOriginalRepositoryIsNotInMemory() throws Exception {
         this.repositoryFolder = Files.createTempDirectory("rdf4j-storage-connector-test").toFile();
@@ -337,4 +376,80 @@ class StorageConnectorTest {
             connector.rollback();
         }
     }
+
+    @Test
+    void findListStatementsLoadsWholeReferencedListUsingSingleQuery() throws Exception {
+        final DriverConfiguration conf = TestUtils.createDriverConfig("test");
+        conf.setProperty(Rdf4jConfigParam.USE_VOLATILE_STORAGE, Boolean.TRUE.toString());
+        this.connector = createConnector(conf);
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        final IRI owner = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasList = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasNext = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasContent = vf.createIRI(Generator.generateUri().toString());
+        final IRI context = vf.createIRI(Generator.generateUri().toString());
+        final List<Statement> expected = new ArrayList<>();
+        IRI previous = owner;
+        for (int i = 0; i < 5; i++) {
+            final IRI node = vf.createIRI(Generator.generateUri().toString());
+            expected.add(vf.createStatement(previous, i == 0 ? hasList : hasNext, node, context));
+            expected.add(vf.createStatement(node, hasContent, vf.createIRI(Generator.generateUri().toString()),
+                    context));
+            previous = node;
+        }
+        try (final RepositoryConnection conn = connector.unwrap(Repository.class).getConnection()) {
+            conn.add(expected);
+            // Unrelated statements
+            conn.add(previous, RDFS.LABEL, vf.createLiteral("test"), context);
+            conn.add(owner, hasList, vf.createIRI(Generator.generateUri().toString()));
+        }
+
+        final Collection<Statement> result = connector.findListStatements(owner, hasList, hasNext, hasContent, false,
+                Collections.singleton(context));
+        assertEquals(new HashSet<>(expected), new HashSet<>(result));
+    }
+
+    @Test
+    void findListStatementsTerminatesWhenListContainsCycle() throws Exception {
+        final DriverConfiguration conf = TestUtils.createDriverConfig("test");
+        conf.setProperty(Rdf4jConfigParam.USE_VOLATILE_STORAGE, Boolean.TRUE.toString());
+        this.connector = createConnector(conf);
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        final IRI owner = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasList = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasNext = vf.createIRI(Generator.generateUri().toString());
+        final IRI first = vf.createIRI(Generator.generateUri().toString());
+        final IRI second = vf.createIRI(Generator.generateUri().toString());
+        final List<Statement> expected = Arrays.asList(vf.createStatement(owner, hasList, first),
+                vf.createStatement(first, hasNext, second), vf.createStatement(second, hasNext, first));
+        try (final RepositoryConnection conn = connector.unwrap(Repository.class).getConnection()) {
+            conn.add(expected);
+        }
+
+        final Collection<Statement> result = connector.findListStatements(owner, hasList, hasNext, null, false,
+                Collections.emptySet());
+        assertEquals(new HashSet<>(expected), new HashSet<>(result));
+    }
+
+    @Test
+    void findListStatementsSupportsBlankNodeOwner() throws Exception {
+        final DriverConfiguration conf = TestUtils.createDriverConfig("test");
+        conf.setProperty(Rdf4jConfigParam.USE_VOLATILE_STORAGE, Boolean.TRUE.toString());
+        this.connector = createConnector(conf);
+        final ValueFactory vf = SimpleValueFactory.getInstance();
+        final BNode owner = vf.createBNode();
+        final IRI hasList = vf.createIRI(Generator.generateUri().toString());
+        final IRI hasNext = vf.createIRI(Generator.generateUri().toString());
+        final IRI first = vf.createIRI(Generator.generateUri().toString());
+        final IRI second = vf.createIRI(Generator.generateUri().toString());
+        final List<Statement> expected = Arrays.asList(vf.createStatement(owner, hasList, first),
+                vf.createStatement(first, hasNext, second));
+        try (final RepositoryConnection conn = connector.unwrap(Repository.class).getConnection()) {
+            conn.add(expected);
+        }
+
+        final Collection<Statement> result = connector.findListStatements(owner, hasList, hasNext, null, false,
+                Collections.emptySet());
+        assertEquals(new HashSet<>(expected), new HashSet<>(result));
+    }
 }